@@ -26,8 +26,13 @@ TRUNCATE TABLE discharges;
 TRUNCATE TABLE prescriptions;
 TRUNCATE TABLE appointments;
 TRUNCATE TABLE tickets;
+TRUNCATE TABLE tickets_history;
 TRUNCATE TABLE reports;
 TRUNCATE TABLE activity_logs;
+TRUNCATE TABLE ticket_daily_rollups;
+TRUNCATE TABLE housekeeping_runs;
+TRUNCATE TABLE registration_requests;
+TRUNCATE TABLE ticket_number_counters;
 
 -- 2. Parent tables (tables referenced by foreign keys)
 TRUNCATE TABLE doctors;
@@ -51,10 +56,20 @@ SET FOREIGN_KEY_CHECKS = 1;
 -- UNION ALL
 -- SELECT 'tickets', COUNT(*) FROM tickets
 -- UNION ALL
+-- SELECT 'tickets_history', COUNT(*) FROM tickets_history
+-- UNION ALL
 -- SELECT 'reports', COUNT(*) FROM reports
 -- UNION ALL
 -- SELECT 'activity_logs', COUNT(*) FROM activity_logs
 -- UNION ALL
+-- SELECT 'ticket_daily_rollups', COUNT(*) FROM ticket_daily_rollups
+-- UNION ALL
+-- SELECT 'housekeeping_runs', COUNT(*) FROM housekeeping_runs
+-- UNION ALL
+-- SELECT 'registration_requests', COUNT(*) FROM registration_requests
+-- UNION ALL
+-- SELECT 'ticket_number_counters', COUNT(*) FROM ticket_number_counters
+-- UNION ALL
 -- SELECT 'doctors', COUNT(*) FROM doctors
 -- UNION ALL
 -- SELECT 'patients', COUNT(*) FROM patients
@@ -72,8 +87,13 @@ DELETE FROM discharges;
 DELETE FROM prescriptions;
 DELETE FROM appointments;
 DELETE FROM tickets;
+DELETE FROM tickets_history;
 DELETE FROM reports;
 DELETE FROM activity_logs;
+DELETE FROM ticket_daily_rollups;
+DELETE FROM housekeeping_runs;
+DELETE FROM registration_requests;
+DELETE FROM ticket_number_counters;
 DELETE FROM doctors;
 DELETE FROM patients;
 DELETE FROM users;
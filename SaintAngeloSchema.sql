@@ -90,18 +90,22 @@ CREATE TABLE IF NOT EXISTS patients (
     INDEX idx_phone (phone_number),
     INDEX idx_priority (priority),
     INDEX idx_registration_date (registration_date),
-    INDEX idx_last_visit_date (last_visit_date)
+    INDEX idx_last_visit_date (last_visit_date),
+    INDEX idx_patients_updated_at (updated_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- =====================================================
 -- 4. TICKETS TABLE
 -- Stores queue tickets for patient visits
+-- Holds today's tickets plus any still open from earlier days;
+-- closed tickets from earlier days are moved to tickets_history
+-- by the day rollover (TicketRolloverService)
 -- =====================================================
 CREATE TABLE IF NOT EXISTS tickets (
     visit_id VARCHAR(20) PRIMARY KEY,
     ticket_number VARCHAR(10) NOT NULL COMMENT 'Formatted like A1, B5, etc.',
     patient_id VARCHAR(20) NOT NULL,
-    status ENUM('WAITING', 'CALLED', 'IN_SERVICE', 'COMPLETED', 'SKIPPED') NOT NULL DEFAULT 'WAITING',
+    status ENUM('WAITING', 'CALLED', 'IN_SERVICE', 'COMPLETED', 'SKIPPED', 'EXPIRED') NOT NULL DEFAULT 'WAITING',
     priority ENUM('REGULAR', 'SENIOR_CITIZEN', 'EMERGENCY') NOT NULL DEFAULT 'REGULAR',
     service_type VARCHAR(100) DEFAULT NULL,
     assigned_doctor_id VARCHAR(20) DEFAULT NULL,
@@ -118,7 +122,35 @@ CREATE TABLE IF NOT EXISTS tickets (
     INDEX idx_status (status),
     INDEX idx_priority (priority),
     INDEX idx_assigned_doctor (assigned_doctor_id),
-    INDEX idx_created_time (created_time)
+    INDEX idx_created_time (created_time),
+    INDEX idx_status_created (status, created_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- =====================================================
+-- 4b. TICKETS HISTORY TABLE
+-- Closed tickets (COMPLETED, SKIPPED, EXPIRED) from earlier days
+-- Same columns, in the same order, as tickets
+-- =====================================================
+CREATE TABLE IF NOT EXISTS tickets_history (
+    visit_id VARCHAR(20) PRIMARY KEY,
+    ticket_number VARCHAR(10) NOT NULL,
+    patient_id VARCHAR(20) NOT NULL,
+    status ENUM('WAITING', 'CALLED', 'IN_SERVICE', 'COMPLETED', 'SKIPPED', 'EXPIRED') NOT NULL,
+    priority ENUM('REGULAR', 'SENIOR_CITIZEN', 'EMERGENCY') NOT NULL DEFAULT 'REGULAR',
+    service_type VARCHAR(100) DEFAULT NULL,
+    assigned_doctor_id VARCHAR(20) DEFAULT NULL,
+    created_time DATETIME NOT NULL,
+    called_time DATETIME DEFAULT NULL,
+    completed_time DATETIME DEFAULT NULL,
+    wait_time_minutes INT DEFAULT 0,
+    created_at TIMESTAMP NULL DEFAULT NULL,
+    updated_at TIMESTAMP NULL DEFAULT NULL,
+    FOREIGN KEY (patient_id) REFERENCES patients(patient_id) ON DELETE RESTRICT ON UPDATE CASCADE,
+    FOREIGN KEY (assigned_doctor_id) REFERENCES doctors(doctor_id) ON DELETE SET NULL ON UPDATE CASCADE,
+    INDEX idx_history_patient (patient_id),
+    INDEX idx_history_doctor (assigned_doctor_id),
+    INDEX idx_history_created (created_time),
+    INDEX idx_history_status_created (status, created_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- =====================================================
@@ -186,7 +218,7 @@ CREATE TABLE IF NOT EXISTS discharges (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (patient_id) REFERENCES patients(patient_id) ON DELETE RESTRICT ON UPDATE CASCADE,
     FOREIGN KEY (prescription_id) REFERENCES prescriptions(prescription_id) ON DELETE SET NULL ON UPDATE CASCADE,
-    INDEX idx_patient_id (patient_id),
+    INDEX idx_patient_created (patient_id, created_at),
     INDEX idx_status (status),
     INDEX idx_department (department),
     INDEX idx_discharge_date (discharge_date)
@@ -223,12 +255,68 @@ CREATE TABLE IF NOT EXISTS reports (
     report_format ENUM('PDF', 'EXCEL', 'CSV') NOT NULL DEFAULT 'PDF',
     generated_by VARCHAR(20) NOT NULL,
     file_path VARCHAR(500) DEFAULT NULL,
+    status ENUM('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED') NOT NULL DEFAULT 'QUEUED' COMMENT 'Report job status',
+    error_message VARCHAR(500) DEFAULT NULL,
     generated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (generated_by) REFERENCES users(user_id) ON DELETE RESTRICT ON UPDATE CASCADE,
     INDEX idx_report_type (report_type),
     INDEX idx_generated_by (generated_by),
     INDEX idx_generated_at (generated_at),
-    INDEX idx_date_range (start_date, end_date)
+    INDEX idx_date_range (start_date, end_date),
+    INDEX idx_report_status (status),
+    INDEX idx_report_lookup (report_type, report_format, start_date, end_date, status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- =====================================================
+-- 10. TICKET DAILY ROLLUPS TABLE
+-- Per-day ticket counts kept after old tickets_history rows are purged
+-- =====================================================
+CREATE TABLE IF NOT EXISTS ticket_daily_rollups (
+    stat_date DATE NOT NULL,
+    department VARCHAR(100) NOT NULL DEFAULT '' COMMENT 'Empty when no doctor was assigned',
+    doctor_id VARCHAR(20) NOT NULL DEFAULT '' COMMENT 'Empty when no doctor was assigned',
+    priority ENUM('REGULAR', 'SENIOR_CITIZEN', 'EMERGENCY') NOT NULL,
+    status ENUM('WAITING', 'CALLED', 'IN_SERVICE', 'COMPLETED', 'SKIPPED', 'EXPIRED') NOT NULL,
+    ticket_count INT NOT NULL DEFAULT 0,
+    wait_count INT NOT NULL DEFAULT 0 COMMENT 'Tickets with a recorded wait time',
+    wait_minutes_sum BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (stat_date, department, doctor_id, priority, status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- =====================================================
+-- 11. HOUSEKEEPING RUNS TABLE
+-- Last run of each background maintenance job (shared by all workstations)
+-- =====================================================
+CREATE TABLE IF NOT EXISTS housekeeping_runs (
+    job_name VARCHAR(50) PRIMARY KEY,
+    status ENUM('RUNNING', 'SUCCEEDED', 'PARTIAL', 'FAILED') NOT NULL,
+    last_started DATETIME DEFAULT NULL,
+    last_finished DATETIME DEFAULT NULL,
+    rows_affected INT NOT NULL DEFAULT 0,
+    message VARCHAR(500) DEFAULT NULL,
+    run_by VARCHAR(100) DEFAULT NULL COMMENT 'Workstation host name'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- =====================================================
+-- 12. REGISTRATION REQUESTS TABLE
+-- Request key of each front-desk registration and the visit it created,
+-- so a form submitted twice issues one ticket (kept for a day)
+-- =====================================================
+CREATE TABLE IF NOT EXISTS registration_requests (
+    request_key VARCHAR(64) PRIMARY KEY,
+    visit_id VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- =====================================================
+-- 13. TICKET NUMBER COUNTERS TABLE
+-- Last ticket number value issued each day (A1 = 1 ... Z10 = 260, then
+-- counting on); registrations lock only today's row to number a ticket
+-- =====================================================
+CREATE TABLE IF NOT EXISTS ticket_number_counters (
+    counter_date DATE PRIMARY KEY,
+    last_value INT NOT NULL
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- =====================================================
@@ -372,7 +460,7 @@ BEGIN
     INTO next_num
     FROM tickets
     WHERE ticket_number LIKE CONCAT(SUBSTRING(CAST(DATE_FORMAT(NOW(), '%m') AS CHAR), -1), '%')
-    AND DATE(created_time) = CURDATE();
+    AND created_time >= CURDATE() AND created_time < CURDATE() + INTERVAL 1 DAY;
 
     SELECT CONCAT(CHAR(64 + FLOOR((next_num - 1) / 10) + 1), ((next_num - 1) % 10) + 1) AS next_ticket_number;
 END //
@@ -472,6 +560,81 @@ ALTER TABLE users ADD COLUMN archived_at DATETIME DEFAULT NULL COMMENT 'Timestam
 -- Add index on archived_at for performance
 ALTER TABLE users ADD INDEX idx_archived_at (archived_at);
 
+-- =====================================================
+-- MIGRATION: Add report job support to reports table
+-- Run these ALTER statements if the table already exists
+-- =====================================================
+
+-- Add job status and failure reason
+ALTER TABLE reports ADD COLUMN status ENUM('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED') NOT NULL DEFAULT 'QUEUED' COMMENT 'Report job status' AFTER file_path;
+ALTER TABLE reports ADD COLUMN error_message VARCHAR(500) DEFAULT NULL AFTER status;
+
+-- Existing rows were generated synchronously
+UPDATE reports SET status = 'COMPLETED' WHERE file_path IS NOT NULL;
+
+-- Add indexes for pending job recovery and cached report lookup
+ALTER TABLE reports ADD INDEX idx_report_status (status);
+ALTER TABLE reports ADD INDEX idx_report_lookup (report_type, report_format, start_date, end_date, status);
+
+-- =====================================================
+-- MIGRATION: Split tickets into live and history tables
+-- Run these statements if the tickets table already exists
+-- =====================================================
+
+-- Add EXPIRED status for tickets still waiting when their day ended
+ALTER TABLE tickets MODIFY COLUMN status ENUM('WAITING', 'CALLED', 'IN_SERVICE', 'COMPLETED', 'SKIPPED', 'EXPIRED') NOT NULL DEFAULT 'WAITING';
+
+-- Index for the status + today queue queries
+ALTER TABLE tickets ADD INDEX idx_status_created (status, created_time);
+
+-- Create tickets_history using the CREATE TABLE statement in section 4b, then
+-- let the application move existing closed tickets in batches on its next start
+-- (the ticket-rollover housekeeping job), or move them by hand in one go during downtime:
+-- UPDATE tickets SET status = 'EXPIRED', completed_time = NOW() WHERE status = 'WAITING' AND created_time < CURDATE();
+-- INSERT INTO tickets_history SELECT * FROM tickets WHERE status IN ('COMPLETED', 'SKIPPED', 'EXPIRED') AND created_time < CURDATE();
+-- DELETE FROM tickets WHERE status IN ('COMPLETED', 'SKIPPED', 'EXPIRED') AND created_time < CURDATE();
+
+-- =====================================================
+-- MIGRATION: Add housekeeping jobs
+-- Run these statements if the database already exists
+-- =====================================================
+
+-- Create ticket_daily_rollups and housekeeping_runs using the CREATE TABLE
+-- statements in sections 10 and 11. The jobs start on the next application
+-- start; any missed purges then run in small batches.
+
+-- =====================================================
+-- MIGRATION: Add registration request keys
+-- Run these statements if the database already exists
+-- =====================================================
+
+-- Create registration_requests using the CREATE TABLE statement in section 12.
+
+-- =====================================================
+-- MIGRATION: Add discharge worklist index
+-- Run these statements if the database already exists
+-- =====================================================
+
+-- Latest discharge per patient for the discharge worklist
+ALTER TABLE discharges ADD INDEX idx_patient_created (patient_id, created_at);
+ALTER TABLE discharges DROP INDEX idx_patient_id;
+
+-- =====================================================
+-- MIGRATION: Add ticket number counters
+-- Run these statements if the database already exists
+-- =====================================================
+
+-- Create ticket_number_counters using the CREATE TABLE statement in section 13.
+-- The first registration of the day starts the counter after today's highest ticket.
+
+-- =====================================================
+-- MIGRATION: Add patient updated_at index
+-- Run these statements if the database already exists
+-- =====================================================
+
+-- Patients changed since the last refresh of the patient match index
+ALTER TABLE patients ADD INDEX idx_patients_updated_at (updated_at);
+
 -- =====================================================
 -- END OF SCHEMA
 -- =====================================================
@@ -2,6 +2,7 @@ package com.stangelo.saintangelo.app;
 
 import javafx.animation.*;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -18,6 +19,13 @@ import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import javafx.util.Duration;
 
+import com.stangelo.saintangelo.services.FxStallMonitor;
+import com.stangelo.saintangelo.services.HousekeepingService;
+import com.stangelo.saintangelo.services.OfflineJournalService;
+import com.stangelo.saintangelo.services.PatientMatchIndex;
+import com.stangelo.saintangelo.services.StartupService;
+import com.stangelo.saintangelo.utils.MetricsRegistry;
+
 import java.io.IOException;
 
 public class MainApp extends Application {
@@ -28,6 +36,15 @@ public class MainApp extends Application {
     public void start(Stage primaryStage) throws IOException {
         primaryStage.initStyle(StageStyle.TRANSPARENT);
 
+        // Logs and counts UI freezes with the method the FX thread was stuck in
+        FxStallMonitor.getInstance().start();
+        // Publishes query, view and queue metrics over JMX and as a periodic log line
+        MetricsRegistry.start();
+
+        // Database, background services and the queue are warmed up by StartupService
+        // once the login window is on screen, so nothing here waits on the network
+        StartupService.getInstance();
+
         Parent fxmlRoot = FXMLLoader.load(getClass().getResource("/fxml/login-view.fxml"));
 
         // --- TITLE BAR SETUP ---
@@ -138,10 +155,25 @@ public class MainApp extends Application {
 
         primaryStage.setScene(scene);
         primaryStage.show();
+        startWarmUpAfterFirstFrame(scene);
 
         playStartupSequence(splashScreen, loginRoot, mainContainer);
     }
 
+    /**
+     * Starts the background warm-up once the first frame has been rendered
+     */
+    private void startWarmUpAfterFirstFrame(Scene scene) {
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                // Runs after this pulse has been rendered
+                Platform.runLater(() -> StartupService.getInstance().firstFrameShown());
+            }
+        });
+    }
+
     // ... (Keep your animation methods playStartupSequence and playEntranceAnimation exactly as they were) ...
 
     private void playStartupSequence(StackPane splashScreen, BorderPane loginRoot, StackPane mainContainer) {
@@ -151,6 +183,7 @@ public class MainApp extends Application {
         fadeSplash.setToValue(0.0);
         fadeSplash.setOnFinished(e -> {
             mainContainer.getChildren().remove(splashScreen);
+            StartupService.getInstance().loginShown();
             playEntranceAnimation(loginRoot);
         });
         SequentialTransition sequence = new SequentialTransition(pause, fadeSplash);
@@ -171,6 +204,15 @@ public class MainApp extends Application {
         parallelTransition.play();
     }
 
+    @Override
+    public void stop() {
+        FxStallMonitor.getInstance().shutdown();
+        MetricsRegistry.shutdown();
+        HousekeepingService.getInstance().shutdown();
+        OfflineJournalService.getInstance().shutdown();
+        PatientMatchIndex.getInstance().shutdown();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,31 @@
+package com.stangelo.saintangelo.app;
+
+import java.io.IOException;
+
+import com.stangelo.saintangelo.services.PublicDisplayService;
+import com.stangelo.saintangelo.utils.MetricsRegistry;
+
+/**
+ * Headless entry point for the waiting-room display
+ * Runs PublicDisplayService without JavaFX: one process syncs the queue and
+ * serves the "Now Serving" board to every signage screen's browser.
+ *
+ * Usage: PublicDisplayServer [port]   (default 8085)
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class PublicDisplayServer {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : PublicDisplayService.DEFAULT_PORT;
+
+        PublicDisplayService service = PublicDisplayService.getInstance();
+        MetricsRegistry.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(service::stop, "public-display-shutdown"));
+        service.start(port);
+
+        // The server and sync threads do the work; keep the process alive
+        Thread.currentThread().join();
+    }
+}
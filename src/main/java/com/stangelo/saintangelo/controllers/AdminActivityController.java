@@ -33,7 +33,7 @@ import java.util.List;
 import java.util.ResourceBundle;
 import java.util.stream.Collectors;
 
-public class AdminActivityController implements Initializable {
+public class AdminActivityController implements Initializable, ViewLifecycle {
 
     @FXML
     private Label userNameLabel;
@@ -59,7 +59,19 @@ public class AdminActivityController implements Initializable {
         updateUserInfo();
         initializeFilters();
         initializeRefreshButton();
-        loadActivityLogs();
+        // A preloaded view loads its logs when it is first shown (onShow)
+        if (!ViewRegistry.getInstance().isPreloading()) {
+            loadActivityLogs();
+        }
+    }
+
+    /**
+     * Reloads the activity logs when this view is shown again from the view cache
+     */
+    @Override
+    public void onShow() {
+        updateUserInfo();
+        refreshActivityLogs();
     }
 
     private void initializeRefreshButton() {
@@ -426,6 +438,9 @@ public class AdminActivityController implements Initializable {
             Stage currentStage = (Stage) ((Node) event.getSource()).getScene().getWindow();
             currentStage.close();
 
+            // Cached views belong to this session
+            ViewRegistry.getInstance().clear();
+
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login-view.fxml"));
             Parent loginView = loader.load();
 
@@ -443,32 +458,19 @@ public class AdminActivityController implements Initializable {
 
     private void loadView(ActionEvent event, String fxmlPath) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Parent root = loader.load();
-
-            // Try to update user info if the controller supports it
-            Object controller = loader.getController();
-            if (controller instanceof AdminDashboardController) {
-                ((AdminDashboardController) controller).updateUserInfo();
-            } else if (controller instanceof AdminActivityController) {
-                AdminActivityController activityController = (AdminActivityController) controller;
-                activityController.updateUserInfo();
-                // Refresh logs when navigating to activity view
-                activityController.refreshActivityLogs();
-            }
-
-            // Set initial opacity to 0 (Invisible)
-            root.setOpacity(0);
-
             Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
             if (stage == null || stage.getScene() == null) {
                 showAlert(Alert.AlertType.ERROR, "Navigation Error", "Could not access window.");
                 return;
             }
             
-            stage.getScene().setRoot(root);
+            // Cached views are reused; their controllers refresh in onShow()
+            Parent root = ViewRegistry.getInstance().show(stage.getScene(), fxmlPath);
+
+            // 1. Set initial opacity to 0 (Invisible)
+            root.setOpacity(0);
 
-            // Play Fade Transition (0.0 -> 1.0)
+            // 2. Play Fade Transition (0.0 -> 1.0)
             FadeTransition fadeTransition = new FadeTransition(Duration.millis(300), root);
             fadeTransition.setFromValue(0.0);
             fadeTransition.setToValue(1.0);
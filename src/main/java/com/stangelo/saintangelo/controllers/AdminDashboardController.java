@@ -4,20 +4,21 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.TextStyle;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.stream.Collectors;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 import com.stangelo.saintangelo.dao.ActivityLogDAO;
 import com.stangelo.saintangelo.dao.PatientDAO;
@@ -25,11 +26,18 @@ import com.stangelo.saintangelo.dao.TicketDAO;
 import com.stangelo.saintangelo.dao.UserDAO;
 import com.stangelo.saintangelo.models.ActivityLog;
 import com.stangelo.saintangelo.models.ActivityType;
+import com.stangelo.saintangelo.models.Report;
+import com.stangelo.saintangelo.models.ReportFormat;
+import com.stangelo.saintangelo.models.ReportTyoe;
 import com.stangelo.saintangelo.models.User;
 import com.stangelo.saintangelo.models.UserRole;
 import com.stangelo.saintangelo.services.AuthService;
+import com.stangelo.saintangelo.services.ReportJobService;
+import com.stangelo.saintangelo.services.TicketAnalyticsService;
+import com.stangelo.saintangelo.services.TicketCube;
 
 import javafx.animation.FadeTransition;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -40,7 +48,6 @@ import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.chart.LineChart;
-import javafx.scene.chart.XYChart;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonBar;
@@ -64,9 +71,10 @@ import javafx.scene.shape.SVGPath;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import javafx.stage.Window;
 import javafx.util.Duration;
 
-public class AdminDashboardController implements Initializable {
+public class AdminDashboardController implements Initializable, ViewLifecycle {
 
     // --- DASHBOARD STAT TILES ---
     @FXML
@@ -146,14 +154,14 @@ public class AdminDashboardController implements Initializable {
     @FXML
     private Button generateReportButton;
 
+    // Feeds of the stat charts, created on their first update
+    private final Map<LineChart<Number, Number>, ChartFeed<Number>> chartFeeds = new HashMap<>();
+
     // DAOs
     private UserDAO userDAO;
     private PatientDAO patientDAO;
     private TicketDAO ticketDAO;
     private ActivityLogDAO activityLogDAO;
-    
-    // Scheduled task for auto-deleting old archived users
-    private ScheduledExecutorService archiveCleanupScheduler;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -164,18 +172,26 @@ public class AdminDashboardController implements Initializable {
 
         updateUserInfo();
 
+        // A preloaded view only builds its controls here; onShow() loads its data when it is first shown
+        boolean preloading = ViewRegistry.getInstance().isPreloading();
+
         // Determine which admin view we are on by checking which FXML fields are present
-        if (totalUsersLabel != null && patientFlowChart != null) {
-            // Dashboard view
-            initializeDashboard();
-        } else if (totalUsersChart != null) {
-            // Charts-only view (if separate from main dashboard)
-            initializeDashboardCharts();
+        if (!preloading) {
+            if (totalUsersLabel != null && patientFlowChart != null) {
+                // Dashboard view
+                initializeDashboard();
+            } else if (totalUsersChart != null) {
+                // Charts-only view (if separate from main dashboard)
+                initializeDashboardCharts();
+            }
         }
 
         if (userTableContainer != null) {
             // User management view
             initializeUserManagement();
+            if (!preloading) {
+                loadUsers();
+            }
         }
         
         if (archiveTableContainer != null) {
@@ -183,25 +199,6 @@ public class AdminDashboardController implements Initializable {
             initializeArchiveView();
         }
         
-        // Auto-delete old archived users on initialization
-        if (userDAO != null) {
-            userDAO.autoDeleteOldArchivedUsers();
-            
-            // Schedule automatic cleanup every 24 hours
-            archiveCleanupScheduler = Executors.newSingleThreadScheduledExecutor();
-            archiveCleanupScheduler.scheduleAtFixedRate(() -> {
-                try {
-                    int deletedCount = userDAO.autoDeleteOldArchivedUsers();
-                    if (deletedCount > 0) {
-                        System.out.println("Auto-deleted " + deletedCount + " users from archive (30+ days old)");
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error in scheduled archive cleanup: " + e.getMessage());
-                    e.printStackTrace();
-                }
-            }, 24, 24, TimeUnit.HOURS); // Run every 24 hours
-        }
-        
         // Initialize button navigation - show active users by default
         if (activeUsersView != null && archivedUsersView != null) {
             showActiveUsersView();
@@ -212,6 +209,25 @@ public class AdminDashboardController implements Initializable {
         }
     }
 
+    /**
+     * Reloads this view's data when it is shown again from the view cache
+     */
+    @Override
+    public void onShow() {
+        updateUserInfo();
+        if (totalUsersLabel != null && patientFlowChart != null) {
+            initializeDashboard();
+        } else if (totalUsersChart != null) {
+            initializeDashboardCharts();
+        }
+        if (userTableContainer != null) {
+            loadUsers();
+        }
+        if (archiveTableContainer != null) {
+            loadArchivedUsers();
+        }
+    }
+
     // --- DASHBOARD INITIALIZATION ---
     private void initializeDashboard() {
         loadTopTiles();
@@ -242,7 +258,7 @@ public class AdminDashboardController implements Initializable {
         if (patientFlowChart == null || ticketDAO == null) return;
 
         patientFlowChart.getChildren().clear();
-        Map<LocalDate, Integer> counts = ticketDAO.getDailyTicketCountsLast7Days();
+        Map<LocalDate, Integer> counts = getDailyTicketCountsLast7Days();
 
         int max = counts.values().stream().max(Integer::compareTo).orElse(0);
         int safeMax = Math.max(max, 1);
@@ -506,8 +522,6 @@ public class AdminDashboardController implements Initializable {
         if (searchField != null) {
             searchField.textProperty().addListener((obs, oldVal, newVal) -> loadUsers());
         }
-
-        loadUsers();
     }
     
     // --- ARCHIVE VIEW ---
@@ -785,9 +799,9 @@ public class AdminDashboardController implements Initializable {
         populateChart(totalPatientsChart, patientCounts, "#76ff03");
 
         // Avg. Wait Time
-        Map<LocalDate, Integer> avgWaitTimes = ticketDAO.getDailyAverageWaitTimesLast7Days();
+        Map<LocalDate, Integer> avgWaitTimes = getDailyAverageWaitTimesLast7Days();
         int currentAvgWaitTime = ticketDAO.getAverageWaitTimeToday();
-        double previousAvgWaitTime = ticketDAO.getAverageWaitTimePrevious7Days();
+        double previousAvgWaitTime = getAverageWaitTimePrevious7Days();
         // Update the label with "min" suffix for wait time
         if (avgWaitTimeLabel != null) {
             avgWaitTimeLabel.setText(currentAvgWaitTime + " min");
@@ -823,10 +837,38 @@ public class AdminDashboardController implements Initializable {
     }
 
     private void initializeReportGenerator() {
-        reportTypeComboBox.getItems().addAll("Patient Report");
+        reportTypeComboBox.getItems().addAll("Patient Report", "Daily Statistics", "Weekly Statistics",
+                "Monthly Statistics", "Custom Statistics");
+        reportTypeComboBox.valueProperty().addListener((obs, oldVal, newVal) -> updateExportFormats(newVal));
         reportTypeComboBox.setValue("Patient Report");
-        exportFormatComboBox.getItems().addAll("CSV");
-        exportFormatComboBox.setValue("CSV");
+    }
+
+    /**
+     * Limits the export formats to the ones supported by the selected report type
+     */
+    private void updateExportFormats(String reportType) {
+        exportFormatComboBox.getItems().clear();
+        if (mapReportType(reportType) != null) {
+            exportFormatComboBox.getItems().addAll("PDF", "Excel", "CSV");
+            exportFormatComboBox.setValue("PDF");
+        } else {
+            exportFormatComboBox.getItems().addAll("CSV");
+            exportFormatComboBox.setValue("CSV");
+        }
+    }
+
+    /**
+     * Maps a statistics report option to its ReportTyoe, or null for non-statistics reports
+     */
+    private ReportTyoe mapReportType(String reportType) {
+        if (reportType == null) return null;
+        switch (reportType) {
+            case "Daily Statistics": return ReportTyoe.DAILY_STATISTICS;
+            case "Weekly Statistics": return ReportTyoe.WEEKLY_STATISTICS;
+            case "Monthly Statistics": return ReportTyoe.MONTHLY_STATISTICS;
+            case "Custom Statistics": return ReportTyoe.CUSTOM;
+            default: return null;
+        }
     }
 
     @FXML
@@ -846,6 +888,12 @@ public class AdminDashboardController implements Initializable {
             return;
         }
 
+        ReportTyoe statisticsType = mapReportType(reportType);
+        if (statisticsType != null) {
+            generateStatisticsReport(event, statisticsType, ReportFormat.valueOf(exportFormat.toUpperCase()), startDate, endDate);
+            return;
+        }
+
         String csvData = "";
         if ("Patient Report".equals(reportType)) {
             csvData = generatePatientReport(startDate, endDate);
@@ -872,6 +920,62 @@ public class AdminDashboardController implements Initializable {
         }
     }
 
+    /**
+     * Submits a statistics report to the background job service
+     * The UI stays responsive; the save dialog opens once the file is ready
+     */
+    private void generateStatisticsReport(ActionEvent event, ReportTyoe reportType, ReportFormat format,
+                                          LocalDate startDate, LocalDate endDate) {
+        User currentUser = AuthService.getInstance().getCurrentUser();
+        if (currentUser == null) {
+            showAlert(Alert.AlertType.ERROR, "Error", "You must be logged in to generate reports.");
+            return;
+        }
+
+        Window window = ((Node) event.getSource()).getScene().getWindow();
+        String originalText = generateReportButton.getText();
+        generateReportButton.setDisable(true);
+        generateReportButton.setText("Generating...");
+
+        ReportJobService.getInstance()
+                .submit(reportType, format, startDate, endDate, currentUser.getId())
+                .whenComplete((report, error) -> Platform.runLater(() -> {
+                    generateReportButton.setDisable(false);
+                    generateReportButton.setText(originalText);
+
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        showAlert(Alert.AlertType.ERROR, "Error", "Failed to generate report: " + cause.getMessage());
+                        return;
+                    }
+                    saveGeneratedReport(window, report);
+                }));
+    }
+
+    /**
+     * Lets the user save a copy of a generated report file
+     */
+    private void saveGeneratedReport(Window window, Report report) {
+        String extension = ReportJobService.getFileExtension(report.getReportFormat());
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Save Report");
+        fileChooser.setInitialFileName(report.getReportType().name().toLowerCase() + "_"
+                + report.getStartDate() + "_to_" + report.getEndDate() + "." + extension);
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(
+                extension.toUpperCase() + " Files", "*." + extension));
+        File file = fileChooser.showSaveDialog(window);
+
+        if (file != null) {
+            try {
+                Files.copy(Paths.get(report.getFilePath()), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                showAlert(Alert.AlertType.INFORMATION, "Success", "Report generated successfully.");
+            } catch (IOException e) {
+                showAlert(Alert.AlertType.ERROR, "Error", "Failed to save report: " + e.getMessage());
+            }
+        }
+    }
+
     private String generatePatientReport(LocalDate startDate, LocalDate endDate) {
         List<com.stangelo.saintangelo.models.Patient> patients = patientDAO.findAll().stream()
                 .filter(p -> p.getRegistrationDate() != null && !p.getRegistrationDate().isBefore(startDate) && !p.getRegistrationDate().isAfter(endDate))
@@ -895,32 +999,96 @@ public class AdminDashboardController implements Initializable {
         return csv.toString();
     }
 
+    // --- TICKET ANALYTICS ---
+    // Past days come from the in-memory ticket cube; today (still changing) and
+    // the period before the cube has loaded fall back to TicketDAO.
+
+    private TicketCube getTicketCube(LocalDate firstDay) {
+        TicketCube cube = TicketAnalyticsService.getInstance().getCube();
+        return cube != null && cube.covers(firstDay) && cube.covers(LocalDate.now().minusDays(1)) ? cube : null;
+    }
+
+    private Map<LocalDate, Integer> getDailyTicketCountsLast7Days() {
+        LocalDate today = LocalDate.now();
+        TicketCube cube = getTicketCube(today.minusDays(6));
+        if (cube == null) {
+            return ticketDAO.getDailyTicketCountsLast7Days();
+        }
+
+        Map<LocalDate, Integer> counts = new java.util.LinkedHashMap<>();
+        for (int i = 6; i >= 1; i--) {
+            counts.put(today.minusDays(i), 0);
+        }
+        for (TicketCube.Group group : cube.query().between(today.minusDays(6), today.minusDays(1))
+                .groupBy(TicketCube.Dimension.DAY)) {
+            counts.put(LocalDate.parse(group.getKey(0)), (int) group.getStats().getCount());
+        }
+        counts.put(today, ticketDAO.countTodayTickets());
+        return counts;
+    }
+
+    private Map<LocalDate, Integer> getDailyAverageWaitTimesLast7Days() {
+        LocalDate today = LocalDate.now();
+        TicketCube cube = getTicketCube(today.minusDays(6));
+        if (cube == null) {
+            return ticketDAO.getDailyAverageWaitTimesLast7Days();
+        }
+
+        Map<LocalDate, Integer> waitTimes = new java.util.LinkedHashMap<>();
+        for (int i = 6; i >= 1; i--) {
+            waitTimes.put(today.minusDays(i), 0);
+        }
+        for (TicketCube.Group group : cube.query().between(today.minusDays(6), today.minusDays(1))
+                .groupBy(TicketCube.Dimension.DAY)) {
+            waitTimes.put(LocalDate.parse(group.getKey(0)), (int) Math.round(group.getStats().getAverageWait()));
+        }
+        waitTimes.put(today, ticketDAO.getAverageWaitTimeToday());
+        return waitTimes;
+    }
+
+    /**
+     * Average of the daily average wait times for the 7 days before the current week
+     */
+    private double getAverageWaitTimePrevious7Days() {
+        LocalDate today = LocalDate.now();
+        TicketCube cube = getTicketCube(today.minusDays(13));
+        if (cube == null) {
+            return ticketDAO.getAverageWaitTimePrevious7Days();
+        }
+
+        double sum = 0;
+        int days = 0;
+        for (TicketCube.Group group : cube.query().between(today.minusDays(13), today.minusDays(7))
+                .groupBy(TicketCube.Dimension.DAY)) {
+            if (group.getStats().getWaitCount() > 0) {
+                sum += group.getStats().getAverageWait();
+                days++;
+            }
+        }
+        return days == 0 ? 0.0 : sum / days;
+    }
 
     private void populateChart(LineChart<Number, Number> chart, Map<LocalDate, Integer> data, String color) {
         if (chart == null || data == null || data.isEmpty()) {
             return;
         }
 
-        chart.getData().clear();
-        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        ChartFeed<Number> feed = chartFeeds.get(chart);
+        if (feed == null) {
+            feed = new ChartFeed<>(chart, "-fx-stroke: " + color + ";");
+            chartFeeds.put(chart, feed);
+        }
 
         List<LocalDate> sortedDates = new ArrayList<>(data.keySet());
         Collections.sort(sortedDates);
 
+        List<Number> days = new ArrayList<>(sortedDates.size());
+        List<Integer> values = new ArrayList<>(sortedDates.size());
         for (int i = 0; i < sortedDates.size(); i++) {
-            LocalDate date = sortedDates.get(i);
-            series.getData().add(new XYChart.Data<>(i, data.get(date)));
+            days.add(i);
+            values.add(data.get(sortedDates.get(i)));
         }
-
-        chart.getData().add(series);
-        
-        // Apply style to chart line (may be null if chart hasn't rendered yet)
-        javafx.application.Platform.runLater(() -> {
-            Node chartLine = chart.lookup(".chart-series-line");
-            if (chartLine != null) {
-                chartLine.setStyle("-fx-stroke: " + color + ";");
-            }
-        });
+        feed.update(days, values);
     }
 
     private void updateStatCard(Label valueLabel, Label changeLabel, SVGPath arrowPath,
@@ -1562,12 +1730,6 @@ public class AdminDashboardController implements Initializable {
     @FXML
     private void handleNavUsers(ActionEvent event) {
         loadView(event, "/fxml/admin-usermanage-view.fxml");
-        // Ensure active users view is shown by default
-        javafx.application.Platform.runLater(() -> {
-            if (activeUsersView != null && archivedUsersView != null) {
-                showActiveUsersView();
-            }
-        });
     }
 
     @FXML
@@ -1605,6 +1767,9 @@ public class AdminDashboardController implements Initializable {
             Stage currentStage = (Stage) ((Node) event.getSource()).getScene().getWindow();
             currentStage.close();
 
+            // Cached views belong to this session
+            ViewRegistry.getInstance().clear();
+
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login-view.fxml"));
             Parent loginView = loader.load();
 
@@ -1622,27 +1787,17 @@ public class AdminDashboardController implements Initializable {
 
     private void loadView(ActionEvent event, String fxmlPath) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Parent root = loader.load();
-
-            // Try to update user info if the controller supports it
-            Object controller = loader.getController();
-            if (controller instanceof AdminDashboardController) {
-                ((AdminDashboardController) controller).updateUserInfo();
-            } else if (controller instanceof AdminActivityController) {
-                ((AdminActivityController) controller).updateUserInfo();
-            }
-
-            // 1. Set initial opacity to 0 (Invisible)
-            root.setOpacity(0);
-
             Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
             if (stage == null || stage.getScene() == null) {
                 showAlert(Alert.AlertType.ERROR, "Navigation Error", "Could not access window.");
                 return;
             }
             
-            stage.getScene().setRoot(root);
+            // Cached views are reused; their controllers refresh in onShow()
+            Parent root = ViewRegistry.getInstance().show(stage.getScene(), fxmlPath);
+
+            // 1. Set initial opacity to 0 (Invisible)
+            root.setOpacity(0);
 
             // 2. Play Fade Transition (0.0 -> 1.0)
             FadeTransition fadeTransition = new FadeTransition(Duration.millis(300), root);
@@ -0,0 +1,212 @@
+package com.stangelo.saintangelo.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import javafx.collections.ObservableList;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.XYChart;
+
+/**
+ * Chart Feed
+ * Keeps the single series of a dashboard line chart up to date without rebuilding it.
+ *
+ * The series is created once. Each refresh is applied as the smallest change:
+ * - same x values: only the y values that changed are set
+ * - window moved on (e.g. a new day): the points that fell off the start are
+ *   removed and the new ones appended
+ * - anything else: the points are replaced in one change
+ *
+ * Only the first fill is animated; background refreshes are not. Series longer
+ * than the point limit are down-sampled with Largest-Triangle-Three-Buckets, which
+ * keeps the peaks and dips that give the line its shape.
+ *
+ * Must be used on the JavaFX Application Thread.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public final class ChartFeed<X> {
+
+    /** Points drawn at most; about one every 2-3 pixels on the dashboard cards */
+    public static final int DEFAULT_MAX_POINTS = 120;
+
+    private final LineChart<X, Number> chart;
+    private final XYChart.Series<X, Number> series = new XYChart.Series<>();
+    private final int maxPoints;
+
+    /**
+     * Creates a feed that owns the chart's data
+     *
+     * @param chart Chart to feed; its current series are removed
+     * @param lineStyle Inline style of the series line, e.g. "-fx-stroke: #0b7d56;"
+     */
+    public ChartFeed(LineChart<X, Number> chart, String lineStyle) {
+        this(chart, lineStyle, DEFAULT_MAX_POINTS);
+    }
+
+    /**
+     * Creates a feed that owns the chart's data
+     *
+     * @param chart Chart to feed; its current series are removed
+     * @param lineStyle Inline style of the series line, e.g. "-fx-stroke: #0b7d56;"
+     * @param maxPoints Longer series are down-sampled to this many points (at least 3)
+     */
+    public ChartFeed(LineChart<X, Number> chart, String lineStyle, int maxPoints) {
+        this.chart = chart;
+        this.maxPoints = Math.max(3, maxPoints);
+
+        // The line node is created when the series is added; style it as soon as it exists
+        series.nodeProperty().addListener((obs, oldNode, node) -> {
+            if (node != null) {
+                node.setStyle(lineStyle);
+            }
+        });
+        chart.getData().setAll(List.of(series));
+    }
+
+    /**
+     * Shows new values, changing only what differs from what is shown
+     *
+     * @param xs X values in drawing order
+     * @param ys Y values, one per x value
+     */
+    public void update(List<X> xs, List<? extends Number> ys) {
+        if (xs.size() != ys.size()) {
+            throw new IllegalArgumentException("Got " + xs.size() + " x values and " + ys.size() + " y values");
+        }
+        List<X> x = xs;
+        List<? extends Number> y = ys;
+        if (xs.size() > maxPoints) {
+            int[] kept = downsample(ys, maxPoints);
+            List<X> sampledX = new ArrayList<>(kept.length);
+            List<Number> sampledY = new ArrayList<>(kept.length);
+            for (int index : kept) {
+                sampledX.add(xs.get(index));
+                sampledY.add(ys.get(index));
+            }
+            x = sampledX;
+            y = sampledY;
+        }
+
+        ObservableList<XYChart.Data<X, Number>> points = series.getData();
+        chart.setAnimated(points.isEmpty());
+
+        int shift = findShift(points, x);
+        if (shift < 0) {
+            List<XYChart.Data<X, Number>> replacement = new ArrayList<>(x.size());
+            for (int i = 0; i < x.size(); i++) {
+                replacement.add(new XYChart.Data<>(x.get(i), y.get(i)));
+            }
+            points.setAll(replacement);
+            return;
+        }
+        if (shift > 0) {
+            points.remove(0, shift);
+        }
+        int kept = points.size();
+        for (int i = 0; i < kept; i++) {
+            XYChart.Data<X, Number> point = points.get(i);
+            if (!Objects.equals(point.getYValue(), y.get(i))) {
+                point.setYValue(y.get(i));
+            }
+        }
+        if (kept < x.size()) {
+            List<XYChart.Data<X, Number>> appended = new ArrayList<>(x.size() - kept);
+            for (int i = kept; i < x.size(); i++) {
+                appended.add(new XYChart.Data<>(x.get(i), y.get(i)));
+            }
+            points.addAll(appended);
+        }
+    }
+
+    /**
+     * Finds how many shown points fell off the start of the new x values
+     *
+     * @return Points to drop from the start (0 if the x values are unchanged),
+     *         or -1 if the new values do not continue the shown ones
+     */
+    private static <X> int findShift(List<XYChart.Data<X, Number>> points, List<X> xs) {
+        if (points.isEmpty() || xs.isEmpty()) {
+            return -1;
+        }
+        for (int shift = 0; shift < points.size(); shift++) {
+            int overlap = points.size() - shift;
+            if (overlap > xs.size()) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < overlap && matches; i++) {
+                matches = Objects.equals(points.get(shift + i).getXValue(), xs.get(i));
+            }
+            if (matches) {
+                return shift;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Picks the points to draw with Largest-Triangle-Three-Buckets
+     * Points are taken as evenly spaced. The first and last are always kept; from
+     * each bucket in between, the point forming the largest triangle with the
+     * previously kept point and the average of the next bucket is kept.
+     *
+     * @param values Y values
+     * @param threshold Number of points to keep (at least 3)
+     * @return Indexes of the kept points, ascending
+     */
+    static int[] downsample(List<? extends Number> values, int threshold) {
+        int size = values.size();
+        if (threshold >= size || threshold < 3) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] kept = new int[threshold];
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int previous = 0;
+        kept[0] = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket (the last point for the final bucket)
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, size);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += i;
+                averageY += value(values, i);
+            }
+            int count = Math.max(1, nextEnd - nextStart);
+            averageX /= count;
+            averageY /= count;
+
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double previousY = value(values, previous);
+            double largestArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((previous - averageX) * (value(values, i) - previousY)
+                        - (previous - i) * (averageY - previousY));
+                if (area > largestArea) {
+                    largestArea = area;
+                    chosen = i;
+                }
+            }
+            kept[bucket + 1] = chosen;
+            previous = chosen;
+        }
+        kept[threshold - 1] = size - 1;
+        return kept;
+    }
+
+    private static double value(List<? extends Number> values, int index) {
+        Number value = values.get(index);
+        return value == null ? 0 : value.doubleValue();
+    }
+}
@@ -1,14 +1,17 @@
 package com.stangelo.saintangelo.controllers;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 import com.stangelo.saintangelo.dao.UserDAO;
 import com.stangelo.saintangelo.models.User;
 import com.stangelo.saintangelo.models.UserRole;
 import com.stangelo.saintangelo.services.AuthService;
+import com.stangelo.saintangelo.services.StartupService;
 import com.stangelo.saintangelo.utils.DatabaseConnection;
 
 import javafx.animation.FadeTransition;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Rectangle2D;
@@ -49,19 +52,30 @@ public class LoginController {
         userDAO = new UserDAO();
         authService = AuthService.getInstance();
 
-        // Test database connection on initialization
-        if (!DatabaseConnection.testConnection()) {
-            String dbUrl = DatabaseConnection.getDatabaseUrl();
-            showAlert("Database Connection Error",
-                    "Cannot connect to shared database. Please ensure:\n" +
-                            "1. The database server at 192.168.100.25 is running\n" +
-                            "2. You are connected to the LAN network\n" +
-                            "3. Database 'saintangelo_hospital' exists on the server\n" +
-                            "4. Connection settings in database.properties are correct\n" +
-                            "   Current URL: " + dbUrl + "\n" +
-                            "5. Firewall allows connection to port 3306\n" +
-                            "6. Check the console/logs for detailed error messages");
-        }
+        // Test the database connection in the background; on first launch this is the
+        // startup warm-up, so the login form shows without waiting for the network
+        StartupService startupService = StartupService.getInstance();
+        CompletableFuture<Boolean> databaseCheck = startupService.databaseReady().isDone()
+                ? CompletableFuture.supplyAsync(DatabaseConnection::testDedicatedConnection)
+                : startupService.databaseReady();
+        databaseCheck.thenAccept(connected -> {
+            if (!connected) {
+                Platform.runLater(this::showDatabaseConnectionError);
+            }
+        });
+    }
+
+    private void showDatabaseConnectionError() {
+        String dbUrl = DatabaseConnection.getDatabaseUrl();
+        showAlert("Database Connection Error",
+                "Cannot connect to shared database. Please ensure:\n" +
+                        "1. The database server at 192.168.100.25 is running\n" +
+                        "2. You are connected to the LAN network\n" +
+                        "3. Database 'saintangelo_hospital' exists on the server\n" +
+                        "4. Connection settings in database.properties are correct\n" +
+                        "   Current URL: " + dbUrl + "\n" +
+                        "5. Firewall allows connection to port 3306\n" +
+                        "6. Check the console/logs for detailed error messages");
     }
 
     @FXML
@@ -145,8 +159,7 @@ public class LoginController {
 
         if (fxmlFile != null) {
             try {
-                FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlFile));
-                Parent dashboardRoot = loader.load();
+                Parent dashboardRoot = ViewRegistry.getInstance().load(fxmlFile);
 
                 // 1. Set Initial Opacity to 0 (Invisible) for Animation
                 dashboardRoot.setOpacity(0);
@@ -180,6 +193,9 @@ public class LoginController {
                 Stage loginStage = (Stage) loginButton.getScene().getWindow();
                 loginStage.close();
 
+                // Parse the role's other views in the background so the sidebar switches instantly
+                ViewRegistry.getInstance().preload(ViewRegistry.viewsFor(role));
+
                 return true;
 
             } catch (IOException e) {
@@ -244,6 +260,10 @@ public class LoginController {
             publicViewStage.setHeight(bounds.getHeight());
             publicViewStage.setMaximized(true);
 
+            // Stop the board's clock, polling and queue listeners once it is closed
+            PublicViewController publicViewController = loader.getController();
+            publicViewStage.setOnHidden(event -> publicViewController.dispose());
+
             publicViewStage.show();
 
             // Play fade transition
@@ -2,7 +2,12 @@ package com.stangelo.saintangelo.controllers;
 
 import java.io.IOException;
 import java.net.URL;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
 
@@ -14,6 +19,7 @@ import com.stangelo.saintangelo.models.Doctor;
 import com.stangelo.saintangelo.models.Patient;
 import com.stangelo.saintangelo.models.Prescription;
 import com.stangelo.saintangelo.models.PriorityLevel;
+import com.stangelo.saintangelo.models.QueueEntryView;
 import com.stangelo.saintangelo.models.Ticket;
 import com.stangelo.saintangelo.models.TicketStatus;
 import com.stangelo.saintangelo.services.AuthService;
@@ -36,6 +42,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TabPane;
@@ -47,16 +54,14 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Priority;
-import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.chart.LineChart;
-import javafx.scene.chart.XYChart;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import javafx.util.Duration;
 
-public class MedicalDashboardController implements Initializable {
+public class MedicalDashboardController implements Initializable, ViewLifecycle {
 
     // Stats Labels
     @FXML private Label totalTodayLabel;
@@ -96,10 +101,13 @@ public class MedicalDashboardController implements Initializable {
     
     // Queue Management Tab Containers
     @FXML private TabPane queueTabPane;
-    @FXML private VBox waitingQueueContainer;
-    @FXML private VBox inProgressContainer;
-    @FXML private VBox completedContainer;
+    @FXML private ListView<QueueBoard.WaitingEntry> waitingQueueList;
+    @FXML private ListView<QueueEntryView> inProgressList;
+    @FXML private ListView<QueueEntryView> completedList;
     
+    // Feeds of the stat charts, created on their first update
+    private final Map<LineChart<String, Number>, ChartFeed<String>> chartFeeds = new HashMap<>();
+
     // DAOs
     private TicketDAO ticketDAO;
     private PatientDAO patientDAO;
@@ -189,21 +197,35 @@ public class MedicalDashboardController implements Initializable {
             
         }
         
-        // Load dashboard data and current patient (sync happens inside loadDashboardData)
+        if (waitingQueueList != null || inProgressList != null || completedList != null) {
+            initializeQueueBoards();
+        }
+        if (recordsTableContainer != null) {
+            initializePatientRecordsView();
+        }
+
+        // A preloaded view only builds its controls here; onShow() loads its data when it is first shown
+        if (!ViewRegistry.getInstance().isPreloading()) {
+            onShow();
+        }
+    }
+
+    /**
+     * Reloads this view's data when it is shown again from the view cache
+     */
+    @Override
+    public void onShow() {
+        // Sync happens inside loadDashboardData
         loadDashboardData();
         loadCurrentPatient();
         loadCurrentPatientsComboBox();
         updateCharts();
         updateFooters();
-        
-        // Load queue management data if containers are available
-        if (waitingQueueContainer != null || inProgressContainer != null || completedContainer != null) {
+        if (waitingQueueList != null || inProgressList != null || completedList != null) {
             loadQueueManagementData();
         }
-        
-        // Initialize patient records view if available
         if (recordsTableContainer != null) {
-            initializePatientRecordsView();
+            loadPatientRecords();
         }
     }
     
@@ -247,9 +269,6 @@ public class MedicalDashboardController implements Initializable {
         currentPage = 1;
         currentSearchTerm = "";
         currentStatusFilter = "All";
-        
-        // Load initial records
-        loadPatientRecords();
     }
 
     private void loadDashboardData() {
@@ -305,51 +324,33 @@ public class MedicalDashboardController implements Initializable {
     
     /**
      * Helper method to update a line chart with daily data
+     * The first update fills the chart with an animation; later ones change it in place.
      */
-    private void updateLineChart(LineChart<String, Number> chart, java.util.Map<java.time.LocalDate, Integer> data, String color) {
-        chart.getData().clear();
-        
-        // Create series
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
-        
-        // Format dates and add data points
-        java.time.format.DateTimeFormatter dayFormatter = java.time.format.DateTimeFormatter.ofPattern("EEE");
-        for (java.util.Map.Entry<java.time.LocalDate, Integer> entry : data.entrySet()) {
-            String dayLabel = entry.getKey().format(dayFormatter);
-            series.getData().add(new XYChart.Data<>(dayLabel, entry.getValue()));
-        }
-        
-        chart.getData().add(series);
-        
-        // Style the chart
-        chart.setStyle("-fx-background-color: transparent;");
-        chart.setAnimated(true); // Enable animation for smooth on-load effect
-        chart.setCreateSymbols(false);
-        chart.setLegendVisible(false);
-        
-        // Hide axes
-        chart.getXAxis().setVisible(false);
-        chart.getYAxis().setVisible(false);
-        
-        // Style the line using CSS
-        String chartId = chart.getId();
-        if (chartId == null || chartId.isEmpty()) {
-            chartId = "chart-" + System.identityHashCode(chart);
-            chart.setId(chartId);
+    private void updateLineChart(LineChart<String, Number> chart, Map<LocalDate, Integer> data, String color) {
+        ChartFeed<String> feed = chartFeeds.get(chart);
+        if (feed == null) {
+            // Style the chart once; later refreshes only change the points that differ
+            chart.setStyle("-fx-background-color: transparent;");
+            chart.setCreateSymbols(false);
+            chart.setLegendVisible(false);
+
+            // Hide axes
+            chart.getXAxis().setVisible(false);
+            chart.getYAxis().setVisible(false);
+
+            feed = new ChartFeed<>(chart, "-fx-stroke: " + color + "; -fx-stroke-width: 2px;");
+            chartFeeds.put(chart, feed);
         }
-        
-        // Apply style to the series line
-        javafx.application.Platform.runLater(() -> {
-            javafx.scene.Node line = series.getNode().lookup(".chart-series-line");
-            if (line != null) {
-                line.setStyle("-fx-stroke: " + color + "; -fx-stroke-width: 2px;");
-            }
-            // Also style via CSS lookup
-            javafx.scene.Node chartNode = chart.lookup(".chart-series-line");
-            if (chartNode != null) {
-                chartNode.setStyle("-fx-stroke: " + color + "; -fx-stroke-width: 2px;");
-            }
-        });
+
+        // Format dates and collect data points
+        DateTimeFormatter dayFormatter = DateTimeFormatter.ofPattern("EEE");
+        List<String> days = new ArrayList<>(data.size());
+        List<Integer> values = new ArrayList<>(data.size());
+        for (Map.Entry<LocalDate, Integer> entry : data.entrySet()) {
+            days.add(entry.getKey().format(dayFormatter));
+            values.add(entry.getValue());
+        }
+        feed.update(days, values);
     }
     
     /**
@@ -839,6 +840,9 @@ public class MedicalDashboardController implements Initializable {
             Stage currentStage = (Stage) ((Node) event.getSource()).getScene().getWindow();
             currentStage.close();
 
+            // Cached views belong to this session
+            ViewRegistry.getInstance().clear();
+
             // Load Login View
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login-view.fxml"));
             Parent loginView = loader.load();
@@ -917,43 +921,16 @@ public class MedicalDashboardController implements Initializable {
     @FXML
     private void handleNavCurrentPatient(ActionEvent event) {
         loadView(event, "/fxml/doctor-dashboard-view.fxml");
-        // Refresh data after view loads
-        javafx.application.Platform.runLater(() -> {
-            QueueService.syncFromDatabase();
-            loadDashboardData();
-            loadCurrentPatient();
-            updateCharts();
-            updateFooters();
-        });
     }
 
     @FXML
     private void handleNavQueue(ActionEvent event) {
         loadView(event, "/fxml/doctor-queue-management.fxml");
-        // Refresh queue data after view loads
-        javafx.application.Platform.runLater(() -> {
-            loadQueueManagementData();
-        });
     }
 
     @FXML
     private void handleNavRecords(ActionEvent event) {
         loadView(event, "/fxml/doctor-patient-records.fxml");
-        // The initialize() method will be called automatically by JavaFX
-        // But we also call it explicitly after a short delay to ensure FXML injection is complete
-        javafx.application.Platform.runLater(() -> {
-            // Small delay to ensure FXML injection is complete
-            javafx.animation.PauseTransition pause = new javafx.animation.PauseTransition(Duration.millis(100));
-            pause.setOnFinished(e -> {
-                if (recordsTableContainer != null) {
-                    System.out.println("Initializing patient records view after navigation...");
-                    initializePatientRecordsView();
-                } else {
-                    System.out.println("ERROR: recordsTableContainer is still null after navigation!");
-                }
-            });
-            pause.play();
-        });
     }
     
     // --- PATIENT RECORDS HANDLERS ---
@@ -1428,15 +1405,13 @@ public class MedicalDashboardController implements Initializable {
      */
     public void loadView(ActionEvent event, String fxmlPath) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Parent root = loader.load();
+            // Cached views are reused; their controllers refresh in onShow()
+            Scene scene = ((Node) event.getSource()).getScene();
+            Parent root = ViewRegistry.getInstance().show(scene, fxmlPath);
 
             // 1. Set initial opacity to 0 (Invisible)
             root.setOpacity(0);
 
-            Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-            stage.getScene().setRoot(root);
-
             // 2. Create Fade Transition (0.0 -> 1.0)
             FadeTransition fadeTransition = new FadeTransition(Duration.millis(300), root);
             fadeTransition.setFromValue(0.0);
@@ -1451,17 +1426,35 @@ public class MedicalDashboardController implements Initializable {
 
     // --- QUEUE MANAGEMENT METHODS ---
     
+    /**
+     * Sets up the queue boards once; refreshes only update their items
+     */
+    private void initializeQueueBoards() {
+        if (waitingQueueList != null) {
+            QueueBoard.configure(waitingQueueList, "No patients waiting",
+                    () -> new QueueBoard.WaitingCell(this::handleRemoveTicket, this::handleEscalatePriority));
+        }
+        if (inProgressList != null) {
+            QueueBoard.configure(inProgressList, "No patients currently in service",
+                    () -> new QueueBoard.InProgressCell(this::handleDeleteInProgressTicket));
+        }
+        if (completedList != null) {
+            QueueBoard.configure(completedList, "No completed visits today",
+                    () -> new QueueBoard.CompletedCell(this::handleViewPatientDetails));
+        }
+    }
+    
     /**
      * Loads and displays queue management data for all three tabs
      */
     private void loadQueueManagementData() {
-        if (waitingQueueContainer != null) {
+        if (waitingQueueList != null) {
             loadWaitingQueue();
         }
-        if (inProgressContainer != null) {
+        if (inProgressList != null) {
             loadInProgressQueue();
         }
-        if (completedContainer != null) {
+        if (completedList != null) {
             loadCompletedQueue();
         }
     }
@@ -1471,9 +1464,7 @@ public class MedicalDashboardController implements Initializable {
      * Uses QueueManager to get tickets in the same order as Dashboard
      */
     private void loadWaitingQueue() {
-        if (waitingQueueContainer == null) return;
-        
-        waitingQueueContainer.getChildren().clear();
+        if (waitingQueueList == null) return;
         
         // Sync from database first to ensure QueueManager has latest data
         QueueService.syncFromDatabase();
@@ -1481,307 +1472,29 @@ public class MedicalDashboardController implements Initializable {
         // Get all waiting tickets from QueueManager (uses PriorityQueue ordering)
         List<Ticket> waitingTickets = QueueManager.getInstance().getAllWaiting();
         
-        if (waitingTickets.isEmpty()) {
-            Label emptyLabel = new Label("No patients waiting");
-            emptyLabel.getStyleClass().add("queue-empty-label");
-            waitingQueueContainer.getChildren().add(emptyLabel);
-        } else {
-            int position = 1;
-            for (Ticket ticket : waitingTickets) {
-                HBox card = createWaitingQueueCard(ticket, position++);
-                waitingQueueContainer.getChildren().add(card);
-            }
-        }
-    }
-    
-    /**
-     * Creates a card for a waiting queue ticket
-     */
-    private HBox createWaitingQueueCard(Ticket ticket, int position) {
-        HBox card = new HBox(20);
-        card.getStyleClass().addAll("q-card", "q-card-waiting");
-        card.setAlignment(Pos.CENTER_LEFT);
-        
-        // Queue position number
-        StackPane positionCircle = new StackPane();
-        positionCircle.getStyleClass().add("queue-number-circle");
-        Label positionLabel = new Label(String.valueOf(position));
-        positionLabel.getStyleClass().add("queue-number-text");
-        positionCircle.getChildren().add(positionLabel);
-        
-        // Patient info
-        VBox patientInfo = new VBox(5);
-        patientInfo.setAlignment(Pos.CENTER_LEFT);
-        HBox.setHgrow(patientInfo, Priority.ALWAYS);
-        
-        Patient patient = ticket.getPatient();
-        String patientName = patient != null ? patient.getName() : "Unknown";
-        int age = patient != null ? patient.getAge() : 0;
-        String ticketNumber = ticket.getTicketNumber();
-        String chiefComplaint = ticket.getServiceType() != null ? ticket.getServiceType() : "N/A";
-        String phoneNumber = patient != null && patient.getContactNumber() != null ? 
-                            patient.getContactNumber() : "N/A";
-        
-        // Name, age, priority badge
-        HBox nameRow = new HBox(10);
-        nameRow.setAlignment(Pos.CENTER_LEFT);
-        Label nameLabel = new Label(patientName);
-        nameLabel.getStyleClass().add("text-name");
-        Label ageLabel = new Label("• Age " + age);
-        ageLabel.getStyleClass().add("text-meta");
-        Label priorityBadge = new Label(getPriorityDisplayText(ticket.getPriority()));
-        priorityBadge.getStyleClass().addAll("badge-pill", getPriorityBadgeStyleClass(ticket.getPriority()));
-        nameRow.getChildren().addAll(nameLabel, ageLabel, priorityBadge);
-        
-        // Ticket ID, complaint, phone
-        HBox detailsRow = new HBox(15);
-        detailsRow.setAlignment(Pos.CENTER_LEFT);
-        Label ticketIdLabel = new Label("ID: " + ticketNumber);
-        ticketIdLabel.getStyleClass().add("text-sub");
-        Label complaintLabel = new Label("• " + chiefComplaint);
-        complaintLabel.getStyleClass().add("text-sub");
-        Label phoneLabel = new Label("📞 " + phoneNumber);
-        phoneLabel.getStyleClass().add("text-sub");
-        detailsRow.getChildren().addAll(ticketIdLabel, complaintLabel, phoneLabel);
-        
-        patientInfo.getChildren().addAll(nameRow, detailsRow);
-        
-        // Wait time
-        VBox waitTimeBox = new VBox(5);
-        waitTimeBox.setAlignment(Pos.CENTER_RIGHT);
-        Label waitTimeLabel = new Label("Wait Time");
-        waitTimeLabel.getStyleClass().add("text-meta");
-        long waitMinutes = java.time.Duration.between(ticket.getCreatedTime(), java.time.LocalDateTime.now()).toMinutes();
-        Label waitTimeValue = new Label(waitMinutes + " min");
-        waitTimeValue.getStyleClass().add("wait-time-text");
-        if (ticket.getPriority() == PriorityLevel.EMERGENCY) {
-            waitTimeValue.setStyle("-fx-text-fill: #e74c3c;");
-        }
-        waitTimeBox.getChildren().addAll(waitTimeLabel, waitTimeValue);
-        
-        // Remove button
-        Button removeBtn = new Button();
-        removeBtn.getStyleClass().add("icon-btn-trash");
-        removeBtn.setOnAction(e -> handleRemoveTicket(ticket));
-        javafx.scene.shape.SVGPath trashIcon = new javafx.scene.shape.SVGPath();
-        trashIcon.setContent("M6 19c0 1.1.9 2 2 2h8c1.1 0 2-.9 2-2V7H6v12zM19 4h-3.5l-1-1h-5l-1 1H5v2h14V4z");
-        trashIcon.setFill(javafx.scene.paint.Color.WHITE);
-        trashIcon.setScaleX(0.7);
-        trashIcon.setScaleY(0.7);
-        removeBtn.setGraphic(trashIcon);
-        
-        // Escalate button
-        Button escalateBtn = new Button();
-        escalateBtn.getStyleClass().add("icon-btn-escalate");
-        escalateBtn.setOnAction(e -> handleEscalatePriority(ticket));
-        try {
-            javafx.scene.image.ImageView escalateIcon = new javafx.scene.image.ImageView(
-                new javafx.scene.image.Image(getClass().getResourceAsStream("/images/escalate.png"))
-            );
-            escalateIcon.setFitHeight(20);
-            escalateIcon.setFitWidth(20);
-            escalateIcon.setOpacity(0.8);
-            escalateBtn.setGraphic(escalateIcon);
-        } catch (Exception e) {
-            // If image not found, use text label
-            escalateBtn.setText("↑");
-            escalateBtn.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
+        List<QueueBoard.WaitingEntry> entries = new ArrayList<>(waitingTickets.size());
+        for (Ticket ticket : waitingTickets) {
+            entries.add(QueueBoard.WaitingEntry.of(ticket));
         }
-        
-        HBox actionButtons = new HBox(10);
-        actionButtons.setAlignment(Pos.CENTER_RIGHT);
-        actionButtons.getChildren().addAll(removeBtn, escalateBtn);
-        
-        card.getChildren().addAll(positionCircle, patientInfo, waitTimeBox, actionButtons);
-        
-        return card;
+        QueueBoard.update(waitingQueueList.getItems(), entries, QueueBoard.WaitingEntry::visitId);
     }
     
     /**
      * Loads and displays in-progress tickets
      */
     private void loadInProgressQueue() {
-        if (inProgressContainer == null) return;
-        
-        inProgressContainer.getChildren().clear();
-        
-        List<Ticket> inProgressTickets = ticketDAO.findInServiceTickets();
+        if (inProgressList == null) return;
         
-        if (inProgressTickets.isEmpty()) {
-            Label emptyLabel = new Label("No patients currently in service");
-            emptyLabel.getStyleClass().add("queue-empty-label");
-            inProgressContainer.getChildren().add(emptyLabel);
-        } else {
-            for (Ticket ticket : inProgressTickets) {
-                HBox card = createInProgressCard(ticket);
-                inProgressContainer.getChildren().add(card);
-            }
-        }
-    }
-    
-    /**
-     * Creates a card for an in-progress ticket
-     */
-    private HBox createInProgressCard(Ticket ticket) {
-        HBox card = new HBox(20);
-        card.getStyleClass().addAll("q-card", "q-card-progress");
-        card.setAlignment(Pos.CENTER_LEFT);
-        
-        // Avatar circle
-        StackPane avatarPane = new StackPane();
-        javafx.scene.shape.Circle circle = new javafx.scene.shape.Circle(25, javafx.scene.paint.Color.valueOf("#e3f2fd"));
-        javafx.scene.shape.SVGPath avatarIcon = new javafx.scene.shape.SVGPath();
-        avatarIcon.setContent("M12 12c2.21 0 4-1.79 4-4s-1.79-4-4-4-4 1.79-4 4 1.79 4 4 4zm0 2c-2.67 0-8 1.34-8 4v2h16v-2c0-2.66-5.33-4-8-4z");
-        avatarIcon.setScaleX(1.5);
-        avatarIcon.setScaleY(1.5);
-        avatarIcon.getStyleClass().add("avatar-circle-blue");
-        avatarPane.getChildren().addAll(circle, avatarIcon);
-        
-        // Patient info
-        VBox patientInfo = new VBox(5);
-        patientInfo.setAlignment(Pos.CENTER_LEFT);
-        HBox.setHgrow(patientInfo, Priority.ALWAYS);
-        
-        Patient patient = ticket.getPatient();
-        String patientName = patient != null ? patient.getName() : "Unknown";
-        int age = patient != null ? patient.getAge() : 0;
-        String ticketNumber = ticket.getTicketNumber();
-        String chiefComplaint = ticket.getServiceType() != null ? ticket.getServiceType() : "N/A";
-        String doctorName = ticket.getAssignedDoctorName() != null ? ticket.getAssignedDoctorName() : "Unassigned";
-        
-        // Name, age, status badge
-        HBox nameRow = new HBox(10);
-        nameRow.setAlignment(Pos.CENTER_LEFT);
-        Label nameLabel = new Label(patientName);
-        nameLabel.getStyleClass().add("text-name");
-        Label ageLabel = new Label("• Age " + age);
-        ageLabel.getStyleClass().add("text-meta");
-        Label statusBadge = new Label("Consulting");
-        statusBadge.getStyleClass().addAll("badge-pill", "badge-consulting");
-        nameRow.getChildren().addAll(nameLabel, ageLabel, statusBadge);
-        
-        // Ticket ID, complaint, doctor
-        HBox detailsRow = new HBox(15);
-        detailsRow.setAlignment(Pos.CENTER_LEFT);
-        Label ticketIdLabel = new Label("ID: " + ticketNumber);
-        ticketIdLabel.getStyleClass().add("text-sub");
-        Label complaintLabel = new Label("• " + chiefComplaint);
-        complaintLabel.getStyleClass().add("text-sub");
-        Label doctorLabel = new Label("• Dr. " + doctorName);
-        doctorLabel.getStyleClass().add("text-sub");
-        detailsRow.getChildren().addAll(ticketIdLabel, complaintLabel, doctorLabel);
-        
-        patientInfo.getChildren().addAll(nameRow, detailsRow);
-        
-        // Delete button
-        Button deleteBtn = new Button();
-        deleteBtn.getStyleClass().add("icon-btn-trash");
-        deleteBtn.setOnAction(e -> handleDeleteInProgressTicket(ticket));
-        javafx.scene.shape.SVGPath trashIcon = new javafx.scene.shape.SVGPath();
-        trashIcon.setContent("M6 19c0 1.1.9 2 2 2h8c1.1 0 2-.9 2-2V7H6v12zM19 4h-3.5l-1-1h-5l-1 1H5v2h14V4z");
-        trashIcon.setFill(javafx.scene.paint.Color.WHITE);
-        trashIcon.setScaleX(0.7);
-        trashIcon.setScaleY(0.7);
-        deleteBtn.setGraphic(trashIcon);
-        
-        HBox actionButtons = new HBox(10);
-        actionButtons.setAlignment(Pos.CENTER_RIGHT);
-        actionButtons.getChildren().add(deleteBtn);
-        
-        card.getChildren().addAll(avatarPane, patientInfo, actionButtons);
-        
-        return card;
+        QueueBoard.update(inProgressList.getItems(), ticketDAO.findInServiceEntries(), QueueEntryView::visitId);
     }
     
     /**
      * Loads and displays completed tickets for today
      */
     private void loadCompletedQueue() {
-        if (completedContainer == null) return;
-        
-        completedContainer.getChildren().clear();
-        
-        List<Ticket> completedTickets = ticketDAO.findCompletedToday();
+        if (completedList == null) return;
         
-        if (completedTickets.isEmpty()) {
-            Label emptyLabel = new Label("No completed visits today");
-            emptyLabel.getStyleClass().add("queue-empty-label");
-            completedContainer.getChildren().add(emptyLabel);
-        } else {
-            for (Ticket ticket : completedTickets) {
-                HBox card = createCompletedCard(ticket);
-                completedContainer.getChildren().add(card);
-            }
-        }
-    }
-    
-    /**
-     * Creates a card for a completed ticket
-     */
-    private HBox createCompletedCard(Ticket ticket) {
-        HBox card = new HBox(20);
-        card.getStyleClass().addAll("q-card", "q-card-completed");
-        card.setAlignment(Pos.CENTER_LEFT);
-        
-        // Checkmark circle
-        StackPane checkPane = new StackPane();
-        javafx.scene.shape.Circle circle = new javafx.scene.shape.Circle(20, javafx.scene.paint.Color.valueOf("#2e7d32"));
-        javafx.scene.shape.SVGPath checkIcon = new javafx.scene.shape.SVGPath();
-        checkIcon.setContent("M9 16.17L4.83 12l-1.42 1.41L9 19 21 7l-1.41-1.41z");
-        checkIcon.setFill(javafx.scene.paint.Color.WHITE);
-        checkIcon.setScaleX(0.8);
-        checkIcon.setScaleY(0.8);
-        checkPane.getChildren().addAll(circle, checkIcon);
-        
-        // Patient info
-        VBox patientInfo = new VBox(5);
-        patientInfo.setAlignment(Pos.CENTER_LEFT);
-        HBox.setHgrow(patientInfo, Priority.ALWAYS);
-        
-        Patient patient = ticket.getPatient();
-        String patientName = patient != null ? patient.getName() : "Unknown";
-        int age = patient != null ? patient.getAge() : 0;
-        String ticketNumber = ticket.getTicketNumber();
-        String chiefComplaint = ticket.getServiceType() != null ? ticket.getServiceType() : "N/A";
-        
-        // Format completion time
-        String completedTime = "N/A";
-        if (ticket.getCalledTime() != null) {
-            completedTime = ticket.getCalledTime().format(java.time.format.DateTimeFormatter.ofPattern("hh:mm a"));
-        }
-        
-        // Name, age, priority badge
-        HBox nameRow = new HBox(10);
-        nameRow.setAlignment(Pos.CENTER_LEFT);
-        Label nameLabel = new Label(patientName);
-        nameLabel.getStyleClass().add("text-name");
-        Label ageLabel = new Label("• Age " + age);
-        ageLabel.getStyleClass().add("text-meta");
-        Label priorityBadge = new Label(getPriorityDisplayText(ticket.getPriority()));
-        priorityBadge.getStyleClass().addAll("badge-pill", getPriorityBadgeStyleClass(ticket.getPriority()));
-        nameRow.getChildren().addAll(nameLabel, ageLabel, priorityBadge);
-        
-        // Ticket ID, complaint, completion time
-        HBox detailsRow = new HBox(15);
-        detailsRow.setAlignment(Pos.CENTER_LEFT);
-        Label ticketIdLabel = new Label("ID: " + ticketNumber);
-        ticketIdLabel.getStyleClass().add("text-sub");
-        Label complaintLabel = new Label("• " + chiefComplaint);
-        complaintLabel.getStyleClass().add("text-sub");
-        Label timeLabel = new Label("• Completed at " + completedTime);
-        timeLabel.getStyleClass().add("text-sub");
-        detailsRow.getChildren().addAll(ticketIdLabel, complaintLabel, timeLabel);
-        
-        patientInfo.getChildren().addAll(nameRow, detailsRow);
-        
-        // View Details button
-        Button viewDetailsBtn = new Button("View Details");
-        viewDetailsBtn.getStyleClass().add("btn-view-details");
-        viewDetailsBtn.setOnAction(e -> handleViewPatientDetails(ticket));
-        
-        card.getChildren().addAll(checkPane, patientInfo, viewDetailsBtn);
-        
-        return card;
+        QueueBoard.update(completedList.getItems(), ticketDAO.findCompletedTodayEntries(), QueueEntryView::visitId);
     }
     
     /**
@@ -1796,18 +1509,6 @@ public class MedicalDashboardController implements Initializable {
         }
     }
     
-    /**
-     * Gets CSS style class for priority badge
-     */
-    private String getPriorityBadgeStyleClass(PriorityLevel priority) {
-        if (priority == null) return "badge-blue";
-        switch (priority) {
-            case EMERGENCY: return "badge-red";
-            case SENIOR_CITIZEN: return "badge-yellow";
-            default: return "badge-blue";
-        }
-    }
-    
     /**
      * Handles removing/skipping a ticket from the waiting queue
      */
@@ -1869,17 +1570,17 @@ public class MedicalDashboardController implements Initializable {
     /**
      * Handles deleting a ticket from the in-progress queue
      */
-    private void handleDeleteInProgressTicket(Ticket ticket) {
+    private void handleDeleteInProgressTicket(QueueEntryView entry) {
         Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
         confirmAlert.setTitle("Delete Ticket");
         confirmAlert.setHeaderText("Delete Ticket from In Progress?");
         confirmAlert.setContentText("Are you sure you want to permanently delete the ticket for " + 
-            (ticket.getPatient() != null ? ticket.getPatient().getName() : "this patient") + 
+            entry.patientName() + 
             "? This action cannot be undone.");
         
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                boolean deleted = ticketDAO.deleteTicket(ticket.getVisitId());
+                boolean deleted = ticketDAO.deleteTicket(entry.visitId());
                 if (deleted) {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Ticket deleted successfully.");
                     // Sync with QueueManager and refresh queue data
@@ -1895,21 +1596,17 @@ public class MedicalDashboardController implements Initializable {
     /**
      * Handles viewing patient details
      */
-    private void handleViewPatientDetails(Ticket ticket) {
-        Patient patient = ticket.getPatient();
-        if (patient == null) {
+    private void handleViewPatientDetails(QueueEntryView entry) {
+        // Load the full ticket and patient only now that the dialog is opened
+        Ticket ticket = ticketDAO.findByVisitId(entry.visitId());
+        Patient patient = patientDAO.findById(entry.patientId());
+        if (ticket == null || patient == null) {
             showAlert(Alert.AlertType.WARNING, "No Patient Data", "Patient information not available.");
             return;
         }
         
-        // Load full patient data from database
-        Patient fullPatient = patientDAO.findById(patient.getId());
-        if (fullPatient == null) {
-            fullPatient = patient; // Use ticket patient if not found
-        }
-        
         // Create and show patient details dialog
-        showPatientDetailsDialog(fullPatient, ticket);
+        showPatientDetailsDialog(patient, ticket);
     }
     
     /**
@@ -5,6 +5,7 @@ import com.stangelo.saintangelo.services.QueueService;
 import javafx.animation.Animation;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -20,7 +21,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ResourceBundle;
 
-public class PublicViewController implements Initializable {
+public class PublicViewController implements Initializable, ViewLifecycle {
 
     @FXML
     private Label timeLabel;
@@ -37,16 +38,26 @@ public class PublicViewController implements Initializable {
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("hh:mm a");
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("EEEE, MMMM dd, yyyy");
     
-    private Timeline syncTimeline;
+    // Number of "Next in Queue" slots and the text of an empty one
+    private static final int NEXT_QUEUE_SLOTS = 5;
+    private static final String EMPTY_SLOT = "---";
+
+    private final Label[] slotLabels = new Label[NEXT_QUEUE_SLOTS];
+
+    // True while an update is scheduled for the next pulse
+    private boolean updatePending;
+
+    // Clock, sync poll and queue listeners; released when the window closes
+    private final ViewResources viewResources = new ViewResources();
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         // Initialize clock for time and date
-        Timeline clock = new Timeline(new KeyFrame(Duration.ZERO, e -> {
+        Timeline clock = viewResources.track(new Timeline(new KeyFrame(Duration.ZERO, e -> {
             LocalDateTime now = LocalDateTime.now();
-            timeLabel.setText(now.format(TIME_FORMATTER));
-            dateLabel.setText(now.format(DATE_FORMATTER));
-        }), new KeyFrame(Duration.seconds(1)));
+            setTextIfChanged(timeLabel, now.format(TIME_FORMATTER));
+            setTextIfChanged(dateLabel, now.format(DATE_FORMATTER));
+        }), new KeyFrame(Duration.seconds(1))));
         clock.setCycleCount(Animation.INDEFINITE);
         clock.play();
 
@@ -55,14 +66,16 @@ public class PublicViewController implements Initializable {
             nowServingNumberLabel.textProperty().bind(QueueService.currentlyServingNumberBinding());
         }
 
+        createNextQueueSlots();
+
         // Listen to currently serving ticket changes
-        QueueService.currentlyServingTicketProperty().addListener((obs, oldVal, newVal) -> {
-            updateNextInQueue();
+        viewResources.listen(QueueService.currentlyServingTicketProperty(), (obs, oldVal, newVal) -> {
+            requestNextInQueueUpdate();
         });
 
         // Listen to waiting queue changes
-        QueueService.getWaitingQueue().addListener((ListChangeListener<Ticket>) change -> {
-            updateNextInQueue();
+        viewResources.listen(QueueService.getWaitingQueue(), (ListChangeListener<Ticket>) change -> {
+            requestNextInQueueUpdate();
         });
 
         // Initial sync from database
@@ -70,35 +83,37 @@ public class PublicViewController implements Initializable {
         updateNextInQueue();
 
         // Set up periodic database sync (every 3 seconds - reduced frequency for better network stability)
-        syncTimeline = new Timeline(new KeyFrame(Duration.seconds(3), e -> {
+        Timeline syncTimeline = viewResources.track(new Timeline(new KeyFrame(Duration.seconds(3), e -> {
             try {
                 QueueService.syncFromDatabase();
-                updateNextInQueue();
+                requestNextInQueueUpdate();
             } catch (Exception ex) {
                 // Silently handle sync errors - UI will show last known state
                 // Errors are already logged in QueueManager
             }
-        }));
+        })));
         syncTimeline.setCycleCount(Animation.INDEFINITE);
         syncTimeline.play();
     }
 
     /**
-     * Updates the "Next in Queue" section with actual waiting tickets from the database
+     * Stops the clock and the database poll and detaches from the shared queue
      */
-    private void updateNextInQueue() {
+    @Override
+    public void dispose() {
+        viewResources.dispose();
+        if (nowServingNumberLabel != null) {
+            nowServingNumberLabel.textProperty().unbind();
+        }
+    }
+
+    /**
+     * Creates the fixed "Next in Queue" slots once; updates only change their text
+     */
+    private void createNextQueueSlots() {
         nextQueueBox.getChildren().clear();
-        
-        // Get the actual next 5 waiting tickets (priority-ordered)
-        ObservableList<Ticket> waitingTickets = QueueService.getWaitingQueue();
-        
-        int count = 0;
-        for (Ticket ticket : waitingTickets) {
-            if (count >= 5) break; // Only show first 5
-            
-            String ticketNumber = ticket.getTicketNumber() != null ? ticket.getTicketNumber() : "---";
-            
-            Label numberLabel = new Label(ticketNumber);
+        for (int i = 0; i < NEXT_QUEUE_SLOTS; i++) {
+            Label numberLabel = new Label(EMPTY_SLOT);
             numberLabel.getStyleClass().add("next-queue-number");
 
             VBox queueItem = new VBox(numberLabel);
@@ -107,21 +122,46 @@ public class PublicViewController implements Initializable {
             HBox.setHgrow(queueItem, javafx.scene.layout.Priority.ALWAYS);
 
             nextQueueBox.getChildren().add(queueItem);
-            count++;
+            slotLabels[i] = numberLabel;
         }
-        
-        // Fill remaining slots with "---" if less than 5 tickets
-        while (count < 5) {
-            Label numberLabel = new Label("---");
-            numberLabel.getStyleClass().add("next-queue-number");
+    }
 
-            VBox queueItem = new VBox(numberLabel);
-            queueItem.getStyleClass().add("next-queue-item");
-            queueItem.setAlignment(Pos.CENTER);
-            HBox.setHgrow(queueItem, javafx.scene.layout.Priority.ALWAYS);
+    /**
+     * Schedules one "Next in Queue" update for the next pulse
+     * A sync changes the waiting list and the serving ticket several times in a row;
+     * all of those changes are rendered by a single update.
+     */
+    private void requestNextInQueueUpdate() {
+        if (updatePending) {
+            return;
+        }
+        updatePending = true;
+        Platform.runLater(() -> {
+            updatePending = false;
+            updateNextInQueue();
+        });
+    }
 
-            nextQueueBox.getChildren().add(queueItem);
-            count++;
+    /**
+     * Updates the "Next in Queue" section with actual waiting tickets from the database
+     * Only slots whose ticket changed are touched.
+     */
+    private void updateNextInQueue() {
+        // Get the actual next waiting tickets (priority-ordered)
+        ObservableList<Ticket> waitingTickets = QueueService.getWaitingQueue();
+
+        for (int i = 0; i < NEXT_QUEUE_SLOTS; i++) {
+            String ticketNumber = EMPTY_SLOT;
+            if (i < waitingTickets.size() && waitingTickets.get(i).getTicketNumber() != null) {
+                ticketNumber = waitingTickets.get(i).getTicketNumber();
+            }
+            setTextIfChanged(slotLabels[i], ticketNumber);
+        }
+    }
+
+    private static void setTextIfChanged(Label label, String text) {
+        if (!text.equals(label.getText())) {
+            label.setText(text);
         }
     }
 }
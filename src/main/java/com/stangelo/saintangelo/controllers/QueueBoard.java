@@ -0,0 +1,372 @@
+package com.stangelo.saintangelo.controllers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.stangelo.saintangelo.models.Patient;
+import com.stangelo.saintangelo.models.PriorityLevel;
+import com.stangelo.saintangelo.models.QueueEntryView;
+import com.stangelo.saintangelo.models.Ticket;
+
+import javafx.collections.ObservableList;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.SVGPath;
+
+/**
+ * Queue Board
+ * Virtualized lists for the Waiting, In Progress and Completed Today tabs of the
+ * reception and doctor queue management screens.
+ *
+ * Each tab is a ListView, so only the visible cards exist no matter how long the
+ * queue gets. A card's nodes are built once per cell and re-bound to another ticket
+ * as the list scrolls, and refreshes are applied with update() as inserts, moves
+ * and removals instead of rebuilding the list.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public final class QueueBoard {
+
+    private static final String TRASH_ICON = "M6 19c0 1.1.9 2 2 2h8c1.1 0 2-.9 2-2V7H6v12zM19 4h-3.5l-1-1h-5l-1 1H5v2h14V4z";
+    private static final String AVATAR_ICON = "M12 12c2.21 0 4-1.79 4-4s-1.79-4-4-4-4 1.79-4 4 1.79 4 4 4zm0 2c-2.67 0-8 1.34-8 4v2h16v-2c0-2.66-5.33-4-8-4z";
+    private static final String CHECK_ICON = "M9 16.17L4.83 12l-1.42 1.41L9 19 21 7l-1.41-1.41z";
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("hh:mm a");
+    private static final String[] PRIORITY_BADGES = {"badge-blue", "badge-yellow", "badge-red"};
+
+    // Shared by every waiting card; null if the image is missing
+    private static final Image ESCALATE_IMAGE = loadImage("/images/escalate.png");
+
+    private QueueBoard() {
+    }
+
+    /**
+     * Sets up a ListView as a queue board
+     *
+     * @param list List from the FXML
+     * @param emptyText Text shown when the list is empty
+     * @param cellFactory Creates the card cell type for this board
+     */
+    public static <T> void configure(ListView<T> list, String emptyText, Supplier<ListCell<T>> cellFactory) {
+        list.getStyleClass().add("queue-board");
+        list.setFocusTraversable(false);
+        list.setCellFactory(view -> cellFactory.get());
+        Label placeholder = new Label(emptyText);
+        placeholder.getStyleClass().add("queue-empty-label");
+        list.setPlaceholder(placeholder);
+    }
+
+    /**
+     * Applies a fresh snapshot of a board to its items as removals, moves, inserts
+     * and in-place replacements, keeping the rows that did not change
+     * Only the cells showing a changed row are updated.
+     *
+     * @param items Current items of the ListView
+     * @param fresh Items the board should show, in order
+     * @param key Identity of a row across refreshes (the visit ID)
+     */
+    public static <T, K> void update(ObservableList<T> items, List<T> fresh, Function<T, K> key) {
+        Set<K> freshKeys = new HashSet<>();
+        for (T item : fresh) {
+            freshKeys.add(key.apply(item));
+        }
+        items.removeIf(item -> !freshKeys.contains(key.apply(item)));
+
+        Set<K> present = new HashSet<>();
+        for (T item : items) {
+            present.add(key.apply(item));
+        }
+        for (int i = 0; i < fresh.size(); i++) {
+            T item = fresh.get(i);
+            K itemKey = key.apply(item);
+            if (i < items.size() && Objects.equals(key.apply(items.get(i)), itemKey)) {
+                if (!Objects.equals(items.get(i), item)) {
+                    items.set(i, item);
+                }
+                continue;
+            }
+            if (present.contains(itemKey)) {
+                // Moved up (for example escalated): take it out of its old place further down
+                for (int j = i + 1; j < items.size(); j++) {
+                    if (Objects.equals(key.apply(items.get(j)), itemKey)) {
+                        items.remove(j);
+                        break;
+                    }
+                }
+            }
+            items.add(i, item);
+        }
+    }
+
+    /**
+     * Waiting ticket as shown on the board
+     * Priority and wait time are copied out of the ticket so a card is updated when
+     * either changes, even though QueueManager keeps the same Ticket object.
+     */
+    public record WaitingEntry(Ticket ticket, PriorityLevel priority, long waitMinutes) {
+
+        public static WaitingEntry of(Ticket ticket) {
+            return new WaitingEntry(ticket, ticket.getPriority(),
+                    Duration.between(ticket.getCreatedTime(), LocalDateTime.now()).toMinutes());
+        }
+
+        public String visitId() {
+            return ticket.getVisitId();
+        }
+    }
+
+    /**
+     * Waiting queue card: position, patient, priority, wait time, remove and escalate
+     */
+    public static final class WaitingCell extends ListCell<WaitingEntry> {
+        private final HBox card = new HBox(20);
+        private final Label positionLabel = new Label();
+        private final Label nameLabel = new Label();
+        private final Label ageLabel = new Label();
+        private final Label priorityBadge = new Label();
+        private final Label ticketIdLabel = new Label();
+        private final Label complaintLabel = new Label();
+        private final Label phoneLabel = new Label();
+        private final Label waitTimeValue = new Label();
+
+        public WaitingCell(Consumer<Ticket> onRemove, Consumer<Ticket> onEscalate) {
+            card.getStyleClass().addAll("q-card", "q-card-waiting");
+            card.setAlignment(Pos.CENTER_LEFT);
+
+            StackPane positionCircle = new StackPane(positionLabel);
+            positionCircle.getStyleClass().add("queue-number-circle");
+            positionLabel.getStyleClass().add("queue-number-text");
+
+            nameLabel.getStyleClass().add("text-name");
+            ageLabel.getStyleClass().add("text-meta");
+            priorityBadge.getStyleClass().add("badge-pill");
+            ticketIdLabel.getStyleClass().add("text-sub");
+            complaintLabel.getStyleClass().add("text-sub");
+            phoneLabel.getStyleClass().add("text-sub");
+            VBox patientInfo = patientInfo(new HBox(10, nameLabel, ageLabel, priorityBadge),
+                    new HBox(15, ticketIdLabel, complaintLabel, phoneLabel));
+
+            Label waitTimeLabel = new Label("Wait Time");
+            waitTimeLabel.getStyleClass().add("text-meta");
+            waitTimeValue.getStyleClass().add("wait-time-text");
+            VBox waitTimeBox = new VBox(5, waitTimeLabel, waitTimeValue);
+            waitTimeBox.setAlignment(Pos.CENTER_RIGHT);
+
+            Button removeBtn = trashButton();
+            removeBtn.setOnAction(e -> onRemove.accept(getItem().ticket()));
+
+            Button escalateBtn = new Button();
+            escalateBtn.getStyleClass().add("icon-btn-escalate");
+            escalateBtn.setOnAction(e -> onEscalate.accept(getItem().ticket()));
+            if (ESCALATE_IMAGE != null) {
+                ImageView escalateIcon = new ImageView(ESCALATE_IMAGE);
+                escalateIcon.setFitHeight(20);
+                escalateIcon.setFitWidth(20);
+                escalateIcon.setOpacity(0.8);
+                escalateBtn.setGraphic(escalateIcon);
+            } else {
+                // If image not found, use text label
+                escalateBtn.setText("↑");
+                escalateBtn.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
+            }
+
+            HBox actionButtons = new HBox(10, removeBtn, escalateBtn);
+            actionButtons.setAlignment(Pos.CENTER_RIGHT);
+
+            card.getChildren().addAll(positionCircle, patientInfo, waitTimeBox, actionButtons);
+        }
+
+        @Override
+        protected void updateItem(WaitingEntry entry, boolean empty) {
+            super.updateItem(entry, empty);
+            if (empty || entry == null) {
+                setGraphic(null);
+                return;
+            }
+            Ticket ticket = entry.ticket();
+            Patient patient = ticket.getPatient();
+            positionLabel.setText(String.valueOf(getIndex() + 1));
+            nameLabel.setText(patient != null ? patient.getName() : "Unknown");
+            ageLabel.setText("• Age " + (patient != null ? patient.getAge() : 0));
+            setPriority(priorityBadge, entry.priority());
+            ticketIdLabel.setText("ID: " + ticket.getTicketNumber());
+            complaintLabel.setText("• " + (ticket.getServiceType() != null ? ticket.getServiceType() : "N/A"));
+            phoneLabel.setText("📞 " + (patient != null && patient.getContactNumber() != null ? patient.getContactNumber() : "N/A"));
+            waitTimeValue.setText(entry.waitMinutes() + " min");
+            waitTimeValue.setStyle(entry.priority() == PriorityLevel.EMERGENCY ? "-fx-text-fill: #e74c3c;" : null);
+            setGraphic(card);
+        }
+    }
+
+    /**
+     * In progress card: patient, consulting badge, doctor and delete
+     */
+    public static final class InProgressCell extends ListCell<QueueEntryView> {
+        private final HBox card = new HBox(20);
+        private final Label nameLabel = new Label();
+        private final Label ageLabel = new Label();
+        private final Label ticketIdLabel = new Label();
+        private final Label complaintLabel = new Label();
+        private final Label doctorLabel = new Label();
+
+        public InProgressCell(Consumer<QueueEntryView> onDelete) {
+            card.getStyleClass().addAll("q-card", "q-card-progress");
+            card.setAlignment(Pos.CENTER_LEFT);
+
+            SVGPath avatarIcon = new SVGPath();
+            avatarIcon.setContent(AVATAR_ICON);
+            avatarIcon.setScaleX(1.5);
+            avatarIcon.setScaleY(1.5);
+            avatarIcon.getStyleClass().add("avatar-circle-blue");
+            StackPane avatarPane = new StackPane(new Circle(25, Color.valueOf("#e3f2fd")), avatarIcon);
+
+            nameLabel.getStyleClass().add("text-name");
+            ageLabel.getStyleClass().add("text-meta");
+            Label statusBadge = new Label("Consulting");
+            statusBadge.getStyleClass().addAll("badge-pill", "badge-consulting");
+            ticketIdLabel.getStyleClass().add("text-sub");
+            complaintLabel.getStyleClass().add("text-sub");
+            doctorLabel.getStyleClass().add("text-sub");
+            VBox patientInfo = patientInfo(new HBox(10, nameLabel, ageLabel, statusBadge),
+                    new HBox(15, ticketIdLabel, complaintLabel, doctorLabel));
+
+            Button deleteBtn = trashButton();
+            deleteBtn.setOnAction(e -> onDelete.accept(getItem()));
+            HBox actionButtons = new HBox(10, deleteBtn);
+            actionButtons.setAlignment(Pos.CENTER_RIGHT);
+
+            card.getChildren().addAll(avatarPane, patientInfo, actionButtons);
+        }
+
+        @Override
+        protected void updateItem(QueueEntryView entry, boolean empty) {
+            super.updateItem(entry, empty);
+            if (empty || entry == null) {
+                setGraphic(null);
+                return;
+            }
+            nameLabel.setText(entry.patientName());
+            ageLabel.setText("• Age " + entry.age());
+            ticketIdLabel.setText("ID: " + entry.ticketNumber());
+            complaintLabel.setText("• " + (entry.serviceType() != null ? entry.serviceType() : "N/A"));
+            doctorLabel.setText("• Dr. " + (entry.doctorName() != null ? entry.doctorName() : "Unassigned"));
+            setGraphic(card);
+        }
+    }
+
+    /**
+     * Completed card: patient, priority, completion time and view details
+     */
+    public static final class CompletedCell extends ListCell<QueueEntryView> {
+        private final HBox card = new HBox(20);
+        private final Label nameLabel = new Label();
+        private final Label ageLabel = new Label();
+        private final Label priorityBadge = new Label();
+        private final Label ticketIdLabel = new Label();
+        private final Label complaintLabel = new Label();
+        private final Label timeLabel = new Label();
+
+        public CompletedCell(Consumer<QueueEntryView> onViewDetails) {
+            card.getStyleClass().addAll("q-card", "q-card-completed");
+            card.setAlignment(Pos.CENTER_LEFT);
+
+            SVGPath checkIcon = new SVGPath();
+            checkIcon.setContent(CHECK_ICON);
+            checkIcon.setFill(Color.WHITE);
+            checkIcon.setScaleX(0.8);
+            checkIcon.setScaleY(0.8);
+            StackPane checkPane = new StackPane(new Circle(20, Color.valueOf("#2e7d32")), checkIcon);
+
+            nameLabel.getStyleClass().add("text-name");
+            ageLabel.getStyleClass().add("text-meta");
+            priorityBadge.getStyleClass().add("badge-pill");
+            ticketIdLabel.getStyleClass().add("text-sub");
+            complaintLabel.getStyleClass().add("text-sub");
+            timeLabel.getStyleClass().add("text-sub");
+            VBox patientInfo = patientInfo(new HBox(10, nameLabel, ageLabel, priorityBadge),
+                    new HBox(15, ticketIdLabel, complaintLabel, timeLabel));
+
+            Button viewDetailsBtn = new Button("View Details");
+            viewDetailsBtn.getStyleClass().add("btn-view-details");
+            viewDetailsBtn.setOnAction(e -> onViewDetails.accept(getItem()));
+
+            card.getChildren().addAll(checkPane, patientInfo, viewDetailsBtn);
+        }
+
+        @Override
+        protected void updateItem(QueueEntryView entry, boolean empty) {
+            super.updateItem(entry, empty);
+            if (empty || entry == null) {
+                setGraphic(null);
+                return;
+            }
+            nameLabel.setText(entry.patientName());
+            ageLabel.setText("• Age " + entry.age());
+            setPriority(priorityBadge, entry.priority());
+            ticketIdLabel.setText("ID: " + entry.ticketNumber());
+            complaintLabel.setText("• " + (entry.serviceType() != null ? entry.serviceType() : "N/A"));
+            String completedTime = entry.calledTime() != null ? entry.calledTime().format(TIME_FORMAT) : "N/A";
+            timeLabel.setText("• Completed at " + completedTime);
+            setGraphic(card);
+        }
+    }
+
+    private static VBox patientInfo(HBox nameRow, HBox detailsRow) {
+        nameRow.setAlignment(Pos.CENTER_LEFT);
+        detailsRow.setAlignment(Pos.CENTER_LEFT);
+        VBox patientInfo = new VBox(5, nameRow, detailsRow);
+        patientInfo.setAlignment(Pos.CENTER_LEFT);
+        HBox.setHgrow(patientInfo, Priority.ALWAYS);
+        return patientInfo;
+    }
+
+    private static Button trashButton() {
+        SVGPath trashIcon = new SVGPath();
+        trashIcon.setContent(TRASH_ICON);
+        trashIcon.setFill(Color.WHITE);
+        trashIcon.setScaleX(0.7);
+        trashIcon.setScaleY(0.7);
+        Button button = new Button();
+        button.getStyleClass().add("icon-btn-trash");
+        button.setGraphic(trashIcon);
+        return button;
+    }
+
+    private static void setPriority(Label badge, PriorityLevel priority) {
+        badge.getStyleClass().removeAll(PRIORITY_BADGES);
+        if (priority == PriorityLevel.EMERGENCY) {
+            badge.setText("Emergency");
+            badge.getStyleClass().add("badge-red");
+        } else if (priority == PriorityLevel.SENIOR_CITIZEN) {
+            badge.setText("Senior");
+            badge.getStyleClass().add("badge-yellow");
+        } else {
+            badge.setText("Regular");
+            badge.getStyleClass().add("badge-blue");
+        }
+    }
+
+    private static Image loadImage(String path) {
+        var stream = QueueBoard.class.getResourceAsStream(path);
+        return stream != null ? new Image(stream) : null;
+    }
+}
@@ -8,20 +8,29 @@ import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.UUID;
 
 import com.stangelo.saintangelo.dao.PatientDAO;
 import com.stangelo.saintangelo.dao.TicketDAO;
 import com.stangelo.saintangelo.models.Discharge;
 import com.stangelo.saintangelo.models.DischargeStatus;
+import com.stangelo.saintangelo.models.DischargeWorklistItem;
 import com.stangelo.saintangelo.models.Patient;
+import com.stangelo.saintangelo.models.PatientMatch;
 import com.stangelo.saintangelo.models.Prescription;
 import com.stangelo.saintangelo.models.PriorityLevel;
+import com.stangelo.saintangelo.models.QueueEntryView;
 import com.stangelo.saintangelo.models.Ticket;
 import com.stangelo.saintangelo.models.Doctor;
 import com.stangelo.saintangelo.models.Appointment;
 import com.stangelo.saintangelo.models.AppointmentStatus;
+import com.stangelo.saintangelo.services.AppointmentCalendarService;
+import com.stangelo.saintangelo.services.DischargeWorklistService;
+import com.stangelo.saintangelo.services.PatientMatchIndex;
 import com.stangelo.saintangelo.services.QueueManager;
 import com.stangelo.saintangelo.services.QueueService;
 
@@ -37,12 +46,12 @@ import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.chart.LineChart;
-import javafx.scene.chart.XYChart;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.BorderPane;
@@ -59,7 +68,7 @@ import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import javafx.util.Duration;
 
-public class ReceptionDashboardController implements Initializable {
+public class ReceptionDashboardController implements Initializable, ViewLifecycle {
 
     // --- FXML INJECTIONS ---
     @FXML private Button btnTabNew;
@@ -89,9 +98,9 @@ public class ReceptionDashboardController implements Initializable {
     
     // Queue Management Tab Containers
     @FXML private javafx.scene.control.TabPane queueTabPane;
-    @FXML private VBox waitingQueueContainer;
-    @FXML private VBox inProgressContainer;
-    @FXML private VBox completedContainer;
+    @FXML private ListView<QueueBoard.WaitingEntry> waitingQueueList;
+    @FXML private ListView<QueueEntryView> inProgressList;
+    @FXML private ListView<QueueEntryView> completedList;
 
     // New Patient Form Fields
     @FXML private TextField firstNameField;
@@ -153,23 +162,40 @@ public class ReceptionDashboardController implements Initializable {
     @FXML private Label apptCalendarMonthLabel;
     @FXML private GridPane apptCalendarGrid;
 
+    // Feeds of the stat charts, created on their first update
+    private final Map<LineChart<String, Number>, ChartFeed<String>> chartFeeds = new HashMap<>();
+
     // DAOs
     private PatientDAO patientDAO;
     private TicketDAO ticketDAO;
     private com.stangelo.saintangelo.dao.DischargeDAO dischargeDAO;
     private com.stangelo.saintangelo.dao.PrescriptionDAO prescriptionDAO;
-    private com.stangelo.saintangelo.dao.AppointmentDAO appointmentDAO;
     private com.stangelo.saintangelo.dao.DoctorDAO doctorDAO;
     
     // Currently selected existing patient
     private Patient selectedExistingPatient;
+
+    // Best match shown while typing in the existing-patient search (loaded when registering)
+    private PatientMatch previewedMatch;
+
+    // Request keys of the two registration forms; a new key is made when a form is cleared,
+    // so submitting the same form twice issues one ticket
+    private String newPatientRequestKey = UUID.randomUUID().toString();
+    private String existingPatientRequestKey = UUID.randomUUID().toString();
     
     // Currently selected discharge for modal
     private com.stangelo.saintangelo.models.Discharge currentDischarge;
+
+    // Worklist pages currently shown in the discharge table
+    private int dischargePagesShown;
     
     // Appointment state
     private Patient apptSelectedPatient; // Patient selected for appointment
     private java.time.YearMonth currentCalendarMonth; // Current month being displayed
+    private boolean appointmentChoicesLoaded; // Patient and doctor ComboBoxes filled
+
+    // Listeners on the shared queue; released when the view is disposed
+    private final ViewResources viewResources = new ViewResources();
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -178,17 +204,26 @@ public class ReceptionDashboardController implements Initializable {
         ticketDAO = new TicketDAO();
         dischargeDAO = new com.stangelo.saintangelo.dao.DischargeDAO();
         prescriptionDAO = new com.stangelo.saintangelo.dao.PrescriptionDAO();
-        appointmentDAO = new com.stangelo.saintangelo.dao.AppointmentDAO();
         doctorDAO = new com.stangelo.saintangelo.dao.DoctorDAO();
+
+        // A preloaded view only builds its controls here; onShow() loads its data when it is first shown
+        boolean preloading = ViewRegistry.getInstance().isPreloading();
         
         // Initialize discharge view if components are available
         if (dischargeTableContainer != null) {
             initializeDischargeView();
+            if (!preloading) {
+                loadDischargeData();
+            }
         }
         
         // Initialize appointment view if components are available
         if (apptDoctorComboBox != null) {
             initializeAppointmentView();
+            if (!preloading) {
+                loadAppointmentChoices();
+                renderCalendar();
+            }
         }
         
         // Bind queue number label to the currently serving ticket
@@ -213,19 +248,35 @@ public class ReceptionDashboardController implements Initializable {
             existingPriorityComboBox.getItems().addAll("Regular", "Senior Citizen", "Emergency");
             existingPriorityComboBox.setValue("Regular");
         }
+        // Show the best matching patient while the phone number is typed
+        if (searchPhoneField != null) {
+            searchPhoneField.textProperty().addListener((obs, oldText, newText) -> previewPatientMatch(newText));
+        }
         
         // Setup queue list listener
         if (queueListContainer != null) {
-            QueueService.getWaitingQueue().addListener((ListChangeListener<Ticket>) change -> {
+            viewResources.listen(QueueService.getWaitingQueue(), (ListChangeListener<Ticket>) change -> {
                 updateQueueDisplay();
             });
-            // Sync from database and refresh display
+        }
+        
+        // Set up the queue boards if they are available
+        if (waitingQueueList != null || inProgressList != null || completedList != null) {
+            initializeQueueBoards();
+        }
+
+        if (preloading) {
+            return;
+        }
+
+        // Sync from database and refresh display
+        if (queueListContainer != null) {
             QueueService.syncFromDatabase();
             updateQueueDisplay();
         }
         
-        // Load queue management data if containers are available
-        if (waitingQueueContainer != null || inProgressContainer != null || completedContainer != null) {
+        // Load queue management data if the boards are available
+        if (waitingQueueList != null || inProgressList != null || completedList != null) {
             loadQueueManagementData();
         }
         
@@ -244,6 +295,43 @@ public class ReceptionDashboardController implements Initializable {
             updateFooters();
         });
     }
+
+    /**
+     * Reloads this view's data when it is shown again from the view cache
+     */
+    @Override
+    public void onShow() {
+        if (apptDoctorComboBox != null && !appointmentChoicesLoaded) {
+            loadAppointmentChoices();
+        }
+        QueueService.syncFromDatabase();
+        if (queueListContainer != null) {
+            updateQueueDisplay();
+        }
+        if (waitingQueueList != null || inProgressList != null || completedList != null) {
+            loadQueueManagementData();
+        }
+        if (recentCallsContainer != null) {
+            loadRecentCalls();
+        }
+        if (dischargeTableContainer != null) {
+            loadDischargeData();
+        }
+        if (apptCalendarGrid != null) {
+            renderCalendar();
+        }
+        updateStats();
+        updateCharts();
+        updateFooters();
+    }
+
+    /**
+     * Detaches this view from the shared queue when the session ends
+     */
+    @Override
+    public void dispose() {
+        viewResources.dispose();
+    }
     
     /**
      * Refreshes queue data from QueueManager and updates UI
@@ -332,51 +420,33 @@ public class ReceptionDashboardController implements Initializable {
     
     /**
      * Helper method to update a line chart with daily data
+     * The first update fills the chart with an animation; later ones change it in place.
      */
-    private void updateLineChart(LineChart<String, Number> chart, java.util.Map<java.time.LocalDate, Integer> data, String color) {
-        chart.getData().clear();
-        
-        // Create series
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
-        
-        // Format dates and add data points
-        java.time.format.DateTimeFormatter dayFormatter = java.time.format.DateTimeFormatter.ofPattern("EEE");
-        for (java.util.Map.Entry<java.time.LocalDate, Integer> entry : data.entrySet()) {
-            String dayLabel = entry.getKey().format(dayFormatter);
-            series.getData().add(new XYChart.Data<>(dayLabel, entry.getValue()));
+    private void updateLineChart(LineChart<String, Number> chart, Map<LocalDate, Integer> data, String color) {
+        ChartFeed<String> feed = chartFeeds.get(chart);
+        if (feed == null) {
+            // Style the chart once; later refreshes only change the points that differ
+            chart.setStyle("-fx-background-color: transparent;");
+            chart.setCreateSymbols(false);
+            chart.setLegendVisible(false);
+
+            // Hide axes
+            chart.getXAxis().setVisible(false);
+            chart.getYAxis().setVisible(false);
+
+            feed = new ChartFeed<>(chart, "-fx-stroke: " + color + "; -fx-stroke-width: 2px;");
+            chartFeeds.put(chart, feed);
         }
-        
-        chart.getData().add(series);
-        
-        // Style the chart
-        chart.setStyle("-fx-background-color: transparent;");
-        chart.setAnimated(true); // Enable animation for smooth on-load effect
-        chart.setCreateSymbols(false);
-        chart.setLegendVisible(false);
-        
-        // Hide axes
-        chart.getXAxis().setVisible(false);
-        chart.getYAxis().setVisible(false);
-        
-        // Style the line using CSS
-        String chartId = chart.getId();
-        if (chartId == null || chartId.isEmpty()) {
-            chartId = "chart-" + System.identityHashCode(chart);
-            chart.setId(chartId);
+
+        // Format dates and collect data points
+        DateTimeFormatter dayFormatter = DateTimeFormatter.ofPattern("EEE");
+        List<String> days = new ArrayList<>(data.size());
+        List<Integer> values = new ArrayList<>(data.size());
+        for (Map.Entry<LocalDate, Integer> entry : data.entrySet()) {
+            days.add(entry.getKey().format(dayFormatter));
+            values.add(entry.getValue());
         }
-        
-        // Apply style to the series line
-        javafx.application.Platform.runLater(() -> {
-            javafx.scene.Node line = series.getNode().lookup(".chart-series-line");
-            if (line != null) {
-                line.setStyle("-fx-stroke: " + color + "; -fx-stroke-width: 2px;");
-            }
-            // Also style via CSS lookup
-            javafx.scene.Node chartNode = chart.lookup(".chart-series-line");
-            if (chartNode != null) {
-                chartNode.setStyle("-fx-stroke: " + color + "; -fx-stroke-width: 2px;");
-            }
-        });
+        feed.update(days, values);
     }
     
     /**
@@ -522,8 +592,9 @@ public class ReceptionDashboardController implements Initializable {
         // Store reference to the button that was clicked
         currentProcessButton = (Button) event.getSource();
         
-        // Get ticket from button's user data
-        Ticket ticket = (Ticket) currentProcessButton.getUserData();
+        // Load the visit's ticket now that it is being processed
+        DischargeWorklistItem item = (DischargeWorklistItem) currentProcessButton.getUserData();
+        Ticket ticket = item != null ? ticketDAO.findByVisitId(item.visitId()) : null;
         
         if (ticket == null) {
             showAlert(Alert.AlertType.WARNING, "Error", "No ticket found.");
@@ -536,7 +607,7 @@ public class ReceptionDashboardController implements Initializable {
         if (existingDischarge == null) {
             // Create new discharge record
             String dischargeId = "D" + System.currentTimeMillis() % 100000;
-            String department = ticketDAO.getDoctorDepartment(ticket.getAssignedDoctorId());
+            String department = item.department();
             if (department == null || department.isEmpty()) {
                 department = "General";
             }
@@ -573,6 +644,8 @@ public class ReceptionDashboardController implements Initializable {
                 showAlert(Alert.AlertType.ERROR, "Error", "Failed to create discharge record.");
                 return;
             }
+            DischargeWorklistService.getInstance().dischargeChanged(
+                ticket.getPatient().getId(), dischargeId, DischargeStatus.PENDING_REVIEW);
             
             currentDischarge = newDischarge;
         } else {
@@ -622,6 +695,8 @@ public class ReceptionDashboardController implements Initializable {
         boolean updated = dischargeDAO.updateStatus(currentDischarge.getDischargeId(), DischargeStatus.READY);
         
         if (updated) {
+            DischargeWorklistService.getInstance().dischargeChanged(
+                currentDischarge.getPatient().getId(), currentDischarge.getDischargeId(), DischargeStatus.READY);
             showAlert(Alert.AlertType.INFORMATION, "Success", "Patient information reviewed. Status updated to Ready.");
             closeModal();
             currentDischarge = null; // Clear current discharge
@@ -634,9 +709,9 @@ public class ReceptionDashboardController implements Initializable {
     @FXML
     private void handleDischarge(ActionEvent event) {
         Button btn = (Button) event.getSource();
-        Discharge discharge = (Discharge) btn.getUserData();
+        DischargeWorklistItem item = (DischargeWorklistItem) btn.getUserData();
         
-        if (discharge == null) {
+        if (item == null || item.dischargeId() == null) {
             showAlert(Alert.AlertType.WARNING, "Error", "No discharge record found.");
             return;
         }
@@ -645,19 +720,20 @@ public class ReceptionDashboardController implements Initializable {
         Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
         confirmAlert.setTitle("Confirm Discharge");
         confirmAlert.setHeaderText("Discharge Patient?");
-        confirmAlert.setContentText("Are you sure you want to discharge " + 
-            (discharge.getPatient() != null ? discharge.getPatient().getName() : "this patient") + "?");
+        confirmAlert.setContentText("Are you sure you want to discharge " + item.patientName() + "?");
         
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == javafx.scene.control.ButtonType.OK) {
                 // Update status to DISCHARGED and set discharge date
                 boolean updated = dischargeDAO.updateStatusAndDate(
-                    discharge.getDischargeId(), 
+                    item.dischargeId(), 
                     DischargeStatus.DISCHARGED,
                     java.time.LocalDateTime.now()
                 );
                 
                 if (updated) {
+                    DischargeWorklistService.getInstance().dischargeChanged(
+                        item.patientId(), item.dischargeId(), DischargeStatus.DISCHARGED);
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Patient discharged successfully.");
                     loadDischargeData(); // Refresh the table
                 } else {
@@ -771,47 +847,28 @@ public class ReceptionDashboardController implements Initializable {
             LocalDate.now().toString(), null
         );
 
-        // Save patient to database
-        boolean patientSaved = patientDAO.create(patient);
-        
-        if (patientSaved) {
-            // Generate ticket number
-            String ticketNumber = QueueService.generateNextTicket(fullName);
-            
-            // Create ticket object
-            Ticket ticket = new Ticket(
-                generateVisitId(),
-                ticketNumber,
-                patient,
-                com.stangelo.saintangelo.models.TicketStatus.WAITING,
-                priority,
-                java.time.LocalDateTime.now(),
-                null,
-                chiefComplaint,
-                null,
-                null
-            );
-            
-            // Enqueue the ticket (uses PriorityQueue and persists to database)
-            boolean enqueued = QueueService.enqueue(ticket);
-            
-            if (enqueued) {
-                // Refresh stats after creating a new ticket
-                updateStats();
-                updateCharts();
-                updateFooters();
-                
-                // Clear form
-                clearNewPatientForm();
-                
-                // Navigate to ticket view to show the generated ticket
-                navigateToTicketView(event);
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to add patient to queue. Please try again.");
-            }
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to register patient. Please try again.");
+        if (!confirmNewPatient(phoneNumber, firstName, lastName, age)) {
+            return;
         }
+
+        // Save patient and ticket together (journaled for later if the database is down)
+        QueueService.registerAndEnqueue(newPatientRequestKey, patient, true, priority, chiefComplaint)
+                .thenAccept(ticket -> {
+                    if (ticket != null) {
+                        // Refresh stats after creating a new ticket
+                        updateStats();
+                        updateCharts();
+                        updateFooters();
+
+                        // Clear form
+                        clearNewPatientForm();
+
+                        // Navigate to ticket view to show the generated ticket
+                        navigateToTicketView(event);
+                    } else {
+                        showAlert(Alert.AlertType.ERROR, "Error", "Failed to register patient. Please try again.");
+                    }
+                });
     }
     
     /**
@@ -826,13 +883,6 @@ public class ReceptionDashboardController implements Initializable {
         return PriorityLevel.REGULAR;
     }
     
-    /**
-     * Generates a unique visit ID for tickets
-     */
-    private String generateVisitId() {
-        return "V" + System.currentTimeMillis() % 100000;
-    }
-
     @FXML
     private void handleSearchPatient(ActionEvent event) {
         if (searchPhoneField == null) return;
@@ -843,8 +893,12 @@ public class ReceptionDashboardController implements Initializable {
             return;
         }
         
-        // Search for patient
-        selectedExistingPatient = patientDAO.findByPhoneNumber(phoneNumber);
+        // Search for patient: best ranked match from the index, or an exact match in the database
+        List<PatientMatch> matches = PatientMatchIndex.getInstance().findMatches(phoneNumber, null, null, null, 1);
+        selectedExistingPatient = !matches.isEmpty()
+                ? patientDAO.findById(matches.get(0).getPatientId())
+                : patientDAO.findByPhoneNumber(phoneNumber);
+        existingPatientRequestKey = UUID.randomUUID().toString();
         
         if (selectedExistingPatient != null) {
             // Show patient info
@@ -879,6 +933,9 @@ public class ReceptionDashboardController implements Initializable {
 
     @FXML
     private void handleRegisterExistingPatient(ActionEvent event) {
+        if (selectedExistingPatient == null && previewedMatch != null) {
+            selectedExistingPatient = patientDAO.findById(previewedMatch.getPatientId());
+        }
         if (selectedExistingPatient == null) {
             showAlert(Alert.AlertType.WARNING, "Error", "Please search for a patient first.");
             return;
@@ -889,53 +946,87 @@ public class ReceptionDashboardController implements Initializable {
         String priorityStr = existingPriorityComboBox != null && existingPriorityComboBox.getValue() != null ?
                             existingPriorityComboBox.getValue() : "Regular";
         
-        // Update patient's last visit date
-        patientDAO.updateLastVisitDate(selectedExistingPatient.getId(), LocalDate.now());
-        
         // Determine priority level
         PriorityLevel priority = mapStringToPriority(priorityStr, selectedExistingPatient.getAge());
         
-        // Generate ticket number
-        String ticketNumber = QueueService.generateNextTicket(selectedExistingPatient.getName());
-        
-        // Create ticket object
-        Ticket ticket = new Ticket(
-            generateVisitId(),
-            ticketNumber,
-            selectedExistingPatient,
-            com.stangelo.saintangelo.models.TicketStatus.WAITING,
-            priority,
-            java.time.LocalDateTime.now(),
-            null,
-            chiefComplaint,
-            null,
-            null
-        );
-        
-        // Enqueue the ticket (uses PriorityQueue and persists to database)
-        boolean enqueued = QueueService.enqueue(ticket);
-        
-        if (enqueued) {
-            // Refresh stats after creating a new ticket
-            updateStats();
-            updateCharts();
-            updateFooters();
-            
-            // Clear form
-            clearExistingPatientForm();
-            
-            // Navigate to ticket view to show the generated ticket
-            navigateToTicketView(event);
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to add patient to queue. Please try again.");
+        // Update the last visit date and save the ticket together
+        QueueService.registerAndEnqueue(existingPatientRequestKey, selectedExistingPatient, false,
+                priority, chiefComplaint)
+                .thenAccept(ticket -> {
+                    if (ticket != null) {
+                        // Refresh stats after creating a new ticket
+                        updateStats();
+                        updateCharts();
+                        updateFooters();
+
+                        // Clear form
+                        clearExistingPatientForm();
+
+                        // Navigate to ticket view to show the generated ticket
+                        navigateToTicketView(event);
+                    } else {
+                        showAlert(Alert.AlertType.ERROR, "Error", "Failed to add patient to queue. Please try again.");
+                    }
+                });
+    }
+
+    /**
+     * Shows the best matching existing patient while the search phone number is typed
+     * Uses the in-memory index only; the full record is loaded when the patient is registered.
+     */
+    private void previewPatientMatch(String typed) {
+        List<PatientMatch> matches = typed == null || typed.isBlank()
+                ? List.of()
+                : PatientMatchIndex.getInstance().findMatches(typed, null, null, null, 3);
+        previewedMatch = matches.isEmpty() ? null : matches.get(0);
+        selectedExistingPatient = null;
+
+        boolean found = previewedMatch != null;
+        if (existingPatientInfo != null) {
+            existingPatientInfo.setVisible(found);
+            existingPatientInfo.setManaged(found);
+        }
+        if (btnRegisterExisting != null) {
+            btnRegisterExisting.setDisable(!found);
+        }
+        if (!found) {
+            return;
+        }
+        if (existingPatientNameLabel != null) {
+            existingPatientNameLabel.setText(previewedMatch.getName());
+        }
+        if (existingPatientDetailsLabel != null) {
+            existingPatientDetailsLabel.setText("Age: " + previewedMatch.getAge() +
+                " | Phone: " + previewedMatch.getPhoneNumber() +
+                (matches.size() > 1 ? " | " + (matches.size() - 1) + " other match(es)" : ""));
+        }
+    }
+
+    /**
+     * Warns when a new registration is probably a patient who is already registered
+     *
+     * @return true to go ahead and register a new patient
+     */
+    private boolean confirmNewPatient(String phoneNumber, String firstName, String lastName, int age) {
+        PatientMatch duplicate = PatientMatchIndex.getInstance().findProbableDuplicate(phoneNumber, firstName, lastName, age);
+        if (duplicate == null) {
+            return true;
         }
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Possible Existing Patient");
+        alert.setHeaderText(null);
+        alert.setContentText("This looks like an existing patient:\n\n" +
+            duplicate.getName() + "\nAge: " + duplicate.getAge() + " | Phone: " + duplicate.getPhoneNumber() + "\n\n" +
+            "Use the existing patient search to register a returning patient.\n" +
+            "Register as a new patient anyway?");
+        return alert.showAndWait().filter(button -> button == javafx.scene.control.ButtonType.OK).isPresent();
     }
 
     // --- HELPER METHODS FOR REGISTRATION ---
     
     private String generatePatientId() {
         // Generate unique patient ID: P + timestamp + random
-        return "P" + System.currentTimeMillis() % 100000;
+        return QueueService.newPatientId();
     }
     
     /**
@@ -952,6 +1043,7 @@ public class ReceptionDashboardController implements Initializable {
         if (ageField != null) ageField.clear();
         if (chiefComplaintArea != null) chiefComplaintArea.clear();
         if (priorityComboBox != null) priorityComboBox.setValue("Regular");
+        newPatientRequestKey = UUID.randomUUID().toString();
     }
     
     private void clearExistingPatientForm() {
@@ -964,6 +1056,7 @@ public class ReceptionDashboardController implements Initializable {
         }
         if (btnRegisterExisting != null) btnRegisterExisting.setDisable(true);
         selectedExistingPatient = null;
+        existingPatientRequestKey = UUID.randomUUID().toString();
     }
 
     // --- QUEUE GENERATION HANDLER ---
@@ -978,19 +1071,6 @@ public class ReceptionDashboardController implements Initializable {
     @FXML
     private void handleNavDashboard(ActionEvent event) {
         loadView(event, "/fxml/receptionist-dashboard-view.fxml");
-        // Refresh data after view loads
-        javafx.application.Platform.runLater(() -> {
-            QueueService.syncFromDatabase();
-            updateStats();
-            updateCharts();
-            updateFooters();
-            if (recentCallsContainer != null) {
-                loadRecentCalls();
-            }
-            if (queueListContainer != null) {
-                updateQueueDisplay();
-            }
-        });
     }
 
     @FXML
@@ -1001,22 +1081,12 @@ public class ReceptionDashboardController implements Initializable {
     @FXML
     private void handleNavQueue(ActionEvent event) {
         loadView(event, "/fxml/receptionist-queueManagement-view.fxml");
-        // Refresh queue data after view loads
-        javafx.application.Platform.runLater(() -> {
-            loadQueueManagementData();
-        });
     }
 
     @FXML
     private void handleNavAppointments(ActionEvent event) {
         // UPDATED: Navigate to Appointments screen
         loadView(event, "/fxml/receptionist-appointments-view.fxml");
-        // Initialize appointment view after loading
-        javafx.application.Platform.runLater(() -> {
-            if (apptDoctorComboBox != null) {
-                initializeAppointmentView();
-            }
-        });
     }
 
     @FXML
@@ -1034,6 +1104,9 @@ public class ReceptionDashboardController implements Initializable {
             Stage currentStage = (Stage) ((Node) event.getSource()).getScene().getWindow();
             currentStage.close();
 
+            // Cached views belong to this session
+            ViewRegistry.getInstance().clear();
+
             // 2. Load Login View
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/login-view.fxml"));
             Parent loginView = loader.load();
@@ -1102,17 +1175,35 @@ public class ReceptionDashboardController implements Initializable {
 
     // --- QUEUE MANAGEMENT METHODS ---
     
+    /**
+     * Sets up the queue boards once; refreshes only update their items
+     */
+    private void initializeQueueBoards() {
+        if (waitingQueueList != null) {
+            QueueBoard.configure(waitingQueueList, "No patients waiting",
+                    () -> new QueueBoard.WaitingCell(this::handleRemoveTicket, this::handleEscalatePriority));
+        }
+        if (inProgressList != null) {
+            QueueBoard.configure(inProgressList, "No patients currently in service",
+                    () -> new QueueBoard.InProgressCell(this::handleDeleteInProgressTicket));
+        }
+        if (completedList != null) {
+            QueueBoard.configure(completedList, "No completed visits today",
+                    () -> new QueueBoard.CompletedCell(this::handleViewPatientDetails));
+        }
+    }
+    
     /**
      * Loads and displays queue management data for all three tabs
      */
     private void loadQueueManagementData() {
-        if (waitingQueueContainer != null) {
+        if (waitingQueueList != null) {
             loadWaitingQueue();
         }
-        if (inProgressContainer != null) {
+        if (inProgressList != null) {
             loadInProgressQueue();
         }
-        if (completedContainer != null) {
+        if (completedList != null) {
             loadCompletedQueue();
         }
     }
@@ -1122,9 +1213,7 @@ public class ReceptionDashboardController implements Initializable {
      * Uses QueueManager to get tickets in the same order as Dashboard
      */
     private void loadWaitingQueue() {
-        if (waitingQueueContainer == null) return;
-        
-        waitingQueueContainer.getChildren().clear();
+        if (waitingQueueList == null) return;
         
         // Sync from database first to ensure QueueManager has latest data
         QueueService.syncFromDatabase();
@@ -1132,319 +1221,29 @@ public class ReceptionDashboardController implements Initializable {
         // Get all waiting tickets from QueueManager (uses PriorityQueue ordering)
         List<Ticket> waitingTickets = QueueManager.getInstance().getAllWaiting();
         
-        if (waitingTickets.isEmpty()) {
-            Label emptyLabel = new Label("No patients waiting");
-            emptyLabel.getStyleClass().add("queue-empty-label");
-            waitingQueueContainer.getChildren().add(emptyLabel);
-        } else {
-            int position = 1;
-            for (Ticket ticket : waitingTickets) {
-                HBox card = createWaitingQueueCard(ticket, position++);
-                waitingQueueContainer.getChildren().add(card);
-            }
+        List<QueueBoard.WaitingEntry> entries = new ArrayList<>(waitingTickets.size());
+        for (Ticket ticket : waitingTickets) {
+            entries.add(QueueBoard.WaitingEntry.of(ticket));
         }
-    }
-    
-    /**
-     * Creates a card for a waiting queue ticket
-     */
-    private HBox createWaitingQueueCard(Ticket ticket, int position) {
-        HBox card = new HBox(20);
-        card.getStyleClass().addAll("q-card", "q-card-waiting");
-        card.setAlignment(Pos.CENTER_LEFT);
-        
-        // Queue position number
-        StackPane positionCircle = new StackPane();
-        positionCircle.getStyleClass().add("queue-number-circle");
-        Label positionLabel = new Label(String.valueOf(position));
-        positionLabel.getStyleClass().add("queue-number-text");
-        positionCircle.getChildren().add(positionLabel);
-        
-        // Patient info
-        VBox patientInfo = new VBox(5);
-        patientInfo.setAlignment(Pos.CENTER_LEFT);
-        HBox.setHgrow(patientInfo, Priority.ALWAYS);
-        
-        Patient patient = ticket.getPatient();
-        String patientName = patient != null ? patient.getName() : "Unknown";
-        int age = patient != null ? patient.getAge() : 0;
-        String ticketNumber = ticket.getTicketNumber();
-        String chiefComplaint = ticket.getServiceType() != null ? ticket.getServiceType() : "N/A";
-        String phoneNumber = patient != null && patient.getContactNumber() != null ? 
-                            patient.getContactNumber() : "N/A";
-        
-        // Name, age, priority badge
-        HBox nameRow = new HBox(10);
-        nameRow.setAlignment(Pos.CENTER_LEFT);
-        Label nameLabel = new Label(patientName);
-        nameLabel.getStyleClass().add("text-name");
-        Label ageLabel = new Label("• Age " + age);
-        ageLabel.getStyleClass().add("text-meta");
-        Label priorityBadge = new Label(getPriorityDisplayText(ticket.getPriority()));
-        priorityBadge.getStyleClass().addAll("badge-pill", getPriorityBadgeStyleClass(ticket.getPriority()));
-        nameRow.getChildren().addAll(nameLabel, ageLabel, priorityBadge);
-        
-        // Ticket ID, complaint, phone
-        HBox detailsRow = new HBox(15);
-        detailsRow.setAlignment(Pos.CENTER_LEFT);
-        Label ticketIdLabel = new Label("ID: " + ticketNumber);
-        ticketIdLabel.getStyleClass().add("text-sub");
-        Label complaintLabel = new Label("• " + chiefComplaint);
-        complaintLabel.getStyleClass().add("text-sub");
-        Label phoneLabel = new Label("📞 " + phoneNumber);
-        phoneLabel.getStyleClass().add("text-sub");
-        detailsRow.getChildren().addAll(ticketIdLabel, complaintLabel, phoneLabel);
-        
-        patientInfo.getChildren().addAll(nameRow, detailsRow);
-        
-        // Wait time
-        VBox waitTimeBox = new VBox(5);
-        waitTimeBox.setAlignment(Pos.CENTER_RIGHT);
-        Label waitTimeLabel = new Label("Wait Time");
-        waitTimeLabel.getStyleClass().add("text-meta");
-        long waitMinutes = java.time.Duration.between(ticket.getCreatedTime(), java.time.LocalDateTime.now()).toMinutes();
-        Label waitTimeValue = new Label(waitMinutes + " min");
-        waitTimeValue.getStyleClass().add("wait-time-text");
-        if (ticket.getPriority() == PriorityLevel.EMERGENCY) {
-            waitTimeValue.setStyle("-fx-text-fill: #e74c3c;");
-        }
-        waitTimeBox.getChildren().addAll(waitTimeLabel, waitTimeValue);
-        
-        // Remove button
-        Button removeBtn = new Button();
-        removeBtn.getStyleClass().add("icon-btn-trash");
-        removeBtn.setOnAction(e -> handleRemoveTicket(ticket));
-        javafx.scene.shape.SVGPath trashIcon = new javafx.scene.shape.SVGPath();
-        trashIcon.setContent("M6 19c0 1.1.9 2 2 2h8c1.1 0 2-.9 2-2V7H6v12zM19 4h-3.5l-1-1h-5l-1 1H5v2h14V4z");
-        trashIcon.setFill(javafx.scene.paint.Color.WHITE);
-        trashIcon.setScaleX(0.7);
-        trashIcon.setScaleY(0.7);
-        removeBtn.setGraphic(trashIcon);
-        
-        // Escalate button
-        Button escalateBtn = new Button();
-        escalateBtn.getStyleClass().add("icon-btn-escalate");
-        escalateBtn.setOnAction(e -> handleEscalatePriority(ticket));
-        try {
-            javafx.scene.image.ImageView escalateIcon = new javafx.scene.image.ImageView(
-                new javafx.scene.image.Image(getClass().getResourceAsStream("/images/escalate.png"))
-            );
-            escalateIcon.setFitHeight(20);
-            escalateIcon.setFitWidth(20);
-            escalateIcon.setOpacity(0.8);
-            escalateBtn.setGraphic(escalateIcon);
-        } catch (Exception e) {
-            // If image not found, use text label
-            escalateBtn.setText("↑");
-            escalateBtn.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
-        }
-        
-        HBox actionButtons = new HBox(10);
-        actionButtons.setAlignment(Pos.CENTER_RIGHT);
-        actionButtons.getChildren().addAll(removeBtn, escalateBtn);
-        
-        card.getChildren().addAll(positionCircle, patientInfo, waitTimeBox, actionButtons);
-        
-        return card;
+        QueueBoard.update(waitingQueueList.getItems(), entries, QueueBoard.WaitingEntry::visitId);
     }
     
     /**
      * Loads and displays in-progress tickets
      */
     private void loadInProgressQueue() {
-        if (inProgressContainer == null) return;
-        
-        inProgressContainer.getChildren().clear();
-        
-        List<Ticket> inProgressTickets = ticketDAO.findInServiceTickets();
-        
-        if (inProgressTickets.isEmpty()) {
-            Label emptyLabel = new Label("No patients currently in service");
-            emptyLabel.getStyleClass().add("queue-empty-label");
-            inProgressContainer.getChildren().add(emptyLabel);
-        } else {
-            for (Ticket ticket : inProgressTickets) {
-                HBox card = createInProgressCard(ticket);
-                inProgressContainer.getChildren().add(card);
-            }
-        }
-    }
-    
-    /**
-     * Creates a card for an in-progress ticket
-     */
-    private HBox createInProgressCard(Ticket ticket) {
-        HBox card = new HBox(20);
-        card.getStyleClass().addAll("q-card", "q-card-progress");
-        card.setAlignment(Pos.CENTER_LEFT);
-        
-        // Avatar circle
-        StackPane avatarPane = new StackPane();
-        javafx.scene.shape.Circle circle = new javafx.scene.shape.Circle(25, javafx.scene.paint.Color.valueOf("#e3f2fd"));
-        javafx.scene.shape.SVGPath avatarIcon = new javafx.scene.shape.SVGPath();
-        avatarIcon.setContent("M12 12c2.21 0 4-1.79 4-4s-1.79-4-4-4-4 1.79-4 4 1.79 4 4 4zm0 2c-2.67 0-8 1.34-8 4v2h16v-2c0-2.66-5.33-4-8-4z");
-        avatarIcon.setScaleX(1.5);
-        avatarIcon.setScaleY(1.5);
-        avatarIcon.getStyleClass().add("avatar-circle-blue");
-        avatarPane.getChildren().addAll(circle, avatarIcon);
-        
-        // Patient info
-        VBox patientInfo = new VBox(5);
-        patientInfo.setAlignment(Pos.CENTER_LEFT);
-        HBox.setHgrow(patientInfo, Priority.ALWAYS);
-        
-        Patient patient = ticket.getPatient();
-        String patientName = patient != null ? patient.getName() : "Unknown";
-        int age = patient != null ? patient.getAge() : 0;
-        String ticketNumber = ticket.getTicketNumber();
-        String chiefComplaint = ticket.getServiceType() != null ? ticket.getServiceType() : "N/A";
-        String doctorName = ticket.getAssignedDoctorName() != null ? ticket.getAssignedDoctorName() : "Unassigned";
-        
-        // Name, age, status badge
-        HBox nameRow = new HBox(10);
-        nameRow.setAlignment(Pos.CENTER_LEFT);
-        Label nameLabel = new Label(patientName);
-        nameLabel.getStyleClass().add("text-name");
-        Label ageLabel = new Label("• Age " + age);
-        ageLabel.getStyleClass().add("text-meta");
-        Label statusBadge = new Label("Consulting");
-        statusBadge.getStyleClass().addAll("badge-pill", "badge-consulting");
-        nameRow.getChildren().addAll(nameLabel, ageLabel, statusBadge);
-        
-        // Ticket ID, complaint, doctor
-        HBox detailsRow = new HBox(15);
-        detailsRow.setAlignment(Pos.CENTER_LEFT);
-        Label ticketIdLabel = new Label("ID: " + ticketNumber);
-        ticketIdLabel.getStyleClass().add("text-sub");
-        Label complaintLabel = new Label("• " + chiefComplaint);
-        complaintLabel.getStyleClass().add("text-sub");
-        Label doctorLabel = new Label("• Dr. " + doctorName);
-        doctorLabel.getStyleClass().add("text-sub");
-        detailsRow.getChildren().addAll(ticketIdLabel, complaintLabel, doctorLabel);
-        
-        patientInfo.getChildren().addAll(nameRow, detailsRow);
-        
-        // Delete button
-        Button deleteBtn = new Button();
-        deleteBtn.getStyleClass().add("icon-btn-trash");
-        deleteBtn.setOnAction(e -> handleDeleteInProgressTicket(ticket));
-        javafx.scene.shape.SVGPath trashIcon = new javafx.scene.shape.SVGPath();
-        trashIcon.setContent("M6 19c0 1.1.9 2 2 2h8c1.1 0 2-.9 2-2V7H6v12zM19 4h-3.5l-1-1h-5l-1 1H5v2h14V4z");
-        trashIcon.setFill(javafx.scene.paint.Color.WHITE);
-        trashIcon.setScaleX(0.7);
-        trashIcon.setScaleY(0.7);
-        deleteBtn.setGraphic(trashIcon);
-        
-        HBox actionButtons = new HBox(10);
-        actionButtons.setAlignment(Pos.CENTER_RIGHT);
-        actionButtons.getChildren().add(deleteBtn);
-        
-        card.getChildren().addAll(avatarPane, patientInfo, actionButtons);
+        if (inProgressList == null) return;
         
-        return card;
+        QueueBoard.update(inProgressList.getItems(), ticketDAO.findInServiceEntries(), QueueEntryView::visitId);
     }
     
     /**
      * Loads and displays completed tickets for today
      */
     private void loadCompletedQueue() {
-        if (completedContainer == null) return;
-        
-        completedContainer.getChildren().clear();
-        
-        List<Ticket> completedTickets = ticketDAO.findCompletedToday();
+        if (completedList == null) return;
         
-        if (completedTickets.isEmpty()) {
-            Label emptyLabel = new Label("No completed visits today");
-            emptyLabel.getStyleClass().add("queue-empty-label");
-            completedContainer.getChildren().add(emptyLabel);
-        } else {
-            for (Ticket ticket : completedTickets) {
-                HBox card = createCompletedCard(ticket);
-                completedContainer.getChildren().add(card);
-            }
-        }
-    }
-    
-    /**
-     * Creates a card for a completed ticket
-     */
-    private HBox createCompletedCard(Ticket ticket) {
-        HBox card = new HBox(20);
-        card.getStyleClass().addAll("q-card", "q-card-completed");
-        card.setAlignment(Pos.CENTER_LEFT);
-        
-        // Checkmark circle
-        StackPane checkPane = new StackPane();
-        javafx.scene.shape.Circle circle = new javafx.scene.shape.Circle(20, javafx.scene.paint.Color.valueOf("#2e7d32"));
-        javafx.scene.shape.SVGPath checkIcon = new javafx.scene.shape.SVGPath();
-        checkIcon.setContent("M9 16.17L4.83 12l-1.42 1.41L9 19 21 7l-1.41-1.41z");
-        checkIcon.setFill(javafx.scene.paint.Color.WHITE);
-        checkIcon.setScaleX(0.8);
-        checkIcon.setScaleY(0.8);
-        checkPane.getChildren().addAll(circle, checkIcon);
-        
-        // Patient info
-        VBox patientInfo = new VBox(5);
-        patientInfo.setAlignment(Pos.CENTER_LEFT);
-        HBox.setHgrow(patientInfo, Priority.ALWAYS);
-        
-        Patient patient = ticket.getPatient();
-        String patientName = patient != null ? patient.getName() : "Unknown";
-        int age = patient != null ? patient.getAge() : 0;
-        String ticketNumber = ticket.getTicketNumber();
-        String chiefComplaint = ticket.getServiceType() != null ? ticket.getServiceType() : "N/A";
-        
-        // Format completion time
-        String completedTime = "N/A";
-        if (ticket.getCalledTime() != null) {
-            completedTime = ticket.getCalledTime().format(java.time.format.DateTimeFormatter.ofPattern("hh:mm a"));
-        }
-        
-        // Name, age, priority badge
-        HBox nameRow = new HBox(10);
-        nameRow.setAlignment(Pos.CENTER_LEFT);
-        Label nameLabel = new Label(patientName);
-        nameLabel.getStyleClass().add("text-name");
-        Label ageLabel = new Label("• Age " + age);
-        ageLabel.getStyleClass().add("text-meta");
-        Label priorityBadge = new Label(getPriorityDisplayText(ticket.getPriority()));
-        priorityBadge.getStyleClass().addAll("badge-pill", getPriorityBadgeStyleClass(ticket.getPriority()));
-        nameRow.getChildren().addAll(nameLabel, ageLabel, priorityBadge);
-        
-        // Ticket ID, complaint, completion time
-        HBox detailsRow = new HBox(15);
-        detailsRow.setAlignment(Pos.CENTER_LEFT);
-        Label ticketIdLabel = new Label("ID: " + ticketNumber);
-        ticketIdLabel.getStyleClass().add("text-sub");
-        Label complaintLabel = new Label("• " + chiefComplaint);
-        complaintLabel.getStyleClass().add("text-sub");
-        Label timeLabel = new Label("• Completed at " + completedTime);
-        timeLabel.getStyleClass().add("text-sub");
-        detailsRow.getChildren().addAll(ticketIdLabel, complaintLabel, timeLabel);
-        
-        patientInfo.getChildren().addAll(nameRow, detailsRow);
-        
-        // View Details button
-        Button viewDetailsBtn = new Button("View Details");
-        viewDetailsBtn.getStyleClass().add("btn-view-details");
-        viewDetailsBtn.setOnAction(e -> handleViewPatientDetails(ticket));
-        
-        card.getChildren().addAll(checkPane, patientInfo, viewDetailsBtn);
-        
-        return card;
-    }
-    
-    /**
-     * Gets CSS style class for priority badge
-     */
-    private String getPriorityBadgeStyleClass(PriorityLevel priority) {
-        if (priority == null) return "badge-blue";
-        switch (priority) {
-            case EMERGENCY: return "badge-red";
-            case SENIOR_CITIZEN: return "badge-yellow";
-            default: return "badge-blue";
-        }
+        QueueBoard.update(completedList.getItems(), ticketDAO.findCompletedTodayEntries(), QueueEntryView::visitId);
     }
     
     /**
@@ -1476,17 +1275,17 @@ public class ReceptionDashboardController implements Initializable {
     /**
      * Handles deleting a ticket from the in-progress queue
      */
-    private void handleDeleteInProgressTicket(Ticket ticket) {
+    private void handleDeleteInProgressTicket(QueueEntryView entry) {
         Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
         confirmAlert.setTitle("Delete Ticket");
         confirmAlert.setHeaderText("Delete Ticket from In Progress?");
         confirmAlert.setContentText("Are you sure you want to permanently delete the ticket for " + 
-            (ticket.getPatient() != null ? ticket.getPatient().getName() : "this patient") + 
+            entry.patientName() + 
             "? This action cannot be undone.");
         
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == javafx.scene.control.ButtonType.OK) {
-                boolean deleted = ticketDAO.deleteTicket(ticket.getVisitId());
+                boolean deleted = ticketDAO.deleteTicket(entry.visitId());
                 if (deleted) {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Ticket deleted successfully.");
                     // Sync with QueueManager and refresh queue data
@@ -1534,21 +1333,17 @@ public class ReceptionDashboardController implements Initializable {
     /**
      * Handles viewing patient details
      */
-    private void handleViewPatientDetails(Ticket ticket) {
-        Patient patient = ticket.getPatient();
-        if (patient == null) {
+    private void handleViewPatientDetails(QueueEntryView entry) {
+        // Load the full ticket and patient only now that the dialog is opened
+        Ticket ticket = ticketDAO.findByVisitId(entry.visitId());
+        Patient patient = patientDAO.findById(entry.patientId());
+        if (ticket == null || patient == null) {
             showAlert(Alert.AlertType.WARNING, "No Patient Data", "Patient information not available.");
             return;
         }
         
-        // Load full patient data from database
-        Patient fullPatient = patientDAO.findById(patient.getId());
-        if (fullPatient == null) {
-            fullPatient = patient; // Use ticket patient if not found
-        }
-        
         // Create and show patient details dialog
-        showPatientDetailsDialog(fullPatient, ticket);
+        showPatientDetailsDialog(patient, ticket);
     }
     
     /**
@@ -1666,15 +1461,15 @@ public class ReceptionDashboardController implements Initializable {
         recentCallsContainer.getChildren().clear();
         
         // Get recent calls from database (last 10)
-        List<Ticket> recentCalls = ticketDAO.findRecentCalls(10);
+        List<QueueEntryView> recentCalls = ticketDAO.findRecentCallEntries(10);
         
         if (recentCalls.isEmpty()) {
             Label emptyLabel = new Label("No recent calls");
             emptyLabel.setStyle("-fx-text-fill: #888; -fx-font-style: italic; -fx-padding: 20;");
             recentCallsContainer.getChildren().add(emptyLabel);
         } else {
-            for (Ticket ticket : recentCalls) {
-                VBox card = createRecentCallCard(ticket);
+            for (QueueEntryView entry : recentCalls) {
+                VBox card = createRecentCallCard(entry);
                 recentCallsContainer.getChildren().add(card);
             }
         }
@@ -1683,7 +1478,7 @@ public class ReceptionDashboardController implements Initializable {
     /**
      * Creates a card for a recent call
      */
-    private VBox createRecentCallCard(Ticket ticket) {
+    private VBox createRecentCallCard(QueueEntryView entry) {
         VBox card = new VBox(5);
         card.getStyleClass().add("recent-call-card");
         
@@ -1691,7 +1486,7 @@ public class ReceptionDashboardController implements Initializable {
         HBox topRow = new HBox();
         topRow.setAlignment(Pos.CENTER_LEFT);
         
-        Label ticketIdLabel = new Label(ticket.getTicketNumber());
+        Label ticketIdLabel = new Label(entry.ticketNumber());
         ticketIdLabel.getStyleClass().add("ticket-id");
         
         Region spacer = new Region();
@@ -1699,8 +1494,8 @@ public class ReceptionDashboardController implements Initializable {
         
         // Format called time
         String callTime = "N/A";
-        if (ticket.getCalledTime() != null) {
-            callTime = ticket.getCalledTime().format(java.time.format.DateTimeFormatter.ofPattern("HH:mm"));
+        if (entry.calledTime() != null) {
+            callTime = entry.calledTime().format(java.time.format.DateTimeFormatter.ofPattern("HH:mm"));
         }
         Label timeLabel = new Label(callTime);
         timeLabel.getStyleClass().add("call-time-small");
@@ -1711,7 +1506,7 @@ public class ReceptionDashboardController implements Initializable {
         HBox bottomRow = new HBox(10);
         bottomRow.setAlignment(Pos.CENTER_LEFT);
         
-        String serviceType = ticket.getServiceType() != null ? ticket.getServiceType() : "Consultation";
+        String serviceType = entry.serviceType() != null ? entry.serviceType() : "Consultation";
         Label categoryLabel = new Label(serviceType);
         categoryLabel.getStyleClass().add("call-category");
         
@@ -1720,7 +1515,7 @@ public class ReceptionDashboardController implements Initializable {
         
         // Priority badge
         Label priorityBadge = new Label();
-        PriorityLevel priority = ticket.getPriority();
+        PriorityLevel priority = entry.priority();
         if (priority == PriorityLevel.EMERGENCY) {
             priorityBadge.setText("Emergency");
             priorityBadge.setStyle("-fx-background-color: #fee2e2; -fx-text-fill: #b91c1c; -fx-padding: 2 8; -fx-background-radius: 4; -fx-font-size: 11px; -fx-font-weight: bold;");
@@ -1740,14 +1535,12 @@ public class ReceptionDashboardController implements Initializable {
 
     private void loadView(ActionEvent event, String fxmlPath) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Parent root = loader.load();
+            // Cached views are reused; their controllers refresh in onShow()
+            Scene scene = ((Node) event.getSource()).getScene();
+            Parent root = ViewRegistry.getInstance().show(scene, fxmlPath);
 
             root.setOpacity(0);
 
-            Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-            stage.getScene().setRoot(root);
-
             FadeTransition fadeTransition = new FadeTransition(Duration.millis(300), root);
             fadeTransition.setFromValue(0.0);
             fadeTransition.setToValue(1.0);
@@ -1785,96 +1578,63 @@ public class ReceptionDashboardController implements Initializable {
                 loadDischargeData();
             });
         }
-        
-        // Load initial data
-        loadDischargeData();
     }
     
     /**
      * Loads and displays discharge data based on current filters
-     * Shows completed tickets that don't have discharge records yet
+     * Shows the first page of completed visits with their latest discharge status
      */
     private void loadDischargeData() {
         if (dischargeTableContainer == null) return;
         
         dischargeTableContainer.getChildren().clear();
+        dischargePagesShown = 0;
         
-        // Get all completed tickets
-        List<Ticket> completedTickets = ticketDAO.findAllCompleted();
-        
-        // Get search term
-        String searchTerm = searchField != null ? searchField.getText().trim().toLowerCase() : "";
-        String statusFilter = statusFilterComboBox != null && statusFilterComboBox.getValue() != null 
-            ? statusFilterComboBox.getValue() : "All Status";
-        
-        // Filter tickets: exclude those that already have discharge records
-        List<Ticket> filteredTickets = new ArrayList<>();
-        for (Ticket ticket : completedTickets) {
-            // Skip if patient already has a discharge record
-            if (dischargeDAO.hasDischargeRecord(ticket.getPatient().getId())) {
-                // If filtering by status, check the discharge status
-                if (!"All Status".equals(statusFilter)) {
-                    Discharge existingDischarge = dischargeDAO.findByPatientId(ticket.getPatient().getId());
-                    if (existingDischarge != null) {
-                        DischargeStatus filterStatus = mapStringToDischargeStatus(statusFilter);
-                        if (existingDischarge.getStatus() == filterStatus) {
-                            // Include this ticket if it matches the status filter
-                            if (matchesSearch(ticket, searchTerm)) {
-                                filteredTickets.add(ticket);
-                            }
-                        }
-                    }
-                } else {
-                    // Include tickets with existing discharge records when showing all
-                    if (matchesSearch(ticket, searchTerm)) {
-                        filteredTickets.add(ticket);
-                    }
-                }
-            } else {
-                // No discharge record - show as "Pending Review"
-                if ("All Status".equals(statusFilter) || "Pending Review".equals(statusFilter)) {
-                    if (matchesSearch(ticket, searchTerm)) {
-                        filteredTickets.add(ticket);
-                    }
-                }
-            }
-        }
-        
-        if (filteredTickets.isEmpty()) {
+        List<DischargeWorklistItem> items = loadDischargePage(0);
+        if (items.isEmpty()) {
             Label emptyLabel = new Label("No completed tickets found");
             emptyLabel.getStyleClass().add("queue-empty-label");
             dischargeTableContainer.getChildren().add(emptyLabel);
-        } else {
-            for (Ticket ticket : filteredTickets) {
-                GridPane row = createDischargeRow(ticket);
-                dischargeTableContainer.getChildren().add(row);
-            }
+            return;
         }
+        showDischargeItems(items);
     }
     
     /**
-     * Checks if a ticket matches the search term
+     * Loads one worklist page for the current search and status filter
      */
-    private boolean matchesSearch(Ticket ticket, String searchTerm) {
-        if (searchTerm.isEmpty()) {
-            return true;
-        }
+    private List<DischargeWorklistItem> loadDischargePage(int page) {
+        String searchTerm = searchField != null ? searchField.getText().trim() : "";
+        String statusFilter = statusFilterComboBox != null && statusFilterComboBox.getValue() != null 
+            ? statusFilterComboBox.getValue() : "All Status";
         
-        Patient patient = ticket.getPatient();
-        if (patient == null) {
-            return false;
+        dischargePagesShown = page + 1;
+        return DischargeWorklistService.getInstance().getPage(mapStringToDischargeStatus(statusFilter), searchTerm, page);
+    }
+    
+    /**
+     * Appends worklist rows, followed by a "Show more" button when the page was full
+     */
+    private void showDischargeItems(List<DischargeWorklistItem> items) {
+        for (DischargeWorklistItem item : items) {
+            dischargeTableContainer.getChildren().add(createDischargeRow(item));
         }
         
-        String patientId = patient.getId() != null ? patient.getId().toLowerCase() : "";
-        String patientName = patient.getName() != null ? patient.getName().toLowerCase() : "";
-        
-        return patientId.contains(searchTerm) || patientName.contains(searchTerm);
+        if (items.size() == DischargeWorklistService.PAGE_SIZE) {
+            Button showMoreBtn = new Button("Show more");
+            showMoreBtn.getStyleClass().add("btn-view-details");
+            showMoreBtn.setOnAction(e -> {
+                dischargeTableContainer.getChildren().remove(showMoreBtn);
+                showDischargeItems(loadDischargePage(dischargePagesShown));
+            });
+            dischargeTableContainer.getChildren().add(showMoreBtn);
+        }
     }
     
     /**
-     * Creates a table row for a completed ticket (for discharge processing)
+     * Creates a table row for a completed visit (for discharge processing)
      */
-    private GridPane createDischargeRow(Ticket ticket) {
+    private GridPane createDischargeRow(DischargeWorklistItem item) {
         GridPane row = new GridPane();
         row.getStyleClass().add("table-data-row");
         
@@ -1900,48 +1660,34 @@ public class ReceptionDashboardController implements Initializable {
         
         row.getColumnConstraints().addAll(col1, col2, col3, col4, col5, col6);
         
-        Patient patient = ticket.getPatient();
-        
         // Patient ID
-        Label patientIdLabel = new Label(patient.getId());
+        Label patientIdLabel = new Label(item.patientId());
         patientIdLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #333;");
         GridPane.setColumnIndex(patientIdLabel, 0);
         row.getChildren().add(patientIdLabel);
         
         // Patient Name
-        Label nameLabel = new Label(patient.getName());
+        Label nameLabel = new Label(item.patientName());
         nameLabel.setStyle("-fx-text-fill: #555555;");
         GridPane.setColumnIndex(nameLabel, 1);
         row.getChildren().add(nameLabel);
         
         // Department (from doctor)
-        String department = "N/A";
-        if (ticket.getAssignedDoctorId() != null) {
-            department = ticketDAO.getDoctorDepartment(ticket.getAssignedDoctorId());
-            if (department == null || department.isEmpty()) {
-                department = "N/A";
-            }
-        }
+        String department = item.department() != null && !item.department().isEmpty() ? item.department() : "N/A";
         Label deptLabel = new Label(department);
         deptLabel.setStyle("-fx-text-fill: #777777;");
         GridPane.setColumnIndex(deptLabel, 2);
         row.getChildren().add(deptLabel);
         
         // Assigned Doctor
-        String doctorName = ticket.getAssignedDoctorName() != null ? ticket.getAssignedDoctorName() : "N/A";
+        String doctorName = item.doctorName() != null ? item.doctorName() : "N/A";
         Label doctorLabel = new Label(doctorName);
         doctorLabel.setStyle("-fx-text-fill: #777777;");
         GridPane.setColumnIndex(doctorLabel, 3);
         row.getChildren().add(doctorLabel);
         
-        // Status Badge (check if discharge record exists)
-        Discharge existingDischarge = dischargeDAO.findByPatientId(patient.getId());
-        DischargeStatus status;
-        if (existingDischarge != null) {
-            status = existingDischarge.getStatus();
-        } else {
-            status = DischargeStatus.PENDING_REVIEW; // No discharge record yet
-        }
+        // Status Badge (pending review when there is no discharge record yet)
+        DischargeStatus status = item.displayStatus();
         
         Label statusLabel = new Label(getDischargeStatusDisplay(status));
         statusLabel.getStyleClass().add(getDischargeStatusStyleClass(status));
@@ -1950,17 +1696,17 @@ public class ReceptionDashboardController implements Initializable {
         
         // Action Button
         Node actionNode;
-        if (existingDischarge == null || existingDischarge.getStatus() == DischargeStatus.PENDING_REVIEW) {
+        if (status == DischargeStatus.PENDING_REVIEW) {
             Button processBtn = new Button("Process");
             processBtn.getStyleClass().add("btn-action-process");
             processBtn.setOnAction(this::handleProcess);
-            processBtn.setUserData(ticket); // Store ticket instead of discharge
+            processBtn.setUserData(item);
             actionNode = processBtn;
-        } else if (existingDischarge.getStatus() == DischargeStatus.READY) {
+        } else if (status == DischargeStatus.READY) {
             Button dischargeBtn = new Button("Discharge");
             dischargeBtn.getStyleClass().add("btn-action-discharge");
             dischargeBtn.setOnAction(this::handleDischarge);
-            dischargeBtn.setUserData(existingDischarge);
+            dischargeBtn.setUserData(item);
             actionNode = dischargeBtn;
         } else {
             Label noActionLabel = new Label("---");
@@ -2143,12 +1889,8 @@ public class ReceptionDashboardController implements Initializable {
         // Initialize calendar to current month
         currentCalendarMonth = YearMonth.now();
         
-        // Load patients into ComboBox
+        // Set up the patient ComboBox (filled by loadAppointmentChoices)
         if (apptPatientComboBox != null) {
-            List<Patient> patients = patientDAO.findAll();
-            apptPatientComboBox.getItems().clear();
-            apptPatientComboBox.getItems().addAll(patients);
-            
             // Set converter to display patient name and info
             apptPatientComboBox.setConverter(new javafx.util.StringConverter<Patient>() {
                 @Override
@@ -2209,12 +1951,8 @@ public class ReceptionDashboardController implements Initializable {
             });
         }
         
-        // Load doctors into ComboBox
+        // Set up the doctor ComboBox (filled by loadAppointmentChoices)
         if (apptDoctorComboBox != null) {
-            List<Doctor> doctors = doctorDAO.findAllActive();
-            apptDoctorComboBox.getItems().clear();
-            apptDoctorComboBox.getItems().addAll(doctors);
-            
             // Set converter to display doctor name
             apptDoctorComboBox.setConverter(new javafx.util.StringConverter<Doctor>() {
                 @Override
@@ -2239,12 +1977,26 @@ public class ReceptionDashboardController implements Initializable {
             apptDatePicker.setValue(LocalDate.now());
         }
         
-        // Render calendar
-        renderCalendar();
-        
         // Clear form
         clearAppointmentForm();
     }
+
+    /**
+     * Fills the appointment patient and doctor ComboBoxes from the database
+     */
+    private void loadAppointmentChoices() {
+        if (apptPatientComboBox != null) {
+            List<Patient> patients = patientDAO.findAll();
+            apptPatientComboBox.getItems().clear();
+            apptPatientComboBox.getItems().addAll(patients);
+        }
+        if (apptDoctorComboBox != null) {
+            List<Doctor> doctors = doctorDAO.findAllActive();
+            apptDoctorComboBox.getItems().clear();
+            apptDoctorComboBox.getItems().addAll(doctors);
+        }
+        appointmentChoicesLoaded = true;
+    }
     
     /**
      * Shows/hides the new patient form for appointment (toggle functionality)
@@ -2343,6 +2095,10 @@ public class ReceptionDashboardController implements Initializable {
                 return;
             }
             
+            if (!confirmNewPatient(phone, firstName, lastName, age)) {
+                return;
+            }
+
             // Create new patient
             String patientId = generatePatientId();
             String fullName = firstName + " " + lastName;
@@ -2360,6 +2116,7 @@ public class ReceptionDashboardController implements Initializable {
                 showAlert(Alert.AlertType.ERROR, "Error", "Failed to create patient. Please try again.");
                 return;
             }
+            PatientMatchIndex.getInstance().add(newPatient);
             
             patientToUse = newPatient;
         } else {
@@ -2425,7 +2182,7 @@ public class ReceptionDashboardController implements Initializable {
         );
         
         // Save appointment to database
-        boolean appointmentSaved = appointmentDAO.create(appointment);
+        boolean appointmentSaved = AppointmentCalendarService.getInstance().create(appointment);
         
         if (appointmentSaved) {
             showAlert(Alert.AlertType.INFORMATION, "Success", 
@@ -2485,6 +2242,10 @@ public class ReceptionDashboardController implements Initializable {
             apptCalendarMonthLabel.setText(currentCalendarMonth.format(DateTimeFormatter.ofPattern("MMMM yyyy")));
         }
         
+        // Appointments of the whole month, from one range query or the calendar cache
+        Map<LocalDate, List<Appointment>> monthAppointments =
+                AppointmentCalendarService.getInstance().getMonth(currentCalendarMonth);
+        
         // Get first day of month and number of days
         LocalDate firstDayOfMonth = currentCalendarMonth.atDay(1);
         int daysInMonth = currentCalendarMonth.lengthOfMonth();
@@ -2514,7 +2275,7 @@ public class ReceptionDashboardController implements Initializable {
             }
             
             LocalDate date = currentCalendarMonth.atDay(day);
-            List<Appointment> dayAppointments = appointmentDAO.findByDate(date);
+            List<Appointment> dayAppointments = monthAppointments.get(date);
             
             VBox cell = createCalendarCell(day, false, dayAppointments);
             apptCalendarGrid.add(cell, currentCol, currentRow);
@@ -2582,7 +2343,9 @@ public class ReceptionDashboardController implements Initializable {
         if (apptPatientComboBox != null) {
             apptPatientComboBox.setValue(null);
             // Reset to show all patients
-            apptPatientComboBox.getItems().setAll(patientDAO.findAll());
+            if (appointmentChoicesLoaded) {
+                apptPatientComboBox.getItems().setAll(patientDAO.findAll());
+            }
             apptPatientComboBox.getEditor().clear();
         }
         if (apptExistingPatientInfo != null) {
@@ -1,6 +1,14 @@
 package com.stangelo.saintangelo.controllers;
 
+import java.time.LocalDate;
+import java.util.UUID;
+
+import com.stangelo.saintangelo.models.Patient;
+import com.stangelo.saintangelo.models.PriorityLevel;
+import com.stangelo.saintangelo.services.QueueService;
+
 import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
@@ -25,6 +33,9 @@ public class RegistrationController {
     // Ticket View Fields
     @FXML private Label ticketNumberLabel;
 
+    // Identifies the form being filled in; renewed when the form is cleared
+    private String requestKey = UUID.randomUUID().toString();
+
     @FXML
     public void initialize() {
         // Initialize the ComboBox with priority levels
@@ -38,20 +49,50 @@ public class RegistrationController {
     @FXML
     private void handleGetQueueNumber() {
         // 1. Get data from form fields
-        String firstName = firstNameField.getText();
-        String lastName = lastNameField.getText();
-        // ... get other fields ...
+        String firstName = firstNameField.getText().trim();
+        String lastName = lastNameField.getText().trim();
+        String phoneNumber = phoneNumberField.getText().trim();
+        String complaint = complaintArea.getText().trim();
+        if (firstName.isEmpty() || lastName.isEmpty() || phoneNumber.isEmpty()) {
+            showAlert(Alert.AlertType.WARNING, "Validation Error", "Please enter your first name, last name and phone number.");
+            return;
+        }
+        int age;
+        try {
+            age = Integer.parseInt(ageField.getText().trim());
+        } catch (NumberFormatException e) {
+            showAlert(Alert.AlertType.WARNING, "Validation Error", "Age must be a number.");
+            return;
+        }
+        if (age < 0 || age > 150) {
+            showAlert(Alert.AlertType.WARNING, "Validation Error", "Please enter a valid age (0-150).");
+            return;
+        }
 
-        // 2. In a real app, you would create a Patient object and use the QueueService
-        // For now, we'll just simulate it.
-        System.out.println("Registering patient: " + firstName + " " + lastName);
-        String generatedTicketNumber = "A054"; // Simulate a new ticket number
+        // 2. Save the patient and their ticket in one step; submitting twice returns the same ticket
+        PriorityLevel priority = "Emergency".equals(priorityComboBox.getValue()) ? PriorityLevel.EMERGENCY
+                : "Senior Citizen".equals(priorityComboBox.getValue()) || age >= 60 ? PriorityLevel.SENIOR_CITIZEN
+                : PriorityLevel.REGULAR;
+        Patient patient = new Patient(
+            QueueService.newPatientId(), firstName + " " + lastName, age, phoneNumber, null, null,
+            null, null, priority == PriorityLevel.SENIOR_CITIZEN,
+            null, null, null, null, complaint,
+            null, null, null, null, null, null,
+            LocalDate.now().toString(), null
+        );
+        QueueService.registerAndEnqueue(requestKey, patient, true, priority, complaint).thenAccept(ticket -> {
+            if (ticket == null) {
+                showAlert(Alert.AlertType.ERROR, "Registration Failed",
+                        "We could not issue your queue number. Please try again or ask the front desk.");
+                return;
+            }
 
-        // 3. Update the ticket view with the new number
-        ticketNumberLabel.setText(generatedTicketNumber);
+            // 3. Update the ticket view with the new number
+            ticketNumberLabel.setText(ticket.getTicketNumber());
 
-        // 4. Switch the view
-        showTicketView();
+            // 4. Switch the view
+            showTicketView();
+        });
     }
 
     @FXML
@@ -65,6 +106,7 @@ public class RegistrationController {
         ageField.clear();
         complaintArea.clear();
         priorityComboBox.getSelectionModel().clearSelection();
+        requestKey = UUID.randomUUID().toString();
 
         // 2. Switch back to the registration form
         showRegistrationForm();
@@ -79,4 +121,12 @@ public class RegistrationController {
         registrationScrollView.setVisible(false);
         ticketView.setVisible(true);
     }
+
+    private void showAlert(Alert.AlertType type, String title, String content) {
+        Alert alert = new Alert(type);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(content);
+        alert.showAndWait();
+    }
 }
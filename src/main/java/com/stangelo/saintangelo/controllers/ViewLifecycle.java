@@ -0,0 +1,35 @@
+package com.stangelo.saintangelo.controllers;
+
+/**
+ * View Lifecycle
+ * Implemented by controllers of views cached in ViewRegistry. A cached view is
+ * loaded (and initialize() run) once per session; after that the registry calls
+ * these instead of loading the FXML again, and dispose() when it drops the view.
+ * A preloaded view's initialize() runs while ViewRegistry.isPreloading() is true
+ * and should not touch the database; onShow() loads its data instead.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public interface ViewLifecycle {
+
+    /**
+     * Called when a cached view becomes the scene root again, or is shown for the
+     * first time after being preloaded; reload the data the view displays
+     */
+    default void onShow() {
+    }
+
+    /**
+     * Called when another view replaces this one in the scene
+     */
+    default void onHide() {
+    }
+
+    /**
+     * Called once when the view is dropped (on logout or when its window closes);
+     * stop timelines, detach listeners on shared state and cancel background work
+     */
+    default void dispose() {
+    }
+}
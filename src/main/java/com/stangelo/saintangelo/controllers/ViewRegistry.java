@@ -0,0 +1,276 @@
+package com.stangelo.saintangelo.controllers;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.stangelo.saintangelo.models.UserRole;
+import com.stangelo.saintangelo.utils.MetricsRegistry;
+
+import javafx.animation.PauseTransition;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.util.Duration;
+
+/**
+ * View Registry
+ * Caches the parsed root and controller of every dashboard view for the current
+ * session, so switching views with the sidebar only swaps the scene root instead
+ * of parsing FXML, applying CSS and running initialize() again.
+ *
+ * After login the remaining views of the user's role are preloaded one at a time,
+ * {@code PRELOAD_GAP} apart. Preloading runs on the JavaFX Application Thread
+ * (FXMLLoader builds live controls), so while isPreloading() is true controllers
+ * only build their controls in initialize() and leave the database work to
+ * onShow(), which runs when the view is first shown. Controllers implementing
+ * ViewLifecycle are told when their view is shown (to load or refresh their
+ * data), when it is hidden and when it is disposed. The cache is cleared on logout.
+ *
+ * Load, refresh (onShow) and render (until the new root is laid out) times of
+ * every view are recorded in MetricsRegistry as view.load/refresh/render.&lt;view&gt;.
+ *
+ * Must be used on the JavaFX Application Thread.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class ViewRegistry {
+
+    private static final Logger logger = Logger.getLogger(ViewRegistry.class.getName());
+
+    // Gap between preloaded views so input and animations keep running in between
+    private static final Duration PRELOAD_GAP = Duration.millis(150);
+
+    private static final List<String> RECEPTION_VIEWS = List.of(
+            "/fxml/receptionist-dashboard-view.fxml",
+            "/fxml/receptionist-registration-view.fxml",
+            "/fxml/receptionist-queueManagement-view.fxml",
+            "/fxml/receptionist-appointments-view.fxml",
+            "/fxml/receptionist-discharge-view.fxml",
+            "/fxml/reception-ticket-view.fxml");
+
+    private static final List<String> DOCTOR_VIEWS = List.of(
+            "/fxml/doctor-dashboard-view.fxml",
+            "/fxml/doctor-queue-management.fxml",
+            "/fxml/doctor-patient-records.fxml");
+
+    private static final List<String> ADMIN_VIEWS = List.of(
+            "/fxml/admin-dashboard-view.fxml",
+            "/fxml/admin-usermanage-view.fxml",
+            "/fxml/admin-activity-view.fxml",
+            "/fxml/admin-generaterReport-view.fxml");
+
+    // Singleton instance
+    private static ViewRegistry instance;
+
+    private final Map<String, CachedView> views = new HashMap<>();
+    private final Deque<String> preloadQueue = new ArrayDeque<>();
+    private PauseTransition preloadTimer;
+    private boolean preloading;
+
+    private static final class CachedView {
+        private final Parent root;
+        private final Object controller;
+
+        private CachedView(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+    }
+
+    /**
+     * Private constructor for singleton
+     */
+    private ViewRegistry() {
+    }
+
+    /**
+     * Gets the singleton instance
+     */
+    public static synchronized ViewRegistry getInstance() {
+        if (instance == null) {
+            instance = new ViewRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the dashboard views of a role, main dashboard first
+     */
+    public static List<String> viewsFor(UserRole role) {
+        switch (role) {
+            case STAFF:
+                return RECEPTION_VIEWS;
+            case DOCTOR:
+                return DOCTOR_VIEWS;
+            case ADMIN:
+            case SUPER_ADMIN:
+                return ADMIN_VIEWS;
+            default:
+                return List.of();
+        }
+    }
+
+    /**
+     * Gets the root of a view for a new scene, loading it if it is not cached
+     *
+     * @param fxmlPath FXML resource path
+     * @return The view's root
+     * @throws IOException If the FXML cannot be loaded
+     */
+    public Parent load(String fxmlPath) throws IOException {
+        CachedView view = views.get(fxmlPath);
+        if (view == null) {
+            return loadView(fxmlPath).root;
+        }
+        showing(fxmlPath, view);
+        return view.root;
+    }
+
+    /**
+     * Makes a view the root of a scene, hiding the current one
+     * Showing the view that is already the root refreshes it.
+     *
+     * @param scene Scene of the dashboard window
+     * @param fxmlPath FXML resource path
+     * @return The view's root
+     * @throws IOException If the FXML cannot be loaded
+     */
+    public Parent show(Scene scene, String fxmlPath) throws IOException {
+        long start = System.nanoTime();
+        CachedView view = views.get(fxmlPath);
+        if (view != null && view.root == scene.getRoot()) {
+            showing(fxmlPath, view);
+            return view.root;
+        }
+
+        for (CachedView current : views.values()) {
+            if (current.root == scene.getRoot() && current.controller instanceof ViewLifecycle lifecycle) {
+                lifecycle.onHide();
+            }
+        }
+
+        if (view == null) {
+            view = loadView(fxmlPath);
+        } else {
+            showing(fxmlPath, view);
+        }
+        scene.setRoot(view.root);
+        recordRender(scene, fxmlPath, start);
+        return view.root;
+    }
+
+    /**
+     * Queues the given views to be loaded one at a time between pulses, skipping cached ones
+     *
+     * @param fxmlPaths FXML resource paths
+     */
+    public void preload(List<String> fxmlPaths) {
+        for (String path : fxmlPaths) {
+            if (!views.containsKey(path) && !preloadQueue.contains(path)) {
+                preloadQueue.add(path);
+            }
+        }
+        if (preloadTimer == null) {
+            preloadTimer = new PauseTransition(PRELOAD_GAP);
+            preloadTimer.setOnFinished(e -> preloadNext());
+        }
+        if (!preloadQueue.isEmpty()) {
+            preloadTimer.playFromStart();
+        }
+    }
+
+    /**
+     * Checks whether the view being loaded is being preloaded rather than shown
+     * Controllers check this in initialize() and skip loading data, which onShow()
+     * does when the view is first shown.
+     */
+    public boolean isPreloading() {
+        return preloading;
+    }
+
+    /**
+     * Drops every cached view (on logout) and stops preloading
+     * Each view is hidden and then disposed, so none of its timelines or listeners
+     * outlive the session.
+     */
+    public void clear() {
+        preloadQueue.clear();
+        if (preloadTimer != null) {
+            preloadTimer.stop();
+        }
+        for (CachedView view : views.values()) {
+            if (view.controller instanceof ViewLifecycle lifecycle) {
+                lifecycle.onHide();
+                lifecycle.dispose();
+            }
+        }
+        views.clear();
+    }
+
+    private void preloadNext() {
+        String path = preloadQueue.poll();
+        if (path == null) {
+            return;
+        }
+        if (!views.containsKey(path)) {
+            preloading = true;
+            try {
+                loadView(path);
+            } catch (IOException | RuntimeException e) {
+                // Not fatal: the view is loaded again when it is opened
+                logger.log(Level.WARNING, "Could not preload " + path, e);
+            } finally {
+                preloading = false;
+            }
+        }
+        if (!preloadQueue.isEmpty()) {
+            preloadTimer.playFromStart();
+        }
+    }
+
+    private CachedView loadView(String fxmlPath) throws IOException {
+        long start = System.nanoTime();
+        FXMLLoader loader = new FXMLLoader(ViewRegistry.class.getResource(fxmlPath));
+        Parent root = loader.load();
+        MetricsRegistry.timer("view.load." + viewName(fxmlPath)).recordSince(start);
+        CachedView view = new CachedView(root, loader.getController());
+        views.put(fxmlPath, view);
+        return view;
+    }
+
+    private void showing(String fxmlPath, CachedView view) {
+        if (view.controller instanceof ViewLifecycle lifecycle) {
+            long start = System.nanoTime();
+            lifecycle.onShow();
+            MetricsRegistry.timer("view.refresh." + viewName(fxmlPath)).recordSince(start);
+        }
+    }
+
+    /**
+     * Records the time from the start of show() until the new root has been laid out
+     */
+    private static void recordRender(Scene scene, String fxmlPath, long start) {
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                MetricsRegistry.timer("view.render." + viewName(fxmlPath)).recordSince(start);
+            }
+        });
+    }
+
+    /**
+     * Gets the metric name of a view: its file name without folder or extension
+     */
+    private static String viewName(String fxmlPath) {
+        String name = fxmlPath.substring(fxmlPath.lastIndexOf('/') + 1);
+        return name.endsWith(".fxml") ? name.substring(0, name.length() - ".fxml".length()) : name;
+    }
+}
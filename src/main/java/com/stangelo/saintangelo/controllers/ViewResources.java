@@ -0,0 +1,133 @@
+package com.stangelo.saintangelo.controllers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Future;
+
+import javafx.animation.Animation;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.beans.value.WeakChangeListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.WeakListChangeListener;
+
+/**
+ * View Resources
+ * Everything a controller starts that would otherwise outlive its view: timelines,
+ * listeners on shared (static) state and background futures. dispose() stops,
+ * detaches and cancels all of them.
+ *
+ * Listeners on shared state are registered weakly; the strong reference is held
+ * here, so the listener lives exactly as long as the controller. A controller that
+ * is dropped without being disposed can still be collected, and JavaFX removes its
+ * stale listeners the next time the shared state changes.
+ *
+ * Must be used on the JavaFX Application Thread.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public final class ViewResources {
+
+    // Every animation tracked by any controller, so leaks show up as running pollers
+    private static final Set<Animation> TRACKED_ANIMATIONS = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private final List<Animation> animations = new ArrayList<>();
+    private final List<Runnable> detachers = new ArrayList<>();
+    // Strong references to listeners registered weakly on shared state
+    private final List<Object> listeners = new ArrayList<>();
+    private final List<Future<?>> futures = new ArrayList<>();
+    private boolean disposed;
+
+    /**
+     * Tracks an animation so it is stopped on dispose
+     *
+     * @param animation Timeline or transition started by the controller
+     * @return The same animation
+     */
+    public <A extends Animation> A track(A animation) {
+        animations.add(animation);
+        TRACKED_ANIMATIONS.add(animation);
+        return animation;
+    }
+
+    /**
+     * Tracks a background task so it is cancelled on dispose
+     *
+     * @param future Task started by the controller
+     * @return The same future
+     */
+    public <F extends Future<?>> F track(F future) {
+        futures.add(future);
+        return future;
+    }
+
+    /**
+     * Registers a weak change listener on shared state, detached on dispose
+     *
+     * @param observable Shared property the controller does not own
+     * @param listener Listener; held strongly here so it is not collected early
+     */
+    public <T> void listen(ObservableValue<T> observable, ChangeListener<T> listener) {
+        WeakChangeListener<T> weak = new WeakChangeListener<>(listener);
+        observable.addListener(weak);
+        detachers.add(() -> observable.removeListener(weak));
+        listeners.add(listener);
+    }
+
+    /**
+     * Registers a weak list listener on shared state, detached on dispose
+     *
+     * @param list Shared list the controller does not own
+     * @param listener Listener; held strongly here so it is not collected early
+     */
+    public <E> void listen(ObservableList<E> list, ListChangeListener<E> listener) {
+        WeakListChangeListener<E> weak = new WeakListChangeListener<>(listener);
+        list.addListener(weak);
+        detachers.add(() -> list.removeListener(weak));
+        listeners.add(listener);
+    }
+
+    /**
+     * Stops all animations, detaches all listeners and cancels all futures
+     * Safe to call more than once.
+     */
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        for (Animation animation : animations) {
+            animation.stop();
+            TRACKED_ANIMATIONS.remove(animation);
+        }
+        for (Runnable detacher : detachers) {
+            detacher.run();
+        }
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+        animations.clear();
+        detachers.clear();
+        listeners.clear();
+        futures.clear();
+    }
+
+    /**
+     * Counts tracked animations still running, across all controllers
+     * Stays constant while views are opened and closed unless a controller leaks.
+     */
+    public static int runningAnimations() {
+        int running = 0;
+        for (Animation animation : TRACKED_ANIMATIONS) {
+            if (animation.getStatus() == Animation.Status.RUNNING) {
+                running++;
+            }
+        }
+        return running;
+    }
+}
@@ -9,12 +9,20 @@ import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for ActivityLog entity
  */
 public class ActivityLogDAO extends BaseDAO {
 
+    /**
+     * Columns read by the mappers, in the order they read them
+     */
+    private static final String LOG_COLUMNS = "log_id, user_id, action, details, activity_type, ip_address, timestamp";
+
+    private static final EnumLookup<ActivityType> ACTIVITY_TYPE = EnumLookup.of(ActivityType.class);
+
     public boolean create(ActivityLog log) {
         // Use database's NOW() to ensure correct timezone handling
         String sql = "INSERT INTO activity_logs (user_id, action, details, activity_type, ip_address, timestamp) " +
@@ -48,8 +56,8 @@ public class ActivityLogDAO extends BaseDAO {
     }
 
     public List<ActivityLog> findByUser(String userId) {
-        List<ActivityLog> logs = new ArrayList<>();
-        String sql = "SELECT * FROM activity_logs WHERE user_id = ? ORDER BY timestamp DESC LIMIT 100";
+        List<ActivityLogData> logDataList = new ArrayList<>();
+        String sql = "SELECT " + LOG_COLUMNS + " FROM activity_logs WHERE user_id = ? ORDER BY timestamp DESC LIMIT 100";
 
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -58,18 +66,18 @@ public class ActivityLogDAO extends BaseDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    logs.add(mapResultSetToActivityLog(rs));
+                    logDataList.add(new ActivityLogData(rs));
                 }
             }
         } catch (SQLException e) {
             logError("Error finding activity logs by user: " + userId, e);
         }
-        return logs;
+        return mapAll(logDataList);
     }
 
     public List<ActivityLog> findByType(ActivityType type) {
-        List<ActivityLog> logs = new ArrayList<>();
-        String sql = "SELECT * FROM activity_logs WHERE activity_type = ? ORDER BY timestamp DESC LIMIT 100";
+        List<ActivityLogData> logDataList = new ArrayList<>();
+        String sql = "SELECT " + LOG_COLUMNS + " FROM activity_logs WHERE activity_type = ? ORDER BY timestamp DESC LIMIT 100";
 
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -78,13 +86,13 @@ public class ActivityLogDAO extends BaseDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    logs.add(mapResultSetToActivityLog(rs));
+                    logDataList.add(new ActivityLogData(rs));
                 }
             }
         } catch (SQLException e) {
             logError("Error finding activity logs by type: " + type, e);
         }
-        return logs;
+        return mapAll(logDataList);
     }
 
     /**
@@ -99,9 +107,9 @@ public class ActivityLogDAO extends BaseDAO {
             return logs;
         }
 
-        String sql = "SELECT * FROM activity_logs ORDER BY timestamp DESC LIMIT ?";
+        String sql = "SELECT " + LOG_COLUMNS + " FROM activity_logs ORDER BY timestamp DESC LIMIT ?";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, limit);
@@ -112,32 +120,18 @@ public class ActivityLogDAO extends BaseDAO {
                 while (rs.next()) {
                     try {
                         // Extract all data from ResultSet BEFORE doing any other DB operations
-                        int logId = rs.getInt("log_id");
-                        String userId = rs.getString("user_id");
-                        String action = rs.getString("action");
-                        String details = rs.getString("details");
-                        String activityTypeStr = rs.getString("activity_type");
-                        String ipAddress = rs.getString("ip_address");
-                        Timestamp timestampValue = rs.getTimestamp("timestamp");
-                        
-                        // Debug: Log activity type from database
-                        System.out.println("findRecent - Extracting log_id " + logId + " - activity_type: '" + activityTypeStr + "'");
-                        if (activityTypeStr == null || activityTypeStr.trim().isEmpty()) {
-                            System.out.println("WARNING: Activity type is null/empty for log_id: " + logId);
-                        }
-                        
-                        logDataList.add(new ActivityLogData(logId, userId, action, details, 
-                                                           activityTypeStr, ipAddress, timestampValue));
+                        logDataList.add(new ActivityLogData(rs));
                     } catch (Exception e) {
                         logError("Error extracting recent activity log row data", e);
                     }
                 }
             }
             
-            // Now map the data to ActivityLog objects (this can do DB lookups safely)
+            // Now map the data to ActivityLog objects, loading all their users with one query
+            Map<String, User> users = loadUsers(logDataList);
             for (ActivityLogData data : logDataList) {
                 try {
-                    ActivityLog log = mapDataToActivityLog(data);
+                    ActivityLog log = mapDataToActivityLog(data, users);
                     if (log != null) {
                         logs.add(log);
                     }
@@ -159,7 +153,7 @@ public class ActivityLogDAO extends BaseDAO {
      */
     public List<ActivityLog> findAll() {
         List<ActivityLog> logs = new ArrayList<>();
-        String sql = "SELECT * FROM activity_logs ORDER BY timestamp DESC";
+        String sql = "SELECT " + LOG_COLUMNS + " FROM activity_logs ORDER BY timestamp DESC";
 
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
@@ -175,33 +169,18 @@ public class ActivityLogDAO extends BaseDAO {
                 rowCount++;
                 try {
                     // Extract all data from ResultSet BEFORE doing any other DB operations
-                    int logId = rs.getInt("log_id");
-                    String userId = rs.getString("user_id");
-                    String action = rs.getString("action");
-                    String details = rs.getString("details");
-                    String activityTypeStr = rs.getString("activity_type");
-                    String ipAddress = rs.getString("ip_address");
-                    Timestamp timestampValue = rs.getTimestamp("timestamp");
-                    
-                    // Debug: Log activity type from database
-                    System.out.println("Extracting log_id " + logId + " - activity_type from DB: '" + activityTypeStr + "'");
-                    if (activityTypeStr == null || activityTypeStr.trim().isEmpty()) {
-                        logger.warning("Activity type is null or empty for log_id: " + logId);
-                        System.out.println("WARNING: Activity type is null/empty for log_id: " + logId);
-                    }
-                    
-                    logDataList.add(new ActivityLogData(logId, userId, action, details, 
-                                                       activityTypeStr, ipAddress, timestampValue));
+                    logDataList.add(new ActivityLogData(rs));
                 } catch (Exception e) {
                     errorCount++;
                     logError("Error extracting activity log row data", e);
                 }
             }
             
-            // Now map the data to ActivityLog objects (this can do DB lookups safely)
+            // Now map the data to ActivityLog objects, loading all their users with one query
+            Map<String, User> users = loadUsers(logDataList);
             for (ActivityLogData data : logDataList) {
                 try {
-                    ActivityLog log = mapDataToActivityLog(data);
+                    ActivityLog log = mapDataToActivityLog(data, users);
                     if (log != null) {
                         logs.add(log);
                         successCount++;
@@ -215,13 +194,11 @@ public class ActivityLogDAO extends BaseDAO {
                 }
             }
             
-            logger.info("ActivityLogDAO.findAll() - Total rows: " + rowCount + 
+            logger.fine("ActivityLogDAO.findAll() - Total rows: " + rowCount + 
                        ", Successfully mapped: " + successCount + 
                        ", Errors: " + errorCount);
         } catch (SQLException e) {
             logError("Error retrieving all activity logs", e);
-            logger.severe("SQL Error in findAll(): " + e.getMessage());
-            e.printStackTrace();
         }
 
         return logs;
@@ -237,74 +214,77 @@ public class ActivityLogDAO extends BaseDAO {
         final String details;
         final String activityTypeStr;
         final String ipAddress;
-        final Timestamp timestampValue;
+        final LocalDateTime timestamp;
         
-        ActivityLogData(int logId, String userId, String action, String details,
-                      String activityTypeStr, String ipAddress, Timestamp timestampValue) {
-            this.logId = logId;
-            this.userId = userId;
-            this.action = action;
-            this.details = details;
-            this.activityTypeStr = activityTypeStr;
-            this.ipAddress = ipAddress;
-            this.timestampValue = timestampValue;
+        /**
+         * Reads a LOG_COLUMNS row by position
+         */
+        ActivityLogData(ResultSet rs) throws SQLException {
+            this.logId = rs.getInt(1);
+            this.userId = rs.getString(2);
+            this.action = rs.getString(3);
+            this.details = rs.getString(4);
+            this.activityTypeStr = rs.getString(5);
+            this.ipAddress = rs.getString(6);
+            this.timestamp = rs.getObject(7, LocalDateTime.class);
         }
     }
     
     /**
-     * Maps extracted data to ActivityLog object (can safely do DB lookups)
+     * Maps extracted data to ActivityLog object
      */
-    private ActivityLog mapDataToActivityLog(ActivityLogData data) {
-        // Handle activity type with null safety
-        ActivityType activityType = null;
-        if (data.activityTypeStr != null && !data.activityTypeStr.trim().isEmpty()) {
-            try {
-                activityType = ActivityType.valueOf(data.activityTypeStr);
-                logger.fine("Mapped activity type: " + activityType.name() + " for log_id: " + data.logId);
-            } catch (IllegalArgumentException e) {
-                logger.warning("Unknown activity type: " + data.activityTypeStr + " for log_id: " + data.logId);
-                // Try to find a matching enum value (case-insensitive)
-                try {
-                    for (ActivityType type : ActivityType.values()) {
-                        if (type.name().equalsIgnoreCase(data.activityTypeStr.trim())) {
-                            activityType = type;
-                            logger.info("Found case-insensitive match for activity type: " + type.name());
-                            break;
-                        }
+    private ActivityLog mapDataToActivityLog(ActivityLogData data, Map<String, User> users) {
+        ActivityType activityType = activityType(data.activityTypeStr, data.logId);
+        User user = data.userId != null ? users.get(data.userId) : null;
+
+        return new ActivityLog(data.logId, user, data.action, data.details, 
+                              activityType, data.ipAddress, data.timestamp);
+    }
+
+    /**
+     * Looks up an activity type column value, defaulting to LOGIN when it is missing or unknown
+     */
+    private ActivityType activityType(String activityTypeStr, int logId) {
+        ActivityType activityType = ACTIVITY_TYPE.get(activityTypeStr, null);
+        if (activityType == null) {
+            logger.warning("Unknown or missing activity type '" + activityTypeStr + "' for log_id: " + logId + ", defaulting to LOGIN");
+            activityType = ActivityType.LOGIN;
+        }
+        return activityType;
+    }
+
+    /**
+     * Deletes one batch of activity logs older than the cutoff
+     * Deletes walk the primary key from the oldest row, so each batch only
+     * locks a short run of log IDs and never blocks new inserts.
+     *
+     * @param cutoff Logs with a timestamp before this are deleted
+     * @param batchSize Maximum rows deleted by this call
+     * @return Number of rows deleted (less than batchSize when none are left)
+     * @throws SQLException if the delete fails
+     */
+    public int deleteOlderThan(LocalDateTime cutoff, int batchSize) throws SQLException {
+        String boundSql = "SELECT MAX(log_id) FROM activity_logs WHERE timestamp < ?";
+        String deleteSql = "DELETE FROM activity_logs WHERE log_id <= ? AND timestamp < ? ORDER BY log_id LIMIT ?";
+
+        try (Connection conn = getDedicatedConnection()) {
+            int maxLogId;
+            try (PreparedStatement stmt = conn.prepareStatement(boundSql)) {
+                stmt.setTimestamp(1, Timestamp.valueOf(cutoff));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next() || rs.getObject(1) == null) {
+                        return 0;
                     }
-                } catch (Exception ex) {
-                    // Ignore
-                }
-                // Default to LOGIN if still null
-                if (activityType == null) {
-                    activityType = ActivityType.LOGIN;
-                    logger.warning("Defaulting to LOGIN for log_id: " + data.logId);
+                    maxLogId = rs.getInt(1);
                 }
             }
-        } else {
-            logger.warning("Activity type string is null or empty for log_id: " + data.logId + ", defaulting to LOGIN");
-            activityType = ActivityType.LOGIN; // Default to LOGIN if null
-        }
-        
-        LocalDateTime timestamp = data.timestampValue != null ? 
-                data.timestampValue.toLocalDateTime() : null;
-
-        // Now safe to do DB lookup since ResultSet is closed
-        User user = data.userId != null ? new UserDAO().findById(data.userId) : null;
-
-        ActivityLog log = new ActivityLog(data.logId, user, data.action, data.details, 
-                              activityType, data.ipAddress, timestamp);
-        
-        // Debug: Verify activity type was set
-        System.out.println("mapDataToActivityLog - log_id: " + data.logId + 
-                          ", activityTypeStr: '" + data.activityTypeStr + 
-                          "', mapped to: " + (activityType != null ? activityType.name() : "NULL"));
-        if (log.getActivityType() == null) {
-            logger.severe("ERROR: Activity type is still null after mapping for log_id: " + data.logId);
-            System.err.println("ERROR: Activity type is NULL for log_id: " + data.logId);
+            try (PreparedStatement stmt = conn.prepareStatement(deleteSql)) {
+                stmt.setInt(1, maxLogId);
+                stmt.setTimestamp(2, Timestamp.valueOf(cutoff));
+                stmt.setInt(3, batchSize);
+                return stmt.executeUpdate();
+            }
         }
-        
-        return log;
     }
 
     /**
@@ -314,13 +294,13 @@ public class ActivityLogDAO extends BaseDAO {
     public int getTotalCount() {
         String sql = "SELECT COUNT(*) as total FROM activity_logs";
         
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
             if (rs.next()) {
                 int count = rs.getInt("total");
-                logger.info("Total activity logs in database: " + count);
+                logger.fine("Total activity logs in database: " + count);
                 return count;
             }
         } catch (SQLException e) {
@@ -346,7 +326,7 @@ public class ActivityLogDAO extends BaseDAO {
                      "WHERE u.role = ? " +
                      "AND al.timestamp >= DATE_SUB(NOW(), INTERVAL 30 DAY)";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, role.name());
@@ -374,7 +354,7 @@ public class ActivityLogDAO extends BaseDAO {
                      "WHERE (u.role = 'ADMIN' OR u.role = 'SUPER_ADMIN') " +
                      "AND al.timestamp >= DATE_SUB(NOW(), INTERVAL 30 DAY)";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -388,34 +368,24 @@ public class ActivityLogDAO extends BaseDAO {
         return 0;
     }
 
-    private ActivityLog mapResultSetToActivityLog(ResultSet rs) throws SQLException {
-        int logId = rs.getInt("log_id");
-        String userId = rs.getString("user_id");
-        String action = rs.getString("action");
-        String details = rs.getString("details");
-        
-        // Handle activity type with null safety
-        ActivityType activityType = null;
-        String activityTypeStr = rs.getString("activity_type");
-        if (activityTypeStr != null && !activityTypeStr.trim().isEmpty()) {
-            try {
-                activityType = ActivityType.valueOf(activityTypeStr);
-            } catch (IllegalArgumentException e) {
-                logger.warning("Unknown activity type: " + activityTypeStr + " for log_id: " + logId);
-                // Default to LOGIN if unknown
-                activityType = ActivityType.LOGIN;
-            }
+    /**
+     * Maps extracted rows to ActivityLog objects, loading all their users with one query
+     */
+    private List<ActivityLog> mapAll(List<ActivityLogData> logDataList) {
+        Map<String, User> users = loadUsers(logDataList);
+        List<ActivityLog> logs = new ArrayList<>(logDataList.size());
+        for (ActivityLogData data : logDataList) {
+            logs.add(mapDataToActivityLog(data, users));
         }
-        
-        String ipAddress = rs.getString("ip_address");
-        
-        // Handle timestamp with proper timezone conversion
-        Timestamp timestampValue = rs.getTimestamp("timestamp");
-        LocalDateTime timestamp = timestampValue != null ? timestampValue.toLocalDateTime() : null;
-
-        User user = userId != null ? new UserDAO().findById(userId) : null;
+        return logs;
+    }
 
-        return new ActivityLog(logId, user, action, details, activityType, ipAddress, timestamp);
+    private Map<String, User> loadUsers(List<ActivityLogData> logDataList) {
+        List<String> userIds = new ArrayList<>(logDataList.size());
+        for (ActivityLogData data : logDataList) {
+            userIds.add(data.userId);
+        }
+        return BatchLoaders.USERS.loadMany(userIds);
     }
 }
 
@@ -10,6 +10,7 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Appointment entity
@@ -24,6 +25,7 @@ public class AppointmentDAO extends BaseDAO {
      * Finds an appointment by ID
      */
     public Appointment findById(String appointmentId) {
+        List<AppointmentRow> rows = new ArrayList<>();
         String sql = "SELECT * FROM appointments WHERE appointment_id = ?";
 
         try (Connection conn = getConnection();
@@ -33,20 +35,21 @@ public class AppointmentDAO extends BaseDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToAppointment(rs);
+                    rows.add(new AppointmentRow(rs));
                 }
             }
         } catch (SQLException e) {
             logError("Error finding appointment by ID: " + appointmentId, e);
         }
-        return null;
+        List<Appointment> appointments = resolve(rows);
+        return appointments.isEmpty() ? null : appointments.get(0);
     }
 
     /**
      * Gets appointments for a specific date
      */
     public List<Appointment> findByDate(LocalDate date) {
-        List<Appointment> appointments = new ArrayList<>();
+        List<AppointmentRow> rows = new ArrayList<>();
         String sql = "SELECT * FROM appointments WHERE appointment_date = ? ORDER BY appointment_time";
 
         try (Connection conn = getConnection();
@@ -56,20 +59,49 @@ public class AppointmentDAO extends BaseDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    appointments.add(mapResultSetToAppointment(rs));
+                    rows.add(new AppointmentRow(rs));
                 }
             }
         } catch (SQLException e) {
             logError("Error finding appointments by date: " + date, e);
         }
-        return appointments;
+        return resolve(rows);
+    }
+
+    /**
+     * Gets appointments in a date range with one query on idx_date_time
+     *
+     * @param from First date, inclusive
+     * @param to Last date, inclusive
+     * @return Appointments ordered by date and time
+     */
+    public List<Appointment> findByDateRange(LocalDate from, LocalDate to) {
+        List<AppointmentRow> rows = new ArrayList<>();
+        String sql = "SELECT * FROM appointments WHERE appointment_date BETWEEN ? AND ? " +
+                "ORDER BY appointment_date, appointment_time";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(to));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new AppointmentRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logError("Error finding appointments from " + from + " to " + to, e);
+        }
+        return resolve(rows);
     }
 
     /**
      * Gets appointments for a specific doctor
      */
     public List<Appointment> findByDoctor(String doctorId) {
-        List<Appointment> appointments = new ArrayList<>();
+        List<AppointmentRow> rows = new ArrayList<>();
         String sql = "SELECT * FROM appointments WHERE doctor_id = ? ORDER BY appointment_date, appointment_time";
 
         try (Connection conn = getConnection();
@@ -79,20 +111,20 @@ public class AppointmentDAO extends BaseDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    appointments.add(mapResultSetToAppointment(rs));
+                    rows.add(new AppointmentRow(rs));
                 }
             }
         } catch (SQLException e) {
             logError("Error finding appointments by doctor: " + doctorId, e);
         }
-        return appointments;
+        return resolve(rows);
     }
 
     /**
      * Gets appointments for a specific patient
      */
     public List<Appointment> findByPatient(String patientId) {
-        List<Appointment> appointments = new ArrayList<>();
+        List<AppointmentRow> rows = new ArrayList<>();
         String sql = "SELECT * FROM appointments WHERE patient_id = ? ORDER BY appointment_date DESC, appointment_time DESC";
 
         try (Connection conn = getConnection();
@@ -102,13 +134,13 @@ public class AppointmentDAO extends BaseDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    appointments.add(mapResultSetToAppointment(rs));
+                    rows.add(new AppointmentRow(rs));
                 }
             }
         } catch (SQLException e) {
             logError("Error finding appointments by patient: " + patientId, e);
         }
-        return appointments;
+        return resolve(rows);
     }
 
     /**
@@ -161,29 +193,59 @@ public class AppointmentDAO extends BaseDAO {
     }
 
     /**
-     * Maps ResultSet to Appointment object
+     * Columns of one appointments row, read before the patient and doctor are loaded
      */
-    private Appointment mapResultSetToAppointment(ResultSet rs) throws SQLException {
-        String appointmentId = rs.getString("appointment_id");
-        String patientId = rs.getString("patient_id");
-        String doctorId = rs.getString("doctor_id");
-        LocalDate appointmentDate = rs.getDate("appointment_date").toLocalDate();
-        LocalTime appointmentTime = rs.getTime("appointment_time").toLocalTime();
-        String purpose = rs.getString("purpose");
-        AppointmentStatus status = AppointmentStatus.valueOf(rs.getString("status"));
-        String notes = rs.getString("notes");
-
-        Patient patient = new PatientDAO().findById(patientId);
-        Doctor doctor = new DoctorDAO().findById(doctorId);
-
-        if (patient == null || doctor == null) {
-            throw new SQLException("Patient or Doctor not found for appointment: " + appointmentId);
+    private static final class AppointmentRow {
+        final String appointmentId;
+        final String patientId;
+        final String doctorId;
+        final LocalDate appointmentDate;
+        final LocalTime appointmentTime;
+        final String purpose;
+        final AppointmentStatus status;
+        final String notes;
+
+        AppointmentRow(ResultSet rs) throws SQLException {
+            this.appointmentId = rs.getString("appointment_id");
+            this.patientId = rs.getString("patient_id");
+            this.doctorId = rs.getString("doctor_id");
+            this.appointmentDate = rs.getDate("appointment_date").toLocalDate();
+            this.appointmentTime = rs.getTime("appointment_time").toLocalTime();
+            this.purpose = rs.getString("purpose");
+            this.status = AppointmentStatus.valueOf(rs.getString("status"));
+            this.notes = rs.getString("notes");
         }
+    }
 
-        Appointment appointment = new Appointment(appointmentId, patient, doctor, appointmentDate,
-                appointmentTime, purpose, status, notes);
-
-        return appointment;
+    /**
+     * Builds appointments from rows, loading all their patients and doctors with one query each
+     * Rows whose patient or doctor no longer exists are skipped.
+     */
+    private List<Appointment> resolve(List<AppointmentRow> rows) {
+        List<Appointment> appointments = new ArrayList<>(rows.size());
+        if (rows.isEmpty()) {
+            return appointments;
+        }
+        List<String> patientIds = new ArrayList<>(rows.size());
+        List<String> doctorIds = new ArrayList<>(rows.size());
+        for (AppointmentRow row : rows) {
+            patientIds.add(row.patientId);
+            doctorIds.add(row.doctorId);
+        }
+        Map<String, Patient> patients = BatchLoaders.PATIENTS.loadMany(patientIds);
+        Map<String, Doctor> doctors = BatchLoaders.DOCTORS.loadMany(doctorIds);
+
+        for (AppointmentRow row : rows) {
+            Patient patient = patients.get(row.patientId);
+            Doctor doctor = doctors.get(row.doctorId);
+            if (patient == null || doctor == null) {
+                logger.warning("Patient or Doctor not found for appointment: " + row.appointmentId);
+                continue;
+            }
+            appointments.add(new Appointment(row.appointmentId, patient, doctor, row.appointmentDate,
+                    row.appointmentTime, row.purpose, row.status, row.notes));
+        }
+        return appointments;
     }
 }
 
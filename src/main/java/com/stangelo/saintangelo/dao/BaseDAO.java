@@ -1,15 +1,20 @@
 package com.stangelo.saintangelo.dao;
 
 import com.stangelo.saintangelo.utils.DatabaseConnection;
+import com.stangelo.saintangelo.utils.DatabaseRouter;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Base DAO class providing common database operations
  * All DAO classes should extend this base class
+ * Connections are measured per DAO method when metrics are enabled (see StatementMetrics)
  *
  * @author SaintAngelo Development Team
  * @version 1.0
@@ -20,16 +25,87 @@ public abstract class BaseDAO {
 
     /**
      * Gets a database connection
+     * This is the shared connection of the JavaFX Application Thread: it is not thread-safe
+     * and closing it closes it for every caller. Background threads use getDedicatedConnection(),
+     * or open a DedicatedConnectionScope, whose connection is then returned here.
      *
      * @return Connection object
      * @throws SQLException if connection fails
      */
     protected Connection getConnection() throws SQLException {
+        Connection scoped = DedicatedConnectionScope.borrow();
+        if (scoped != null) {
+            return scoped;
+        }
         Connection conn = DatabaseConnection.getConnection();
         if (conn == null) {
             throw new SQLException("Failed to establish database connection");
         }
-        return conn;
+        return StatementMetrics.instrument(DatabaseRouter.trackWrites(conn), false);
+    }
+
+    /**
+     * Gets a connection for a read-only query that tolerates replication lag
+     * Uses a healthy read replica when one is configured and current enough,
+     * otherwise the same connection as getConnection().
+     * Never use it for a read that must see a write made in the same call.
+     *
+     * @return Connection object, to be closed by the caller
+     * @throws SQLException if connection fails
+     */
+    protected Connection getReadConnection() throws SQLException {
+        Connection replica = DatabaseRouter.openReadConnection();
+        return replica != null ? StatementMetrics.instrument(replica, true) : getConnection();
+    }
+
+    /**
+     * Gets a dedicated database connection for long-running reads and background threads
+     * Unlike getConnection(), the returned connection is not shared and must be closed by the caller
+     *
+     * @return Connection object
+     * @throws SQLException if connection fails
+     */
+    protected Connection getDedicatedConnection() throws SQLException {
+        Connection conn = DatabaseRouter.trackWrites(DatabaseConnection.openDedicatedConnection());
+        return StatementMetrics.instrument(conn, true);
+    }
+
+    /**
+     * Gets a dedicated connection for a long-running read-only query
+     * Uses a read replica like getReadConnection(), otherwise getDedicatedConnection()
+     *
+     * @return Connection object, to be closed by the caller
+     * @throws SQLException if connection fails
+     */
+    protected Connection getDedicatedReadConnection() throws SQLException {
+        Connection replica = DatabaseRouter.openReadConnection();
+        return replica != null ? StatementMetrics.instrument(replica, true) : getDedicatedConnection();
+    }
+
+    /**
+     * Prepares a forward-only statement that makes MySQL Connector/J stream rows
+     * instead of buffering the whole result set in memory
+     * Use with getDedicatedConnection(): no other statement can run on the connection until the result set is closed
+     *
+     * @param conn Connection to prepare the statement on
+     * @param sql SQL query
+     * @return Streaming PreparedStatement
+     * @throws SQLException if the statement cannot be prepared
+     */
+    protected PreparedStatement prepareStreamingStatement(Connection conn, String sql) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        stmt.setFetchSize(Integer.MIN_VALUE);
+        return stmt;
+    }
+
+    /**
+     * Builds the placeholder list for an IN (...) clause
+     *
+     * @param count Number of values
+     * @return "?, ?, ..." with count placeholders
+     */
+    protected static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
     }
 
     /**
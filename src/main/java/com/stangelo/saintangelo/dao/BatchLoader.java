@@ -0,0 +1,134 @@
+package com.stangelo.saintangelo.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javafx.application.Platform;
+
+/**
+ * Batches single-key lookups into one IN (...) query per entity type
+ * load() collects the keys asked for on the FX thread during one pulse, drops
+ * duplicates and loads them in a single runLater at the end of the tick,
+ * completing each caller's future; the query runs on the FX thread and its
+ * shared connection like any other screen lookup. loadMany() takes the keys
+ * already in hand (for example the patient IDs of every row a DAO just read)
+ * and loads them at once on the calling thread and connection. Shared loaders
+ * are in BatchLoaders.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public final class BatchLoader<K, V> {
+
+    private static final Logger logger = Logger.getLogger(BatchLoader.class.getName());
+
+    /**
+     * Loads many keys with one query
+     * Keys without a row are left out of the returned map.
+     */
+    @FunctionalInterface
+    public interface BatchFunction<K, V> {
+        Map<K, V> loadAll(List<K> keys);
+    }
+
+    private final String name;
+    private final int maxBatchSize;
+    private final BatchFunction<K, V> batchFunction;
+
+    // Keys asked for in the current tick; only touched on the FX thread
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+
+    /**
+     * @param name Name used in log messages
+     * @param maxBatchSize Most keys in one query; larger batches are split
+     * @param batchFunction Query for a list of keys
+     */
+    public BatchLoader(String name, int maxBatchSize, BatchFunction<K, V> batchFunction) {
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.batchFunction = batchFunction;
+    }
+
+    /**
+     * Queues a key for the current FX tick
+     * Asking for the same key again in the tick returns the same future. Off the
+     * FX thread there is no tick to share, so the key is loaded right away on
+     * the calling thread and connection. On the FX thread chain on the future
+     * (thenAccept) rather than join() it: the batch only runs once the current
+     * pulse returns.
+     *
+     * @param key Key to load (null completes with null)
+     * @return Future completed with the value, or null if there is no row
+     */
+    public CompletableFuture<V> load(K key) {
+        if (key == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!Platform.isFxApplicationThread()) {
+            try {
+                return CompletableFuture.completedFuture(loadMany(List.of(key)).get(key));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        CompletableFuture<V> future = pending.get(key);
+        if (future != null) {
+            return future;
+        }
+        if (pending.isEmpty()) {
+            Platform.runLater(this::dispatch);
+        }
+        future = new CompletableFuture<>();
+        pending.put(key, future);
+        return future;
+    }
+
+    /**
+     * Loads the keys queued in this tick; runs on the FX thread
+     */
+    private void dispatch() {
+        Map<K, CompletableFuture<V>> batch = pending;
+        pending = new LinkedHashMap<>();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            Map<K, V> values = loadMany(batch.keySet());
+            batch.forEach((key, future) -> future.complete(values.get(key)));
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Batch load of " + name + " failed", e);
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Loads a set of keys now, with one query per maxBatchSize distinct keys
+     *
+     * @param keys Keys to load (duplicates and nulls are ignored)
+     * @return Values by key; keys without a row are missing
+     */
+    public Map<K, V> loadMany(Collection<K> keys) {
+        LinkedHashSet<K> distinct = new LinkedHashSet<>(keys);
+        distinct.remove(null);
+        if (distinct.isEmpty()) {
+            return new HashMap<>();
+        }
+        List<K> keyList = new ArrayList<>(distinct);
+        if (keyList.size() <= maxBatchSize) {
+            return batchFunction.loadAll(keyList);
+        }
+        Map<K, V> values = new HashMap<>();
+        for (int from = 0; from < keyList.size(); from += maxBatchSize) {
+            values.putAll(batchFunction.loadAll(keyList.subList(from, Math.min(keyList.size(), from + maxBatchSize))));
+        }
+        return values;
+    }
+}
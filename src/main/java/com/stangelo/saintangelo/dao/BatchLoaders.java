@@ -0,0 +1,36 @@
+package com.stangelo.saintangelo.dao;
+
+import com.stangelo.saintangelo.models.Doctor;
+import com.stangelo.saintangelo.models.Patient;
+import com.stangelo.saintangelo.models.Prescription;
+import com.stangelo.saintangelo.models.User;
+
+/**
+ * Shared batch loaders, one per entity lookup
+ * DAOs resolve the patients, doctors, users and prescriptions referenced by a
+ * page of rows through these instead of one findById per row; screens can call
+ * load() per row on the FX thread and get one query per tick.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public final class BatchLoaders {
+
+    // Keys per IN (...) query; well under MySQL's placeholder limit
+    private static final int MAX_BATCH_SIZE = 500;
+
+    public static final BatchLoader<String, Patient> PATIENTS =
+            new BatchLoader<>("patients", MAX_BATCH_SIZE, keys -> new PatientDAO().findByIds(keys));
+
+    public static final BatchLoader<String, Doctor> DOCTORS =
+            new BatchLoader<>("doctors", MAX_BATCH_SIZE, keys -> new DoctorDAO().findByIds(keys));
+
+    public static final BatchLoader<String, User> USERS =
+            new BatchLoader<>("users", MAX_BATCH_SIZE, keys -> new UserDAO().findByIds(keys));
+
+    public static final BatchLoader<String, Prescription> PRESCRIPTIONS =
+            new BatchLoader<>("prescriptions", MAX_BATCH_SIZE, keys -> new PrescriptionDAO().findByIds(keys));
+
+    private BatchLoaders() {
+    }
+}
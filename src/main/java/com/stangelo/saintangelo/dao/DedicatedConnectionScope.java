@@ -0,0 +1,156 @@
+package com.stangelo.saintangelo.dao;
+
+import com.stangelo.saintangelo.utils.DatabaseConnection;
+import com.stangelo.saintangelo.utils.DatabaseRouter;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Dedicated Connection Scope
+ * Runs the DAO calls of a background thread on one dedicated connection instead
+ * of the shared connection of the JavaFX Application Thread.
+ *
+ * While a scope is open, getConnection() on the same thread returns the scope's
+ * connection, including for nested lookups such as the batch loaders. DAOs close
+ * it in their try-with-resources as usual; that close is ignored and the
+ * connection is closed with the scope.
+ *
+ * <pre>
+ * List&lt;Appointment&gt; appointments =
+ *         DedicatedConnectionScope.call(() -&gt; appointmentDAO.findByDateRange(from, to));
+ * </pre>
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public final class DedicatedConnectionScope implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(DedicatedConnectionScope.class.getName());
+
+    private static final ThreadLocal<DedicatedConnectionScope> current = new ThreadLocal<>();
+
+    /**
+     * Work run inside a scope by call()
+     */
+    @FunctionalInterface
+    public interface Work<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    /**
+     * Work without a result run inside a scope by run()
+     */
+    @FunctionalInterface
+    public interface Action<E extends Exception> {
+        void run() throws E;
+    }
+
+    private final Connection connection;
+    private final Connection borrowed;
+    private final DedicatedConnectionScope outer;
+
+    private DedicatedConnectionScope(Connection connection, DedicatedConnectionScope outer) {
+        this.connection = connection;
+        this.borrowed = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new IgnoreClose(connection));
+        this.outer = outer;
+    }
+
+    /**
+     * Opens a dedicated connection for the DAO calls of the current thread
+     *
+     * @return The scope, to be closed by the caller on the same thread
+     * @throws SQLException if no connection can be opened
+     */
+    public static DedicatedConnectionScope open() throws SQLException {
+        Connection conn = DatabaseRouter.trackWrites(DatabaseConnection.openDedicatedConnection());
+        DedicatedConnectionScope scope = new DedicatedConnectionScope(StatementMetrics.instrument(conn, true), current.get());
+        current.set(scope);
+        return scope;
+    }
+
+    /**
+     * Runs work on a dedicated connection opened for it and closed afterwards
+     *
+     * @param work DAO calls to run; they pick up the connection themselves
+     * @return What the work returned
+     * @throws SQLException if no connection can be opened
+     * @throws E if the work fails
+     */
+    public static <T, E extends Exception> T call(Work<T, E> work) throws SQLException, E {
+        DedicatedConnectionScope scope = open();
+        try {
+            return work.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Runs work without a result on a dedicated connection, like call()
+     *
+     * @param action DAO calls to run
+     * @throws SQLException if no connection can be opened
+     * @throws E if the action fails
+     */
+    public static <E extends Exception> void run(Action<E> action) throws SQLException, E {
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Gets the connection of the scope open on the current thread
+     *
+     * @return Connection whose close() does nothing, or null if no scope is open
+     */
+    static Connection borrow() {
+        DedicatedConnectionScope scope = current.get();
+        return scope != null ? scope.borrowed : null;
+    }
+
+    @Override
+    public void close() {
+        if (outer != null) {
+            current.set(outer);
+        } else {
+            current.remove();
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Error closing dedicated connection", e);
+        }
+    }
+
+    /**
+     * Forwards every call except close()
+     */
+    private static final class IgnoreClose implements InvocationHandler {
+        private final Connection target;
+
+        private IgnoreClose(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                return null;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
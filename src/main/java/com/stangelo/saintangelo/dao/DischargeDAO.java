@@ -2,6 +2,7 @@ package com.stangelo.saintangelo.dao;
 
 import com.stangelo.saintangelo.models.Discharge;
 import com.stangelo.saintangelo.models.DischargeStatus;
+import com.stangelo.saintangelo.models.DischargeWorklistItem;
 import com.stangelo.saintangelo.models.Patient;
 import com.stangelo.saintangelo.models.Prescription;
 
@@ -10,13 +11,22 @@ import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Discharge entity
  */
 public class DischargeDAO extends BaseDAO {
 
+    // Latest discharge ID of every patient (highest ID among records created at the latest time)
+    private static final String LATEST_DISCHARGE_IDS =
+            "(SELECT x.patient_id, MAX(x.discharge_id) AS discharge_id FROM discharges x " +
+            "INNER JOIN (SELECT patient_id, MAX(created_at) AS created_at FROM discharges GROUP BY patient_id) m " +
+            "ON x.patient_id = m.patient_id AND x.created_at = m.created_at " +
+            "GROUP BY x.patient_id)";
+
     public Discharge findById(String dischargeId) {
+        List<DischargeRow> rows = new ArrayList<>();
         String sql = "SELECT * FROM discharges WHERE discharge_id = ?";
 
         try (Connection conn = getConnection();
@@ -26,17 +36,18 @@ public class DischargeDAO extends BaseDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToDischarge(rs);
+                    rows.add(new DischargeRow(rs));
                 }
             }
         } catch (SQLException e) {
             logError("Error finding discharge by ID: " + dischargeId, e);
         }
-        return null;
+        List<Discharge> discharges = resolve(rows);
+        return discharges.isEmpty() ? null : discharges.get(0);
     }
 
     public List<Discharge> findByStatus(DischargeStatus status) {
-        List<Discharge> discharges = new ArrayList<>();
+        List<DischargeRow> rows = new ArrayList<>();
         String sql = "SELECT * FROM discharges WHERE status = ? ORDER BY discharge_date DESC";
 
         try (Connection conn = getConnection();
@@ -46,13 +57,13 @@ public class DischargeDAO extends BaseDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    discharges.add(mapResultSetToDischarge(rs));
+                    rows.add(new DischargeRow(rs));
                 }
             }
         } catch (SQLException e) {
             logError("Error finding discharges by status: " + status, e);
         }
-        return discharges;
+        return resolve(rows);
     }
 
     public boolean create(Discharge discharge) {
@@ -118,7 +129,7 @@ public class DischargeDAO extends BaseDAO {
     }
 
     public List<Discharge> findAll() {
-        List<Discharge> discharges = new ArrayList<>();
+        List<DischargeRow> rows = new ArrayList<>();
         String sql = "SELECT * FROM discharges ORDER BY created_at DESC";
 
         try (Connection conn = getConnection();
@@ -126,16 +137,16 @@ public class DischargeDAO extends BaseDAO {
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                discharges.add(mapResultSetToDischarge(rs));
+                rows.add(new DischargeRow(rs));
             }
         } catch (SQLException e) {
             logError("Error finding all discharges", e);
         }
-        return discharges;
+        return resolve(rows);
     }
 
     public List<Discharge> findByPatientNameOrId(String searchTerm) {
-        List<Discharge> discharges = new ArrayList<>();
+        List<DischargeRow> rows = new ArrayList<>();
         String sql = "SELECT d.* FROM discharges d " +
                 "INNER JOIN patients p ON d.patient_id = p.patient_id " +
                 "WHERE p.patient_id LIKE ? OR p.first_name LIKE ? OR p.last_name LIKE ? " +
@@ -153,17 +164,17 @@ public class DischargeDAO extends BaseDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    discharges.add(mapResultSetToDischarge(rs));
+                    rows.add(new DischargeRow(rs));
                 }
             }
         } catch (SQLException e) {
             logError("Error finding discharges by patient name or ID: " + searchTerm, e);
         }
-        return discharges;
+        return resolve(rows);
     }
 
     public List<Discharge> findByStatusAndSearch(DischargeStatus status, String searchTerm) {
-        List<Discharge> discharges = new ArrayList<>();
+        List<DischargeRow> rows = new ArrayList<>();
         String sql = "SELECT d.* FROM discharges d " +
                 "INNER JOIN patients p ON d.patient_id = p.patient_id " +
                 "WHERE d.status = ? " +
@@ -183,13 +194,13 @@ public class DischargeDAO extends BaseDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    discharges.add(mapResultSetToDischarge(rs));
+                    rows.add(new DischargeRow(rs));
                 }
             }
         } catch (SQLException e) {
             logError("Error finding discharges by status and search: " + status + ", " + searchTerm, e);
         }
-        return discharges;
+        return resolve(rows);
     }
 
     /**
@@ -217,6 +228,28 @@ public class DischargeDAO extends BaseDAO {
         return false;
     }
 
+    /**
+     * Deletes one batch of DISCHARGED records whose discharge date is before the cutoff
+     * Used by the discharge retention housekeeping job
+     *
+     * @param cutoff Records discharged before this time are deleted
+     * @param batchSize Maximum rows deleted by this call
+     * @return Number of rows deleted (less than batchSize when none are left)
+     * @throws SQLException if the delete fails
+     */
+    public int deleteDischargedBefore(LocalDateTime cutoff, int batchSize) throws SQLException {
+        String sql = "DELETE FROM discharges WHERE status = 'DISCHARGED' AND discharge_date < ? " +
+                     "ORDER BY discharge_date LIMIT ?";
+
+        try (Connection conn = getDedicatedConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(cutoff));
+            stmt.setInt(2, batchSize);
+            return stmt.executeUpdate();
+        }
+    }
+
     /**
      * Finds discharge record by patient ID
      *
@@ -224,6 +257,7 @@ public class DischargeDAO extends BaseDAO {
      * @return Discharge record if found, null otherwise
      */
     public Discharge findByPatientId(String patientId) {
+        List<DischargeRow> rows = new ArrayList<>();
         String sql = "SELECT * FROM discharges WHERE patient_id = ? ORDER BY created_at DESC LIMIT 1";
 
         try (Connection conn = getConnection();
@@ -233,35 +267,159 @@ public class DischargeDAO extends BaseDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToDischarge(rs);
+                    rows.add(new DischargeRow(rs));
                 }
             }
         } catch (SQLException e) {
             logError("Error finding discharge by patient ID: " + patientId, e);
         }
-        return null;
+        List<Discharge> discharges = resolve(rows);
+        return discharges.isEmpty() ? null : discharges.get(0);
+    }
+
+    /**
+     * Gets one page of the discharge worklist: completed visits with the patient's latest discharge record
+     * Search and status are filtered in the query. The live and history tables are
+     * each read newest first through their (status, created_time) index and cut to
+     * offset + limit rows before they are merged, and the latest discharge of every
+     * patient is joined from one grouped derived table instead of a subquery per visit.
+     *
+     * @param status Status to show, or null for all; PENDING_REVIEW also shows visits without a record
+     * @param searchTerm Text in the patient ID or name, or empty for all
+     * @param offset Rows to skip
+     * @param limit Rows to return
+     * @return Worklist items, newest visit first
+     */
+    public List<DischargeWorklistItem> findWorklist(DischargeStatus status, String searchTerm, int offset, int limit) {
+        List<DischargeWorklistItem> items = new ArrayList<>();
+        StringBuilder filters = new StringBuilder();
+        if (status == DischargeStatus.PENDING_REVIEW) {
+            filters.append(" AND (ld.discharge_id IS NULL OR ld.status = ?)");
+        } else if (status != null) {
+            filters.append(" AND ld.status = ?");
+        }
+        boolean search = searchTerm != null && !searchTerm.isEmpty();
+        if (search) {
+            filters.append(" AND (t.patient_id LIKE ? OR CONCAT(p.first_name, ' ', p.last_name) LIKE ?)");
+        }
+        String sql = "SELECT w.*, d.name AS doctor_name, d.department FROM (" +
+                worklistBranch("tickets", filters) + " UNION ALL " + worklistBranch("tickets_history", filters) +
+                ") w LEFT JOIN doctors d ON w.assigned_doctor_id = d.doctor_id " +
+                "ORDER BY w.created_time DESC LIMIT ? OFFSET ?";
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            // Each branch takes its own copy of the filter parameters and its row limit
+            for (int branch = 0; branch < 2; branch++) {
+                if (status != null) {
+                    stmt.setString(index++, status.name());
+                }
+                if (search) {
+                    String searchPattern = "%" + searchTerm + "%";
+                    stmt.setString(index++, searchPattern);
+                    stmt.setString(index++, searchPattern);
+                }
+                stmt.setInt(index++, offset + limit);
+            }
+            stmt.setInt(index++, limit);
+            stmt.setInt(index, offset);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String firstName = rs.getString("first_name");
+                    String lastName = rs.getString("last_name");
+                    Timestamp visitTime = rs.getTimestamp("created_time");
+                    String dischargeStatus = rs.getString("status");
+                    items.add(new DischargeWorklistItem(
+                        rs.getString("visit_id"),
+                        rs.getString("patient_id"),
+                        ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim(),
+                        rs.getString("doctor_name"),
+                        rs.getString("department"),
+                        visitTime != null ? visitTime.toLocalDateTime() : null,
+                        rs.getString("discharge_id"),
+                        dischargeStatus != null ? DischargeStatus.valueOf(dischargeStatus) : null
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            logError("Error loading discharge worklist", e);
+        }
+        return items;
+    }
+
+    /**
+     * Builds one side of the worklist UNION: the newest completed visits of one
+     * ticket table that pass the filters, limited by the next parameter
+     */
+    private static String worklistBranch(String table, CharSequence filters) {
+        return "(SELECT t.visit_id, t.patient_id, p.first_name, p.last_name, t.assigned_doctor_id, t.created_time, " +
+               "ld.discharge_id, ld.status " +
+               "FROM " + table + " t " +
+               "INNER JOIN patients p ON t.patient_id = p.patient_id " +
+               "LEFT JOIN " + LATEST_DISCHARGE_IDS + " lm ON lm.patient_id = t.patient_id " +
+               "LEFT JOIN discharges ld ON ld.discharge_id = lm.discharge_id " +
+               "WHERE t.status = 'COMPLETED'" + filters +
+               " ORDER BY t.created_time DESC LIMIT ?)";
     }
 
-    private Discharge mapResultSetToDischarge(ResultSet rs) throws SQLException {
-        String dischargeId = rs.getString("discharge_id");
-        String patientId = rs.getString("patient_id");
-        String department = rs.getString("department");
-        DischargeStatus status = DischargeStatus.valueOf(rs.getString("status"));
-        String prescriptionId = rs.getString("prescription_id");
-        Timestamp dischargeDateTs = rs.getTimestamp("discharge_date");
-        LocalDateTime dischargeDate = dischargeDateTs != null ? dischargeDateTs.toLocalDateTime() : null;
-        BigDecimal billingAmount = rs.getBigDecimal("billing_amount");
-        String notes = rs.getString("notes");
-
-        Patient patient = new PatientDAO().findById(patientId);
-        Prescription prescription = prescriptionId != null ? new PrescriptionDAO().findById(prescriptionId) : null;
-
-        if (patient == null) {
-            throw new SQLException("Patient not found for discharge: " + dischargeId);
+    /**
+     * Columns of one discharges row, read before the patient and prescription are loaded
+     */
+    private static final class DischargeRow {
+        final String dischargeId;
+        final String patientId;
+        final String department;
+        final DischargeStatus status;
+        final String prescriptionId;
+        final LocalDateTime dischargeDate;
+        final BigDecimal billingAmount;
+        final String notes;
+
+        DischargeRow(ResultSet rs) throws SQLException {
+            this.dischargeId = rs.getString("discharge_id");
+            this.patientId = rs.getString("patient_id");
+            this.department = rs.getString("department");
+            this.status = DischargeStatus.valueOf(rs.getString("status"));
+            this.prescriptionId = rs.getString("prescription_id");
+            Timestamp dischargeDateTs = rs.getTimestamp("discharge_date");
+            this.dischargeDate = dischargeDateTs != null ? dischargeDateTs.toLocalDateTime() : null;
+            this.billingAmount = rs.getBigDecimal("billing_amount");
+            this.notes = rs.getString("notes");
         }
+    }
 
-        return new Discharge(dischargeId, patient, department, status, dischargeDate, prescription,
-                billingAmount != null ? billingAmount.toString() : null, notes);
+    /**
+     * Builds discharges from rows, loading all their patients and prescriptions with one query each
+     * Rows whose patient no longer exists are skipped.
+     */
+    private List<Discharge> resolve(List<DischargeRow> rows) {
+        List<Discharge> discharges = new ArrayList<>(rows.size());
+        if (rows.isEmpty()) {
+            return discharges;
+        }
+        List<String> patientIds = new ArrayList<>(rows.size());
+        List<String> prescriptionIds = new ArrayList<>(rows.size());
+        for (DischargeRow row : rows) {
+            patientIds.add(row.patientId);
+            prescriptionIds.add(row.prescriptionId);
+        }
+        Map<String, Patient> patients = BatchLoaders.PATIENTS.loadMany(patientIds);
+        Map<String, Prescription> prescriptions = BatchLoaders.PRESCRIPTIONS.loadMany(prescriptionIds);
+
+        for (DischargeRow row : rows) {
+            Patient patient = patients.get(row.patientId);
+            if (patient == null) {
+                logger.warning("Patient not found for discharge: " + row.dischargeId);
+                continue;
+            }
+            Prescription prescription = row.prescriptionId != null ? prescriptions.get(row.prescriptionId) : null;
+            discharges.add(new Discharge(row.dischargeId, patient, row.department, row.status, row.dischargeDate,
+                    prescription, row.billingAmount != null ? row.billingAmount.toString() : null, row.notes));
+        }
+        return discharges;
     }
 }
 
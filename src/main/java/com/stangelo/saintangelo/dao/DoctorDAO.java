@@ -4,7 +4,10 @@ import com.stangelo.saintangelo.models.Doctor;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Doctor entity
@@ -40,6 +43,40 @@ public class DoctorDAO extends BaseDAO {
         return null;
     }
 
+    /**
+     * Finds doctors by ID with one query
+     * Used by BatchLoaders to resolve the doctors referenced by many rows at once.
+     *
+     * @param doctorIds Doctor IDs
+     * @return Doctor objects by ID; IDs without a row are missing
+     */
+    public Map<String, Doctor> findByIds(Collection<String> doctorIds) {
+        Map<String, Doctor> doctors = new HashMap<>();
+        if (doctorIds.isEmpty()) {
+            return doctors;
+        }
+        String sql = "SELECT * FROM doctors WHERE doctor_id IN (" + placeholders(doctorIds.size()) + ")";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            for (String id : doctorIds) {
+                stmt.setString(index++, id);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Doctor doctor = mapResultSetToDoctor(rs);
+                    doctors.put(doctor.getId(), doctor);
+                }
+            }
+        } catch (SQLException e) {
+            logError("Error finding doctors by ID", e);
+        }
+        return doctors;
+    }
+
     /**
      * Finds a doctor by user ID
      *
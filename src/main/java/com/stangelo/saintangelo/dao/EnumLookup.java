@@ -0,0 +1,69 @@
+package com.stangelo.saintangelo.dao;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Precomputed name-to-constant table for an enum column
+ * Built once per enum; lookups never throw, so row mappers do not pay for
+ * an IllegalArgumentException (and its stack trace) on unknown or badly cased values.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public final class EnumLookup<E extends Enum<E>> {
+
+    private final Map<String, E> byName;
+    private final Map<String, E> byUpperCaseName;
+
+    private EnumLookup(Class<E> type) {
+        E[] constants = type.getEnumConstants();
+        byName = new HashMap<>(constants.length * 2);
+        byUpperCaseName = new HashMap<>(constants.length * 2);
+        for (E constant : constants) {
+            byName.put(constant.name(), constant);
+            byUpperCaseName.put(constant.name().toUpperCase(Locale.ROOT), constant);
+        }
+    }
+
+    /**
+     * Builds the lookup table for an enum
+     *
+     * @param type Enum class
+     * @return Lookup table (keep it in a static final field)
+     */
+    public static <E extends Enum<E>> EnumLookup<E> of(Class<E> type) {
+        return new EnumLookup<>(type);
+    }
+
+    /**
+     * Gets the constant for a column value
+     * Exact names are found with one hash lookup; other casings and surrounding
+     * spaces are only normalised when the exact lookup misses.
+     *
+     * @param name Column value (may be null)
+     * @param fallback Constant to return for null, empty or unknown values
+     * @return Matching constant, or the fallback
+     */
+    public E get(String name, E fallback) {
+        if (name == null) {
+            return fallback;
+        }
+        E constant = byName.get(name);
+        if (constant == null) {
+            constant = byUpperCaseName.get(name.trim().toUpperCase(Locale.ROOT));
+        }
+        return constant != null ? constant : fallback;
+    }
+
+    /**
+     * Checks whether a column value names a constant
+     *
+     * @param name Column value (may be null)
+     * @return true if get() would return a constant instead of the fallback
+     */
+    public boolean contains(String name) {
+        return get(name, null) != null;
+    }
+}
@@ -0,0 +1,198 @@
+package com.stangelo.saintangelo.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.stangelo.saintangelo.models.HousekeepingRun;
+import com.stangelo.saintangelo.models.HousekeepingStatus;
+
+/**
+ * Data Access Object for housekeeping runs
+ * Records when each maintenance job last ran (shared by all workstations) and
+ * provides the MySQL advisory lock that keeps a single workstation running them.
+ * Called from the housekeeping thread, so every method uses a dedicated connection.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class HousekeepingDAO extends BaseDAO {
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[a-z_]+");
+
+    /**
+     * A MySQL named lock (GET_LOCK) held by a dedicated connection
+     * The lock belongs to that session, so it is released when this object is
+     * closed or, if the workstation dies, when MySQL drops the connection.
+     */
+    public static final class AdvisoryLock implements AutoCloseable {
+        private final Connection connection;
+        private final String name;
+
+        private AdvisoryLock(Connection connection, String name) {
+            this.connection = connection;
+            this.name = name;
+        }
+
+        @Override
+        public void close() {
+            try (Connection conn = connection;
+                 PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                stmt.setString(1, name);
+                stmt.executeQuery().close();
+            } catch (SQLException e) {
+                logger.warning("Error releasing lock " + name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Tries to take a named lock without waiting
+     *
+     * @param name Lock name (shared by every workstation using the same database)
+     * @return The held lock, or null if another session holds it
+     * @throws SQLException if the database cannot be reached
+     */
+    public AdvisoryLock tryLock(String name) throws SQLException {
+        Connection conn = getDedicatedConnection();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            stmt.setString(1, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next() && rs.getInt(1) == 1) {
+                    return new AdvisoryLock(conn, name);
+                }
+            }
+        } catch (SQLException e) {
+            closeConnection(conn);
+            throw e;
+        }
+        closeConnection(conn);
+        return null;
+    }
+
+    /**
+     * Gets the last recorded run of every job
+     *
+     * @return Map of job name to last run
+     */
+    public Map<String, HousekeepingRun> findAllRuns() {
+        Map<String, HousekeepingRun> runs = new HashMap<>();
+        String sql = "SELECT * FROM housekeeping_runs";
+
+        try (Connection conn = getDedicatedConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                HousekeepingRun run = mapResultSetToRun(rs);
+                runs.put(run.getJobName(), run);
+            }
+        } catch (SQLException e) {
+            logError("Error finding housekeeping runs", e);
+        }
+        return runs;
+    }
+
+    /**
+     * Records that a job has started on this workstation
+     *
+     * @param jobName Job name
+     * @param runBy Workstation host name
+     */
+    public void markStarted(String jobName, String runBy) {
+        String sql = "INSERT INTO housekeeping_runs (job_name, status, last_started, run_by) VALUES (?, 'RUNNING', NOW(), ?) " +
+                     "ON DUPLICATE KEY UPDATE status = 'RUNNING', last_started = NOW(), run_by = VALUES(run_by)";
+
+        try (Connection conn = getDedicatedConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, jobName);
+            stmt.setString(2, runBy);
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            logError("Error recording start of housekeeping job: " + jobName, e);
+        }
+    }
+
+    /**
+     * Records how a job run ended
+     *
+     * @param jobName Job name
+     * @param status Outcome
+     * @param rowsAffected Rows deleted/moved/updated by the run
+     * @param message Details or error message (may be null)
+     */
+    public void markFinished(String jobName, HousekeepingStatus status, int rowsAffected, String message) {
+        String sql = "UPDATE housekeeping_runs SET status = ?, last_finished = NOW(), rows_affected = ?, message = ? " +
+                     "WHERE job_name = ?";
+
+        try (Connection conn = getDedicatedConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, status.name());
+            stmt.setInt(2, rowsAffected);
+            stmt.setString(3, message != null && message.length() > 500 ? message.substring(0, 500) : message);
+            stmt.setString(4, jobName);
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            logError("Error recording end of housekeeping job: " + jobName, e);
+        }
+    }
+
+    /**
+     * Refreshes the optimizer's index statistics for a table (ANALYZE TABLE)
+     *
+     * @param table Table name (lower-case letters and underscores only)
+     * @throws SQLException if the statement fails
+     */
+    public void analyzeTable(String table) throws SQLException {
+        if (!TABLE_NAME.matcher(table).matches()) {
+            throw new IllegalArgumentException("Invalid table name: " + table);
+        }
+        try (Connection conn = getDedicatedConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeQuery("ANALYZE TABLE " + table).close();
+        }
+    }
+
+    private HousekeepingRun mapResultSetToRun(ResultSet rs) throws SQLException {
+        Timestamp started = rs.getTimestamp("last_started");
+        Timestamp finished = rs.getTimestamp("last_finished");
+        return new HousekeepingRun(
+                rs.getString("job_name"),
+                HousekeepingStatus.valueOf(rs.getString("status")),
+                started != null ? started.toLocalDateTime() : null,
+                finished != null ? finished.toLocalDateTime() : null,
+                rs.getInt("rows_affected"),
+                rs.getString("message"),
+                rs.getString("run_by"));
+    }
+
+    /**
+     * Gets the database server's current time, so every workstation schedules against the same clock
+     *
+     * @return Current database time, or the local time if the query fails
+     */
+    public LocalDateTime getDatabaseTime() {
+        try (Connection conn = getDedicatedConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT NOW()");
+             ResultSet rs = stmt.executeQuery()) {
+
+            if (rs.next()) {
+                return rs.getTimestamp(1).toLocalDateTime();
+            }
+        } catch (SQLException e) {
+            logError("Error reading database time", e);
+        }
+        return LocalDateTime.now();
+    }
+}
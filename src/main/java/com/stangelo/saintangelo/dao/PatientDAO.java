@@ -5,11 +5,19 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import com.stangelo.saintangelo.models.Patient;
 
@@ -22,6 +30,19 @@ import com.stangelo.saintangelo.models.Patient;
  */
 public class PatientDAO extends BaseDAO {
 
+    private static final String INSERT_SQL = "INSERT INTO patients (patient_id, first_name, last_name, age, phone_number, gender, " +
+            "home_address, chief_complaint, priority, emergency_contact_person, emergency_contact_number, " +
+            "is_senior_citizen, blood_type, registration_date, last_visit_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int INSERT_COLUMN_COUNT = 15;
+
+    // Rows per multi-row INSERT in insertBatch (15 parameters each)
+    private static final int MULTI_ROW_INSERT_SIZE = 500;
+
+    // MySQL ER_DUP_ENTRY; insertBatch retries when an ID is taken between its check and insert
+    private static final int DUPLICATE_KEY_ERROR = 1062;
+    private static final int MAX_BATCH_ATTEMPTS = 3;
+
     /**
      * Finds a patient by ID
      *
@@ -47,6 +68,40 @@ public class PatientDAO extends BaseDAO {
         return null;
     }
 
+    /**
+     * Finds patients by ID with one query
+     * Used by BatchLoaders to resolve the patients referenced by many rows at once.
+     *
+     * @param patientIds Patient IDs
+     * @return Patient objects by ID; IDs without a row are missing
+     */
+    public Map<String, Patient> findByIds(Collection<String> patientIds) {
+        Map<String, Patient> patients = new HashMap<>();
+        if (patientIds.isEmpty()) {
+            return patients;
+        }
+        String sql = "SELECT * FROM patients WHERE patient_id IN (" + placeholders(patientIds.size()) + ")";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            for (String id : patientIds) {
+                stmt.setString(index++, id);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Patient patient = mapResultSetToPatient(rs);
+                    patients.put(patient.getId(), patient);
+                }
+            }
+        } catch (SQLException e) {
+            logError("Error finding patients by ID", e);
+        }
+        return patients;
+    }
+
     /**
      * Finds patients by name (first name or last name)
      *
@@ -129,40 +184,258 @@ public class PatientDAO extends BaseDAO {
      * @return true if successful, false otherwise
      */
     public boolean create(Patient patient) {
-        String sql = "INSERT INTO patients (patient_id, first_name, last_name, age, phone_number, gender, " +
-                "home_address, chief_complaint, priority, emergency_contact_person, emergency_contact_number, " +
-                "is_senior_citizen, blood_type, registration_date, last_visit_date) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection conn = getConnection()) {
+            insert(conn, patient);
+            return true;
+
+        } catch (SQLException e) {
+            logError("Error creating patient: " + patient.getId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Inserts a new patient on the given connection
+     * Used by create() and inside the registration transaction
+     *
+     * @param conn Connection to insert on
+     * @param patient Patient object to create
+     * @throws SQLException if the insert fails
+     */
+    void insert(Connection conn, Patient patient) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+            bindInsert(stmt, patient);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Creates a patient unless one with the same ID already exists
+     * Used to replay registrations journaled while the database was down,
+     * so replaying the same registration twice is harmless.
+     *
+     * @param patient Patient object to create
+     * @return true if inserted, false if the patient already existed
+     * @throws SQLException if the insert fails
+     */
+    public boolean insertIfAbsent(Patient patient) throws SQLException {
+        String sql = INSERT_SQL + " ON DUPLICATE KEY UPDATE patient_id = patient_id";
 
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, patient.getId());
-            stmt.setString(2, extractFirstName(patient.getName()));
-            stmt.setString(3, extractLastName(patient.getName()));
-            stmt.setInt(4, patient.getAge());
-            stmt.setString(5, patient.getContactNumber());
-            stmt.setString(6, patient.getGender());
-            stmt.setString(7, patient.getHomeAddress());
-            // Note: Patient model needs getChiefComplaint method
-            // Using notes field as temporary storage
-            stmt.setString(8, patient.getNotes());
-            stmt.setString(9, mapPriorityToString(patient));
-            stmt.setString(10, patient.getEmergencycontactPerson());
-            stmt.setString(11, patient.getEmergencycontactNumber());
-            stmt.setBoolean(12, patient.isSeniorCitizen());
-            stmt.setString(13, patient.getBloodType());
-            stmt.setDate(14, Date.valueOf(LocalDate.now()));
-            stmt.setDate(15, patient.getLastVisitDate() != null ?
-                    Date.valueOf(LocalDate.parse(patient.getLastVisitDate())) : null);
+            bindInsert(stmt, patient);
+            return stmt.executeUpdate() == 1;
+        }
+    }
 
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+    private void bindInsert(PreparedStatement stmt, Patient patient) throws SQLException {
+        bindInsert(stmt, 0, patient);
+    }
 
-        } catch (SQLException e) {
-            logError("Error creating patient: " + patient.getId(), e);
-            return false;
+    /**
+     * Binds one patient's INSERT_SQL values starting after the given parameter offset
+     */
+    private void bindInsert(PreparedStatement stmt, int offset, Patient patient) throws SQLException {
+        stmt.setString(offset + 1, patient.getId());
+        stmt.setString(offset + 2, extractFirstName(patient.getName()));
+        stmt.setString(offset + 3, extractLastName(patient.getName()));
+        stmt.setInt(offset + 4, patient.getAge());
+        stmt.setString(offset + 5, patient.getContactNumber());
+        stmt.setString(offset + 6, patient.getGender());
+        stmt.setString(offset + 7, patient.getHomeAddress());
+        // Note: Patient model needs getChiefComplaint method
+        // Using notes field as temporary storage
+        stmt.setString(offset + 8, patient.getNotes());
+        stmt.setString(offset + 9, mapPriorityToString(patient));
+        stmt.setString(offset + 10, patient.getEmergencycontactPerson());
+        stmt.setString(offset + 11, patient.getEmergencycontactNumber());
+        stmt.setBoolean(offset + 12, patient.isSeniorCitizen());
+        stmt.setString(offset + 13, patient.getBloodType());
+        stmt.setDate(offset + 14, Date.valueOf(patient.getRegistrationDate() != null ?
+                patient.getRegistrationDate() : LocalDate.now()));
+        stmt.setDate(offset + 15, patient.getLastVisitDate() != null ?
+                Date.valueOf(LocalDate.parse(patient.getLastVisitDate())) : null);
+    }
+
+    // --- MATCHING INDEX ---
+
+    /**
+     * Streams the fields used to match returning patients (ID, name, phone, age, registration date)
+     * Patients are delivered with only those fields set.
+     *
+     * @param changedSince Only patients created or updated at or after this time, or null for all
+     * @param sink Receives each patient as it is read
+     * @return Latest updated_at seen, or changedSince if no rows were returned
+     * @throws SQLException if the query fails
+     */
+    public LocalDateTime streamMatchKeys(LocalDateTime changedSince, Consumer<Patient> sink) throws SQLException {
+        String sql = "SELECT patient_id, first_name, last_name, phone_number, age, registration_date, updated_at " +
+                "FROM patients" + (changedSince != null ? " WHERE updated_at >= ?" : "");
+
+        LocalDateTime latest = changedSince;
+        try (Connection conn = changedSince != null ? getReadConnection() : getDedicatedReadConnection();
+             PreparedStatement stmt = changedSince != null ? conn.prepareStatement(sql) : prepareStreamingStatement(conn, sql)) {
+
+            if (changedSince != null) {
+                stmt.setTimestamp(1, Timestamp.valueOf(changedSince));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Patient patient = new Patient(rs.getString("patient_id"),
+                            rs.getString("first_name") + " " + rs.getString("last_name"), rs.getInt("age"),
+                            rs.getString("phone_number"), null, null, null, null, false, null, null, null, null,
+                            null, null, null, null, null, null, null, null, null);
+                    Date registered = rs.getDate("registration_date");
+                    patient.setRegistrationDate(registered != null ? registered.toLocalDate() : null);
+                    sink.accept(patient);
+
+                    Timestamp updated = rs.getTimestamp("updated_at");
+                    if (updated != null && (latest == null || updated.toLocalDateTime().isAfter(latest))) {
+                        latest = updated.toLocalDateTime();
+                    }
+                }
+            }
+        }
+        return latest;
+    }
+
+    // --- BULK IMPORT ---
+
+    /**
+     * Builds the key used to recognise the same patient twice:
+     * phone number plus first and last name, ignoring case
+     *
+     * @param phoneNumber Phone number as stored
+     * @param fullName Full name (split into first and last name like on insert)
+     * @return Identity key
+     */
+    public static String identityKey(String phoneNumber, String fullName) {
+        return identityKey(phoneNumber, extractFirstName(fullName), extractLastName(fullName));
+    }
+
+    private static String identityKey(String phoneNumber, String firstName, String lastName) {
+        return phoneNumber + "|" + firstName.toLowerCase() + "|" + lastName.toLowerCase();
+    }
+
+    /**
+     * Finds which of the given phone numbers already belong to patients
+     *
+     * @param phoneNumbers Phone numbers to look up
+     * @return Identity keys (see identityKey) of the existing patients with those numbers
+     * @throws SQLException if the query fails
+     */
+    public Set<String> findExistingIdentities(Collection<String> phoneNumbers) throws SQLException {
+        Set<String> keys = new HashSet<>();
+        if (phoneNumbers.isEmpty()) {
+            return keys;
         }
+        String placeholders = String.join(", ", Collections.nCopies(phoneNumbers.size(), "?"));
+        String sql = "SELECT phone_number, first_name, last_name FROM patients WHERE phone_number IN (" + placeholders + ")";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (String phoneNumber : phoneNumbers) {
+                stmt.setString(index++, phoneNumber);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    keys.add(identityKey(rs.getString("phone_number"), rs.getString("first_name"), rs.getString("last_name")));
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Inserts patients in one transaction using multi-row INSERT statements
+     * Patients whose ID already exists (in the table or earlier in the list) are
+     * not inserted and are returned instead, so a chunk that was committed before
+     * a crash can be imported again safely and every skipped row can be reported.
+     * If another connection inserts one of the IDs between the check and the
+     * insert, the transaction is run again.
+     *
+     * @param patients Patients to insert
+     * @return Patients not inserted because their ID is already taken (empty if all were inserted)
+     * @throws SQLException if the insert fails (the whole chunk is rolled back)
+     */
+    public List<Patient> insertBatch(List<Patient> patients) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return insertBatchOnce(patients);
+            } catch (SQLException e) {
+                if (e.getErrorCode() != DUPLICATE_KEY_ERROR || attempt >= MAX_BATCH_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private List<Patient> insertBatchOnce(List<Patient> patients) throws SQLException {
+        List<Patient> conflicts = new ArrayList<>();
+        if (patients.isEmpty()) {
+            return conflicts;
+        }
+        try (Connection conn = getDedicatedConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Set<String> taken = new HashSet<>();
+                for (int from = 0; from < patients.size(); from += MULTI_ROW_INSERT_SIZE) {
+                    List<Patient> slice = patients.subList(from, Math.min(from + MULTI_ROW_INSERT_SIZE, patients.size()));
+                    taken.addAll(findExistingIds(conn, slice));
+
+                    List<Patient> rows = new ArrayList<>(slice.size());
+                    for (Patient patient : slice) {
+                        if (taken.add(patient.getId())) {
+                            rows.add(patient);
+                        } else {
+                            conflicts.add(patient);
+                        }
+                    }
+                    if (rows.isEmpty()) {
+                        continue;
+                    }
+                    try (PreparedStatement stmt = conn.prepareStatement(multiRowInsertSql(rows.size()))) {
+                        for (int i = 0; i < rows.size(); i++) {
+                            bindInsert(stmt, i * INSERT_COLUMN_COUNT, rows.get(i));
+                        }
+                        stmt.executeUpdate();
+                    }
+                }
+                conn.commit();
+                return conflicts;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Finds which of the patients' IDs are already in the patients table
+     */
+    private Set<String> findExistingIds(Connection conn, List<Patient> patients) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(patients.size(), "?"));
+        Set<String> ids = new HashSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT patient_id FROM patients WHERE patient_id IN (" + placeholders + ")")) {
+            for (int i = 0; i < patients.size(); i++) {
+                stmt.setString(i + 1, patients.get(i).getId());
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getString("patient_id"));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static String multiRowInsertSql(int rows) {
+        String values = "(" + String.join(", ", Collections.nCopies(INSERT_COLUMN_COUNT, "?")) + ")";
+        return INSERT_SQL.substring(0, INSERT_SQL.indexOf(" VALUES ")) + " VALUES " +
+                String.join(", ", Collections.nCopies(rows, values));
     }
 
     /**
@@ -214,16 +487,8 @@ public class PatientDAO extends BaseDAO {
      * @return true if successful, false otherwise
      */
     public boolean updateLastVisitDate(String patientId, LocalDate visitDate) {
-        String sql = "UPDATE patients SET last_visit_date = ? WHERE patient_id = ?";
-
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setDate(1, Date.valueOf(visitDate));
-            stmt.setString(2, patientId);
-
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+        try (Connection conn = getConnection()) {
+            return updateLastVisitDate(conn, patientId, visitDate);
 
         } catch (SQLException e) {
             logError("Error updating last visit date for patient: " + patientId, e);
@@ -231,6 +496,25 @@ public class PatientDAO extends BaseDAO {
         }
     }
 
+    /**
+     * Updates patient's last visit date on the given connection
+     *
+     * @param conn Connection to update on
+     * @param patientId Patient ID
+     * @param visitDate Visit date
+     * @return true if the patient exists
+     * @throws SQLException if the update fails
+     */
+    boolean updateLastVisitDate(Connection conn, String patientId, LocalDate visitDate) throws SQLException {
+        String sql = "UPDATE patients SET last_visit_date = ? WHERE patient_id = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(visitDate));
+            stmt.setString(2, patientId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
     /**
      * Maps a ResultSet row to a Patient object
      */
@@ -272,7 +556,7 @@ public class PatientDAO extends BaseDAO {
     /**
      * Helper method to extract first name from full name
      */
-    private String extractFirstName(String fullName) {
+    private static String extractFirstName(String fullName) {
         if (fullName == null || fullName.trim().isEmpty()) {
             return "";
         }
@@ -283,7 +567,7 @@ public class PatientDAO extends BaseDAO {
     /**
      * Helper method to extract last name from full name
      */
-    private String extractLastName(String fullName) {
+    private static String extractLastName(String fullName) {
         if (fullName == null || fullName.trim().isEmpty()) {
             return "";
         }
@@ -334,7 +618,7 @@ public class PatientDAO extends BaseDAO {
     public int countAllPatients() {
         String sql = "SELECT COUNT(*) FROM patients";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -362,7 +646,7 @@ public class PatientDAO extends BaseDAO {
                      "GROUP BY DATE(registration_date) " +
                      "ORDER BY DATE(registration_date)";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, days - 1);
@@ -395,7 +679,7 @@ public class PatientDAO extends BaseDAO {
      */
     public int getPatientCountInPeriod(LocalDate start, LocalDate end) {
         String sql = "SELECT COUNT(*) FROM patients WHERE registration_date BETWEEN ? AND ?";
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setObject(1, start);
             stmt.setObject(2, end);
@@ -484,7 +768,7 @@ public class PatientDAO extends BaseDAO {
         params.add(limit);
         params.add(offset);
         
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
             
             int paramIndex = 1;
@@ -497,16 +781,9 @@ public class PatientDAO extends BaseDAO {
                 paramIndex++;
             }
             
-            // Debug: Print the SQL query
-            System.out.println("Executing SQL: " + sql.toString());
-            System.out.println("Parameters: " + params);
-            
             try (ResultSet rs = stmt.executeQuery()) {
-                int rowCount = 0;
                 while (rs.next()) {
-                    rowCount++;
                     String patientId = rs.getString("patient_id");
-                    System.out.println("Found patient: " + patientId);
                     
                     // Construct Patient object directly from ResultSet to avoid closing it
                     String firstName = rs.getString("first_name");
@@ -555,15 +832,9 @@ public class PatientDAO extends BaseDAO {
                     
                     records.add(new PatientRecord(patient, consultationCount, status, lastVisit));
                 }
-                System.out.println("Total rows returned from query: " + rowCount);
-                System.out.println("Records added to list: " + records.size());
             }
         } catch (SQLException e) {
-            System.err.println("SQL Error getting patient records!");
-            System.err.println("SQL: " + sql.toString());
-            System.err.println("Parameters: " + params);
-            logError("Error getting patient records. SQL: " + sql.toString(), e);
-            e.printStackTrace(); // Print stack trace for debugging
+            logError("Error getting patient records. SQL: " + sql.toString() + ", parameters: " + params, e);
         }
         
         return records;
@@ -609,7 +880,7 @@ public class PatientDAO extends BaseDAO {
             params.add(statusFilter);
         }
         
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
             
             int paramIndex = 1;
@@ -7,7 +7,10 @@ import com.stangelo.saintangelo.models.Prescription;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Prescription entity
@@ -15,6 +18,7 @@ import java.util.List;
 public class PrescriptionDAO extends BaseDAO {
 
     public Prescription findById(String prescriptionId) {
+        List<PrescriptionRow> rows = new ArrayList<>();
         String sql = "SELECT * FROM prescriptions WHERE prescription_id = ?";
 
         try (Connection conn = getConnection();
@@ -24,17 +28,18 @@ public class PrescriptionDAO extends BaseDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToPrescription(rs);
+                    rows.add(new PrescriptionRow(rs));
                 }
             }
         } catch (SQLException e) {
             logError("Error finding prescription by ID: " + prescriptionId, e);
         }
-        return null;
+        List<Prescription> prescriptions = resolve(rows);
+        return prescriptions.isEmpty() ? null : prescriptions.get(0);
     }
 
     public List<Prescription> findByPatient(String patientId) {
-        List<Prescription> prescriptions = new ArrayList<>();
+        List<PrescriptionRow> rows = new ArrayList<>();
         String sql = "SELECT * FROM prescriptions WHERE patient_id = ? ORDER BY consultation_date DESC";
 
         try (Connection conn = getConnection();
@@ -44,13 +49,13 @@ public class PrescriptionDAO extends BaseDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    prescriptions.add(mapResultSetToPrescription(rs));
+                    rows.add(new PrescriptionRow(rs));
                 }
             }
         } catch (SQLException e) {
             logError("Error finding prescriptions by patient: " + patientId, e);
         }
-        return prescriptions;
+        return resolve(rows);
     }
 
     /**
@@ -61,7 +66,7 @@ public class PrescriptionDAO extends BaseDAO {
      * @return List of prescriptions matching patient and doctor, ordered by date DESC
      */
     public List<Prescription> findByPatientAndDoctor(String patientId, String doctorId) {
-        List<Prescription> prescriptions = new ArrayList<>();
+        List<PrescriptionRow> rows = new ArrayList<>();
         String sql = "SELECT * FROM prescriptions WHERE patient_id = ? AND doctor_id = ? ORDER BY consultation_date DESC";
 
         try (Connection conn = getConnection();
@@ -72,15 +77,56 @@ public class PrescriptionDAO extends BaseDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    prescriptions.add(mapResultSetToPrescription(rs));
+                    rows.add(new PrescriptionRow(rs));
                 }
             }
         } catch (SQLException e) {
             logError("Error finding prescriptions by patient and doctor: " + patientId + ", " + doctorId, e);
         }
+        return resolve(rows);
+    }
+
+    /**
+     * Finds prescriptions by ID with one query
+     *
+     * @param prescriptionIds Prescription IDs
+     * @return Prescriptions by ID; IDs without a row are missing
+     */
+    public Map<String, Prescription> findByIds(Collection<String> prescriptionIds) {
+        Map<String, Prescription> prescriptions = new HashMap<>();
+        for (Prescription prescription : findWhereIn("prescription_id", prescriptionIds)) {
+            prescriptions.put(prescription.getPrescriptionId(), prescription);
+        }
         return prescriptions;
     }
 
+    private List<Prescription> findWhereIn(String column, Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<PrescriptionRow> rows = new ArrayList<>();
+        String sql = "SELECT * FROM prescriptions WHERE " + column + " IN (" + placeholders(ids.size()) + ") " +
+                "ORDER BY consultation_date DESC";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            for (String id : ids) {
+                stmt.setString(index++, id);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new PrescriptionRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logError("Error finding prescriptions by " + column, e);
+        }
+        return resolve(rows);
+    }
+
     public boolean create(Prescription prescription) {
         String sql = "INSERT INTO prescriptions (prescription_id, patient_id, doctor_id, medication, dosage, " +
                 "frequency, consultation_notes, diagnosis, treatment_plan, consultation_date) " +
@@ -109,27 +155,64 @@ public class PrescriptionDAO extends BaseDAO {
         }
     }
 
-    private Prescription mapResultSetToPrescription(ResultSet rs) throws SQLException {
-        String prescriptionId = rs.getString("prescription_id");
-        String patientId = rs.getString("patient_id");
-        String doctorId = rs.getString("doctor_id");
-        String medication = rs.getString("medication");
-        String dosage = rs.getString("dosage");
-        String frequency = rs.getString("frequency");
-        String consultationNotes = rs.getString("consultation_notes");
-        String diagnosis = rs.getString("diagnosis");
-        String treatmentPlan = rs.getString("treatment_plan");
-        LocalDateTime consultationDate = rs.getTimestamp("consultation_date").toLocalDateTime();
-
-        Patient patient = new PatientDAO().findById(patientId);
-        Doctor doctor = new DoctorDAO().findById(doctorId);
-
-        if (patient == null || doctor == null) {
-            throw new SQLException("Patient or Doctor not found for prescription: " + prescriptionId);
+    /**
+     * Columns of one prescriptions row, read before the patient and doctor are loaded
+     */
+    private static final class PrescriptionRow {
+        final String prescriptionId;
+        final String patientId;
+        final String doctorId;
+        final String medication;
+        final String dosage;
+        final String frequency;
+        final String consultationNotes;
+        final String diagnosis;
+        final String treatmentPlan;
+        final LocalDateTime consultationDate;
+
+        PrescriptionRow(ResultSet rs) throws SQLException {
+            this.prescriptionId = rs.getString("prescription_id");
+            this.patientId = rs.getString("patient_id");
+            this.doctorId = rs.getString("doctor_id");
+            this.medication = rs.getString("medication");
+            this.dosage = rs.getString("dosage");
+            this.frequency = rs.getString("frequency");
+            this.consultationNotes = rs.getString("consultation_notes");
+            this.diagnosis = rs.getString("diagnosis");
+            this.treatmentPlan = rs.getString("treatment_plan");
+            this.consultationDate = rs.getTimestamp("consultation_date").toLocalDateTime();
         }
+    }
 
-        return new Prescription(prescriptionId, patient, doctor, medication, dosage, frequency,
-                consultationNotes, consultationDate, diagnosis, treatmentPlan);
+    /**
+     * Builds prescriptions from rows, loading all their patients and doctors with one query each
+     * Rows whose patient or doctor no longer exists are skipped.
+     */
+    private List<Prescription> resolve(List<PrescriptionRow> rows) {
+        List<Prescription> prescriptions = new ArrayList<>(rows.size());
+        if (rows.isEmpty()) {
+            return prescriptions;
+        }
+        List<String> patientIds = new ArrayList<>(rows.size());
+        List<String> doctorIds = new ArrayList<>(rows.size());
+        for (PrescriptionRow row : rows) {
+            patientIds.add(row.patientId);
+            doctorIds.add(row.doctorId);
+        }
+        Map<String, Patient> patients = BatchLoaders.PATIENTS.loadMany(patientIds);
+        Map<String, Doctor> doctors = BatchLoaders.DOCTORS.loadMany(doctorIds);
+
+        for (PrescriptionRow row : rows) {
+            Patient patient = patients.get(row.patientId);
+            Doctor doctor = doctors.get(row.doctorId);
+            if (patient == null || doctor == null) {
+                logger.warning("Patient or Doctor not found for prescription: " + row.prescriptionId);
+                continue;
+            }
+            prescriptions.add(new Prescription(row.prescriptionId, patient, doctor, row.medication, row.dosage,
+                    row.frequency, row.consultationNotes, row.consultationDate, row.diagnosis, row.treatmentPlan));
+        }
+        return prescriptions;
     }
 }
 
@@ -0,0 +1,140 @@
+package com.stangelo.saintangelo.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.stangelo.saintangelo.models.Patient;
+import com.stangelo.saintangelo.models.Ticket;
+
+/**
+ * Data Access Object for front-desk registrations
+ * Saves a patient and their queue ticket in one transaction, keyed by the
+ * request key the desk generated for the registration form. Submitting the
+ * same form twice returns the ticket saved the first time instead of
+ * creating a second one.
+ *
+ * Request keys are kept in registration_requests for a day (see
+ * HousekeepingService), long enough to absorb retries and double submits.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class RegistrationDAO extends BaseDAO {
+
+    // MySQL ER_DUP_ENTRY
+    private static final int DUPLICATE_KEY_ERROR = 1062;
+
+    // MySQL ER_LOCK_DEADLOCK and ER_LOCK_WAIT_TIMEOUT; the transaction is rolled back and can be run again
+    private static final int DEADLOCK_ERROR = 1213;
+    private static final int LOCK_WAIT_TIMEOUT_ERROR = 1205;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final PatientDAO patientDAO = new PatientDAO();
+    private final TicketDAO ticketDAO = new TicketDAO();
+
+    /**
+     * Registers a visit: saves the patient (or updates their last visit date),
+     * numbers the ticket and saves it, all in one transaction
+     * If the request key was already used, nothing is written and the visit ID
+     * saved under the key is returned. A transaction chosen as a deadlock victim
+     * (or timed out waiting for a lock) is run again, up to {@value #MAX_ATTEMPTS} times.
+     *
+     * @param requestKey Key generated by the desk for this registration form
+     * @param ticket Ticket to save; its ticket number is assigned here
+     * @param newPatient true to insert the ticket's patient, false if the patient already exists
+     * @return Visit ID registered under the key (ticket.getVisitId() if this call saved it)
+     * @throws SQLException if the registration fails (nothing is saved)
+     */
+    public String register(String requestKey, Ticket ticket, boolean newPatient) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return registerOnce(requestKey, ticket, newPatient);
+            } catch (SQLException e) {
+                boolean retryable = e.getErrorCode() == DEADLOCK_ERROR || e.getErrorCode() == LOCK_WAIT_TIMEOUT_ERROR;
+                if (!retryable || attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                logger.warning("Registration " + requestKey + " hit a lock conflict, retrying (attempt "
+                        + attempt + "/" + MAX_ATTEMPTS + "): " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Runs the registration transaction once
+     */
+    private String registerOnce(String requestKey, Ticket ticket, boolean newPatient) throws SQLException {
+        String claimSql = "INSERT INTO registration_requests (request_key, visit_id) VALUES (?, ?)";
+
+        try (Connection conn = getDedicatedConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // Claim the key first: a second submit waits here, then gets a duplicate key
+                try (PreparedStatement stmt = conn.prepareStatement(claimSql)) {
+                    stmt.setString(1, requestKey);
+                    stmt.setString(2, ticket.getVisitId());
+                    stmt.executeUpdate();
+                }
+
+                Patient patient = ticket.getPatient();
+                if (newPatient) {
+                    patientDAO.insert(conn, patient);
+                } else {
+                    patientDAO.updateLastVisitDate(conn, patient.getId(), LocalDate.now());
+                }
+
+                ticket.setTicketNumber(ticketDAO.claimNextTicketNumber(conn));
+                ticketDAO.insert(conn, ticket);
+
+                conn.commit();
+                return ticket.getVisitId();
+            } catch (SQLException e) {
+                conn.rollback();
+                if (e.getErrorCode() == DUPLICATE_KEY_ERROR) {
+                    String visitId = findVisitId(conn, requestKey);
+                    if (visitId != null) {
+                        return visitId;
+                    }
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Finds the visit registered under a request key
+     */
+    private String findVisitId(Connection conn, String requestKey) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT visit_id FROM registration_requests WHERE request_key = ?")) {
+            stmt.setString(1, requestKey);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("visit_id") : null;
+            }
+        }
+    }
+
+    /**
+     * Deletes a batch of request keys older than the cutoff (housekeeping)
+     *
+     * @param cutoff Keys created before this are deleted
+     * @param batchSize Maximum rows deleted by this call
+     * @return Number of rows deleted (less than batchSize when none are left)
+     * @throws SQLException if the delete fails
+     */
+    public int deleteOlderThan(LocalDateTime cutoff, int batchSize) throws SQLException {
+        String sql = "DELETE FROM registration_requests WHERE created_at < ? ORDER BY created_at LIMIT ?";
+
+        try (Connection conn = getDedicatedConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(cutoff));
+            stmt.setInt(2, batchSize);
+            return stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.stangelo.saintangelo.dao;
+
+import com.stangelo.saintangelo.models.Report;
+import com.stangelo.saintangelo.models.ReportFormat;
+import com.stangelo.saintangelo.models.ReportStatus;
+import com.stangelo.saintangelo.models.ReportTyoe;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Data Access Object for Report entity
+ * Persists report jobs and streams the rows used to build report files
+ * Job methods are called from the report threads, so they use dedicated connections
+ */
+public class ReportDAO extends BaseDAO {
+
+    /**
+     * Column headers for rows produced by streamPeriodStatistics
+     */
+    public static final String[] PERIOD_STATISTICS_COLUMNS = {
+            "Period", "Total Tickets", "Completed", "Skipped", "Emergency", "Senior Citizen", "Avg Wait (min)"
+    };
+
+    /**
+     * Column headers for rows produced by streamTicketDetails
+     */
+    public static final String[] TICKET_DETAIL_COLUMNS = {
+            "Ticket", "Visit ID", "Patient", "Status", "Priority", "Doctor", "Created", "Wait (min)"
+    };
+
+    /**
+     * Column headers for rows produced by streamPatients
+     */
+    public static final String[] PATIENT_COLUMNS = {
+            "Patient ID", "Name", "Age", "Gender", "Phone Number", "Priority", "Registration Date", "Last Visit"
+    };
+
+    /**
+     * Column headers for rows produced by streamActivityLogs
+     */
+    public static final String[] ACTIVITY_LOG_COLUMNS = {
+            "Timestamp", "User", "Type", "Action", "Details"
+    };
+
+    public boolean create(Report report) {
+        String sql = "INSERT INTO reports (report_id, report_type, start_date, end_date, report_format, " +
+                "generated_by, file_path, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = getDedicatedConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, report.getReportId());
+            stmt.setString(2, report.getReportType().name());
+            stmt.setDate(3, Date.valueOf(report.getStartDate()));
+            stmt.setDate(4, Date.valueOf(report.getEndDate()));
+            stmt.setString(5, report.getReportFormat().name());
+            stmt.setString(6, report.getGeneratedBy());
+            stmt.setString(7, report.getFilePath());
+            stmt.setString(8, report.getStatus().name());
+
+            int rowsAffected = stmt.executeUpdate();
+            return rowsAffected > 0;
+
+        } catch (SQLException e) {
+            logError("Error creating report: " + report.getReportId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Updates the job status of a report
+     * generated_at is set only when the report becomes COMPLETED.
+     *
+     * @param reportId Report ID
+     * @param status New status
+     * @param filePath Generated file path (null to leave unchanged)
+     * @param errorMessage Failure reason (null clears it)
+     * @return true if the report was updated
+     */
+    public boolean updateStatus(String reportId, ReportStatus status, String filePath, String errorMessage) {
+        String sql = "UPDATE reports SET status = ?, file_path = COALESCE(?, file_path), error_message = ?" +
+                (status == ReportStatus.COMPLETED ? ", generated_at = CURRENT_TIMESTAMP" : "") +
+                " WHERE report_id = ?";
+
+        try (Connection conn = getDedicatedConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, status.name());
+            stmt.setString(2, filePath);
+            stmt.setString(3, errorMessage != null && errorMessage.length() > 500
+                    ? errorMessage.substring(0, 500) : errorMessage);
+            stmt.setString(4, reportId);
+
+            int rowsAffected = stmt.executeUpdate();
+            return rowsAffected > 0;
+
+        } catch (SQLException e) {
+            logError("Error updating report status: " + reportId, e);
+            return false;
+        }
+    }
+
+    public Report findById(String reportId) {
+        String sql = "SELECT * FROM reports WHERE report_id = ?";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, reportId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToReport(rs);
+                }
+            }
+        } catch (SQLException e) {
+            logError("Error finding report by ID: " + reportId, e);
+        }
+        return null;
+    }
+
+    /**
+     * Finds the most recent completed report for the same type, format and date range
+     *
+     * @return Completed report if one exists, null otherwise
+     */
+    public Report findCompletedReport(ReportTyoe reportType, ReportFormat format, LocalDate startDate, LocalDate endDate) {
+        String sql = "SELECT * FROM reports WHERE report_type = ? AND report_format = ? " +
+                "AND start_date = ? AND end_date = ? AND status = 'COMPLETED' " +
+                "ORDER BY generated_at DESC LIMIT 1";
+
+        try (Connection conn = getDedicatedConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, reportType.name());
+            stmt.setString(2, format.name());
+            stmt.setDate(3, Date.valueOf(startDate));
+            stmt.setDate(4, Date.valueOf(endDate));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToReport(rs);
+                }
+            }
+        } catch (SQLException e) {
+            logError("Error finding completed report: " + reportType + " " + startDate + " to " + endDate, e);
+        }
+        return null;
+    }
+
+    /**
+     * Finds report jobs that were queued or running when the application last stopped
+     *
+     * @return List of pending reports, oldest first
+     */
+    public List<Report> findPendingReports() {
+        List<Report> reports = new ArrayList<>();
+        String sql = "SELECT * FROM reports WHERE status IN ('QUEUED', 'RUNNING') ORDER BY generated_at ASC";
+
+        try (Connection conn = getDedicatedConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                reports.add(mapResultSetToReport(rs));
+            }
+        } catch (SQLException e) {
+            logError("Error finding pending reports", e);
+        }
+        return reports;
+    }
+
+    /**
+     * Streams ticket statistics grouped by the period of the report type
+     * Rows are delivered one at a time in PERIOD_STATISTICS_COLUMNS order; the period is the ISO start date
+     *
+     * @param reportType Determines the grouping (day, week or month)
+     * @param startDate First day (inclusive)
+     * @param endDate Last day (inclusive)
+     * @param sink Receives each row as it is read
+     * @return Number of rows streamed
+     * @throws SQLException if the query fails
+     */
+    public int streamPeriodStatistics(ReportTyoe reportType, LocalDate startDate, LocalDate endDate,
+                                      Consumer<String[]> sink) throws SQLException {
+        String sql = "SELECT " + getPeriodExpression(reportType) + " AS period_start, " +
+                "COUNT(*) AS total_tickets, " +
+                "SUM(status = 'COMPLETED') AS completed, " +
+                "SUM(status = 'SKIPPED') AS skipped, " +
+                "SUM(priority = 'EMERGENCY') AS emergency, " +
+                "SUM(priority = 'SENIOR_CITIZEN') AS senior, " +
+                "ROUND(AVG(CASE WHEN status = 'COMPLETED' THEN wait_time_minutes END)) AS avg_wait " +
+                "FROM " + TicketDAO.allTickets("created_time >= ? AND created_time < ?") + " t " +
+                "GROUP BY period_start ORDER BY period_start";
+
+        int rows = 0;
+        try (Connection conn = getDedicatedReadConnection();
+             PreparedStatement stmt = prepareStreamingStatement(conn, sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(startDate.atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+            stmt.setTimestamp(3, Timestamp.valueOf(startDate.atStartOfDay()));
+            stmt.setTimestamp(4, Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    sink.accept(new String[] {
+                            String.valueOf(rs.getDate("period_start").toLocalDate()),
+                            String.valueOf(rs.getInt("total_tickets")),
+                            String.valueOf(rs.getInt("completed")),
+                            String.valueOf(rs.getInt("skipped")),
+                            String.valueOf(rs.getInt("emergency")),
+                            String.valueOf(rs.getInt("senior")),
+                            rs.getObject("avg_wait") != null ? String.valueOf(rs.getInt("avg_wait")) : "-"
+                    });
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Streams every ticket created in the date range, oldest first
+     * Rows are delivered one at a time in TICKET_DETAIL_COLUMNS order
+     *
+     * @param startDate First day (inclusive)
+     * @param endDate Last day (inclusive)
+     * @param sink Receives each row as it is read
+     * @return Number of rows streamed
+     * @throws SQLException if the query fails
+     */
+    public int streamTicketDetails(LocalDate startDate, LocalDate endDate, Consumer<String[]> sink) throws SQLException {
+        String sql = "SELECT t.ticket_number, t.visit_id, CONCAT(p.first_name, ' ', p.last_name) AS patient_name, " +
+                "t.status, t.priority, d.name AS doctor_name, t.created_time, t.wait_time_minutes " +
+                "FROM " + TicketDAO.allTickets("created_time >= ? AND created_time < ?") + " t " +
+                "INNER JOIN patients p ON t.patient_id = p.patient_id " +
+                "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id " +
+                "ORDER BY t.created_time";
+
+        int rows = 0;
+        try (Connection conn = getDedicatedReadConnection();
+             PreparedStatement stmt = prepareStreamingStatement(conn, sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(startDate.atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+            stmt.setTimestamp(3, Timestamp.valueOf(startDate.atStartOfDay()));
+            stmt.setTimestamp(4, Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp createdTs = rs.getTimestamp("created_time");
+                    String doctorName = rs.getString("doctor_name");
+                    sink.accept(new String[] {
+                            rs.getString("ticket_number"),
+                            rs.getString("visit_id"),
+                            rs.getString("patient_name"),
+                            rs.getString("status"),
+                            rs.getString("priority"),
+                            doctorName != null ? doctorName : "-",
+                            createdTs != null ? createdTs.toLocalDateTime().toString().replace('T', ' ') : "-",
+                            String.valueOf(rs.getInt("wait_time_minutes"))
+                    });
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Streams patients registered in the date range, oldest first
+     * Rows are delivered one at a time in PATIENT_COLUMNS order
+     *
+     * @param startDate First day (inclusive)
+     * @param endDate Last day (inclusive)
+     * @param sink Receives each row as it is read
+     * @return Number of rows streamed
+     * @throws SQLException if the query fails
+     */
+    public int streamPatients(LocalDate startDate, LocalDate endDate, Consumer<String[]> sink) throws SQLException {
+        String sql = "SELECT patient_id, CONCAT(first_name, ' ', last_name) AS patient_name, age, gender, " +
+                "phone_number, priority, registration_date, last_visit_date " +
+                "FROM patients WHERE registration_date BETWEEN ? AND ? " +
+                "ORDER BY registration_date, patient_id";
+
+        int rows = 0;
+        try (Connection conn = getDedicatedReadConnection();
+             PreparedStatement stmt = prepareStreamingStatement(conn, sql)) {
+
+            stmt.setDate(1, Date.valueOf(startDate));
+            stmt.setDate(2, Date.valueOf(endDate));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Date lastVisit = rs.getDate("last_visit_date");
+                    sink.accept(new String[] {
+                            rs.getString("patient_id"),
+                            rs.getString("patient_name"),
+                            String.valueOf(rs.getInt("age")),
+                            rs.getString("gender"),
+                            rs.getString("phone_number"),
+                            rs.getString("priority"),
+                            String.valueOf(rs.getDate("registration_date").toLocalDate()),
+                            lastVisit != null ? String.valueOf(lastVisit.toLocalDate()) : "-"
+                    });
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Streams activity logs recorded in the date range, oldest first
+     * Rows are delivered one at a time in ACTIVITY_LOG_COLUMNS order
+     *
+     * @param startDate First day (inclusive)
+     * @param endDate Last day (inclusive)
+     * @param sink Receives each row as it is read
+     * @return Number of rows streamed
+     * @throws SQLException if the query fails
+     */
+    public int streamActivityLogs(LocalDate startDate, LocalDate endDate, Consumer<String[]> sink) throws SQLException {
+        String sql = "SELECT a.timestamp, u.full_name, a.activity_type, a.action, a.details " +
+                "FROM activity_logs a " +
+                "LEFT JOIN users u ON a.user_id = u.user_id " +
+                "WHERE a.timestamp >= ? AND a.timestamp < ? " +
+                "ORDER BY a.timestamp";
+
+        int rows = 0;
+        try (Connection conn = getDedicatedReadConnection();
+             PreparedStatement stmt = prepareStreamingStatement(conn, sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(startDate.atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp ts = rs.getTimestamp("timestamp");
+                    String userName = rs.getString("full_name");
+                    sink.accept(new String[] {
+                            ts != null ? ts.toLocalDateTime().toString().replace('T', ' ') : "-",
+                            userName != null ? userName : "System",
+                            rs.getString("activity_type"),
+                            rs.getString("action"),
+                            rs.getString("details")
+                    });
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Gets the SQL expression that maps created_time to the first day of its period
+     */
+    private String getPeriodExpression(ReportTyoe reportType) {
+        switch (reportType) {
+            case WEEKLY_STATISTICS:
+                return "DATE_SUB(DATE(created_time), INTERVAL WEEKDAY(created_time) DAY)";
+            case MONTHLY_STATISTICS:
+                return "DATE(DATE_FORMAT(created_time, '%Y-%m-01'))";
+            case DAILY_STATISTICS:
+            case CUSTOM:
+            default:
+                return "DATE(created_time)";
+        }
+    }
+
+    private Report mapResultSetToReport(ResultSet rs) throws SQLException {
+        Timestamp generatedAtTs = rs.getTimestamp("generated_at");
+        LocalDateTime generatedAt = generatedAtTs != null ? generatedAtTs.toLocalDateTime() : null;
+
+        return new Report(
+                rs.getString("report_id"),
+                ReportTyoe.valueOf(rs.getString("report_type")),
+                rs.getDate("start_date").toLocalDate(),
+                rs.getDate("end_date").toLocalDate(),
+                ReportFormat.valueOf(rs.getString("report_format")),
+                rs.getString("generated_by"),
+                rs.getString("file_path"),
+                ReportStatus.valueOf(rs.getString("status")),
+                rs.getString("error_message"),
+                generatedAt
+        );
+    }
+}
@@ -0,0 +1,196 @@
+package com.stangelo.saintangelo.dao;
+
+import com.stangelo.saintangelo.utils.DatabaseConnection;
+import com.stangelo.saintangelo.utils.MetricsRegistry;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Statement Metrics
+ * Times every statement a DAO runs, keyed by the DAO method that created it.
+ *
+ * Connections handed out by BaseDAO are wrapped so that each statement records,
+ * under "dao.&lt;Class&gt;.&lt;method&gt;":
+ * - a timer of its execute calls (count and latency histogram)
+ * - "...errors": execute calls that threw an SQLException
+ * - "...rows": rows read from its result sets
+ *
+ * Also publishes gauges for the connections in use: open dedicated connections,
+ * whether the shared connection is open, and whether the circuit breaker lets
+ * connections through.
+ *
+ * When metrics are disabled connections are returned unwrapped, so the DAOs pay
+ * nothing.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+final class StatementMetrics {
+
+    private static final String DAO_PACKAGE = BaseDAO.class.getPackageName() + ".";
+    private static final StackWalker walker = StackWalker.getInstance();
+
+    private static final AtomicInteger openDedicated = new AtomicInteger();
+
+    static {
+        if (MetricsRegistry.isEnabled()) {
+            MetricsRegistry.gauge("db.connections.dedicated.open", openDedicated::get);
+            MetricsRegistry.gauge("db.connection.shared.open", () -> DatabaseConnection.isConnectionActive() ? 1 : 0);
+            MetricsRegistry.gauge("db.available", () -> DatabaseConnection.isAvailable() ? 1 : 0);
+        }
+    }
+
+    private StatementMetrics() {
+    }
+
+    /**
+     * Wraps a connection so its statements are measured
+     *
+     * @param conn Connection to wrap, may be null
+     * @param dedicated true if the connection belongs to the caller and counts as open until closed
+     * @return The measured connection, or conn itself when metrics are disabled
+     */
+    static Connection instrument(Connection conn, boolean dedicated) {
+        if (conn == null || !MetricsRegistry.isEnabled()) {
+            return conn;
+        }
+        if (dedicated) {
+            openDedicated.incrementAndGet();
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new ConnectionHandler(conn, dedicated));
+    }
+
+    /**
+     * Names the DAO method on the stack, e.g. "dao.PatientDAO.findById"
+     * Lambdas are named after their enclosing method.
+     */
+    private static String daoMethod() {
+        return walker.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(DAO_PACKAGE)
+                        && !frame.getClassName().equals(BaseDAO.class.getName())
+                        && !frame.getClassName().startsWith(DedicatedConnectionScope.class.getName())
+                        && !frame.getClassName().startsWith(StatementMetrics.class.getName()))
+                .findFirst()
+                .map(frame -> "dao." + MetricsRegistry.codeLocation(frame.getClassName(), frame.getMethodName()))
+                .orElse("dao.other"));
+    }
+
+    private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Measures the statements a connection creates; counts a dedicated connection as closed once
+     */
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final boolean dedicated;
+        private boolean closed;
+
+        private ConnectionHandler(Connection target, boolean dedicated) {
+            this.target = target;
+            this.dedicated = dedicated;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = forward(target, method, args);
+            String name = method.getName();
+            if (name.equals("close")) {
+                synchronized (this) {
+                    if (dedicated && !closed) {
+                        openDedicated.decrementAndGet();
+                    }
+                    closed = true;
+                }
+            } else if (result instanceof Statement && method.getReturnType().isInterface()) {
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[] { method.getReturnType() }, new StatementHandler(result, daoMethod()));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Times execute calls and counts errors and rows under one DAO method
+     */
+    private static final class StatementHandler implements InvocationHandler {
+        private final Object target;
+        private final MetricsRegistry.Timer timer;
+        private final MetricsRegistry.Counter errors;
+        private final MetricsRegistry.Counter rows;
+
+        private StatementHandler(Object target, String key) {
+            this.target = target;
+            this.timer = MetricsRegistry.timer(key);
+            this.errors = MetricsRegistry.counter(key + ".errors");
+            this.rows = MetricsRegistry.counter(key + ".rows");
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                Object result = forward(target, method, args);
+                if (name.equals("getResultSet") && result != null) {
+                    return countRows((ResultSet) result);
+                }
+                return result;
+            }
+
+            long start = System.nanoTime();
+            try {
+                Object result = forward(target, method, args);
+                if (result instanceof ResultSet resultSet) {
+                    return countRows(resultSet);
+                }
+                return result;
+            } catch (SQLException e) {
+                errors.increment();
+                throw e;
+            } finally {
+                timer.recordSince(start);
+            }
+        }
+
+        private ResultSet countRows(ResultSet resultSet) {
+            return (ResultSet) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { ResultSet.class }, new RowCounter(resultSet, rows));
+        }
+    }
+
+    /**
+     * Counts the rows a result set moves onto with next()
+     */
+    private static final class RowCounter implements InvocationHandler {
+        private final ResultSet target;
+        private final MetricsRegistry.Counter rows;
+
+        private RowCounter(ResultSet target, MetricsRegistry.Counter rows) {
+            this.target = target;
+            this.rows = rows;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = forward(target, method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                rows.increment();
+            }
+            return result;
+        }
+    }
+}
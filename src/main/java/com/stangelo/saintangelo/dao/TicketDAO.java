@@ -5,12 +5,14 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-import com.stangelo.saintangelo.models.Patient;
 import com.stangelo.saintangelo.models.PriorityLevel;
+import com.stangelo.saintangelo.models.QueueEntryView;
 import com.stangelo.saintangelo.models.Ticket;
 import com.stangelo.saintangelo.models.TicketStatus;
 
@@ -23,26 +25,61 @@ import com.stangelo.saintangelo.models.TicketStatus;
  */
 public class TicketDAO extends BaseDAO {
 
+    /**
+     * Columns shared by tickets and tickets_history, in table order
+     */
+    private static final String TICKET_COLUMNS = "visit_id, ticket_number, patient_id, status, priority, " +
+            "service_type, assigned_doctor_id, created_time, called_time, completed_time, wait_time_minutes, " +
+            "created_at, updated_at";
+
+    /**
+     * Only the columns queue cards and lists show (see QueueEntryView)
+     */
+    private static final String QUEUE_ENTRY_SELECT = "SELECT " + TicketRowMapper.QUEUE_ENTRY_COLUMNS + " FROM tickets t " +
+            "INNER JOIN patients p ON t.patient_id = p.patient_id " +
+            "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id ";
+
+    // A1-A10, B1-B10, ... Z1-Z10
+    private static final int TICKET_NUMBERS_PER_CYCLE = 260;
+
+    private static final String TODAY_TICKET_NUMBERS_SQL =
+            "SELECT ticket_number FROM tickets WHERE created_time >= CURDATE() AND created_time < CURDATE() + INTERVAL 1 DAY";
+
+    /**
+     * Builds a derived table over both the live tickets table and tickets_history
+     * The condition is repeated inside each branch so both tables can use their indexes;
+     * parameters in the condition must therefore be bound twice (once per branch).
+     * Use only for queries that may need tickets from earlier days.
+     *
+     * @param condition WHERE condition on unqualified ticket columns
+     * @return SQL fragment to use after FROM (without alias)
+     */
+    static String allTickets(String condition) {
+        return "(SELECT " + TICKET_COLUMNS + " FROM tickets WHERE " + condition +
+                " UNION ALL SELECT " + TICKET_COLUMNS + " FROM tickets_history WHERE " + condition + ")";
+    }
+
     /**
      * Finds a ticket by visit ID
+     * Looks in both the live table and tickets_history
      *
      * @param visitId Visit ID
      * @return Ticket object if found, null otherwise
      */
     public Ticket findByVisitId(String visitId) {
-        String sql = "SELECT t.*, p.*, d.name AS doctor_name FROM tickets t " +
+        String sql = "SELECT " + TicketRowMapper.TICKET_COLUMNS + " FROM " + allTickets("visit_id = ?") + " t " +
                 "INNER JOIN patients p ON t.patient_id = p.patient_id " +
-                "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id " +
-                "WHERE t.visit_id = ?";
+                "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id";
 
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, visitId);
+            stmt.setString(2, visitId);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToTicket(rs);
+                    return TicketRowMapper.ticket(rs);
                 }
             }
         } catch (SQLException e) {
@@ -58,7 +95,7 @@ public class TicketDAO extends BaseDAO {
      */
     public List<Ticket> findActiveTickets() {
         List<Ticket> tickets = new ArrayList<>();
-        String sql = "SELECT t.*, p.*, d.name AS doctor_name FROM tickets t " +
+        String sql = "SELECT " + TicketRowMapper.TICKET_COLUMNS + " FROM tickets t " +
                 "INNER JOIN patients p ON t.patient_id = p.patient_id " +
                 "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id " +
                 "WHERE t.status IN ('WAITING', 'CALLED', 'IN_SERVICE') " +
@@ -69,13 +106,13 @@ public class TicketDAO extends BaseDAO {
                 "  WHEN 'REGULAR' THEN 3 " +
                 "END, t.created_time";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 try {
-                tickets.add(mapResultSetToTicket(rs));
+                tickets.add(TicketRowMapper.ticket(rs));
                 } catch (SQLException e) {
                     logError("Error mapping ticket from result set", e);
                 }
@@ -95,10 +132,10 @@ public class TicketDAO extends BaseDAO {
      */
     public List<Ticket> findWaitingTickets(int limit) {
         List<Ticket> tickets = new ArrayList<>();
-        String sql = "SELECT t.*, p.*, d.name AS doctor_name FROM tickets t " +
+        String sql = "SELECT " + TicketRowMapper.TICKET_COLUMNS + " FROM tickets t " +
                 "INNER JOIN patients p ON t.patient_id = p.patient_id " +
                 "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id " +
-                "WHERE t.status = 'WAITING' AND DATE(t.created_time) = CURDATE() " +
+                "WHERE t.status = 'WAITING' AND t.created_time >= CURDATE() AND t.created_time < CURDATE() + INTERVAL 1 DAY " +
                 "ORDER BY " +
                 "CASE t.priority " +
                 "  WHEN 'EMERGENCY' THEN 1 " +
@@ -107,7 +144,7 @@ public class TicketDAO extends BaseDAO {
                 "END, t.created_time " +
                 "LIMIT ?";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, limit);
@@ -115,7 +152,7 @@ public class TicketDAO extends BaseDAO {
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     try {
-                        tickets.add(mapResultSetToTicket(rs));
+                        tickets.add(TicketRowMapper.ticket(rs));
                     } catch (SQLException e) {
                         // Log but continue processing other tickets
                         logError("Error mapping ticket from result set", e);
@@ -134,18 +171,18 @@ public class TicketDAO extends BaseDAO {
      * @return The ticket currently being served, or null if none
      */
     public Ticket findCurrentlyServing() {
-        String sql = "SELECT t.*, p.*, d.name AS doctor_name FROM tickets t " +
+        String sql = "SELECT " + TicketRowMapper.TICKET_COLUMNS + " FROM tickets t " +
                 "INNER JOIN patients p ON t.patient_id = p.patient_id " +
                 "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id " +
-                "WHERE t.status = 'IN_SERVICE' AND DATE(t.created_time) = CURDATE() " +
+                "WHERE t.status = 'IN_SERVICE' AND t.created_time >= CURDATE() AND t.created_time < CURDATE() + INTERVAL 1 DAY " +
                 "ORDER BY t.called_time DESC LIMIT 1";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             if (rs.next()) {
-                return mapResultSetToTicket(rs);
+                return TicketRowMapper.ticket(rs);
             }
         } catch (SQLException e) {
             logError("Error finding currently serving ticket", e);
@@ -164,7 +201,7 @@ public class TicketDAO extends BaseDAO {
             return null;
         }
         
-        String sql = "SELECT t.*, p.*, d.name AS doctor_name FROM tickets t " +
+        String sql = "SELECT " + TicketRowMapper.TICKET_COLUMNS + " FROM tickets t " +
                 "INNER JOIN patients p ON t.patient_id = p.patient_id " +
                 "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id " +
                 "WHERE t.status = 'IN_SERVICE' AND t.assigned_doctor_id = ? " +
@@ -177,7 +214,7 @@ public class TicketDAO extends BaseDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToTicket(rs);
+                    return TicketRowMapper.ticket(rs);
                 }
             }
         } catch (SQLException e) {
@@ -199,7 +236,7 @@ public class TicketDAO extends BaseDAO {
             return tickets;
         }
         
-        String sql = "SELECT t.*, p.*, d.name AS doctor_name FROM tickets t " +
+        String sql = "SELECT " + TicketRowMapper.TICKET_COLUMNS + " FROM tickets t " +
                 "INNER JOIN patients p ON t.patient_id = p.patient_id " +
                 "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id " +
                 "WHERE t.status = 'IN_SERVICE' AND t.assigned_doctor_id = ? " +
@@ -213,7 +250,7 @@ public class TicketDAO extends BaseDAO {
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     try {
-                        tickets.add(mapResultSetToTicket(rs));
+                        tickets.add(TicketRowMapper.ticket(rs));
                     } catch (SQLException e) {
                         logError("Error mapping ticket from result set", e);
                     }
@@ -231,10 +268,10 @@ public class TicketDAO extends BaseDAO {
      * @return The next ticket in queue, or null if queue is empty
      */
     public Ticket findNextInQueue() {
-        String sql = "SELECT t.*, p.*, d.name AS doctor_name FROM tickets t " +
+        String sql = "SELECT " + TicketRowMapper.TICKET_COLUMNS + " FROM tickets t " +
                 "INNER JOIN patients p ON t.patient_id = p.patient_id " +
                 "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id " +
-                "WHERE t.status = 'WAITING' AND DATE(t.created_time) = CURDATE() " +
+                "WHERE t.status = 'WAITING' AND t.created_time >= CURDATE() AND t.created_time < CURDATE() + INTERVAL 1 DAY " +
                 "ORDER BY " +
                 "CASE t.priority " +
                 "  WHEN 'EMERGENCY' THEN 1 " +
@@ -248,7 +285,7 @@ public class TicketDAO extends BaseDAO {
              ResultSet rs = stmt.executeQuery()) {
 
             if (rs.next()) {
-                return mapResultSetToTicket(rs);
+                return TicketRowMapper.ticket(rs);
             }
         } catch (SQLException e) {
             logError("Error finding next ticket in queue", e);
@@ -264,7 +301,7 @@ public class TicketDAO extends BaseDAO {
      */
     public List<Ticket> findByStatus(TicketStatus status) {
         List<Ticket> tickets = new ArrayList<>();
-        String sql = "SELECT t.*, p.*, d.name AS doctor_name FROM tickets t " +
+        String sql = "SELECT " + TicketRowMapper.TICKET_COLUMNS + " FROM tickets t " +
                 "INNER JOIN patients p ON t.patient_id = p.patient_id " +
                 "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id " +
                 "WHERE t.status = ? ORDER BY t.created_time DESC";
@@ -277,7 +314,7 @@ public class TicketDAO extends BaseDAO {
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     try {
-                    tickets.add(mapResultSetToTicket(rs));
+                    tickets.add(TicketRowMapper.ticket(rs));
                     } catch (SQLException e) {
                         logError("Error mapping ticket from result set", e);
                     }
@@ -296,19 +333,19 @@ public class TicketDAO extends BaseDAO {
      */
     public List<Ticket> findTodayTickets() {
         List<Ticket> tickets = new ArrayList<>();
-        String sql = "SELECT t.*, p.*, d.name AS doctor_name FROM tickets t " +
+        String sql = "SELECT " + TicketRowMapper.TICKET_COLUMNS + " FROM tickets t " +
                 "INNER JOIN patients p ON t.patient_id = p.patient_id " +
                 "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id " +
-                "WHERE DATE(t.created_time) = CURDATE() " +
+                "WHERE t.created_time >= CURDATE() AND t.created_time < CURDATE() + INTERVAL 1 DAY " +
                 "ORDER BY t.created_time DESC";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 try {
-                tickets.add(mapResultSetToTicket(rs));
+                tickets.add(TicketRowMapper.ticket(rs));
                 } catch (SQLException e) {
                     logError("Error mapping ticket from result set", e);
                 }
@@ -321,6 +358,7 @@ public class TicketDAO extends BaseDAO {
 
     /**
      * Gets all tickets for a specific patient (for patient history reference)
+     * Includes tickets already moved to tickets_history
      * Note: Tickets are for queue management only, not displayed in patient records
      *
      * @param patientId Patient ID
@@ -328,21 +366,21 @@ public class TicketDAO extends BaseDAO {
      */
     public List<Ticket> findByPatientId(String patientId) {
         List<Ticket> tickets = new ArrayList<>();
-        String sql = "SELECT t.*, p.*, d.name AS doctor_name FROM tickets t " +
+        String sql = "SELECT " + TicketRowMapper.TICKET_COLUMNS + " FROM " + allTickets("patient_id = ?") + " t " +
                 "INNER JOIN patients p ON t.patient_id = p.patient_id " +
                 "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id " +
-                "WHERE t.patient_id = ? " +
                 "ORDER BY t.created_time DESC";
 
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, patientId);
+            stmt.setString(2, patientId);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     try {
-                        tickets.add(mapResultSetToTicket(rs));
+                        tickets.add(TicketRowMapper.ticket(rs));
                     } catch (SQLException e) {
                         logError("Error mapping ticket from result set", e);
                     }
@@ -360,9 +398,9 @@ public class TicketDAO extends BaseDAO {
      * @return Number of waiting tickets
      */
     public int countWaitingTickets() {
-        String sql = "SELECT COUNT(*) FROM tickets WHERE status = 'WAITING' AND DATE(created_time) = CURDATE()";
+        String sql = "SELECT COUNT(*) FROM tickets WHERE status = 'WAITING' AND created_time >= CURDATE() AND created_time < CURDATE() + INTERVAL 1 DAY";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -381,9 +419,9 @@ public class TicketDAO extends BaseDAO {
      * @return Number of tickets created today
      */
     public int countTodayTickets() {
-        String sql = "SELECT COUNT(*) FROM tickets WHERE DATE(created_time) = CURDATE()";
+        String sql = "SELECT COUNT(*) FROM tickets WHERE created_time >= CURDATE() AND created_time < CURDATE() + INTERVAL 1 DAY";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -406,11 +444,11 @@ public class TicketDAO extends BaseDAO {
     public int getAverageWaitTimeToday() {
         String sql = "SELECT AVG(TIMESTAMPDIFF(MINUTE, created_time, called_time)) AS avg_wait_time " +
                      "FROM tickets " +
-                     "WHERE DATE(created_time) = CURDATE() " +
+                     "WHERE created_time >= CURDATE() AND created_time < CURDATE() + INTERVAL 1 DAY " +
                      "AND called_time IS NOT NULL " +
                      "AND status IN ('CALLED', 'IN_SERVICE', 'COMPLETED')";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -435,12 +473,11 @@ public class TicketDAO extends BaseDAO {
     public java.util.Map<java.time.LocalDate, Integer> getDailyTicketCountsLast7Days() {
         java.util.Map<java.time.LocalDate, Integer> counts = new java.util.LinkedHashMap<>();
         String sql = "SELECT DATE(created_time) AS date, COUNT(*) AS count " +
-                     "FROM tickets " +
-                     "WHERE DATE(created_time) >= DATE_SUB(CURDATE(), INTERVAL 6 DAY) " +
+                     "FROM " + allTickets("created_time >= CURDATE() - INTERVAL 6 DAY") + " t " +
                      "GROUP BY DATE(created_time) " +
                      "ORDER BY DATE(created_time)";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -465,20 +502,21 @@ public class TicketDAO extends BaseDAO {
 
     /**
      * Gets daily waiting ticket counts for the last 7 days
-     * Returns a map where key is the date (as LocalDate) and value is the count of waiting tickets
+     * Returns a map where key is the date (as LocalDate) and value is the count of waiting tickets;
+     * for past days, the tickets left waiting when the day ended (now EXPIRED)
      *
      * @return Map of date to waiting ticket count for last 7 days
      */
     public java.util.Map<java.time.LocalDate, Integer> getDailyWaitingCountsLast7Days() {
         java.util.Map<java.time.LocalDate, Integer> counts = new java.util.LinkedHashMap<>();
         String sql = "SELECT DATE(created_time) AS date, COUNT(*) AS count " +
-                     "FROM tickets " +
-                     "WHERE DATE(created_time) >= DATE_SUB(CURDATE(), INTERVAL 6 DAY) " +
-                     "AND status = 'WAITING' " +
+                     "FROM " + allTickets("created_time >= CURDATE() - INTERVAL 6 DAY") + " t " +
+                     // The rollover marks tickets still waiting at the end of their day EXPIRED
+                     "WHERE status IN ('WAITING', 'EXPIRED') " +
                      "GROUP BY DATE(created_time) " +
                      "ORDER BY DATE(created_time)";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -510,14 +548,13 @@ public class TicketDAO extends BaseDAO {
     public java.util.Map<java.time.LocalDate, Integer> getDailyAverageWaitTimesLast7Days() {
         java.util.Map<java.time.LocalDate, Integer> waitTimes = new java.util.LinkedHashMap<>();
         String sql = "SELECT DATE(created_time) AS date, AVG(TIMESTAMPDIFF(MINUTE, created_time, called_time)) AS avg_wait_time " +
-                     "FROM tickets " +
-                     "WHERE DATE(created_time) >= DATE_SUB(CURDATE(), INTERVAL 6 DAY) " +
-                     "AND called_time IS NOT NULL " +
+                     "FROM " + allTickets("created_time >= CURDATE() - INTERVAL 6 DAY") + " t " +
+                     "WHERE called_time IS NOT NULL " +
                      "AND status IN ('CALLED', 'IN_SERVICE', 'COMPLETED') " +
                      "GROUP BY DATE(created_time) " +
                      "ORDER BY DATE(created_time)";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -551,13 +588,11 @@ public class TicketDAO extends BaseDAO {
     public double getAverageTicketCountPrevious7Days() {
         String sql = "SELECT AVG(daily_count) AS avg_count FROM (" +
                      "SELECT DATE(created_time) AS date, COUNT(*) AS daily_count " +
-                     "FROM tickets " +
-                     "WHERE DATE(created_time) >= DATE_SUB(CURDATE(), INTERVAL 13 DAY) " +
-                     "AND DATE(created_time) < DATE_SUB(CURDATE(), INTERVAL 6 DAY) " +
+                     "FROM " + allTickets("created_time >= CURDATE() - INTERVAL 13 DAY AND created_time < CURDATE() - INTERVAL 6 DAY") + " t " +
                      "GROUP BY DATE(created_time)" +
                      ") AS subquery";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -581,14 +616,13 @@ public class TicketDAO extends BaseDAO {
     public double getAverageWaitingCountPrevious7Days() {
         String sql = "SELECT AVG(daily_count) AS avg_count FROM (" +
                      "SELECT DATE(created_time) AS date, COUNT(*) AS daily_count " +
-                     "FROM tickets " +
-                     "WHERE DATE(created_time) >= DATE_SUB(CURDATE(), INTERVAL 13 DAY) " +
-                     "AND DATE(created_time) < DATE_SUB(CURDATE(), INTERVAL 6 DAY) " +
-                     "AND status = 'WAITING' " +
+                     "FROM " + allTickets("created_time >= CURDATE() - INTERVAL 13 DAY AND created_time < CURDATE() - INTERVAL 6 DAY") + " t " +
+                     // Past days: what was left waiting has been marked EXPIRED by the rollover
+                     "WHERE status IN ('WAITING', 'EXPIRED') " +
                      "GROUP BY DATE(created_time)" +
                      ") AS subquery";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -612,15 +646,13 @@ public class TicketDAO extends BaseDAO {
     public double getAverageWaitTimePrevious7Days() {
         String sql = "SELECT AVG(avg_wait_time) AS overall_avg FROM (" +
                      "SELECT DATE(created_time) AS date, AVG(TIMESTAMPDIFF(MINUTE, created_time, called_time)) AS avg_wait_time " +
-                     "FROM tickets " +
-                     "WHERE DATE(created_time) >= DATE_SUB(CURDATE(), INTERVAL 13 DAY) " +
-                     "AND DATE(created_time) < DATE_SUB(CURDATE(), INTERVAL 6 DAY) " +
-                     "AND called_time IS NOT NULL " +
+                     "FROM " + allTickets("created_time >= CURDATE() - INTERVAL 13 DAY AND created_time < CURDATE() - INTERVAL 6 DAY") + " t " +
+                     "WHERE called_time IS NOT NULL " +
                      "AND status IN ('CALLED', 'IN_SERVICE', 'COMPLETED') " +
                      "GROUP BY DATE(created_time)" +
                      ") AS subquery";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -644,37 +676,11 @@ public class TicketDAO extends BaseDAO {
      */
     public String getNextTicketNumber() {
         // Get all ticket numbers for today and find the maximum
-        String sql = "SELECT ticket_number FROM tickets WHERE DATE(created_time) = CURDATE()";
-
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
+             PreparedStatement stmt = conn.prepareStatement(TODAY_TICKET_NUMBERS_SQL);
              ResultSet rs = stmt.executeQuery()) {
 
-            String maxTicket = null;
-            int maxValue = -1;
-
-            while (rs.next()) {
-                String ticketNumber = rs.getString("ticket_number");
-                if (ticketNumber != null && ticketNumber.length() >= 2) {
-                    try {
-                        char letter = ticketNumber.charAt(0);
-                        int number = Integer.parseInt(ticketNumber.substring(1));
-                        int value = (letter - 'A') * 10 + number;
-                        
-                        if (value > maxValue) {
-                            maxValue = value;
-                            maxTicket = ticketNumber;
-                        }
-                    } catch (NumberFormatException e) {
-                        // Skip invalid ticket numbers
-                        continue;
-                    }
-                }
-            }
-
-            if (maxTicket != null) {
-                return incrementTicketNumber(maxTicket);
-            }
+            return nextTicketNumber(rs);
         } catch (SQLException e) {
             logError("Error getting next ticket number", e);
         }
@@ -682,22 +688,79 @@ public class TicketDAO extends BaseDAO {
     }
 
     /**
-     * Increments a ticket number (A1 -> A2, A10 -> B1, Z10 -> A1)
+     * Claims the next ticket number inside a registration transaction
+     * Numbers come from today's row in ticket_number_counters, incremented with
+     * LAST_INSERT_ID(), so concurrent desks only ever lock that one row (until
+     * the transaction ends) instead of a range of today's tickets. The first
+     * registration of a day creates the row, starting after the highest number
+     * already issued today (e.g. by offline replay), which later claims also
+     * never fall behind.
+     *
+     * @param conn Connection with auto-commit off
+     * @return Next ticket number (e.g., "A1", "B5")
+     * @throws SQLException if the query fails
      */
-    private String incrementTicketNumber(String ticketNumber) {
-        if (ticketNumber == null || ticketNumber.length() < 2) {
-            return "A1";
+    String claimNextTicketNumber(Connection conn) throws SQLException {
+        int highest;
+        try (PreparedStatement stmt = conn.prepareStatement(TODAY_TICKET_NUMBERS_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            highest = highestTicketValue(rs);
         }
-        char letter = ticketNumber.charAt(0);
-        int number = Integer.parseInt(ticketNumber.substring(1));
-
-        if (number < 10) {
-            return "" + letter + (number + 1);
-        } else if (letter < 'Z') {
-            return "" + (char)(letter + 1) + "1";
-        } else {
-            return "A1"; // Wrap around
+
+        String claimSql = "INSERT INTO ticket_number_counters (counter_date, last_value) " +
+                          "VALUES (CURDATE(), LAST_INSERT_ID(? + 1)) " +
+                          "ON DUPLICATE KEY UPDATE last_value = LAST_INSERT_ID(GREATEST(last_value, ?) + 1)";
+        try (PreparedStatement stmt = conn.prepareStatement(claimSql)) {
+            stmt.setInt(1, highest);
+            stmt.setInt(2, highest);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT LAST_INSERT_ID()");
+             ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next()) {
+                throw new SQLException("Could not read the claimed ticket number");
+            }
+            return ticketNumberAfter(rs.getLong(1) - 1);
+        }
+    }
+
+    /**
+     * Finds the highest ticket number in the result set and returns the one after it
+     */
+    private String nextTicketNumber(ResultSet rs) throws SQLException {
+        return ticketNumberAfter(highestTicketValue(rs));
+    }
+
+    /**
+     * Gets the value of the highest ticket number in the result set
+     * A1 is 1, A10 is 10, B1 is 11 ... Z10 is 260; 0 if there are none.
+     */
+    private int highestTicketValue(ResultSet rs) throws SQLException {
+        int maxValue = 0;
+
+        while (rs.next()) {
+            String ticketNumber = rs.getString("ticket_number");
+            if (ticketNumber != null && ticketNumber.length() >= 2) {
+                try {
+                    char letter = ticketNumber.charAt(0);
+                    int number = Integer.parseInt(ticketNumber.substring(1));
+                    maxValue = Math.max(maxValue, (letter - 'A') * 10 + number);
+                } catch (NumberFormatException e) {
+                    // Skip invalid ticket numbers
+                    continue;
+                }
+            }
         }
+        return maxValue;
+    }
+
+    /**
+     * Gets the ticket number after the given value (A1 -> A2, A10 -> B1, Z10 -> A1)
+     * Values past Z10 wrap around to A1.
+     */
+    private static String ticketNumberAfter(long value) {
+        int index = (int) (value % TICKET_NUMBERS_PER_CYCLE);
+        return "" + (char) ('A' + index / 10) + (index % 10 + 1);
     }
 
     /**
@@ -707,13 +770,30 @@ public class TicketDAO extends BaseDAO {
      * @return true if successful, false otherwise
      */
     public boolean create(Ticket ticket) {
+        try (Connection conn = getConnection()) {
+            insert(conn, ticket);
+            return true;
+
+        } catch (SQLException e) {
+            logError("Error creating ticket: " + ticket.getVisitId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Inserts a new ticket on the given connection
+     * Used by create() and inside the registration transaction
+     *
+     * @param conn Connection to insert on
+     * @param ticket Ticket object to create
+     * @throws SQLException if the insert fails
+     */
+    void insert(Connection conn, Ticket ticket) throws SQLException {
         String sql = "INSERT INTO tickets (visit_id, ticket_number, patient_id, status, priority, " +
                 "service_type, assigned_doctor_id, created_time) " +
                 "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, ticket.getVisitId());
             stmt.setString(2, ticket.getTicketNumber());
             stmt.setString(3, ticket.getPatient().getId());
@@ -722,13 +802,7 @@ public class TicketDAO extends BaseDAO {
             stmt.setString(6, ticket.getServiceType());
             stmt.setString(7, ticket.getAssignedDoctorId()); // Can be null
             stmt.setTimestamp(8, Timestamp.valueOf(ticket.getCreatedTime()));
-
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
-
-        } catch (SQLException e) {
-            logError("Error creating ticket: " + ticket.getVisitId(), e);
-            return false;
+            stmt.executeUpdate();
         }
     }
 
@@ -816,19 +890,19 @@ public class TicketDAO extends BaseDAO {
      */
     public List<Ticket> findCompletedToday() {
         List<Ticket> tickets = new ArrayList<>();
-        String sql = "SELECT t.*, p.*, d.name AS doctor_name FROM tickets t " +
+        String sql = "SELECT " + TicketRowMapper.TICKET_COLUMNS + " FROM tickets t " +
                 "INNER JOIN patients p ON t.patient_id = p.patient_id " +
                 "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id " +
-                "WHERE t.status = 'COMPLETED' AND DATE(t.created_time) = CURDATE() " +
+                "WHERE t.status = 'COMPLETED' AND t.created_time >= CURDATE() AND t.created_time < CURDATE() + INTERVAL 1 DAY " +
                 "ORDER BY t.created_time DESC";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 try {
-                    tickets.add(mapResultSetToTicket(rs));
+                    tickets.add(TicketRowMapper.ticket(rs));
                 } catch (SQLException e) {
                     logError("Error mapping ticket from result set", e);
                 }
@@ -841,32 +915,25 @@ public class TicketDAO extends BaseDAO {
 
     /**
      * Gets all completed tickets (not just today's) with doctor department information
+     * Includes tickets already moved to tickets_history
      * Used for discharge management
      *
      * @return List of all completed tickets with doctor info
      */
     public List<Ticket> findAllCompleted() {
         List<Ticket> tickets = new ArrayList<>();
-        String sql = "SELECT t.*, p.*, d.name AS doctor_name, d.department AS doctor_department FROM tickets t " +
+        String sql = "SELECT " + TicketRowMapper.TICKET_COLUMNS + " FROM " + allTickets("status = 'COMPLETED'") + " t " +
                 "INNER JOIN patients p ON t.patient_id = p.patient_id " +
                 "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id " +
-                "WHERE t.status = 'COMPLETED' " +
                 "ORDER BY t.created_time DESC";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 try {
-                    Ticket ticket = mapResultSetToTicket(rs);
-                    // Store doctor department in ticket if available
-                    String doctorDept = rs.getString("doctor_department");
-                    if (doctorDept != null && ticket.getAssignedDoctorName() != null) {
-                        // We'll need to access this later, so we can store it in a custom way
-                        // For now, we'll get it from the database when needed
-                    }
-                    tickets.add(ticket);
+                    tickets.add(TicketRowMapper.ticket(rs));
                 } catch (SQLException e) {
                     logError("Error mapping ticket from result set", e);
                 }
@@ -923,13 +990,13 @@ public class TicketDAO extends BaseDAO {
      */
     public List<Ticket> findRecentCalls(int limit) {
         List<Ticket> tickets = new ArrayList<>();
-        String sql = "SELECT t.*, p.*, d.name AS doctor_name FROM tickets t " +
+        String sql = "SELECT " + TicketRowMapper.TICKET_COLUMNS + " FROM tickets t " +
                 "INNER JOIN patients p ON t.patient_id = p.patient_id " +
                 "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id " +
-                "WHERE t.called_time IS NOT NULL AND DATE(t.called_time) = CURDATE() " +
+                "WHERE t.called_time IS NOT NULL AND t.called_time >= CURDATE() AND t.called_time < CURDATE() + INTERVAL 1 DAY " +
                 "ORDER BY t.called_time DESC LIMIT ?";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, limit);
@@ -937,7 +1004,7 @@ public class TicketDAO extends BaseDAO {
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     try {
-                        tickets.add(mapResultSetToTicket(rs));
+                        tickets.add(TicketRowMapper.ticket(rs));
                     } catch (SQLException e) {
                         logError("Error mapping ticket from result set", e);
                     }
@@ -949,6 +1016,61 @@ public class TicketDAO extends BaseDAO {
         return tickets;
     }
 
+    /**
+     * Gets tickets currently in service as queue entries
+     *
+     * @return In-service entries, newest first
+     */
+    public List<QueueEntryView> findInServiceEntries() {
+        return findQueueEntries("WHERE t.status = 'IN_SERVICE' ORDER BY t.created_time DESC", 0);
+    }
+
+    /**
+     * Gets today's completed tickets as queue entries
+     *
+     * @return Completed entries for today, newest first
+     */
+    public List<QueueEntryView> findCompletedTodayEntries() {
+        return findQueueEntries("WHERE t.status = 'COMPLETED' AND t.created_time >= CURDATE() " +
+                "AND t.created_time < CURDATE() + INTERVAL 1 DAY ORDER BY t.created_time DESC", 0);
+    }
+
+    /**
+     * Gets tickets called today as queue entries
+     *
+     * @param limit Maximum number of entries to return
+     * @return Recently called entries, most recent first
+     */
+    public List<QueueEntryView> findRecentCallEntries(int limit) {
+        return findQueueEntries("WHERE t.called_time IS NOT NULL AND t.called_time >= CURDATE() " +
+                "AND t.called_time < CURDATE() + INTERVAL 1 DAY ORDER BY t.called_time DESC LIMIT ?", limit);
+    }
+
+    /**
+     * Runs a queue entry query
+     *
+     * @param whereAndOrder WHERE and ORDER BY clauses, ending in "LIMIT ?" when limit is used
+     * @param limit Value for the LIMIT placeholder, or 0 when there is none
+     */
+    private List<QueueEntryView> findQueueEntries(String whereAndOrder, int limit) {
+        List<QueueEntryView> entries = new ArrayList<>();
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(QUEUE_ENTRY_SELECT + whereAndOrder)) {
+
+            if (limit > 0) {
+                stmt.setInt(1, limit);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(TicketRowMapper.queueEntry(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logError("Error finding queue entries", e);
+        }
+        return entries;
+    }
+
     /**
      * Updates the priority of a ticket
      *
@@ -1053,70 +1175,376 @@ public class TicketDAO extends BaseDAO {
     }
 
     /**
-     * Maps a ResultSet row to a Ticket object
-     * Creates patient from ResultSet data directly to avoid extra DB calls
+     * Receives one ticket fact at a time from streamTicketFacts
+     * Wait and service minutes are -1 when the ticket never reached that stage
+     */
+    public interface TicketFactConsumer {
+        void accept(LocalDateTime createdTime, TicketStatus status, PriorityLevel priority,
+                    String doctorId, String doctorName, String department,
+                    int waitMinutes, int serviceMinutes);
+    }
+
+    /**
+     * Streams compact ticket facts for analytics, ordered by creation time
+     * Reads tickets_history and the live table together: history is streamed on
+     * a dedicated connection and merged with the (small) set of matching live
+     * tickets, so rows are never buffered beyond the live table's share.
+     *
+     * @param fromDate First day (inclusive)
+     * @param toDate Last day (exclusive)
+     * @param consumer Receives each ticket as it is read
+     * @return Number of tickets streamed
+     * @throws SQLException if the query fails
+     */
+    public int streamTicketFacts(LocalDate fromDate, LocalDate toDate, TicketFactConsumer consumer) throws SQLException {
+        String select = "SELECT t.created_time, t.status, t.priority, t.assigned_doctor_id, " +
+                        "d.name AS doctor_name, d.department, " +
+                        "TIMESTAMPDIFF(MINUTE, t.created_time, t.called_time) AS wait_minutes, " +
+                        "TIMESTAMPDIFF(MINUTE, t.called_time, t.completed_time) AS service_minutes " +
+                        "FROM %s t " +
+                        "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id " +
+                        "WHERE t.created_time >= ? AND t.created_time < ? " +
+                        "ORDER BY t.created_time";
+        Timestamp from = Timestamp.valueOf(fromDate.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(toDate.atStartOfDay());
+
+        int rows = 0;
+        try (Connection conn = getDedicatedReadConnection()) {
+            // Live tickets first; the rollover keeps this set small
+            List<TicketFact> live = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(String.format(select, "tickets"))) {
+                stmt.setTimestamp(1, from);
+                stmt.setTimestamp(2, to);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        live.add(new TicketFact(rs));
+                    }
+                }
+            }
+
+            int next = 0;
+            try (PreparedStatement stmt = prepareStreamingStatement(conn, String.format(select, "tickets_history"))) {
+                stmt.setTimestamp(1, from);
+                stmt.setTimestamp(2, to);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        TicketFact fact = new TicketFact(rs);
+                        while (next < live.size() && live.get(next).createdTime.isBefore(fact.createdTime)) {
+                            live.get(next++).emit(consumer);
+                            rows++;
+                        }
+                        fact.emit(consumer);
+                        rows++;
+                    }
+                }
+            }
+            while (next < live.size()) {
+                live.get(next++).emit(consumer);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * One row of streamTicketFacts, held only while merging the two tables
+     */
+    private static final class TicketFact {
+        private final LocalDateTime createdTime;
+        private final TicketStatus status;
+        private final PriorityLevel priority;
+        private final String doctorId;
+        private final String doctorName;
+        private final String department;
+        private final int waitMinutes;
+        private final int serviceMinutes;
+
+        private TicketFact(ResultSet rs) throws SQLException {
+            this.createdTime = rs.getTimestamp("created_time").toLocalDateTime();
+            this.status = TicketRowMapper.TICKET_STATUS.get(rs.getString("status"), TicketStatus.WAITING);
+            this.priority = TicketRowMapper.PRIORITY_LEVEL.get(rs.getString("priority"), PriorityLevel.REGULAR);
+            this.doctorId = rs.getString("assigned_doctor_id");
+            this.doctorName = rs.getString("doctor_name");
+            this.department = rs.getString("department");
+            int wait = rs.getInt("wait_minutes");
+            this.waitMinutes = rs.wasNull() ? -1 : wait;
+            int service = rs.getInt("service_minutes");
+            this.serviceMinutes = rs.wasNull() ? -1 : service;
+        }
+
+        private void emit(TicketFactConsumer consumer) {
+            consumer.accept(createdTime, status, priority, doctorId, doctorName, department, waitMinutes, serviceMinutes);
+        }
+    }
+
+    // --- OFFLINE JOURNAL REPLAY ---
+    // Each statement only changes a ticket that is still in the expected state,
+    // so replaying a journal entry twice has no further effect.
+
+    /**
+     * Inserts a ticket issued while the database was down, unless it already exists
+     *
+     * @param ticket Ticket to insert (status WAITING)
+     * @return true if inserted, false if the visit ID already existed
+     * @throws SQLException if the insert fails
+     */
+    public boolean insertIfAbsent(Ticket ticket) throws SQLException {
+        String sql = "INSERT INTO tickets (visit_id, ticket_number, patient_id, status, priority, " +
+                "service_type, assigned_doctor_id, created_time) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE visit_id = visit_id";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, ticket.getVisitId());
+            stmt.setString(2, ticket.getTicketNumber());
+            stmt.setString(3, ticket.getPatient().getId());
+            stmt.setString(4, ticket.getStatus().name());
+            stmt.setString(5, ticket.getPriority() != null ? ticket.getPriority().name() : "REGULAR");
+            stmt.setString(6, ticket.getServiceType());
+            stmt.setString(7, ticket.getAssignedDoctorId());
+            stmt.setTimestamp(8, Timestamp.valueOf(ticket.getCreatedTime()));
+            return stmt.executeUpdate() == 1;
+        }
+    }
+
+    /**
+     * Assigns a doctor to a ticket that is still waiting (replay of an offline call)
+     *
+     * @param visitId Visit ID
+     * @param doctorId Doctor ID
+     * @param calledTime When the doctor called the patient
+     * @return true if updated, false if the ticket was no longer waiting
+     * @throws SQLException if the update fails
      */
-    private Ticket mapResultSetToTicket(ResultSet rs) throws SQLException {
-        String visitId = rs.getString("visit_id");
-        String ticketNumber = rs.getString("ticket_number");
-        TicketStatus status = TicketStatus.valueOf(rs.getString("status"));
-        String serviceType = rs.getString("service_type");
-        String assignedDoctorId = rs.getString("assigned_doctor_id");
-        String assignedDoctorName = rs.getString("doctor_name");
-
-        // Parse priority
-        PriorityLevel priority = PriorityLevel.REGULAR;
-        try {
-            String priorityStr = rs.getString("priority");
-            if (priorityStr != null) {
-                priority = PriorityLevel.valueOf(priorityStr);
+    public boolean claimIfWaiting(String visitId, String doctorId, LocalDateTime calledTime) throws SQLException {
+        String sql = "UPDATE tickets SET assigned_doctor_id = ?, status = 'IN_SERVICE', called_time = ? " +
+                     "WHERE visit_id = ? AND status IN ('WAITING', 'CALLED')";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, doctorId);
+            stmt.setTimestamp(2, Timestamp.valueOf(calledTime));
+            stmt.setString(3, visitId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Completes or skips a ticket that is still open (replay of an offline completion)
+     *
+     * @param visitId Visit ID
+     * @param status COMPLETED or SKIPPED
+     * @param closedTime When the ticket was completed or skipped
+     * @return true if updated, false if the ticket was already closed
+     * @throws SQLException if the update fails
+     */
+    public boolean closeIfOpen(String visitId, TicketStatus status, LocalDateTime closedTime) throws SQLException {
+        String sql = "UPDATE tickets SET status = ?";
+        if (status == TicketStatus.COMPLETED) {
+            sql += ", completed_time = ?, wait_time_minutes = TIMESTAMPDIFF(MINUTE, created_time, ?)";
+        }
+        sql += " WHERE visit_id = ? AND status IN ('WAITING', 'CALLED', 'IN_SERVICE')";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            stmt.setString(index++, status.name());
+            if (status == TicketStatus.COMPLETED) {
+                stmt.setTimestamp(index++, Timestamp.valueOf(closedTime));
+                stmt.setTimestamp(index++, Timestamp.valueOf(closedTime));
             }
-        } catch (IllegalArgumentException e) {
-            // Default to REGULAR if invalid
+            stmt.setString(index, visitId);
+            return stmt.executeUpdate() > 0;
         }
+    }
 
-        Timestamp createdTimeTs = rs.getTimestamp("created_time");
-        LocalDateTime createdTime = createdTimeTs != null ? createdTimeTs.toLocalDateTime() : LocalDateTime.now();
+    // --- DAY ROLLOVER ---
+
+    /**
+     * Marks WAITING tickets created before the given day as EXPIRED, one batch at a time
+     * Called/in-service tickets are left alone so a doctor can still finish them.
+     *
+     * @param before Tickets created before this day are stale
+     * @param batchSize Maximum rows updated by this call
+     * @return Number of tickets expired (less than batchSize when none are left)
+     * @throws SQLException if the update fails
+     */
+    public int expireStaleTickets(LocalDate before, int batchSize) throws SQLException {
+        String sql = "UPDATE tickets SET status = 'EXPIRED', completed_time = NOW() " +
+                     "WHERE status = 'WAITING' AND created_time < ? " +
+                     "ORDER BY created_time LIMIT ?";
 
-        Timestamp calledTimeTs = rs.getTimestamp("called_time");
-        LocalDateTime calledTime = calledTimeTs != null ? calledTimeTs.toLocalDateTime() : null;
+        try (Connection conn = getDedicatedConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-        // Create patient object directly from ResultSet (data is already joined)
-        String patientId = rs.getString("patient_id");
-        String firstName = rs.getString("first_name");
-        String lastName = rs.getString("last_name");
-        String patientName = (firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "");
-        patientName = patientName.trim();
-        
-        int age = 0;
-        try {
-            age = rs.getInt("age");
+            stmt.setTimestamp(1, Timestamp.valueOf(before.atStartOfDay()));
+            stmt.setInt(2, batchSize);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Moves one batch of closed tickets (COMPLETED, SKIPPED, EXPIRED) created before
+     * the given day from tickets to tickets_history
+     * The copy and delete run in one short transaction on a dedicated connection,
+     * so a ticket is always in exactly one of the two tables.
+     *
+     * @param before Tickets created before this day are moved
+     * @param batchSize Maximum rows moved by this call
+     * @return Number of tickets moved (less than batchSize when none are left)
+     * @throws SQLException if the move fails (the batch is rolled back)
+     */
+    public int moveClosedTicketsToHistory(LocalDate before, int batchSize) throws SQLException {
+        String selectSql = "SELECT visit_id FROM tickets " +
+                           "WHERE status IN ('COMPLETED', 'SKIPPED', 'EXPIRED') AND created_time < ? " +
+                           "ORDER BY created_time LIMIT ? FOR UPDATE";
+
+        try (Connection conn = getDedicatedConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                List<String> visitIds = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+                    stmt.setTimestamp(1, Timestamp.valueOf(before.atStartOfDay()));
+                    stmt.setInt(2, batchSize);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            visitIds.add(rs.getString("visit_id"));
+                        }
+                    }
+                }
+                if (visitIds.isEmpty()) {
+                    conn.commit();
+                    return 0;
+                }
+
+                String placeholders = String.join(", ", Collections.nCopies(visitIds.size(), "?"));
+                String insertSql = "INSERT INTO tickets_history (" + TICKET_COLUMNS + ") " +
+                                   "SELECT " + TICKET_COLUMNS + " FROM tickets WHERE visit_id IN (" + placeholders + ")";
+                String deleteSql = "DELETE FROM tickets WHERE visit_id IN (" + placeholders + ")";
+
+                try (PreparedStatement insert = conn.prepareStatement(insertSql);
+                     PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+                    for (int i = 0; i < visitIds.size(); i++) {
+                        insert.setString(i + 1, visitIds.get(i));
+                        delete.setString(i + 1, visitIds.get(i));
+                    }
+                    int copied = insert.executeUpdate();
+                    int deleted = delete.executeUpdate();
+                    if (copied != deleted) {
+                        throw new SQLException("Ticket rollover copied " + copied + " rows but deleted " + deleted);
+                    }
+                }
+                conn.commit();
+                return visitIds.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // --- HISTORY COMPACTION ---
+
+    /**
+     * Finds the oldest day that still has detailed rows in tickets_history before the given day
+     *
+     * @param before Only days before this one are considered
+     * @return Oldest day, or null if there is none
+     * @throws SQLException if the query fails
+     */
+    public LocalDate findOldestHistoryDay(LocalDate before) throws SQLException {
+        String sql = "SELECT MIN(created_time) FROM tickets_history WHERE created_time < ?";
+
+        try (Connection conn = getDedicatedConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(before.atStartOfDay()));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Timestamp oldest = rs.getTimestamp(1);
+                    return oldest != null ? oldest.toLocalDateTime().toLocalDate() : null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Summarises one day of tickets_history into ticket_daily_rollups
+     * Does nothing if the day was already rolled up, so it is safe to call again
+     * after its detail rows have been partly deleted.
+     *
+     * @param day Day to roll up
+     * @return Number of rollup rows written (0 if already rolled up)
+     * @throws SQLException if the insert fails
+     */
+    public int rollUpHistoryDay(LocalDate day) throws SQLException {
+        String sql = "INSERT INTO ticket_daily_rollups " +
+                     "(stat_date, department, doctor_id, priority, status, ticket_count, wait_count, wait_minutes_sum) " +
+                     "SELECT ?, COALESCE(d.department, ''), COALESCE(t.assigned_doctor_id, ''), t.priority, t.status, " +
+                     "COUNT(*), COUNT(t.called_time), COALESCE(SUM(TIMESTAMPDIFF(MINUTE, t.created_time, t.called_time)), 0) " +
+                     "FROM tickets_history t " +
+                     "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id " +
+                     "WHERE t.created_time >= ? AND t.created_time < ? " +
+                     "AND NOT EXISTS (SELECT 1 FROM ticket_daily_rollups r WHERE r.stat_date = ?) " +
+                     "GROUP BY COALESCE(d.department, ''), COALESCE(t.assigned_doctor_id, ''), t.priority, t.status";
+
+        try (Connection conn = getDedicatedConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, java.sql.Date.valueOf(day));
+            stmt.setTimestamp(2, Timestamp.valueOf(day.atStartOfDay()));
+            stmt.setTimestamp(3, Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+            stmt.setDate(4, java.sql.Date.valueOf(day));
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Deletes one batch of tickets_history rows created on the given day
+     * Call rollUpHistoryDay first so the day's totals are kept.
+     *
+     * @param day Day to delete
+     * @param batchSize Maximum rows deleted by this call
+     * @return Number of rows deleted (less than batchSize when the day is empty)
+     * @throws SQLException if the delete fails
+     */
+    public int deleteHistoryDay(LocalDate day, int batchSize) throws SQLException {
+        String sql = "DELETE FROM tickets_history WHERE created_time >= ? AND created_time < ? " +
+                     "ORDER BY created_time LIMIT ?";
+
+        try (Connection conn = getDedicatedConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(day.atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+            stmt.setInt(3, batchSize);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Counts rows in the live tickets table (used to report rollover results)
+     *
+     * @return Number of tickets in the live table, or -1 on error
+     */
+    public int countLiveTickets() {
+        String sql = "SELECT COUNT(*) FROM tickets";
+
+        try (Connection conn = getDedicatedConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
         } catch (SQLException e) {
-            // Age might not be in result set
+            logError("Error counting live tickets", e);
         }
-        
-        String phoneNumber = rs.getString("phone_number");
-        boolean isSeniorCitizen = rs.getBoolean("is_senior_citizen");
-        String chiefComplaint = rs.getString("chief_complaint");
-        
-        // Create a simplified Patient object with available data
-        Patient patient = new Patient(
-            patientId,
-            patientName.isEmpty() ? "Unknown Patient" : patientName,
-            age,
-            phoneNumber,
-            null, // homeAddress
-            rs.getString("gender"),
-            null, // emergencyContactPerson
-            null, // emergencyContactNumber
-            isSeniorCitizen,
-            null, null, null, null, // medications, allergies, diagnosis, treatmentPlan
-            chiefComplaint, // notes
-            null, null, null, null, null, null, null, null // remaining fields
-        );
-
-        return new Ticket(visitId, ticketNumber, patient, status, priority, 
-                         createdTime, calledTime, serviceType, assignedDoctorId, assignedDoctorName);
+        return -1;
     }
 }
-
@@ -0,0 +1,106 @@
+package com.stangelo.saintangelo.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import com.stangelo.saintangelo.models.Patient;
+import com.stangelo.saintangelo.models.PriorityLevel;
+import com.stangelo.saintangelo.models.QueueEntryView;
+import com.stangelo.saintangelo.models.Ticket;
+import com.stangelo.saintangelo.models.TicketStatus;
+
+/**
+ * Row mappers for ticket queries
+ * Each mapper reads its columns by position from a fixed select list, so no
+ * column-name lookup happens per row, enums come from precomputed tables and
+ * times are read straight into LocalDateTime. Queries must select the
+ * matching column list first; extra columns may follow it.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public final class TicketRowMapper {
+
+    /**
+     * Select list for ticket() over tickets t, patients p and doctors d
+     */
+    public static final String TICKET_COLUMNS = "t.visit_id, t.ticket_number, t.status, t.priority, " +
+            "t.service_type, t.assigned_doctor_id, d.name AS doctor_name, t.created_time, t.called_time, " +
+            "t.patient_id, p.first_name, p.last_name, p.age, p.phone_number, p.gender, p.is_senior_citizen, " +
+            "p.chief_complaint";
+
+    /**
+     * Select list for queueEntry() over tickets t, patients p and doctors d
+     */
+    public static final String QUEUE_ENTRY_COLUMNS = "t.visit_id, t.ticket_number, t.patient_id, " +
+            "p.first_name, p.last_name, p.age, t.priority, t.status, t.service_type, d.name AS doctor_name, " +
+            "t.created_time, t.called_time";
+
+    static final EnumLookup<TicketStatus> TICKET_STATUS = EnumLookup.of(TicketStatus.class);
+    static final EnumLookup<PriorityLevel> PRIORITY_LEVEL = EnumLookup.of(PriorityLevel.class);
+
+    private TicketRowMapper() {
+    }
+
+    /**
+     * Maps a TICKET_COLUMNS row to a Ticket with a summary Patient
+     * The patient only carries what queue screens use; load it by ID for details.
+     */
+    public static Ticket ticket(ResultSet rs) throws SQLException {
+        String visitId = rs.getString(1);
+        String ticketNumber = rs.getString(2);
+        TicketStatus status = TICKET_STATUS.get(rs.getString(3), TicketStatus.WAITING);
+        PriorityLevel priority = PRIORITY_LEVEL.get(rs.getString(4), PriorityLevel.REGULAR);
+        String serviceType = rs.getString(5);
+        String assignedDoctorId = rs.getString(6);
+        String assignedDoctorName = rs.getString(7);
+        LocalDateTime createdTime = rs.getObject(8, LocalDateTime.class);
+        LocalDateTime calledTime = rs.getObject(9, LocalDateTime.class);
+
+        Patient patient = new Patient(
+            rs.getString(10),
+            fullName(rs.getString(11), rs.getString(12)),
+            rs.getInt(13),
+            rs.getString(14),
+            null, // homeAddress
+            rs.getString(15),
+            null, // emergencyContactPerson
+            null, // emergencyContactNumber
+            rs.getBoolean(16),
+            null, null, null, null, // medications, allergies, diagnosis, treatmentPlan
+            rs.getString(17), // notes (chief complaint)
+            null, null, null, null, null, null, null, null // remaining fields
+        );
+
+        return new Ticket(visitId, ticketNumber, patient, status, priority,
+                createdTime != null ? createdTime : LocalDateTime.now(), calledTime,
+                serviceType, assignedDoctorId, assignedDoctorName);
+    }
+
+    /**
+     * Maps a QUEUE_ENTRY_COLUMNS row to a QueueEntryView
+     */
+    public static QueueEntryView queueEntry(ResultSet rs) throws SQLException {
+        return new QueueEntryView(
+            rs.getString(1),
+            rs.getString(2),
+            rs.getString(3),
+            fullName(rs.getString(4), rs.getString(5)),
+            rs.getInt(6),
+            PRIORITY_LEVEL.get(rs.getString(7), PriorityLevel.REGULAR),
+            TICKET_STATUS.get(rs.getString(8), TicketStatus.WAITING),
+            rs.getString(9),
+            rs.getString(10),
+            rs.getObject(11, LocalDateTime.class),
+            rs.getObject(12, LocalDateTime.class)
+        );
+    }
+
+    private static String fullName(String firstName, String lastName) {
+        if (firstName == null || firstName.isEmpty()) {
+            return lastName == null || lastName.isEmpty() ? "Unknown Patient" : lastName;
+        }
+        return lastName == null || lastName.isEmpty() ? firstName : firstName + " " + lastName;
+    }
+}
@@ -4,9 +4,12 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.LinkedHashMap;
@@ -114,6 +117,40 @@ public class UserDAO extends BaseDAO {
         return null;
     }
 
+    /**
+     * Finds users by ID with one query
+     * Used by BatchLoaders to resolve the users referenced by many rows at once.
+     *
+     * @param userIds User IDs
+     * @return User objects by ID; IDs without a row are missing
+     */
+    public Map<String, User> findByIds(Collection<String> userIds) {
+        Map<String, User> users = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return users;
+        }
+        String sql = "SELECT * FROM users WHERE user_id IN (" + placeholders(userIds.size()) + ")";
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            for (String id : userIds) {
+                stmt.setString(index++, id);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    User user = mapResultSetToUser(rs);
+                    users.put(user.getId(), user);
+                }
+            }
+        } catch (SQLException e) {
+            logError("Error finding users by ID", e);
+        }
+        return users;
+    }
+
     /**
      * Finds a user by email
      *
@@ -355,25 +392,56 @@ public class UserDAO extends BaseDAO {
     }
 
     /**
-     * Automatically deletes users that have been archived for 30 or more days
+     * Finds users that were archived before the given time and can be deleted (oldest first)
+     * Used by the archive purge housekeeping job. Users who generated reports are left
+     * out: reports.generated_by restricts their deletion, so they stay archived.
      *
-     * @return Number of users deleted
+     * @param cutoff Users archived before this time are returned
+     * @param limit Maximum number of user IDs to return
+     * @return List of user IDs
+     * @throws SQLException if the query fails
      */
-    public int autoDeleteOldArchivedUsers() {
-        String sql = "DELETE FROM users WHERE status = 'Archived' AND archived_at < DATE_SUB(NOW(), INTERVAL 30 DAY)";
+    public List<String> findArchivedUserIdsBefore(LocalDateTime cutoff, int limit) throws SQLException {
+        List<String> userIds = new ArrayList<>();
+        String sql = "SELECT u.user_id FROM users u WHERE u.status = 'Archived' AND u.archived_at < ? " +
+                     "AND NOT EXISTS (SELECT 1 FROM reports r WHERE r.generated_by = u.user_id) " +
+                     "ORDER BY u.archived_at LIMIT ?";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getDedicatedConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected > 0) {
-                logger.info("Auto-deleted " + rowsAffected + " users archived for 30+ days");
+            stmt.setTimestamp(1, Timestamp.valueOf(cutoff));
+            stmt.setInt(2, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    userIds.add(rs.getString("user_id"));
+                }
             }
-            return rowsAffected;
+        }
+        return userIds;
+    }
 
-        } catch (SQLException e) {
-            logError("Error auto-deleting old archived users", e);
-            return 0;
+    /**
+     * Permanently deletes one archived user
+     * Users still referenced by reports cannot be deleted; they are skipped and stay archived.
+     *
+     * @param userId User ID
+     * @return true if deleted, false if the user is still referenced or no longer archived
+     * @throws SQLException if the delete fails for another reason
+     */
+    public boolean deleteArchivedUser(String userId) throws SQLException {
+        String sql = "DELETE FROM users WHERE user_id = ? AND status = 'Archived'";
+
+        try (Connection conn = getDedicatedConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, userId);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLIntegrityConstraintViolationException e) {
+            logger.warning("Archived user " + userId + " is still referenced and was not purged: " + e.getMessage());
+            return false;
         }
     }
 
@@ -599,7 +667,7 @@ public class UserDAO extends BaseDAO {
     public int countAllUsers() {
         String sql = "SELECT COUNT(*) FROM users";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -625,7 +693,7 @@ public class UserDAO extends BaseDAO {
 
         String sql = "SELECT COUNT(*) FROM users WHERE role = ?";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, role.name());
@@ -656,7 +724,7 @@ public class UserDAO extends BaseDAO {
                      "GROUP BY DATE(created_at) " +
                      "ORDER BY DATE(created_at)";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, days - 1);
@@ -689,7 +757,7 @@ public class UserDAO extends BaseDAO {
      */
     public int getUserCountInPeriod(LocalDate start, LocalDate end) {
         String sql = "SELECT COUNT(*) FROM users WHERE created_at BETWEEN ? AND ?";
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setObject(1, start);
             stmt.setObject(2, end);
@@ -0,0 +1,33 @@
+package com.stangelo.saintangelo.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Discharge Worklist Item model
+ * One completed visit on the discharge screen with the patient's latest discharge record, if any
+ */
+public record DischargeWorklistItem(
+        String visitId,
+        String patientId,
+        String patientName,
+        String doctorName,
+        String department,
+        LocalDateTime visitTime,
+        String dischargeId,
+        DischargeStatus dischargeStatus) {
+
+    /**
+     * Gets the status shown on the worklist (visits without a discharge record are pending review)
+     */
+    public DischargeStatus displayStatus() {
+        return dischargeStatus != null ? dischargeStatus : DischargeStatus.PENDING_REVIEW;
+    }
+
+    /**
+     * Copy of this item with a new latest discharge record
+     */
+    public DischargeWorklistItem withDischarge(String newDischargeId, DischargeStatus newStatus) {
+        return new DischargeWorklistItem(visitId, patientId, patientName, doctorName, department, visitTime,
+                newDischargeId, newStatus);
+    }
+}
@@ -0,0 +1,37 @@
+package com.stangelo.saintangelo.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Housekeeping Run model class
+ * Last recorded run of a housekeeping job, shared by all workstations
+ */
+public class HousekeepingRun {
+    private String jobName;
+    private HousekeepingStatus status;
+    private LocalDateTime lastStarted;
+    private LocalDateTime lastFinished;
+    private int rowsAffected;
+    private String message;
+    private String runBy;
+
+    public HousekeepingRun(String jobName, HousekeepingStatus status, LocalDateTime lastStarted,
+                           LocalDateTime lastFinished, int rowsAffected, String message, String runBy) {
+        this.jobName = jobName;
+        this.status = status;
+        this.lastStarted = lastStarted;
+        this.lastFinished = lastFinished;
+        this.rowsAffected = rowsAffected;
+        this.message = message;
+        this.runBy = runBy;
+    }
+
+    // Getters
+    public String getJobName() { return jobName; }
+    public HousekeepingStatus getStatus() { return status; }
+    public LocalDateTime getLastStarted() { return lastStarted; }
+    public LocalDateTime getLastFinished() { return lastFinished; }
+    public int getRowsAffected() { return rowsAffected; }
+    public String getMessage() { return message; }
+    public String getRunBy() { return runBy; }
+}
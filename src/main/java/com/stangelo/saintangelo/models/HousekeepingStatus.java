@@ -0,0 +1,12 @@
+package com.stangelo.saintangelo.models;
+
+/**
+ * Housekeeping Status Enum
+ * Outcome of the last run of a housekeeping job
+ */
+public enum HousekeepingStatus {
+    RUNNING,    // Started and not finished (or the workstation stopped mid-run)
+    SUCCEEDED,  // All due work was done
+    PARTIAL,    // Stopped at its time budget; resumes shortly
+    FAILED      // Stopped by an error, see message
+}
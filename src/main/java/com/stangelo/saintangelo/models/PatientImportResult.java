@@ -0,0 +1,52 @@
+package com.stangelo.saintangelo.models;
+
+import java.nio.file.Path;
+
+/**
+ * Patient Import Result model class
+ * Progress or outcome of a bulk patient import (counts include earlier runs of a resumed import)
+ */
+public class PatientImportResult {
+    private long rowsRead;
+    private long imported;
+    private long duplicates;
+    private long rejected;
+    private long elapsedMillis;
+    private boolean finished;
+    private Path rejectsFile;
+
+    public PatientImportResult(long rowsRead, long imported, long duplicates, long rejected,
+                               long elapsedMillis, boolean finished, Path rejectsFile) {
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.duplicates = duplicates;
+        this.rejected = rejected;
+        this.elapsedMillis = elapsedMillis;
+        this.finished = finished;
+        this.rejectsFile = rejectsFile;
+    }
+
+    // Getters
+    public long getRowsRead() { return rowsRead; }
+    public long getImported() { return imported; }
+    public long getDuplicates() { return duplicates; }
+    public long getRejected() { return rejected; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public boolean isFinished() { return finished; }
+    public Path getRejectsFile() { return rejectsFile; }
+
+    /**
+     * Gets the import speed over the whole import
+     *
+     * @return Rows read per second
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis > 0 ? rowsRead * 1000.0 / elapsedMillis : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows read, %d imported, %d duplicates, %d rejected in %.1f s (%.0f rows/s)",
+                rowsRead, imported, duplicates, rejected, elapsedMillis / 1000.0, getRowsPerSecond());
+    }
+}
@@ -0,0 +1,31 @@
+package com.stangelo.saintangelo.models;
+
+/**
+ * Patient Match model class
+ * A candidate existing patient returned by the matching index, with its score
+ */
+public class PatientMatch {
+    private String patientId;
+    private String name;
+    private String phoneNumber;
+    private int age;
+    private int score;
+    private boolean probableDuplicate;
+
+    public PatientMatch(String patientId, String name, String phoneNumber, int age, int score, boolean probableDuplicate) {
+        this.patientId = patientId;
+        this.name = name;
+        this.phoneNumber = phoneNumber;
+        this.age = age;
+        this.score = score;
+        this.probableDuplicate = probableDuplicate;
+    }
+
+    // Getters
+    public String getPatientId() { return patientId; }
+    public String getName() { return name; }
+    public String getPhoneNumber() { return phoneNumber; }
+    public int getAge() { return age; }
+    public int getScore() { return score; }
+    public boolean isProbableDuplicate() { return probableDuplicate; }
+}
@@ -0,0 +1,22 @@
+package com.stangelo.saintangelo.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Queue Entry View model
+ * Read-only row for queue cards and lists: only the ticket and patient columns those screens show.
+ * Load the full Ticket or Patient by ID when a detail dialog needs them.
+ */
+public record QueueEntryView(
+        String visitId,
+        String ticketNumber,
+        String patientId,
+        String patientName,
+        int age,
+        PriorityLevel priority,
+        TicketStatus status,
+        String serviceType,
+        String doctorName,
+        LocalDateTime createdTime,
+        LocalDateTime calledTime) {
+}
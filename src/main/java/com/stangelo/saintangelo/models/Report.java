@@ -1,4 +1,73 @@
 package com.stangelo.saintangelo.models;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Report model class
+ * Represents a report job and, once completed, the generated file
+ */
 public class Report {
+    private String reportId;
+    private ReportTyoe reportType;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private ReportFormat reportFormat;
+    private String generatedBy;
+    private String filePath;
+    private ReportStatus status;
+    private String errorMessage;
+    private LocalDateTime generatedAt;
+
+    public Report(String reportId, ReportTyoe reportType, LocalDate startDate, LocalDate endDate,
+                  ReportFormat reportFormat, String generatedBy) {
+        this(reportId, reportType, startDate, endDate, reportFormat, generatedBy, null,
+                ReportStatus.QUEUED, null, null);
+    }
+
+    public Report(String reportId, ReportTyoe reportType, LocalDate startDate, LocalDate endDate,
+                  ReportFormat reportFormat, String generatedBy, String filePath, ReportStatus status,
+                  String errorMessage, LocalDateTime generatedAt) {
+        this.reportId = reportId;
+        this.reportType = reportType;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.reportFormat = reportFormat;
+        this.generatedBy = generatedBy;
+        this.filePath = filePath;
+        this.status = status;
+        this.errorMessage = errorMessage;
+        this.generatedAt = generatedAt;
+    }
+
+    // Getters and Setters
+    public String getReportId() { return reportId; }
+    public void setReportId(String reportId) { this.reportId = reportId; }
+
+    public ReportTyoe getReportType() { return reportType; }
+    public void setReportType(ReportTyoe reportType) { this.reportType = reportType; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public ReportFormat getReportFormat() { return reportFormat; }
+    public void setReportFormat(ReportFormat reportFormat) { this.reportFormat = reportFormat; }
+
+    public String getGeneratedBy() { return generatedBy; }
+    public void setGeneratedBy(String generatedBy) { this.generatedBy = generatedBy; }
+
+    public String getFilePath() { return filePath; }
+    public void setFilePath(String filePath) { this.filePath = filePath; }
+
+    public ReportStatus getStatus() { return status; }
+    public void setStatus(ReportStatus status) { this.status = status; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(LocalDateTime generatedAt) { this.generatedAt = generatedAt; }
 }
@@ -0,0 +1,11 @@
+package com.stangelo.saintangelo.models;
+
+/**
+ * Report Format Enum
+ * Matches the report_format column of the reports table
+ */
+public enum ReportFormat {
+    PDF,
+    EXCEL,
+    CSV
+}
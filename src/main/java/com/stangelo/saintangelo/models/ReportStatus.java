@@ -0,0 +1,12 @@
+package com.stangelo.saintangelo.models;
+
+/**
+ * Report Status Enum
+ * Lifecycle of a persisted report job
+ */
+public enum ReportStatus {
+    QUEUED,     // Persisted, waiting for a worker
+    RUNNING,    // Being generated by a worker
+    COMPLETED,  // File written to file_path
+    FAILED      // Generation failed, see error_message
+}
@@ -1,4 +1,12 @@
 package com.stangelo.saintangelo.models;
 
+/**
+ * Report Type Enum
+ * Matches the report_type column of the reports table
+ */
 public enum ReportTyoe {
+    DAILY_STATISTICS,   // One summary row per day
+    WEEKLY_STATISTICS,  // One summary row per week (weeks start on Monday)
+    MONTHLY_STATISTICS, // One summary row per calendar month
+    CUSTOM              // Arbitrary date range, summarized per day
 }
@@ -5,5 +5,6 @@ public enum TicketStatus {
     CALLED,     // Doctor has pressed "Call Next" (Blinking on screen)
     IN_SERVICE, // Patient is currently with the doctor
     COMPLETED,  // Doctor has finished the consultation
-    SKIPPED     // Patient did not show up
+    SKIPPED,    // Patient did not show up
+    EXPIRED     // Still waiting when the day ended (set by the day rollover)
 }
\ No newline at end of file
@@ -0,0 +1,235 @@
+package com.stangelo.saintangelo.services;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+import com.stangelo.saintangelo.dao.AppointmentDAO;
+import com.stangelo.saintangelo.dao.DedicatedConnectionScope;
+import com.stangelo.saintangelo.models.Appointment;
+import com.stangelo.saintangelo.models.AppointmentStatus;
+
+/**
+ * Appointment Calendar Service
+ * Keeps the reception calendar's appointments by month, loaded with one range
+ * query per month instead of one query per day cell.
+ *
+ * The months either side of the one shown are prefetched in the background, on
+ * a dedicated connection, so paging the calendar normally needs no query at all.
+ * Appointments booked or changed through this service drop the cached month they
+ * fall in; months also expire after a short time so bookings made at other desks
+ * appear.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class AppointmentCalendarService {
+
+    private static final Logger logger = Logger.getLogger(AppointmentCalendarService.class.getName());
+
+    private static final long MONTH_TTL_MILLIS = 60_000;
+
+    // Months kept either side of the one last shown; older ones are dropped
+    private static final int MONTHS_KEPT = 3;
+
+    // Singleton instance
+    private static AppointmentCalendarService instance;
+
+    private final AppointmentDAO appointmentDAO;
+    private final ExecutorService prefetcher;
+
+    // Loaded (or loading) months; a load in flight is shared by every caller
+    private final Map<YearMonth, CachedMonth> months = new ConcurrentHashMap<>();
+
+    private record CachedMonth(CompletableFuture<Map<LocalDate, List<Appointment>>> days, long loadedAt) {
+
+        boolean isFresh() {
+            return System.currentTimeMillis() - loadedAt <= MONTH_TTL_MILLIS
+                    && !days.isCompletedExceptionally();
+        }
+    }
+
+    /**
+     * Private constructor for singleton
+     */
+    private AppointmentCalendarService() {
+        this.appointmentDAO = new AppointmentDAO();
+        this.prefetcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "appointment-calendar-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the singleton instance
+     */
+    public static synchronized AppointmentCalendarService getInstance() {
+        if (instance == null) {
+            instance = new AppointmentCalendarService();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the appointments of a month by date, then prefetches the months either side
+     * Loads the month on the calling thread if it is not cached; waits for a prefetch
+     * of it already in flight instead of querying again. If that prefetch fails, the
+     * month is loaded again on the calling thread.
+     *
+     * @param month Month shown on the calendar
+     * @return Appointments by date, ordered by time; days without appointments are missing
+     */
+    public Map<LocalDate, List<Appointment>> getMonth(YearMonth month) {
+        CachedMonth cached;
+        do {
+            cached = months.compute(month, (key, current) ->
+                    current != null && current.isFresh() ? current : new CachedMonth(new CompletableFuture<>(), System.currentTimeMillis()));
+            if (!cached.days().isDone()) {
+                load(month, cached);
+            }
+        } while (cached.days().isCompletedExceptionally());
+        prefetch(month.minusMonths(1));
+        prefetch(month.plusMonths(1));
+        months.keySet().removeIf(key -> Math.abs(ChronoUnit.MONTHS.between(month, key)) > MONTHS_KEPT);
+        return cached.days().join();
+    }
+
+    /**
+     * Gets the appointments on one date
+     *
+     * @param date Date to look up
+     * @return Appointments ordered by time, empty if there are none
+     */
+    public List<Appointment> getDay(LocalDate date) {
+        return getMonth(YearMonth.from(date)).getOrDefault(date, Collections.emptyList());
+    }
+
+    /**
+     * Books an appointment and drops the cached month it falls in
+     *
+     * @param appointment Appointment to create
+     * @return true if successful, false otherwise
+     */
+    public boolean create(Appointment appointment) {
+        boolean created = appointmentDAO.create(appointment);
+        if (created) {
+            invalidate(appointment.getAppointmentDate());
+        }
+        return created;
+    }
+
+    /**
+     * Changes an appointment's status and drops the cached month it falls in
+     *
+     * @param appointmentId Appointment ID
+     * @param status New status
+     * @return true if successful, false otherwise
+     */
+    public boolean updateStatus(String appointmentId, AppointmentStatus status) {
+        boolean updated = appointmentDAO.updateStatus(appointmentId, status);
+        if (updated) {
+            YearMonth month = findCachedMonth(appointmentId);
+            if (month != null) {
+                months.remove(month);
+            } else {
+                // Not in a loaded month; it may be in one still loading
+                months.values().removeIf(cached -> !cached.days().isDone());
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Drops the cached month containing a date so the next request reads the database
+     */
+    public void invalidate(LocalDate date) {
+        months.remove(YearMonth.from(date));
+    }
+
+    /**
+     * Drops all cached months
+     */
+    public void invalidateAll() {
+        months.clear();
+    }
+
+    private void prefetch(YearMonth month) {
+        CachedMonth[] created = new CachedMonth[1];
+        months.compute(month, (key, current) -> {
+            if (current != null && current.isFresh()) {
+                return current;
+            }
+            created[0] = new CachedMonth(new CompletableFuture<>(), System.currentTimeMillis());
+            return created[0];
+        });
+        if (created[0] != null) {
+            prefetcher.execute(() -> prefetchLoad(month, created[0]));
+        }
+    }
+
+    /**
+     * Loads a prefetched month on a dedicated connection, so it does not race the
+     * UI thread's queries on the shared one
+     */
+    private void prefetchLoad(YearMonth month, CachedMonth cached) {
+        try {
+            DedicatedConnectionScope.run(() -> load(month, cached));
+        } catch (SQLException e) {
+            logger.warning("Could not prefetch appointments for " + month + ": " + e.getMessage());
+            cached.days().completeExceptionally(e);
+            months.remove(month, cached);
+        }
+    }
+
+    /**
+     * Runs the range query for a month and completes its cache entry
+     * Only the first caller for an entry queries; later ones return at once.
+     */
+    private void load(YearMonth month, CachedMonth cached) {
+        synchronized (cached) {
+            if (cached.days().isDone()) {
+                return;
+            }
+            try {
+                Map<LocalDate, List<Appointment>> days = new TreeMap<>();
+                for (Appointment appointment : appointmentDAO.findByDateRange(month.atDay(1), month.atEndOfMonth())) {
+                    days.computeIfAbsent(appointment.getAppointmentDate(), date -> new ArrayList<>()).add(appointment);
+                }
+                cached.days().complete(Collections.unmodifiableMap(days));
+            } catch (RuntimeException e) {
+                cached.days().completeExceptionally(e);
+                months.remove(month, cached);
+                throw e;
+            }
+        }
+    }
+
+    private YearMonth findCachedMonth(String appointmentId) {
+        for (Map.Entry<YearMonth, CachedMonth> entry : months.entrySet()) {
+            Map<LocalDate, List<Appointment>> days = entry.getValue().days().getNow(null);
+            if (days == null) {
+                continue;
+            }
+            for (List<Appointment> appointments : days.values()) {
+                for (Appointment appointment : appointments) {
+                    if (appointment.getAppointmentId().equals(appointmentId)) {
+                        return entry.getKey();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
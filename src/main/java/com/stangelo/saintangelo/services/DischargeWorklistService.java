@@ -0,0 +1,127 @@
+package com.stangelo.saintangelo.services;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.stangelo.saintangelo.dao.DischargeDAO;
+import com.stangelo.saintangelo.models.DischargeStatus;
+import com.stangelo.saintangelo.models.DischargeWorklistItem;
+
+/**
+ * Discharge Worklist Service
+ * Caches pages of the discharge worklist so switching filters, paging back
+ * and refreshing after an action do not query the database again.
+ *
+ * Discharge changes made at this desk are applied to the cached pages
+ * directly: unfiltered pages are updated in place, and filtered pages the
+ * change could move rows in or out of are dropped. Pages also expire after
+ * a short time so visits completed by doctors appear without a manual refresh.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class DischargeWorklistService {
+
+    /** Rows per worklist page */
+    public static final int PAGE_SIZE = 50;
+
+    private static final long PAGE_TTL_MILLIS = 30_000;
+    private static final int MAX_CACHED_PAGES = 20;
+
+    // Singleton instance
+    private static DischargeWorklistService instance;
+
+    private final DischargeDAO dischargeDAO;
+
+    // Cached pages by filter, search and page number, least recently used first
+    private final Map<PageKey, CachedPage> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PageKey, CachedPage> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+
+    private record PageKey(DischargeStatus status, String searchTerm, int page) {
+    }
+
+    private static final class CachedPage {
+        private final List<DischargeWorklistItem> items;
+        private final long loadedAt;
+
+        private CachedPage(List<DischargeWorklistItem> items) {
+            this.items = items;
+            this.loadedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Private constructor for singleton
+     */
+    private DischargeWorklistService() {
+        this.dischargeDAO = new DischargeDAO();
+    }
+
+    /**
+     * Gets the singleton instance
+     */
+    public static synchronized DischargeWorklistService getInstance() {
+        if (instance == null) {
+            instance = new DischargeWorklistService();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets one page of the worklist, from the cache when it is still fresh
+     *
+     * @param status Status to show, or null for all
+     * @param searchTerm Text in the patient ID or name, or empty for all
+     * @param page Page number, starting at 0
+     * @return Up to PAGE_SIZE items, newest visit first
+     */
+    public synchronized List<DischargeWorklistItem> getPage(DischargeStatus status, String searchTerm, int page) {
+        PageKey key = new PageKey(status, searchTerm == null ? "" : searchTerm.trim().toLowerCase(), page);
+        CachedPage cached = pages.get(key);
+        if (cached == null || System.currentTimeMillis() - cached.loadedAt > PAGE_TTL_MILLIS) {
+            cached = new CachedPage(dischargeDAO.findWorklist(key.status(), key.searchTerm(), page * PAGE_SIZE, PAGE_SIZE));
+            pages.put(key, cached);
+        }
+        return new ArrayList<>(cached.items);
+    }
+
+    /**
+     * Applies a discharge record created or changed at this desk to the cached pages
+     *
+     * @param patientId Patient whose latest discharge changed
+     * @param dischargeId Discharge record ID
+     * @param status New status of the record
+     */
+    public synchronized void dischargeChanged(String patientId, String dischargeId, DischargeStatus status) {
+        Iterator<Map.Entry<PageKey, CachedPage>> entries = pages.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<PageKey, CachedPage> entry = entries.next();
+            List<DischargeWorklistItem> items = entry.getValue().items;
+            boolean listed = items.stream().anyMatch(item -> item.patientId().equals(patientId));
+            if (entry.getKey().status() != null) {
+                // The change may move rows of this patient into or out of a filtered page
+                if (listed || entry.getKey().status() == status) {
+                    entries.remove();
+                }
+                continue;
+            }
+            if (listed) {
+                items.replaceAll(item -> item.patientId().equals(patientId) ? item.withDischarge(dischargeId, status) : item);
+            }
+        }
+    }
+
+    /**
+     * Drops all cached pages so the next request reads the database
+     */
+    public synchronized void invalidate() {
+        pages.clear();
+    }
+}
@@ -0,0 +1,194 @@
+package com.stangelo.saintangelo.services;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import com.stangelo.saintangelo.utils.MetricsRegistry;
+
+import javafx.application.Platform;
+
+/**
+ * FX Stall Monitor
+ * Detects when the JavaFX Application Thread stops responding and records what
+ * it was doing, so UI freezes (usually a database call on the UI thread) show up
+ * in the logs and the metrics instead of only as complaints.
+ *
+ * A watchdog thread posts a heartbeat to the FX thread with Platform.runLater
+ * every 100 ms and waits for it to run. How long each heartbeat waited is
+ * recorded as "fx.runlater.delay". This is the latency of queued FX work, not
+ * the interval between pulses: pulses only run when something needs rendering,
+ * and measuring them would need an AnimationTimer that forces one every frame.
+ * A blocked FX thread delays both alike.
+ *
+ * When a heartbeat is still waiting after the stall threshold, the watchdog
+ * takes the FX thread's stack. When the heartbeat finally runs, the stall is
+ * counted ("fx.runlater.stalls"), timed under the application method it was in
+ * ("fx.runlater.stall.&lt;Class.method&gt;", DAO frames first) and logged with
+ * that stack.
+ *
+ * Costs one queued runnable per heartbeat; stacks are only taken during a stall.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class FxStallMonitor {
+
+    private static final Logger logger = Logger.getLogger(FxStallMonitor.class.getName());
+
+    private static final long HEARTBEAT_MILLIS = 100;
+    private static final long STALL_THRESHOLD_MILLIS = 250;
+
+    // A stall this long is logged while it is still going on, in case it never ends
+    private static final long HANG_REPORT_MILLIS = 5000;
+
+    private static final String APP_PACKAGE = "com.stangelo.saintangelo.";
+    private static final int LOGGED_FRAMES = 12;
+
+    // Singleton instance
+    private static FxStallMonitor instance;
+
+    private ScheduledExecutorService watchdog;
+    private volatile Thread fxThread;
+
+    // nanoTime when the heartbeat now waiting was posted, 0 when none is waiting
+    private volatile long pendingSince;
+
+    // Stack taken during the current stall, tagged with the heartbeat it belongs to
+    private volatile StallCapture capture;
+    private boolean hangReported;
+
+    private record StallCapture(long heartbeat, StackTraceElement[] stack) {
+    }
+
+    /**
+     * Private constructor for singleton
+     */
+    private FxStallMonitor() {
+    }
+
+    /**
+     * Gets the singleton instance
+     */
+    public static synchronized FxStallMonitor getInstance() {
+        if (instance == null) {
+            instance = new FxStallMonitor();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts watching the FX thread; the JavaFX toolkit must be running
+     */
+    public synchronized void start() {
+        if (watchdog != null) {
+            return;
+        }
+        watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fx-stall-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchdog.scheduleWithFixedDelay(this::check, HEARTBEAT_MILLIS, HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops watching
+     */
+    public synchronized void shutdown() {
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+            watchdog = null;
+        }
+    }
+
+    /**
+     * Runs on the watchdog thread: posts a heartbeat, or inspects the one still waiting
+     */
+    private void check() {
+        long since = pendingSince;
+        long now = System.nanoTime();
+        if (since == 0) {
+            pendingSince = now;
+            Platform.runLater(() -> beat(now));
+            return;
+        }
+
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(now - since);
+        Thread thread = fxThread;
+        if (waitedMillis < STALL_THRESHOLD_MILLIS || thread == null) {
+            return;
+        }
+        StallCapture current = capture;
+        if (current == null || current.heartbeat() != since) {
+            capture = new StallCapture(since, thread.getStackTrace());
+            hangReported = false;
+        } else if (waitedMillis >= HANG_REPORT_MILLIS && !hangReported) {
+            hangReported = true;
+            StackTraceElement[] stack = thread.getStackTrace();
+            logger.warning("FX thread has run no queued work for " + waitedMillis + " ms so far, busy in " + attribute(stack)
+                    + formatStack(stack));
+        }
+    }
+
+    /**
+     * Runs on the FX thread when the heartbeat posted at the given time gets its turn
+     */
+    private void beat(long postedAt) {
+        fxThread = Thread.currentThread();
+        long delay = System.nanoTime() - postedAt;
+        MetricsRegistry.timer("fx.runlater.delay").record(delay);
+
+        long delayMillis = TimeUnit.NANOSECONDS.toMillis(delay);
+        if (delayMillis >= STALL_THRESHOLD_MILLIS) {
+            StallCapture current = capture;
+            StackTraceElement[] stack = current != null && current.heartbeat() == postedAt ? current.stack() : null;
+            String location = stack != null ? attribute(stack) : "unknown";
+
+            MetricsRegistry.counter("fx.runlater.stalls").increment();
+            MetricsRegistry.timer("fx.runlater.stall." + location).record(delay);
+            logger.warning("FX thread ran no queued work for " + delayMillis + " ms, busy in " + location
+                    + (stack != null ? formatStack(stack) : ""));
+        }
+        capture = null;
+        pendingSince = 0;
+    }
+
+    /**
+     * Names the application method the FX thread was in
+     * A DAO or database frame is preferred, since that is the usual cause; otherwise
+     * the innermost application frame (typically a controller method).
+     */
+    static String attribute(StackTraceElement[] stack) {
+        StackTraceElement innermost = null;
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (!className.startsWith(APP_PACKAGE) || className.startsWith(FxStallMonitor.class.getName())) {
+                continue;
+            }
+            if (className.startsWith(APP_PACKAGE + "dao.") || className.startsWith(APP_PACKAGE + "utils.Database")) {
+                return describe(frame);
+            }
+            if (innermost == null) {
+                innermost = frame;
+            }
+        }
+        return innermost != null ? describe(innermost) : "javafx";
+    }
+
+    private static String describe(StackTraceElement frame) {
+        return MetricsRegistry.codeLocation(frame.getClassName(), frame.getMethodName());
+    }
+
+    private static String formatStack(StackTraceElement[] stack) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < stack.length && i < LOGGED_FRAMES; i++) {
+            text.append("\n\tat ").append(stack[i]);
+        }
+        if (stack.length > LOGGED_FRAMES) {
+            text.append("\n\t... ").append(stack.length - LOGGED_FRAMES).append(" more");
+        }
+        return text.toString();
+    }
+}
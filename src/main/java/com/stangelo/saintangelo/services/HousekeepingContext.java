@@ -0,0 +1,85 @@
+package com.stangelo.saintangelo.services;
+
+import java.sql.SQLException;
+
+/**
+ * Housekeeping Context
+ * Throttling settings for one housekeeping job run
+ *
+ * Jobs do their work as a series of small batches through {@link #repeat}.
+ * The batch size, the pause between batches and the time budget depend on
+ * whether the clinic is open; when the budget runs out the run stops early
+ * and is marked PARTIAL so it resumes on a later tick.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public final class HousekeepingContext {
+
+    /**
+     * One batch of work; returns how many rows it handled
+     */
+    @FunctionalInterface
+    public interface BatchStep {
+        int run(int batchSize) throws SQLException;
+    }
+
+    private final int batchSize;
+    private final long pauseMillis;
+    private final long deadlineNanos;
+    private boolean incomplete;
+
+    HousekeepingContext(int batchSize, long pauseMillis, long budgetMillis) {
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.deadlineNanos = System.nanoTime() + budgetMillis * 1_000_000L;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Whether the run may start another batch; marks the run incomplete once the budget is spent
+     */
+    public boolean hasTimeLeft() {
+        if (System.nanoTime() - deadlineNanos >= 0) {
+            incomplete = true;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sleeps between batches so other sessions can take the locks
+     */
+    public void pause() throws InterruptedException {
+        Thread.sleep(pauseMillis);
+    }
+
+    /**
+     * Runs batches until one comes back short (nothing left) or the time budget is spent
+     *
+     * @param step Batch to run
+     * @return Total rows handled
+     */
+    public int repeat(BatchStep step) throws SQLException, InterruptedException {
+        int total = 0;
+        while (hasTimeLeft()) {
+            int handled = step.run(batchSize);
+            total += handled;
+            if (handled < batchSize) {
+                break;
+            }
+            pause();
+        }
+        return total;
+    }
+
+    /**
+     * Whether the run stopped before finishing its work
+     */
+    public boolean isIncomplete() {
+        return incomplete;
+    }
+}
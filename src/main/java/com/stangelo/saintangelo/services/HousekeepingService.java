@@ -0,0 +1,355 @@
+package com.stangelo.saintangelo.services;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.stangelo.saintangelo.dao.ActivityLogDAO;
+import com.stangelo.saintangelo.dao.DischargeDAO;
+import com.stangelo.saintangelo.dao.HousekeepingDAO;
+import com.stangelo.saintangelo.dao.RegistrationDAO;
+import com.stangelo.saintangelo.dao.TicketDAO;
+import com.stangelo.saintangelo.dao.UserDAO;
+import com.stangelo.saintangelo.models.HousekeepingRun;
+import com.stangelo.saintangelo.models.HousekeepingStatus;
+
+/**
+ * Housekeeping Service
+ * Runs the database maintenance jobs on a daily schedule
+ *
+ * Jobs:
+ * - ticket-rollover: expires and moves previous days' tickets to tickets_history
+ * - ticket-history-compaction: rolls history older than 3 years into ticket_daily_rollups, then deletes it
+ * - archived-user-purge: deletes users archived more than 30 days ago
+ * - activity-log-retention: deletes activity logs older than 1 year
+ * - discharge-retention: deletes discharge records older than 5 years
+ * - registration-key-purge: deletes registration request keys older than 1 day
+ * - statistics-refresh: refreshes index statistics (ANALYZE TABLE) on the busiest tables
+ *
+ * Every workstation runs this service, but a tick only does work while it
+ * holds the "saintangelo.housekeeping" advisory lock, so one workstation runs
+ * the jobs at a time. Last runs are kept in housekeeping_runs and compared
+ * against the database clock, so a job missed while every workstation was
+ * off runs on the next tick.
+ *
+ * Deletes are done in small keyed batches with a pause between them. During
+ * clinic hours batches are smaller and each job gets a short time budget; a
+ * job that runs out of time is marked PARTIAL and resumes later.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class HousekeepingService {
+
+    private static final Logger logger = Logger.getLogger(HousekeepingService.class.getName());
+
+    private static final String LOCK_NAME = "saintangelo.housekeeping";
+
+    // How often workstations check for due jobs
+    private static final long TICK_MINUTES = 5;
+    private static final long INITIAL_DELAY_SECONDS = 15;
+
+    // Unfinished or failed jobs are retried after this long
+    private static final long RETRY_MINUTES = 15;
+
+    // Throttling during and outside clinic hours
+    private static final LocalTime CLINIC_OPENS = LocalTime.of(7, 0);
+    private static final LocalTime CLINIC_CLOSES = LocalTime.of(20, 0);
+    private static final int CLINIC_BATCH_SIZE = 100;
+    private static final long CLINIC_PAUSE_MILLIS = 500;
+    private static final long CLINIC_BUDGET_MILLIS = TimeUnit.MINUTES.toMillis(2);
+    private static final int OFF_HOURS_BATCH_SIZE = 1000;
+    private static final long OFF_HOURS_PAUSE_MILLIS = 50;
+    private static final long OFF_HOURS_BUDGET_MILLIS = TimeUnit.MINUTES.toMillis(20);
+
+    // Retention periods
+    private static final int TICKET_HISTORY_YEARS = 3;
+    private static final int ARCHIVED_USER_DAYS = 30;
+    private static final int ACTIVITY_LOG_DAYS = 365;
+    private static final int DISCHARGE_YEARS = 5;
+    private static final int REGISTRATION_KEY_DAYS = 1;
+
+    private static final String[] ANALYZED_TABLES = {
+            "tickets", "tickets_history", "activity_logs", "patients", "discharges", "appointments"
+    };
+
+    /**
+     * A maintenance job
+     */
+    @FunctionalInterface
+    private interface Job {
+        int run(HousekeepingContext context) throws SQLException, InterruptedException;
+    }
+
+    /**
+     * A job and the time of day it runs
+     */
+    private static final class ScheduledJob {
+        private final String name;
+        private final LocalTime runAt;
+        private final Job job;
+
+        private ScheduledJob(String name, LocalTime runAt, Job job) {
+            this.name = name;
+            this.runAt = runAt;
+            this.job = job;
+        }
+    }
+
+    // Singleton instance
+    private static HousekeepingService instance;
+
+    private final HousekeepingDAO housekeepingDAO;
+    private final TicketDAO ticketDAO;
+    private final UserDAO userDAO;
+    private final ActivityLogDAO activityLogDAO;
+    private final DischargeDAO dischargeDAO;
+    private final RegistrationDAO registrationDAO;
+    private final List<ScheduledJob> jobs;
+    private final String hostName;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Private constructor for singleton
+     */
+    private HousekeepingService() {
+        this.housekeepingDAO = new HousekeepingDAO();
+        this.ticketDAO = new TicketDAO();
+        this.userDAO = new UserDAO();
+        this.activityLogDAO = new ActivityLogDAO();
+        this.dischargeDAO = new DischargeDAO();
+        this.registrationDAO = new RegistrationDAO();
+        this.hostName = resolveHostName();
+        this.jobs = List.of(
+                new ScheduledJob("ticket-rollover", LocalTime.of(0, 5),
+                        context -> TicketRolloverService.getInstance().rollover(context)),
+                new ScheduledJob("ticket-history-compaction", LocalTime.of(1, 0), this::compactTicketHistory),
+                new ScheduledJob("archived-user-purge", LocalTime.of(1, 30), this::purgeArchivedUsers),
+                new ScheduledJob("activity-log-retention", LocalTime.of(2, 0), this::deleteOldActivityLogs),
+                new ScheduledJob("discharge-retention", LocalTime.of(2, 30), this::deleteOldDischarges),
+                new ScheduledJob("registration-key-purge", LocalTime.of(2, 45), this::purgeRegistrationKeys),
+                new ScheduledJob("statistics-refresh", LocalTime.of(3, 0), this::refreshStatistics));
+    }
+
+    /**
+     * Gets the singleton instance
+     */
+    public static synchronized HousekeepingService getInstance() {
+        if (instance == null) {
+            instance = new HousekeepingService();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts checking for due jobs in the background
+     * Does nothing if already started.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "housekeeping");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, INITIAL_DELAY_SECONDS,
+                TimeUnit.MINUTES.toSeconds(TICK_MINUTES), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the scheduler; a job in progress is interrupted between batches
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Runs every due job if this workstation gets the housekeeping lock
+     */
+    private void tick() {
+        try {
+            LocalDateTime now = housekeepingDAO.getDatabaseTime();
+            if (!anyDue(housekeepingDAO.findAllRuns(), now)) {
+                return;
+            }
+
+            try (HousekeepingDAO.AdvisoryLock lock = housekeepingDAO.tryLock(LOCK_NAME)) {
+                if (lock == null) {
+                    return; // Another workstation is running housekeeping
+                }
+                // Re-read under the lock: another workstation may have just finished
+                Map<String, HousekeepingRun> runs = housekeepingDAO.findAllRuns();
+                for (ScheduledJob job : jobs) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    if (isDue(job, runs.get(job.name), now)) {
+                        runJob(job, now.toLocalTime());
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("Housekeeping skipped: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // Keep the scheduler alive; an exception here would cancel future ticks
+            logger.log(Level.SEVERE, "Unexpected housekeeping error", e);
+        }
+    }
+
+    private boolean anyDue(Map<String, HousekeepingRun> runs, LocalDateTime now) {
+        for (ScheduledJob job : jobs) {
+            if (isDue(job, runs.get(job.name), now)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether a job should run now
+     * A job still marked RUNNING when the lock is free was left by a
+     * workstation that stopped mid-run, so it is retried like a failed one.
+     */
+    private static boolean isDue(ScheduledJob job, HousekeepingRun last, LocalDateTime now) {
+        if (last == null || last.getLastStarted() == null) {
+            return true;
+        }
+        switch (last.getStatus()) {
+            case PARTIAL:
+            case FAILED:
+            case RUNNING:
+                LocalDateTime finished = last.getLastFinished() != null && last.getLastFinished().isAfter(last.getLastStarted())
+                        ? last.getLastFinished()
+                        : last.getLastStarted();
+                return !finished.plusMinutes(RETRY_MINUTES).isAfter(now);
+            default:
+                LocalDateTime latestOccurrence = LocalDateTime.of(now.toLocalDate(), job.runAt);
+                if (latestOccurrence.isAfter(now)) {
+                    latestOccurrence = latestOccurrence.minusDays(1);
+                }
+                return last.getLastStarted().isBefore(latestOccurrence);
+        }
+    }
+
+    private void runJob(ScheduledJob job, LocalTime now) {
+        HousekeepingContext context = isClinicHours(now)
+                ? new HousekeepingContext(CLINIC_BATCH_SIZE, CLINIC_PAUSE_MILLIS, CLINIC_BUDGET_MILLIS)
+                : new HousekeepingContext(OFF_HOURS_BATCH_SIZE, OFF_HOURS_PAUSE_MILLIS, OFF_HOURS_BUDGET_MILLIS);
+
+        housekeepingDAO.markStarted(job.name, hostName);
+        long started = System.currentTimeMillis();
+        try {
+            int rows = job.job.run(context);
+            HousekeepingStatus status = context.isIncomplete() ? HousekeepingStatus.PARTIAL : HousekeepingStatus.SUCCEEDED;
+            long elapsed = System.currentTimeMillis() - started;
+            housekeepingDAO.markFinished(job.name, status, rows, elapsed + " ms");
+            if (rows > 0 || status != HousekeepingStatus.SUCCEEDED) {
+                logger.info(String.format("Housekeeping job %s %s: %d rows in %d ms",
+                        job.name, status, rows, elapsed));
+            }
+        } catch (InterruptedException e) {
+            housekeepingDAO.markFinished(job.name, HousekeepingStatus.PARTIAL, 0, "Interrupted");
+            Thread.currentThread().interrupt();
+        } catch (SQLException | RuntimeException e) {
+            logger.log(Level.WARNING, "Housekeeping job " + job.name + " failed", e);
+            housekeepingDAO.markFinished(job.name, HousekeepingStatus.FAILED, 0, e.getMessage());
+        }
+    }
+
+    private int compactTicketHistory(HousekeepingContext context) throws SQLException, InterruptedException {
+        LocalDate cutoff = LocalDate.now().minusYears(TICKET_HISTORY_YEARS);
+        int total = 0;
+        LocalDate day;
+        while (context.hasTimeLeft() && (day = ticketDAO.findOldestHistoryDay(cutoff)) != null) {
+            // Summarise the day first so deleting it never loses the statistics
+            ticketDAO.rollUpHistoryDay(day);
+            LocalDate compacted = day;
+            total += context.repeat(batchSize -> ticketDAO.deleteHistoryDay(compacted, batchSize));
+            context.pause();
+        }
+        return total;
+    }
+
+    private int purgeArchivedUsers(HousekeepingContext context) throws SQLException, InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(ARCHIVED_USER_DAYS);
+        int deleted = 0;
+        List<String> userIds;
+        // Referenced users are excluded by the query; stop if a batch deletes nothing anyway
+        // (referenced since it was read), or the same batch would come back forever
+        while (context.hasTimeLeft()
+                && !(userIds = userDAO.findArchivedUserIdsBefore(cutoff, context.getBatchSize())).isEmpty()) {
+            int batchDeleted = 0;
+            for (String userId : userIds) {
+                if (!context.hasTimeLeft()) {
+                    break;
+                }
+                if (userDAO.deleteArchivedUser(userId)) {
+                    batchDeleted++;
+                }
+                context.pause();
+            }
+            deleted += batchDeleted;
+            if (batchDeleted == 0) {
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    private int deleteOldActivityLogs(HousekeepingContext context) throws SQLException, InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(ACTIVITY_LOG_DAYS);
+        return context.repeat(batchSize -> activityLogDAO.deleteOlderThan(cutoff, batchSize));
+    }
+
+    private int deleteOldDischarges(HousekeepingContext context) throws SQLException, InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minusYears(DISCHARGE_YEARS);
+        return context.repeat(batchSize -> dischargeDAO.deleteDischargedBefore(cutoff, batchSize));
+    }
+
+    private int purgeRegistrationKeys(HousekeepingContext context) throws SQLException, InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(REGISTRATION_KEY_DAYS);
+        return context.repeat(batchSize -> registrationDAO.deleteOlderThan(cutoff, batchSize));
+    }
+
+    private int refreshStatistics(HousekeepingContext context) throws SQLException, InterruptedException {
+        int analyzed = 0;
+        for (String table : ANALYZED_TABLES) {
+            if (!context.hasTimeLeft()) {
+                break;
+            }
+            housekeepingDAO.analyzeTable(table);
+            analyzed++;
+            context.pause();
+        }
+        return analyzed;
+    }
+
+    private static boolean isClinicHours(LocalTime time) {
+        return !time.isBefore(CLINIC_OPENS) && time.isBefore(CLINIC_CLOSES);
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.stangelo.saintangelo.services;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.stangelo.saintangelo.dao.DedicatedConnectionScope;
+import com.stangelo.saintangelo.dao.PatientDAO;
+import com.stangelo.saintangelo.dao.TicketDAO;
+import com.stangelo.saintangelo.models.Patient;
+import com.stangelo.saintangelo.models.PriorityLevel;
+import com.stangelo.saintangelo.models.Ticket;
+import com.stangelo.saintangelo.models.TicketStatus;
+import com.stangelo.saintangelo.utils.CircuitBreaker;
+import com.stangelo.saintangelo.utils.DatabaseConnection;
+import com.stangelo.saintangelo.utils.WriteAheadJournal;
+
+/**
+ * Offline Journal Service
+ * Keeps reception issuing tickets while the database is unreachable
+ *
+ * While the database circuit breaker is open, QueueManager records queue
+ * operations here instead of failing:
+ * - REGISTER: a new patient registered at reception
+ * - ENQUEUE: a ticket issued
+ * - CLAIM: a ticket called by a doctor
+ * - CLOSE: a ticket completed or skipped
+ *
+ * Operations are written to a local {@link WriteAheadJournal} (under
+ * ~/.saintangelo/journal) and are on disk before the call returns. When the
+ * database is reachable again they are replayed in order on a background
+ * thread. Every replay statement only changes rows still in the expected
+ * state, so an operation replayed twice (after a crash) has no further effect.
+ * Operations the database rejects (e.g. a ticket for an unknown patient) are
+ * logged and skipped.
+ *
+ * The journal is per workstation: tickets issued offline appear on other
+ * workstations once they have been replayed.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class OfflineJournalService {
+
+    private static final Logger logger = Logger.getLogger(OfflineJournalService.class.getName());
+
+    private static final Path JOURNAL_DIRECTORY =
+            Paths.get(System.getProperty("user.home"), ".saintangelo", "journal");
+
+    // Longest time a journaled operation waits to share an fsync with others
+    private static final long FLUSH_INTERVAL_MILLIS = 20;
+
+    // How often pending entries are retried while the database is down
+    private static final long REPLAY_CHECK_SECONDS = 10;
+
+    // Entries applied between checkpoint writes
+    private static final int CHECKPOINT_EVERY = 50;
+
+    // Operation codes
+    private static final String REGISTER = "REGISTER";
+    private static final String ENQUEUE = "ENQUEUE";
+    private static final String CLAIM = "CLAIM";
+    private static final String CLOSE = "CLOSE";
+
+    private static final char SEPARATOR = '\t';
+    private static final String NULL_FIELD = "~";
+
+    // Singleton instance
+    private static OfflineJournalService instance;
+
+    private final TicketDAO ticketDAO;
+    private final PatientDAO patientDAO;
+    private final ScheduledExecutorService replayer;
+
+    // Null when the journal could not be opened; offline operations are then refused
+    private final WriteAheadJournal journal;
+
+    // Guarded by this
+    private boolean pending;
+
+    /**
+     * Private constructor for singleton
+     */
+    private OfflineJournalService() {
+        this.ticketDAO = new TicketDAO();
+        this.patientDAO = new PatientDAO();
+        this.journal = openJournal();
+        this.pending = journal != null && journal.hasPending();
+
+        this.replayer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (journal != null) {
+            DatabaseConnection.getCircuitBreaker().addListener(state -> {
+                if (state == CircuitBreaker.State.CLOSED && hasPendingEntries()) {
+                    replayer.execute(this::replayIfReachable);
+                }
+            });
+            replayer.scheduleWithFixedDelay(this::replayIfReachable,
+                    pending ? 0 : REPLAY_CHECK_SECONDS, REPLAY_CHECK_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Gets the singleton instance
+     */
+    public static synchronized OfflineJournalService getInstance() {
+        if (instance == null) {
+            instance = new OfflineJournalService();
+        }
+        return instance;
+    }
+
+    /**
+     * Checks whether operations journaled offline are still waiting to be replayed
+     * The in-memory queue must not be reloaded from the database until they are.
+     */
+    public synchronized boolean hasPendingEntries() {
+        return pending;
+    }
+
+    /**
+     * Journals a patient registration
+     *
+     * @param patient New patient
+     * @return true if the registration is on disk
+     */
+    public boolean recordRegistration(Patient patient) {
+        return record(REGISTER, patient.getId(), patient.getName(), Integer.toString(patient.getAge()),
+                patient.getContactNumber(), patient.getHomeAddress(), patient.getGender(),
+                patient.getEmergencycontactPerson(), patient.getEmergencycontactNumber(),
+                Boolean.toString(patient.isSeniorCitizen()), patient.getNotes(),
+                patient.getLastVisitDate(), patient.getBloodType());
+    }
+
+    /**
+     * Journals a newly issued ticket
+     *
+     * @param ticket Ticket (status WAITING)
+     * @return true if the ticket is on disk
+     */
+    public boolean recordEnqueue(Ticket ticket) {
+        return record(ENQUEUE, ticket.getVisitId(), ticket.getTicketNumber(), ticket.getPatient().getId(),
+                ticket.getPriority() != null ? ticket.getPriority().name() : PriorityLevel.REGULAR.name(),
+                ticket.getServiceType(), ticket.getCreatedTime().toString());
+    }
+
+    /**
+     * Journals a doctor calling a ticket
+     *
+     * @param visitId Visit ID
+     * @param doctorId Doctor ID
+     * @param calledTime When the ticket was called
+     * @return true if the call is on disk
+     */
+    public boolean recordClaim(String visitId, String doctorId, LocalDateTime calledTime) {
+        return record(CLAIM, visitId, doctorId, calledTime.toString());
+    }
+
+    /**
+     * Journals a ticket being completed or skipped
+     *
+     * @param visitId Visit ID
+     * @param status COMPLETED or SKIPPED
+     * @param closedTime When the ticket was closed
+     * @return true if the change is on disk
+     */
+    public boolean recordClose(String visitId, TicketStatus status, LocalDateTime closedTime) {
+        return record(CLOSE, visitId, status.name(), closedTime.toString());
+    }
+
+    /**
+     * Stops replaying and closes the journal
+     */
+    public void shutdown() {
+        replayer.shutdownNow();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private boolean record(String... fields) {
+        if (journal == null) {
+            return false;
+        }
+        try {
+            journal.appendDurably(encode(fields));
+            synchronized (this) {
+                pending = true;
+            }
+            return true;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Could not journal " + fields[0] + " operation", e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Replays pending entries if the database accepts a connection
+     * Runs on the replay thread only, on its own dedicated connection so it never
+     * touches the shared connection of the UI thread.
+     */
+    private void replayIfReachable() {
+        if (!hasPendingEntries()) {
+            return;
+        }
+        try {
+            DedicatedConnectionScope.run(() -> {
+                if (replay()) {
+                    // Everything is in the database now; reload the shared queue from it
+                    QueueManager.getInstance().syncFromDatabase();
+                }
+            });
+        } catch (SQLException e) {
+            logger.fine("Database still unreachable, journal replay postponed: " + e.getMessage());
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Could not read offline journal", e);
+        } catch (RuntimeException e) {
+            // Keep the scheduled retries alive
+            logger.log(Level.SEVERE, "Unexpected error replaying offline journal", e);
+        }
+    }
+
+    /**
+     * Applies pending entries in order until done or the database drops again
+     *
+     * @return true if no entries are left
+     */
+    private boolean replay() throws IOException {
+        List<WriteAheadJournal.Entry> entries = journal.readPending();
+        long applied = 0;
+        int sinceCheckpoint = 0;
+        int replayed = 0;
+        int skipped = 0;
+
+        for (WriteAheadJournal.Entry entry : entries) {
+            try {
+                apply(decode(entry.getPayload()));
+                replayed++;
+            } catch (SQLException e) {
+                if (isConnectionFailure(e)) {
+                    logger.warning("Journal replay stopped at entry " + entry.getSequence() + ": " + e.getMessage());
+                    break;
+                }
+                // Rejected by the database (e.g. unknown patient): will never succeed,
+                // so keep going rather than block the journal
+                logger.warning("Skipping journal entry " + entry.getSequence() + " rejected by the database: " + e.getMessage());
+                skipped++;
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Skipping unreadable journal entry " + entry.getSequence(), e);
+                skipped++;
+            }
+            applied = entry.getSequence();
+            if (++sinceCheckpoint >= CHECKPOINT_EVERY) {
+                journal.markApplied(applied);
+                sinceCheckpoint = 0;
+            }
+        }
+        if (applied > 0) {
+            journal.markApplied(applied);
+        }
+        boolean stillPending;
+        synchronized (this) {
+            // Under the lock so an entry recorded meanwhile cannot be marked as replayed
+            pending = journal.hasPending();
+            stillPending = pending;
+        }
+
+        if (replayed > 0 || skipped > 0) {
+            logger.info(String.format("Replayed %d journaled operations (%d skipped); %s",
+                    replayed, skipped, stillPending ? "some are still pending" : "journal is empty"));
+        }
+        return !stillPending;
+    }
+
+    private void apply(String[] fields) throws SQLException {
+        switch (fields[0]) {
+            case REGISTER:
+                patientDAO.insertIfAbsent(new Patient(
+                        fields[1], fields[2], Integer.parseInt(fields[3]), fields[4], fields[5], fields[6],
+                        fields[7], fields[8], Boolean.parseBoolean(fields[9]),
+                        null, null, null, null, fields[10],
+                        null, null, null, null, null, null,
+                        fields[11], fields[12]));
+                break;
+            case ENQUEUE:
+                ticketDAO.insertIfAbsent(new Ticket(
+                        fields[1], fields[2], patientReference(fields[3]), TicketStatus.WAITING,
+                        PriorityLevel.valueOf(fields[4]), LocalDateTime.parse(fields[6]), null,
+                        fields[5], null, null));
+                break;
+            case CLAIM:
+                ticketDAO.claimIfWaiting(fields[1], fields[2], LocalDateTime.parse(fields[3]));
+                break;
+            case CLOSE:
+                ticketDAO.closeIfOpen(fields[1], TicketStatus.valueOf(fields[2]), LocalDateTime.parse(fields[3]));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown journal operation: " + fields[0]);
+        }
+    }
+
+    /**
+     * Whether a failure means the database could not be reached (so the entry should be retried later)
+     * SQLState class 08 is "connection exception"; a null state comes from BaseDAO when no connection is available.
+     */
+    private static boolean isConnectionFailure(SQLException e) {
+        return e instanceof SQLRecoverableException || e instanceof SQLTransientException
+                || e.getSQLState() == null || e.getSQLState().startsWith("08");
+    }
+
+    /**
+     * A patient carrying only its ID, for inserting tickets
+     */
+    private static Patient patientReference(String patientId) {
+        return new Patient(patientId, null, 0, null, null, null, null, null, false,
+                null, null, null, null, null, null, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Joins fields with tabs; backslashes, tabs and line breaks are escaped, null becomes "~"
+     */
+    private static String encode(String... fields) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                sb.append(SEPARATOR);
+            }
+            String field = fields[i];
+            if (field == null) {
+                sb.append(NULL_FIELD);
+                continue;
+            }
+            if (field.startsWith(NULL_FIELD)) {
+                sb.append('\\');
+            }
+            for (int j = 0; j < field.length(); j++) {
+                char c = field.charAt(j);
+                switch (c) {
+                    case '\\': sb.append("\\\\"); break;
+                    case '\t': sb.append("\\t"); break;
+                    case '\n': sb.append("\\n"); break;
+                    case '\r': sb.append("\\r"); break;
+                    default: sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String[] decode(String payload) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean escaped = false;
+        boolean isNull = false;
+        for (int i = 0; i <= payload.length(); i++) {
+            char c = i < payload.length() ? payload.charAt(i) : SEPARATOR;
+            if (escaped) {
+                field.append(c == 't' ? '\t' : c == 'n' ? '\n' : c == 'r' ? '\r' : c);
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == SEPARATOR) {
+                fields.add(isNull ? null : field.toString());
+                field.setLength(0);
+                isNull = false;
+            } else if (c == '~' && field.length() == 0 && (i + 1 == payload.length() || payload.charAt(i + 1) == SEPARATOR)) {
+                isNull = true;
+            } else {
+                field.append(c);
+            }
+        }
+        return fields.toArray(new String[0]);
+    }
+
+    private static WriteAheadJournal openJournal() {
+        try {
+            return WriteAheadJournal.open(JOURNAL_DIRECTORY, FLUSH_INTERVAL_MILLIS);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Could not open offline journal at " + JOURNAL_DIRECTORY +
+                    "; tickets cannot be issued while the database is down", e);
+            return null;
+        }
+    }
+}
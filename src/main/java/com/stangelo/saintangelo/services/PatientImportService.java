@@ -0,0 +1,493 @@
+package com.stangelo.saintangelo.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import com.stangelo.saintangelo.dao.PatientDAO;
+import com.stangelo.saintangelo.models.Patient;
+import com.stangelo.saintangelo.models.PatientImportResult;
+import com.stangelo.saintangelo.utils.CsvReader;
+import com.stangelo.saintangelo.utils.CsvReportWriter;
+
+/**
+ * Patient Import Service
+ * Bulk-loads patients from a CSV export of the old clinic system
+ *
+ * Pipeline:
+ * - The file is read one record at a time and cut into chunks of 1000 rows
+ * - Chunks are parsed and validated in parallel on the fork-join pool, while
+ *   the calling thread writes finished chunks in file order
+ * - Each chunk is checked for duplicates (same phone number and name) against
+ *   the patients table and the rows already imported, then inserted with
+ *   multi-row INSERTs in one transaction
+ * - After each commit a checkpoint file next to the CSV records the last
+ *   imported line, so an interrupted import resumes where it stopped
+ *
+ * Rejected and duplicate rows (including rows whose patient ID is already
+ * taken) are written to {@code <file>.rejects.csv} with their line number and
+ * reason, once their chunk has been committed. Patient IDs are derived from the file name and
+ * line number, so importing the same chunk twice cannot create a second copy.
+ *
+ * CSV columns (header row required, any order, names case-insensitive):
+ * first_name, last_name, age, phone_number (required); patient_id, gender,
+ * home_address, chief_complaint, emergency_contact_person,
+ * emergency_contact_number, blood_type, registration_date, last_visit_date.
+ * Dates are yyyy-MM-dd or M/d/yyyy. Phone numbers are stored as digits (and a
+ * leading +). Names are stored like names entered at reception (first and last word).
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class PatientImportService {
+
+    private static final Logger logger = Logger.getLogger(PatientImportService.class.getName());
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_CHUNKS_IN_FLIGHT = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final String[] REQUIRED_COLUMNS = { "first_name", "last_name", "age", "phone_number" };
+    private static final String[] REJECT_COLUMNS = { "line", "reason", "record" };
+    private static final DateTimeFormatter[] DATE_FORMATS = {
+            DateTimeFormatter.ISO_LOCAL_DATE, DateTimeFormatter.ofPattern("M/d/uuuu")
+    };
+
+    /**
+     * A CSV record and the line it started on
+     */
+    private static final class RawRecord {
+        private final long line;
+        private final String[] fields;
+
+        private RawRecord(long line, String[] fields) {
+            this.line = line;
+            this.fields = fields;
+        }
+    }
+
+    /**
+     * A valid row ready to insert
+     */
+    private static final class ParsedRow {
+        private final RawRecord record;
+        private final Patient patient;
+        private final String identity;
+
+        private ParsedRow(RawRecord record, Patient patient) {
+            this.record = record;
+            this.patient = patient;
+            this.identity = PatientDAO.identityKey(patient.getContactNumber(), patient.getName());
+        }
+    }
+
+    /**
+     * Result of parsing one chunk
+     */
+    private static final class ParsedChunk {
+        private final long lastLine;
+        private final int size;
+        private final List<ParsedRow> rows = new ArrayList<>();
+        private final List<String[]> rejects = new ArrayList<>();
+
+        private ParsedChunk(long lastLine, int size) {
+            this.lastLine = lastLine;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Counters saved in the checkpoint file
+     */
+    private static final class Progress {
+        private long line;
+        private long rowsRead;
+        private long imported;
+        private long duplicates;
+        private long rejected;
+        private long elapsedMillis;
+    }
+
+    // Singleton instance
+    private static PatientImportService instance;
+
+    private final PatientDAO patientDAO;
+
+    /**
+     * Private constructor for singleton
+     */
+    private PatientImportService() {
+        this.patientDAO = new PatientDAO();
+    }
+
+    /**
+     * Gets the singleton instance
+     */
+    public static synchronized PatientImportService getInstance() {
+        if (instance == null) {
+            instance = new PatientImportService();
+        }
+        return instance;
+    }
+
+    /**
+     * Imports patients from a CSV file, resuming an interrupted import of the same file
+     * Runs on the calling thread; call it from a background thread.
+     *
+     * @param csvFile CSV file to import
+     * @param listener Called after each committed chunk with the progress so far (may be null)
+     * @return Final counts
+     * @throws IOException if the file cannot be read, has no usable header, or changed since the checkpoint
+     * @throws SQLException if a chunk cannot be saved (earlier chunks stay imported; run again to resume)
+     * @throws InterruptedException if the thread is interrupted (run again to resume)
+     */
+    public synchronized PatientImportResult importCsv(Path csvFile, Consumer<PatientImportResult> listener)
+            throws IOException, SQLException, InterruptedException {
+        Path checkpointFile = csvFile.resolveSibling(csvFile.getFileName() + ".checkpoint");
+        Path rejectsFile = csvFile.resolveSibling(csvFile.getFileName() + ".rejects.csv");
+        long fileSize = Files.size(csvFile);
+
+        Progress progress = loadCheckpoint(checkpointFile, fileSize);
+        if (progress.line > 0) {
+            logger.info("Resuming patient import of " + csvFile + " after line " + progress.line);
+        }
+        long startedAt = System.currentTimeMillis() - progress.elapsedMillis;
+        String idPrefix = String.format("I%08x-", csvFile.getFileName().toString().hashCode());
+        Set<String> seen = new HashSet<>();
+        Deque<CompletableFuture<ParsedChunk>> inFlight = new ArrayDeque<>();
+
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(csvFile, StandardCharsets.UTF_8));
+             CsvReportWriter rejects = new CsvReportWriter(rejectsFile.toFile(), progress.line > 0)) {
+
+            if (progress.line == 0) {
+                rejects.writeRow(REJECT_COLUMNS);
+            }
+            Map<String, Integer> columns = readHeader(reader);
+
+            List<RawRecord> chunk = new ArrayList<>(CHUNK_SIZE);
+            String[] fields;
+            while ((fields = reader.readRecord()) != null) {
+                if (reader.getRecordLine() <= progress.line || isBlank(fields)) {
+                    continue;
+                }
+                chunk.add(new RawRecord(reader.getRecordLine(), fields));
+                if (chunk.size() == CHUNK_SIZE) {
+                    inFlight.add(parseAsync(chunk, columns, idPrefix));
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                    if (inFlight.size() >= MAX_CHUNKS_IN_FLIGHT) {
+                        writeChunk(await(inFlight.poll()), seen, rejects, progress, startedAt, checkpointFile, fileSize, listener);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                inFlight.add(parseAsync(chunk, columns, idPrefix));
+            }
+            while (!inFlight.isEmpty()) {
+                writeChunk(await(inFlight.poll()), seen, rejects, progress, startedAt, checkpointFile, fileSize, listener);
+            }
+        } finally {
+            // Let parse tasks of an aborted import finish without anyone waiting for them
+            inFlight.forEach(future -> future.cancel(false));
+        }
+
+        Files.deleteIfExists(checkpointFile);
+        PatientImportResult result = toResult(progress, true, rejectsFile);
+        logger.info("Patient import of " + csvFile + " finished: " + result);
+        return result;
+    }
+
+    // --- PARSING (fork-join pool) ---
+
+    private CompletableFuture<ParsedChunk> parseAsync(List<RawRecord> records, Map<String, Integer> columns, String idPrefix) {
+        return CompletableFuture.supplyAsync(() -> parseChunk(records, columns, idPrefix), ForkJoinPool.commonPool());
+    }
+
+    private static ParsedChunk parseChunk(List<RawRecord> records, Map<String, Integer> columns, String idPrefix) {
+        ParsedChunk chunk = new ParsedChunk(records.get(records.size() - 1).line, records.size());
+        for (RawRecord record : records) {
+            try {
+                chunk.rows.add(new ParsedRow(record, parsePatient(record, columns, idPrefix)));
+            } catch (IllegalArgumentException e) {
+                chunk.rejects.add(rejectRow(record, e.getMessage()));
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Validates a record and builds the patient
+     *
+     * @throws IllegalArgumentException with the rejection reason
+     */
+    private static Patient parsePatient(RawRecord record, Map<String, Integer> columns, String idPrefix) {
+        String firstName = required(record, columns, "first_name", 50);
+        String lastName = required(record, columns, "last_name", 50);
+
+        int age;
+        try {
+            age = Integer.parseInt(required(record, columns, "age", 3));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("age is not a number");
+        }
+        if (age < 0 || age > 150) {
+            throw new IllegalArgumentException("age out of range (0-150)");
+        }
+
+        String phoneNumber = normalizePhone(required(record, columns, "phone_number", 40));
+        if (phoneNumber.length() < 7 || phoneNumber.length() > 20) {
+            throw new IllegalArgumentException("invalid phone_number");
+        }
+
+        String patientId = optional(record, columns, "patient_id", 20);
+        if (patientId == null) {
+            patientId = idPrefix + record.line;
+        }
+
+        String gender = optional(record, columns, "gender", 10);
+        if (gender != null) {
+            switch (gender.toLowerCase(Locale.ROOT)) {
+                case "m", "male" -> gender = "Male";
+                case "f", "female" -> gender = "Female";
+                case "o", "other" -> gender = "Other";
+                default -> throw new IllegalArgumentException("invalid gender: " + gender);
+            }
+        }
+
+        String emergencyNumber = optional(record, columns, "emergency_contact_number", 40);
+        if (emergencyNumber != null) {
+            emergencyNumber = normalizePhone(emergencyNumber);
+            if (emergencyNumber.length() > 20) {
+                throw new IllegalArgumentException("invalid emergency_contact_number");
+            }
+        }
+
+        LocalDate registrationDate = date(record, columns, "registration_date");
+        LocalDate lastVisitDate = date(record, columns, "last_visit_date");
+
+        Patient patient = new Patient(
+                patientId, firstName + " " + lastName, age, phoneNumber,
+                optional(record, columns, "home_address", 500), gender,
+                optional(record, columns, "emergency_contact_person", 100), emergencyNumber,
+                age >= 60,
+                null, null, null, null, optional(record, columns, "chief_complaint", 2000),
+                null, null, null, null, null, null,
+                lastVisitDate != null ? lastVisitDate.toString() : null,
+                optional(record, columns, "blood_type", 10));
+        patient.setRegistrationDate(registrationDate);
+        return patient;
+    }
+
+    private static String required(RawRecord record, Map<String, Integer> columns, String column, int maxLength) {
+        String value = optional(record, columns, column, maxLength);
+        if (value == null) {
+            throw new IllegalArgumentException(column + " is missing");
+        }
+        return value;
+    }
+
+    private static String optional(RawRecord record, Map<String, Integer> columns, String column, int maxLength) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.fields.length) {
+            return null;
+        }
+        String value = record.fields[index].trim();
+        if (value.isEmpty()) {
+            return null;
+        }
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(column + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    private static LocalDate date(RawRecord record, Map<String, Integer> columns, String column) {
+        String value = optional(record, columns, column, 10);
+        if (value == null) {
+            return null;
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException e) {
+                // Try the next format
+            }
+        }
+        throw new IllegalArgumentException("invalid " + column + ": " + value);
+    }
+
+    /**
+     * Keeps digits and a leading +, dropping spaces, dashes and brackets
+     */
+    private static String normalizePhone(String phoneNumber) {
+        StringBuilder normalized = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (Character.isDigit(c) || (c == '+' && normalized.length() == 0)) {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    // --- WRITING (calling thread, in file order) ---
+
+    private void writeChunk(ParsedChunk chunk, Set<String> seen, CsvReportWriter rejects, Progress progress,
+                            long startedAt, Path checkpointFile, long fileSize, Consumer<PatientImportResult> listener)
+            throws IOException, SQLException {
+        Set<String> phoneNumbers = new HashSet<>();
+        for (ParsedRow row : chunk.rows) {
+            phoneNumbers.add(row.patient.getContactNumber());
+        }
+        Set<String> existing = patientDAO.findExistingIdentities(phoneNumbers);
+
+        List<Patient> patients = new ArrayList<>(chunk.rows.size());
+        Map<Patient, ParsedRow> rowsByPatient = new IdentityHashMap<>();
+        List<String[]> duplicates = new ArrayList<>();
+        for (ParsedRow row : chunk.rows) {
+            if (existing.contains(row.identity) || !seen.add(row.identity)) {
+                duplicates.add(rejectRow(row.record, "duplicate patient (same phone number and name)"));
+            } else {
+                patients.add(row.patient);
+                rowsByPatient.put(row.patient, row);
+            }
+        }
+
+        List<Patient> conflicts = patientDAO.insertBatch(patients);
+
+        // Written only once the chunk is committed, so a failed chunk reports nothing twice
+        for (Patient patient : conflicts) {
+            duplicates.add(rejectRow(rowsByPatient.get(patient).record, "patient_id already exists: " + patient.getId()));
+        }
+        for (String[] duplicate : duplicates) {
+            rejects.writeRow(duplicate);
+        }
+        for (String[] reject : chunk.rejects) {
+            rejects.writeRow(reject);
+        }
+        rejects.flush();
+
+        progress.line = chunk.lastLine;
+        progress.rowsRead += chunk.size;
+        progress.imported += patients.size() - conflicts.size();
+        progress.duplicates += duplicates.size();
+        progress.rejected += chunk.rejects.size();
+        progress.elapsedMillis = System.currentTimeMillis() - startedAt;
+        saveCheckpoint(checkpointFile, progress, fileSize);
+
+        PatientImportResult result = toResult(progress, false, null);
+        logger.info("Patient import: " + result);
+        if (listener != null) {
+            listener.accept(result);
+        }
+    }
+
+    private static ParsedChunk await(CompletableFuture<ParsedChunk> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parsing failed", e.getCause());
+        }
+    }
+
+    private static Map<String, Integer> readHeader(CsvReader reader) throws IOException {
+        String[] header = reader.readRecord();
+        if (header == null) {
+            throw new IOException("CSV file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            columns.put(header[i].trim().toLowerCase(Locale.ROOT).replace(' ', '_'), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IOException("CSV header has no " + column + " column");
+            }
+        }
+        return columns;
+    }
+
+    private static boolean isBlank(String[] fields) {
+        for (String field : fields) {
+            if (!field.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] rejectRow(RawRecord record, String reason) {
+        return new String[] { Long.toString(record.line), reason, String.join(",", record.fields) };
+    }
+
+    private static PatientImportResult toResult(Progress progress, boolean finished, Path rejectsFile) {
+        return new PatientImportResult(progress.rowsRead, progress.imported, progress.duplicates,
+                progress.rejected, progress.elapsedMillis, finished, rejectsFile);
+    }
+
+    // --- CHECKPOINT ---
+
+    private static Progress loadCheckpoint(Path checkpointFile, long fileSize) throws IOException {
+        Progress progress = new Progress();
+        if (!Files.exists(checkpointFile)) {
+            return progress;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(checkpointFile)) {
+            properties.load(in);
+        }
+        if (Long.parseLong(properties.getProperty("fileSize", "-1")) != fileSize) {
+            throw new IOException("The CSV file changed since the interrupted import; delete " +
+                    checkpointFile + " to import it from the start");
+        }
+        progress.line = Long.parseLong(properties.getProperty("line", "0"));
+        progress.rowsRead = Long.parseLong(properties.getProperty("rowsRead", "0"));
+        progress.imported = Long.parseLong(properties.getProperty("imported", "0"));
+        progress.duplicates = Long.parseLong(properties.getProperty("duplicates", "0"));
+        progress.rejected = Long.parseLong(properties.getProperty("rejected", "0"));
+        progress.elapsedMillis = Long.parseLong(properties.getProperty("elapsedMillis", "0"));
+        return progress;
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file and moves it into place, so a crash never leaves half a checkpoint
+     */
+    private static void saveCheckpoint(Path checkpointFile, Progress progress, long fileSize) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("fileSize", Long.toString(fileSize));
+        properties.setProperty("line", Long.toString(progress.line));
+        properties.setProperty("rowsRead", Long.toString(progress.rowsRead));
+        properties.setProperty("imported", Long.toString(progress.imported));
+        properties.setProperty("duplicates", Long.toString(progress.duplicates));
+        properties.setProperty("rejected", Long.toString(progress.rejected));
+        properties.setProperty("elapsedMillis", Long.toString(progress.elapsedMillis));
+
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, "Patient import checkpoint");
+        }
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,454 @@
+package com.stangelo.saintangelo.services;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.stangelo.saintangelo.dao.PatientDAO;
+import com.stangelo.saintangelo.models.Patient;
+import com.stangelo.saintangelo.models.PatientMatch;
+
+/**
+ * Patient Match Index
+ * In-memory index used to find returning patients while reception types,
+ * and to flag a new registration that is probably an existing patient
+ *
+ * Keys per patient:
+ * - Normalized phone number (digits only, without the 63 country code or
+ *   trunk 0), kept sorted so a partly typed number is a prefix lookup
+ * - Soundex codes of the first and last name, so spelling variants match
+ * - Estimated birth year (registration year minus age at registration)
+ *
+ * Candidates from the phone and name keys are scored and returned best
+ * first. The index is loaded once in the background, kept current by the
+ * registrations made on this workstation, and refreshed from the database
+ * every minute for patients added or changed elsewhere (through the
+ * updated_at index). Once an hour it is reloaded in full, which also drops
+ * patients deleted since.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class PatientMatchIndex {
+
+    private static final Logger logger = Logger.getLogger(PatientMatchIndex.class.getName());
+
+    private static final long REFRESH_SECONDS = 60;
+
+    // Deleted patients never show up as changed rows, so the index is reloaded from scratch this often
+    private static final long FULL_RELOAD_MINUTES = 60;
+
+    // Candidates considered per key, so a very common name or short prefix stays fast
+    private static final int MAX_CANDIDATES_PER_KEY = 200;
+
+    // Score weights
+    private static final int PHONE_EXACT = 50;
+    private static final int PHONE_PREFIX_LONG = 25;   // 7 or more digits typed
+    private static final int PHONE_PREFIX_SHORT = 10;  // 4 to 6 digits typed
+    private static final int LAST_NAME_EXACT = 25;
+    private static final int LAST_NAME_SOUNDS_LIKE = 15;
+    private static final int FIRST_NAME_EXACT = 20;
+    private static final int FIRST_NAME_SOUNDS_LIKE = 12;
+    private static final int FIRST_INITIAL = 3;
+    private static final int BIRTH_YEAR_CLOSE = 15;    // within 1 year
+    private static final int BIRTH_YEAR_NEAR = 5;      // within 3 years
+    private static final int BIRTH_YEAR_FAR = -15;     // more than 10 years apart
+
+    private static final int MIN_SCORE = 10;
+    private static final int PROBABLE_DUPLICATE_SCORE = 60;
+
+    /**
+     * Matching keys of one patient
+     */
+    private static final class Entry {
+        private final String patientId;
+        private final String name;
+        private final String displayPhone;
+        private final String phone;
+        private final String firstName;
+        private final String lastName;
+        private final String firstKey;
+        private final String lastKey;
+        private final int age;
+        private final int birthYear; // 0 if unknown
+
+        private Entry(Patient patient) {
+            String[] names = splitName(patient.getName());
+            this.patientId = patient.getId();
+            this.name = patient.getName();
+            this.displayPhone = patient.getContactNumber();
+            this.phone = normalizePhone(patient.getContactNumber());
+            this.firstName = names[0];
+            this.lastName = names[1];
+            this.firstKey = soundex(firstName);
+            this.lastKey = soundex(lastName);
+            this.age = patient.getAge();
+            int registrationYear = patient.getRegistrationDate() != null
+                    ? patient.getRegistrationDate().getYear() : LocalDate.now().getYear();
+            this.birthYear = patient.getAge() > 0 ? registrationYear - patient.getAge() : 0;
+        }
+    }
+
+    // Singleton instance
+    private static PatientMatchIndex instance;
+
+    private final PatientDAO patientDAO;
+
+    // Guarded by this
+    private final Map<String, Entry> byId = new HashMap<>();
+    private final NavigableMap<String, List<Entry>> byPhone = new TreeMap<>();
+    private final Map<String, List<Entry>> byFirstName = new HashMap<>();
+    private final Map<String, List<Entry>> byLastName = new HashMap<>();
+
+    private volatile boolean ready;
+    private LocalDateTime refreshedUpTo;
+    private long fullyLoadedAt; // System.nanoTime() of the last full load
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Private constructor for singleton
+     */
+    private PatientMatchIndex() {
+        this.patientDAO = new PatientDAO();
+    }
+
+    /**
+     * Gets the singleton instance
+     */
+    public static synchronized PatientMatchIndex getInstance() {
+        if (instance == null) {
+            instance = new PatientMatchIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * Loads the index in the background and starts the periodic refresh
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "patient-match-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, REFRESH_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the periodic refresh
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Checks whether the initial load has finished
+     * Until then findMatches returns only patients registered on this workstation.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds or updates a patient (call after saving a registration)
+     */
+    public synchronized void add(Patient patient) {
+        if (patient != null && patient.getId() != null) {
+            put(new Entry(patient));
+        }
+    }
+
+    /**
+     * Finds existing patients matching what reception has typed so far
+     * Any argument may be null or blank.
+     *
+     * @param phoneNumber Phone number, complete or the first digits
+     * @param firstName First name
+     * @param lastName Last name
+     * @param age Age, or null if not entered
+     * @param limit Maximum number of matches
+     * @return Matches, best first
+     */
+    public List<PatientMatch> findMatches(String phoneNumber, String firstName, String lastName, Integer age, int limit) {
+        String phone = normalizePhone(phoneNumber);
+        // Stored names keep the first and last word only
+        String[] firstWords = clean(firstName).split(" ");
+        String[] lastWords = clean(lastName).split(" ");
+        String first = firstWords[0];
+        String last = lastWords[lastWords.length - 1];
+        String firstKey = soundex(first);
+        String lastKey = soundex(last);
+        int birthYear = age != null && age > 0 ? LocalDate.now().getYear() - age : 0;
+
+        List<PatientMatch> matches = new ArrayList<>();
+        synchronized (this) {
+            Set<Entry> candidates = new LinkedHashSet<>();
+            if (phone.length() >= 4) {
+                int taken = 0;
+                for (List<Entry> entries : byPhone.subMap(phone, true, phone + Character.MAX_VALUE, false).values()) {
+                    candidates.addAll(entries);
+                    taken += entries.size();
+                    if (taken >= MAX_CANDIDATES_PER_KEY) {
+                        break;
+                    }
+                }
+            }
+            if (!lastKey.isEmpty()) {
+                addCandidates(candidates, byLastName.get(lastKey));
+            } else if (!firstKey.isEmpty()) {
+                addCandidates(candidates, byFirstName.get(firstKey));
+            }
+
+            for (Entry entry : candidates) {
+                int score = score(entry, phone, first, last, firstKey, lastKey, birthYear);
+                if (score >= MIN_SCORE) {
+                    matches.add(new PatientMatch(entry.patientId, entry.name, entry.displayPhone, entry.age,
+                            score, score >= PROBABLE_DUPLICATE_SCORE));
+                }
+            }
+        }
+        matches.sort((a, b) -> Integer.compare(b.getScore(), a.getScore()));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Finds the best match that is probably the same person as a new registration
+     *
+     * @return The probable duplicate, or null if none
+     */
+    public PatientMatch findProbableDuplicate(String phoneNumber, String firstName, String lastName, Integer age) {
+        List<PatientMatch> matches = findMatches(phoneNumber, firstName, lastName, age, 1);
+        return !matches.isEmpty() && matches.get(0).isProbableDuplicate() ? matches.get(0) : null;
+    }
+
+    private static int score(Entry entry, String phone, String first, String last,
+                             String firstKey, String lastKey, int birthYear) {
+        int score = 0;
+        if (!phone.isEmpty() && !entry.phone.isEmpty()) {
+            if (entry.phone.equals(phone)) {
+                score += PHONE_EXACT;
+            } else if (phone.length() >= 4 && entry.phone.startsWith(phone)) {
+                score += phone.length() >= 7 ? PHONE_PREFIX_LONG : PHONE_PREFIX_SHORT;
+            }
+        }
+        if (!last.isEmpty()) {
+            if (entry.lastName.equals(last)) {
+                score += LAST_NAME_EXACT;
+            } else if (entry.lastKey.equals(lastKey)) {
+                score += LAST_NAME_SOUNDS_LIKE;
+            }
+        }
+        if (!first.isEmpty()) {
+            if (entry.firstName.equals(first)) {
+                score += FIRST_NAME_EXACT;
+            } else if (entry.firstKey.equals(firstKey)) {
+                score += FIRST_NAME_SOUNDS_LIKE;
+            } else if (!entry.firstName.isEmpty() && entry.firstName.charAt(0) == first.charAt(0)) {
+                score += FIRST_INITIAL;
+            }
+        }
+        if (birthYear > 0 && entry.birthYear > 0) {
+            int difference = Math.abs(entry.birthYear - birthYear);
+            if (difference <= 1) {
+                score += BIRTH_YEAR_CLOSE;
+            } else if (difference <= 3) {
+                score += BIRTH_YEAR_NEAR;
+            } else if (difference > 10) {
+                score += BIRTH_YEAR_FAR;
+            }
+        }
+        return score;
+    }
+
+    private static void addCandidates(Set<Entry> candidates, List<Entry> entries) {
+        if (entries != null) {
+            candidates.addAll(entries.size() > MAX_CANDIDATES_PER_KEY
+                    ? entries.subList(entries.size() - MAX_CANDIDATES_PER_KEY, entries.size()) : entries);
+        }
+    }
+
+    // --- LOADING ---
+
+    /**
+     * Loads all patients on the first run and every {@value #FULL_RELOAD_MINUTES} minutes,
+     * otherwise only patients changed since the last run
+     * A full load replaces the whole index, which drops patients deleted since the last one.
+     */
+    private void refresh() {
+        try {
+            List<Entry> loaded = new ArrayList<>();
+            long started = System.nanoTime();
+            LocalDateTime since;
+            synchronized (this) {
+                boolean reloadDue = started - fullyLoadedAt >= TimeUnit.MINUTES.toNanos(FULL_RELOAD_MINUTES);
+                since = refreshedUpTo == null || reloadDue ? null : refreshedUpTo;
+            }
+            LocalDateTime upTo = patientDAO.streamMatchKeys(since, patient -> loaded.add(new Entry(patient)));
+
+            synchronized (this) {
+                if (since == null) {
+                    byId.clear();
+                    byPhone.clear();
+                    byFirstName.clear();
+                    byLastName.clear();
+                    fullyLoadedAt = started;
+                }
+                for (Entry entry : loaded) {
+                    put(entry);
+                }
+                refreshedUpTo = upTo;
+            }
+            if (!ready) {
+                ready = true;
+                logger.info("Patient match index loaded " + loaded.size() + " patients in " +
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + " ms");
+            }
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Patient match index refresh failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // Keep the scheduled refresh alive
+            logger.log(Level.SEVERE, "Unexpected error refreshing the patient match index", e);
+        }
+    }
+
+    private void put(Entry entry) {
+        Entry old = byId.put(entry.patientId, entry);
+        if (old != null) {
+            remove(byPhone, old.phone, old);
+            remove(byFirstName, old.firstKey, old);
+            remove(byLastName, old.lastKey, old);
+        }
+        if (!entry.phone.isEmpty()) {
+            byPhone.computeIfAbsent(entry.phone, key -> new ArrayList<>(1)).add(entry);
+        }
+        if (!entry.firstKey.isEmpty()) {
+            byFirstName.computeIfAbsent(entry.firstKey, key -> new ArrayList<>()).add(entry);
+        }
+        if (!entry.lastKey.isEmpty()) {
+            byLastName.computeIfAbsent(entry.lastKey, key -> new ArrayList<>()).add(entry);
+        }
+    }
+
+    private static void remove(Map<String, List<Entry>> index, String key, Entry entry) {
+        List<Entry> entries = index.get(key);
+        if (entries != null) {
+            entries.remove(entry);
+            if (entries.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    // --- KEYS ---
+
+    /**
+     * Keeps digits only and drops the 63 country code or the trunk 0,
+     * so 0917 123 4567 and +63 917 123 4567 give the same key
+     */
+    static String normalizePhone(String phoneNumber) {
+        if (phoneNumber == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (digits.length() > 2 && digits.charAt(0) == '6' && digits.charAt(1) == '3') {
+            return digits.substring(2);
+        }
+        if (digits.length() > 1 && digits.charAt(0) == '0') {
+            return digits.substring(1);
+        }
+        return digits.toString();
+    }
+
+    /**
+     * Splits a full name into first and last word, like PatientDAO stores it
+     */
+    private static String[] splitName(String fullName) {
+        String[] parts = clean(fullName).split(" ");
+        return new String[] { parts[0], parts.length > 1 ? parts[parts.length - 1] : "" };
+    }
+
+    private static String clean(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    /**
+     * American Soundex code of the first word (e.g. "Reyes" and "Reies" both give R200)
+     *
+     * @return Four-character code, or "" if the word has no letters
+     */
+    static String soundex(String word) {
+        StringBuilder code = new StringBuilder(4);
+        char previous = 0;
+        for (int i = 0; i < word.length() && code.length() < 4; i++) {
+            char c = Character.toUpperCase(word.charAt(i));
+            if (c == ' ') {
+                break;
+            }
+            if (c < 'A' || c > 'Z') {
+                continue;
+            }
+            char digit = soundexDigit(c);
+            if (code.length() == 0) {
+                code.append(c);
+            } else if (digit != '0' && digit != previous) {
+                code.append(digit);
+            }
+            // H and W do not separate letters with the same code; vowels do
+            if (c != 'H' && c != 'W') {
+                previous = digit;
+            }
+        }
+        if (code.length() == 0) {
+            return "";
+        }
+        while (code.length() < 4) {
+            code.append('0');
+        }
+        return code.toString();
+    }
+
+    private static char soundexDigit(char c) {
+        switch (c) {
+            case 'B': case 'F': case 'P': case 'V':
+                return '1';
+            case 'C': case 'G': case 'J': case 'K': case 'Q': case 'S': case 'X': case 'Z':
+                return '2';
+            case 'D': case 'T':
+                return '3';
+            case 'L':
+                return '4';
+            case 'M': case 'N':
+                return '5';
+            case 'R':
+                return '6';
+            default:
+                return '0';
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.stangelo.saintangelo.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.stangelo.saintangelo.dao.TicketDAO;
+import com.stangelo.saintangelo.models.Ticket;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Public Display Service
+ * Serves the waiting-room "Now Serving / Next in Queue" board over HTTP so
+ * signage screens only need a browser instead of a JavaFX client with its own
+ * database connection.
+ *
+ * One background thread reads the queue from the database; the board is
+ * rendered to HTML once per change and the same bytes are sent to every screen.
+ * Screens revalidate with ETag and wait for the next change with a long poll.
+ * Versions start at the server's start time in milliseconds and count up from
+ * there, so neither an ETag nor a poll's version is reused after a restart.
+ *
+ * The server only reads: it queries the tickets directly rather than going
+ * through QueueManager, so it never opens the offline journal, which belongs to
+ * the desk client running on the same machine.
+ *
+ * Endpoints:
+ * - GET /           the board page (ETag, 304 when unchanged)
+ * - GET /state.json current state as JSON (ETag, 304 when unchanged)
+ * - GET /poll?since=N  waits until the state is newer than version N, then
+ *   returns it as JSON; answers 304 if nothing changed within the poll timeout
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class PublicDisplayService {
+
+    private static final Logger logger = Logger.getLogger(PublicDisplayService.class.getName());
+
+    /** Port used when none is given */
+    public static final int DEFAULT_PORT = 8085;
+
+    private static final int NEXT_QUEUE_SLOTS = 5;
+    private static final String EMPTY_SLOT = "---";
+    private static final long SYNC_INTERVAL_SECONDS = 3;
+    private static final long POLL_TIMEOUT_SECONDS = 25;
+    private static final String TEMPLATE = "/display/public-display.html";
+
+    // Singleton instance
+    private static PublicDisplayService instance;
+
+    private final String template;
+    private final TicketDAO ticketDAO;
+    private ScheduledExecutorService syncer;
+    private ExecutorService requestExecutor;
+    private HttpServer server;
+
+    // Latest rendered board; replaced as a whole on every change
+    private volatile Board board;
+
+    // Completed with the next board; replaced after every change, guarded by this
+    private CompletableFuture<Board> nextBoard = new CompletableFuture<>();
+
+    /**
+     * One rendered state of the board
+     * The version (and so the ETag) continues from the start time of this process.
+     */
+    private record Board(long version, String serving, List<String> next, byte[] html, byte[] json) {
+
+        String etag() {
+            return "\"" + version + "\"";
+        }
+    }
+
+    /**
+     * Private constructor for singleton
+     */
+    private PublicDisplayService() {
+        this.template = loadTemplate();
+        this.ticketDAO = new TicketDAO();
+        // Start from the clock so a restarted server never repeats an earlier version
+        this.board = render(System.currentTimeMillis(), EMPTY_SLOT, emptySlots());
+    }
+
+    /**
+     * Gets the singleton instance
+     */
+    public static synchronized PublicDisplayService getInstance() {
+        if (instance == null) {
+            instance = new PublicDisplayService();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts syncing the queue and serving the board
+     *
+     * @param port TCP port to listen on (all interfaces, so screens on the LAN can connect)
+     * @throws IOException If the port cannot be opened
+     */
+    public synchronized void start(int port) throws IOException {
+        if (server != null) {
+            return;
+        }
+        // Long polls park a thread each; virtual threads keep dozens of screens cheap
+        requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(requestExecutor);
+        server.createContext("/", this::handle);
+        server.start();
+
+        syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "public-display-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncer.scheduleWithFixedDelay(this::sync, 0, SYNC_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        logger.info("Public display served on port " + port);
+    }
+
+    /**
+     * Stops serving and syncing
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        syncer.shutdownNow();
+        requestExecutor.shutdownNow();
+        server = null;
+    }
+
+    /**
+     * Reads the queue from the database and publishes a new board if it changed
+     */
+    private void sync() {
+        try {
+            Ticket serving = ticketDAO.findCurrentlyServing();
+            String servingNumber = serving != null && serving.getTicketNumber() != null ? serving.getTicketNumber() : EMPTY_SLOT;
+            List<String> next = emptySlots();
+            // Same order as the queue: priority, then arrival
+            List<Ticket> waiting = ticketDAO.findWaitingTickets(NEXT_QUEUE_SLOTS);
+            for (int i = 0; i < waiting.size() && i < NEXT_QUEUE_SLOTS; i++) {
+                if (waiting.get(i).getTicketNumber() != null) {
+                    next.set(i, waiting.get(i).getTicketNumber());
+                }
+            }
+            publish(servingNumber, next);
+        } catch (RuntimeException e) {
+            // Screens keep showing the last board
+            logger.log(Level.WARNING, "Public display sync failed", e);
+        }
+    }
+
+    private void publish(String serving, List<String> next) {
+        Board current = board;
+        if (current.serving().equals(serving) && current.next().equals(next)) {
+            return;
+        }
+        CompletableFuture<Board> waiting;
+        Board rendered = render(current.version() + 1, serving, next);
+        synchronized (this) {
+            board = rendered;
+            waiting = nextBoard;
+            nextBoard = new CompletableFuture<>();
+        }
+        waiting.complete(rendered);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            URI uri = exchange.getRequestURI();
+            switch (uri.getPath()) {
+                case "/", "/index.html" -> sendIfModified(exchange, board, false);
+                case "/state.json" -> sendIfModified(exchange, board, true);
+                case "/poll" -> poll(exchange, parseSince(uri.getQuery()));
+                default -> exchange.sendResponseHeaders(404, -1);
+            }
+        }
+    }
+
+    private void sendIfModified(HttpExchange exchange, Board current, boolean json) throws IOException {
+        exchange.getResponseHeaders().set("ETag", current.etag());
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        if (current.etag().equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        send(exchange, current, json);
+    }
+
+    private void poll(HttpExchange exchange, long since) throws IOException {
+        Board current;
+        CompletableFuture<Board> waiting;
+        synchronized (this) {
+            current = board;
+            waiting = nextBoard;
+        }
+        if (current.version() <= since) {
+            try {
+                current = waiting.get(POLL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                exchange.getResponseHeaders().set("ETag", current.etag());
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            } catch (Exception e) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+        }
+        exchange.getResponseHeaders().set("ETag", current.etag());
+        send(exchange, current, true);
+    }
+
+    private void send(HttpExchange exchange, Board current, boolean json) throws IOException {
+        byte[] body = json ? current.json() : current.html();
+        exchange.getResponseHeaders().set("Content-Type",
+                json ? "application/json; charset=utf-8" : "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private Board render(long version, String serving, List<String> next) {
+        StringBuilder slots = new StringBuilder();
+        StringBuilder nextJson = new StringBuilder();
+        for (String number : next) {
+            slots.append("<div class=\"next-queue-item\"><span class=\"next-queue-number\">")
+                    .append(escapeHtml(number)).append("</span></div>");
+            nextJson.append(nextJson.length() == 0 ? "" : ",").append(jsonString(number));
+        }
+        String html = template
+                .replace("{{SERVING}}", escapeHtml(serving))
+                .replace("{{NEXT_SLOTS}}", slots)
+                .replace("{{VERSION}}", Long.toString(version));
+        String json = "{\"version\":" + version + ",\"serving\":" + jsonString(serving)
+                + ",\"next\":[" + nextJson + "]}";
+        return new Board(version, serving, List.copyOf(next),
+                html.getBytes(StandardCharsets.UTF_8), json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long parseSince(String query) {
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                if (parameter.startsWith("since=")) {
+                    try {
+                        return Long.parseLong(parameter.substring("since=".length()));
+                    } catch (NumberFormatException e) {
+                        return -1;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static List<String> emptySlots() {
+        List<String> slots = new ArrayList<>(NEXT_QUEUE_SLOTS);
+        for (int i = 0; i < NEXT_QUEUE_SLOTS; i++) {
+            slots.add(EMPTY_SLOT);
+        }
+        return slots;
+    }
+
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static String jsonString(String text) {
+        return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String loadTemplate() {
+        try (InputStream input = PublicDisplayService.class.getResourceAsStream(TEMPLATE)) {
+            return new String(Objects.requireNonNull(input, TEMPLATE + " not found").readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + TEMPLATE, e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.stangelo.saintangelo.services;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -11,6 +12,8 @@ import com.stangelo.saintangelo.dao.TicketDAO;
 import com.stangelo.saintangelo.models.PriorityLevel;
 import com.stangelo.saintangelo.models.Ticket;
 import com.stangelo.saintangelo.models.TicketStatus;
+import com.stangelo.saintangelo.utils.DatabaseConnection;
+import com.stangelo.saintangelo.utils.MetricsRegistry;
 
 /**
  * Queue Manager using PriorityQueue data structure
@@ -18,6 +21,10 @@ import com.stangelo.saintangelo.models.TicketStatus;
  * 
  * Priority Order: EMERGENCY > SENIOR_CITIZEN > REGULAR
  * Within same priority: First-Come-First-Served (by creation time)
+ *
+ * While the database is unreachable (circuit breaker open), enqueue, dequeue,
+ * complete and skip keep working on the in-memory queue and are recorded in the
+ * {@link OfflineJournalService} for replay once the database is back.
  */
 public class QueueManager {
     
@@ -70,6 +77,9 @@ public class QueueManager {
         this.ticketDAO = new TicketDAO();
         this.waitingQueue = new PriorityQueue<>(TICKET_COMPARATOR);
         this.currentlyServing = null;
+
+        // Read without the lock; a slightly stale size is fine for a gauge
+        MetricsRegistry.gauge("queue.waiting", () -> waitingQueue.size());
         
         // Load initial data from database
         syncFromDatabase();
@@ -92,6 +102,12 @@ public class QueueManager {
      * Handles connection failures gracefully with automatic reconnection
      */
     public synchronized void syncFromDatabase() {
+        if (!DatabaseConnection.isAvailable() || OfflineJournalService.getInstance().hasPendingEntries()) {
+            // The database does not have this workstation's offline operations yet;
+            // reloading now would drop them from the queue
+            logger.fine("Database unavailable or offline journal not replayed yet, keeping the local queue");
+            return;
+        }
         logger.info("Syncing queue from database...");
         
         try {
@@ -166,21 +182,37 @@ public class QueueManager {
         ticket.setStatus(TicketStatus.WAITING);
         
         // Save to database first
-        boolean saved = ticketDAO.create(ticket);
+        boolean saved = DatabaseConnection.isAvailable() && ticketDAO.create(ticket);
+        if (!saved && !DatabaseConnection.isAvailable()) {
+            // Database is down: keep issuing tickets from the local journal
+            saved = OfflineJournalService.getInstance().recordEnqueue(ticket);
+            if (saved) {
+                logger.warning("Database unavailable, ticket journaled for replay: " + ticket.getTicketNumber());
+            }
+        }
         
         if (saved) {
-            // Add to in-memory queue
-            waitingQueue.offer(ticket);
-            logger.info("Enqueued ticket: " + ticket.getTicketNumber() + 
-                       " | Patient: " + (ticket.getPatient() != null ? ticket.getPatient().getName() : "Unknown") +
-                       " | Priority: " + ticket.getPriority() +
-                       " | Queue size: " + waitingQueue.size());
+            addSaved(ticket);
             return true;
         } else {
             logger.severe("Failed to save ticket to database: " + ticket.getTicketNumber());
             return false;
         }
     }
+
+    /**
+     * Adds a ticket that is already saved in the database to the in-memory queue
+     * Used after a registration transaction has saved the ticket
+     *
+     * @param ticket The saved WAITING ticket
+     */
+    public synchronized void addSaved(Ticket ticket) {
+        waitingQueue.offer(ticket);
+        logger.info("Enqueued ticket: " + ticket.getTicketNumber() + 
+                   " | Patient: " + (ticket.getPatient() != null ? ticket.getPatient().getName() : "Unknown") +
+                   " | Priority: " + ticket.getPriority() +
+                   " | Queue size: " + waitingQueue.size());
+    }
     
     /**
      * Dequeues the next ticket (removes from queue and marks as IN_SERVICE)
@@ -200,7 +232,19 @@ public class QueueManager {
         
         if (ticket != null) {
             // Update in database - assign doctor and change status
-            boolean updated = ticketDAO.assignDoctor(ticket.getVisitId(), doctorId);
+            boolean updated = DatabaseConnection.isAvailable() && ticketDAO.assignDoctor(ticket.getVisitId(), doctorId);
+            
+            if (!updated && !DatabaseConnection.isAvailable()) {
+                LocalDateTime now = LocalDateTime.now();
+                if (OfflineJournalService.getInstance().recordClaim(ticket.getVisitId(), doctorId, now)) {
+                    ticket.setStatus(TicketStatus.IN_SERVICE);
+                    ticket.setAssignedDoctorId(doctorId);
+                    ticket.setCalledTime(now);
+                    currentlyServing = ticket;
+                    logger.warning("Database unavailable, call journaled for replay: " + ticket.getTicketNumber());
+                    return ticket;
+                }
+            }
             
             if (updated) {
                 // Refresh ticket data from database to get doctor name
@@ -269,7 +313,7 @@ public class QueueManager {
             return false;
         }
         
-        boolean updated = ticketDAO.updateStatus(currentlyServing.getVisitId(), TicketStatus.COMPLETED);
+        boolean updated = closeTicket(currentlyServing.getVisitId(), TicketStatus.COMPLETED);
         
         if (updated) {
             logger.info("Completed service for ticket: " + currentlyServing.getTicketNumber());
@@ -291,7 +335,7 @@ public class QueueManager {
             return false;
         }
         
-        boolean updated = ticketDAO.updateStatus(currentlyServing.getVisitId(), TicketStatus.SKIPPED);
+        boolean updated = closeTicket(currentlyServing.getVisitId(), TicketStatus.SKIPPED);
         
         if (updated) {
             logger.info("Skipped ticket: " + currentlyServing.getTicketNumber());
@@ -302,6 +346,23 @@ public class QueueManager {
         return false;
     }
     
+    /**
+     * Completes or skips a ticket in the database, or journals it while the database is down
+     *
+     * @return true if the database was updated or the change was journaled
+     */
+    private boolean closeTicket(String visitId, TicketStatus status) {
+        if (DatabaseConnection.isAvailable() && ticketDAO.updateStatus(visitId, status)) {
+            return true;
+        }
+        if (!DatabaseConnection.isAvailable()
+                && OfflineJournalService.getInstance().recordClose(visitId, status, LocalDateTime.now())) {
+            logger.warning("Database unavailable, " + status + " journaled for replay: " + visitId);
+            return true;
+        }
+        return false;
+    }
+    
     /**
      * Gets a list view of the waiting queue (for display purposes)
      * Returns tickets in priority order
@@ -352,7 +413,7 @@ public class QueueManager {
         
         if (toRemove != null) {
             waitingQueue.remove(toRemove);
-            ticketDAO.updateStatus(visitId, TicketStatus.SKIPPED);
+            closeTicket(visitId, TicketStatus.SKIPPED);
             logger.info("Removed ticket from queue: " + toRemove.getTicketNumber());
             return true;
         }
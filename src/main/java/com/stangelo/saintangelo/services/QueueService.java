@@ -1,10 +1,29 @@
 package com.stangelo.saintangelo.services;
 
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.stangelo.saintangelo.dao.DedicatedConnectionScope;
+import com.stangelo.saintangelo.dao.PatientDAO;
+import com.stangelo.saintangelo.dao.RegistrationDAO;
 import com.stangelo.saintangelo.dao.TicketDAO;
+import com.stangelo.saintangelo.models.Patient;
+import com.stangelo.saintangelo.models.PriorityLevel;
 import com.stangelo.saintangelo.models.Ticket;
+import com.stangelo.saintangelo.models.TicketStatus;
+import com.stangelo.saintangelo.utils.DatabaseConnection;
 
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.StringBinding;
 import javafx.beans.property.SimpleIntegerProperty;
@@ -19,6 +38,8 @@ import javafx.collections.ObservableList;
  * Provides JavaFX bindings for UI updates
  */
 public class QueueService {
+    private static final Logger logger = Logger.getLogger(QueueService.class.getName());
+
     private static final SimpleIntegerProperty currentQueueNumber = new SimpleIntegerProperty(0);
     private static final SimpleStringProperty lastGeneratedTicket = new SimpleStringProperty("---");
     private static final SimpleStringProperty lastPatientName = new SimpleStringProperty("");
@@ -30,6 +51,27 @@ public class QueueService {
     
     // DAO for ticket number generation
     private static final TicketDAO ticketDAO = new TicketDAO();
+    private static final PatientDAO patientDAO = new PatientDAO();
+    private static final RegistrationDAO registrationDAO = new RegistrationDAO();
+
+    // Registrations per request key, so a form submitted twice gets the same ticket
+    private static final int RECENT_REGISTRATIONS = 100;
+    private static final Map<String, CompletableFuture<Ticket>> recentRegistrations = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<Ticket>> eldest) {
+            return size() > RECENT_REGISTRATIONS;
+        }
+    };
+
+    // Runs registration transactions off the JavaFX Application Thread
+    private static final ExecutorService registrar = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "registration");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Last timestamp handed out in a patient or visit ID
+    private static final AtomicLong lastIdMillis = new AtomicLong();
     
     // Cached dashboard stats (updated together to ensure consistency)
     private static volatile int cachedTotalToday = 0;
@@ -95,6 +137,163 @@ public class QueueService {
         return success;
     }
 
+    /**
+     * Registers a new patient
+     * While the database is down the registration is journaled and replayed later,
+     * so a ticket can still be issued for the patient.
+     * @param patient The new patient
+     * @return true if saved or journaled
+     */
+    public static boolean registerPatient(Patient patient) {
+        if (DatabaseConnection.isAvailable() && patientDAO.create(patient)) {
+            return true;
+        }
+        return !DatabaseConnection.isAvailable() && OfflineJournalService.getInstance().recordRegistration(patient);
+    }
+
+    /**
+     * Generates an ID for a new patient
+     * The full millisecond timestamp (never repeated on this workstation) plus
+     * three random digits, so desks registering in the same millisecond do not clash.
+     *
+     * @return Patient ID, e.g. "P1760870000123042"
+     */
+    public static String newPatientId() {
+        return newId("P");
+    }
+
+    /**
+     * Generates an ID for a new visit, built like newPatientId()
+     * Closed tickets move to tickets_history, so visit IDs must not repeat across
+     * days either.
+     *
+     * @return Visit ID, e.g. "V1760870000123042"
+     */
+    public static String newVisitId() {
+        return newId("V");
+    }
+
+    private static String newId(String prefix) {
+        long millis = lastIdMillis.accumulateAndGet(System.currentTimeMillis(),
+                (last, now) -> Math.max(last + 1, now));
+        return String.format("%s%d%03d", prefix, millis, ThreadLocalRandom.current().nextInt(1000));
+    }
+
+    /**
+     * Registers a visit and puts the patient in the queue in one step
+     * Online, the patient, the ticket number and the ticket are saved in one
+     * database transaction, so a failure leaves nothing behind. The request key
+     * identifies the registration form: submitting it again (double click,
+     * retry after an error) returns the ticket issued the first time.
+     * While the database is down the registration is journaled instead.
+     *
+     * The database work runs on a background thread; the returned future
+     * completes on the JavaFX Application Thread, after the queue and the last
+     * generated ticket have been updated.
+     *
+     * @param requestKey Key generated by the desk for this registration form
+     * @param patient The patient
+     * @param newPatient true if the patient is not saved yet
+     * @param priority Queue priority
+     * @param chiefComplaint Reason for the visit (ticket service type)
+     * @return The issued ticket, or null if the registration failed
+     */
+    public static CompletableFuture<Ticket> registerAndEnqueue(String requestKey, Patient patient, boolean newPatient,
+                                                               PriorityLevel priority, String chiefComplaint) {
+        CompletableFuture<Ticket> registration;
+        boolean first = false;
+        // Held only to look up and record the form; the registration itself runs unlocked
+        synchronized (recentRegistrations) {
+            registration = recentRegistrations.get(requestKey);
+            if (registration == null) {
+                registration = new CompletableFuture<>();
+                recentRegistrations.put(requestKey, registration);
+                first = true;
+            }
+        }
+        if (first) {
+            register(requestKey, patient, newPatient, priority, chiefComplaint, registration);
+        }
+        return registration.thenApplyAsync(ticket -> {
+            if (ticket != null) {
+                showGeneratedTicket(ticket.getTicketNumber(), patient.getName());
+            }
+            return ticket;
+        }, Platform::runLater);
+    }
+
+    private static void register(String requestKey, Patient patient, boolean newPatient,
+                                 PriorityLevel priority, String chiefComplaint, CompletableFuture<Ticket> registration) {
+        Ticket ticket = new Ticket(newVisitId(), null, patient, TicketStatus.WAITING,
+                priority, LocalDateTime.now(), null, chiefComplaint, null, null);
+
+        CompletableFuture.supplyAsync(() -> saveRegistration(requestKey, ticket, newPatient), registrar)
+                .thenApplyAsync(saved -> finishRegistration(requestKey, ticket, newPatient, saved), Platform::runLater)
+                .whenComplete((saved, e) -> {
+                    if (e != null) {
+                        logger.log(Level.WARNING, "Registration failed for " + patient.getName(), e);
+                        forgetRegistration(requestKey);
+                    }
+                    registration.complete(e == null ? saved : null);
+                });
+    }
+
+    /**
+     * Saves the registration in one transaction (registration thread)
+     *
+     * @return The saved ticket, or null if the database is down or the registration failed
+     */
+    private static Ticket saveRegistration(String requestKey, Ticket ticket, boolean newPatient) {
+        if (!DatabaseConnection.isAvailable()) {
+            return null;
+        }
+        try {
+            String visitId = registrationDAO.register(requestKey, ticket, newPatient);
+            if (!visitId.equals(ticket.getVisitId())) {
+                // Saved by an earlier submit of the same form
+                return DedicatedConnectionScope.call(() -> ticketDAO.findByVisitId(visitId));
+            }
+            QueueManager.getInstance().addSaved(ticket);
+            return ticket;
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Registration failed for " + ticket.getPatient().getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Journals the registration if the database went down, then updates the queue
+     * (JavaFX Application Thread)
+     *
+     * @return The issued ticket, or null if the registration failed
+     */
+    private static Ticket finishRegistration(String requestKey, Ticket ticket, boolean newPatient, Ticket saved) {
+        Patient patient = ticket.getPatient();
+        if (saved == null && !DatabaseConnection.isAvailable()) {
+            // Database is down: journal the registration and ticket for replay
+            if (!newPatient || registerPatient(patient)) {
+                ticket.setTicketNumber(generateNextTicket(patient.getName()));
+                saved = enqueue(ticket) ? ticket : null;
+            }
+        }
+        if (saved == null) {
+            // Let the desk submit the same form again
+            forgetRegistration(requestKey);
+            return null;
+        }
+        if (newPatient) {
+            PatientMatchIndex.getInstance().add(patient);
+        }
+        refreshQueueData();
+        return saved;
+    }
+
+    private static void forgetRegistration(String requestKey) {
+        synchronized (recentRegistrations) {
+            recentRegistrations.remove(requestKey);
+        }
+    }
+
     /**
      * Dequeues the next ticket (doctor calls next patient)
      * @param doctorId The doctor calling the patient
@@ -194,23 +393,31 @@ public class QueueService {
 
     /**
      * Generates the next queue ticket number from database
+     * While the database is down, numbering continues from this workstation's last ticket
      * Format: A1-A10, B1-B10, ... Z1-Z10
      * @param patientName Name of the patient for the ticket
      * @return The formatted ticket number (e.g., "A1", "B5", etc.)
      */
     public static String generateNextTicket(String patientName) {
         // Get next ticket number from database
-        String ticketNumber = ticketDAO.getNextTicketNumber();
+        String ticketNumber = DatabaseConnection.isAvailable()
+                ? ticketDAO.getNextTicketNumber()
+                : formatQueueNumber((currentQueueNumber.get() % MAX_QUEUE_NUMBER) + 1);
         
-        // Update local state for UI
+        showGeneratedTicket(ticketNumber, patientName);
+        return ticketNumber;
+    }
+
+    /**
+     * Updates the last generated ticket shown on the ticket view
+     */
+    private static void showGeneratedTicket(String ticketNumber, String patientName) {
         lastGeneratedTicket.set(ticketNumber);
         lastPatientName.set(patientName != null ? patientName : "");
         
         // Update queue number for UI
         int queueNum = parseTicketNumber(ticketNumber);
         currentQueueNumber.set(queueNum);
-        
-        return ticketNumber;
     }
 
     /**
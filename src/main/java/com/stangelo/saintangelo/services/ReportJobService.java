@@ -0,0 +1,443 @@
+package com.stangelo.saintangelo.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.stangelo.saintangelo.dao.ReportDAO;
+import com.stangelo.saintangelo.models.Report;
+import com.stangelo.saintangelo.models.ReportFormat;
+import com.stangelo.saintangelo.models.ReportStatus;
+import com.stangelo.saintangelo.models.ReportTyoe;
+import com.stangelo.saintangelo.utils.CsvReportWriter;
+import com.stangelo.saintangelo.utils.PdfReportWriter;
+import com.stangelo.saintangelo.utils.ReportTableWriter;
+import com.stangelo.saintangelo.utils.XlsxStreamWriter;
+
+/**
+ * Report Job Service
+ * Runs report generation in the background so the UI never waits on it
+ *
+ * Every request is persisted to the reports table as a QUEUED job before it
+ * waits for a worker, so jobs interrupted by a restart are picked up again.
+ * Generation runs on a small bounded pool; when the pool's queue is full new
+ * requests fail fast instead of piling up.
+ *
+ * A date range that ended before today cannot change any more, so a completed
+ * report for the same type, format and range is returned immediately instead
+ * of being generated again. Identical requests made while a job is still
+ * running share that job.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class ReportJobService {
+
+    private static final Logger logger = Logger.getLogger(ReportJobService.class.getName());
+
+    private static final int WORKER_THREADS = 2;
+    private static final int MAX_QUEUED_JOBS = 16;
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMMM yyyy");
+
+    private static final float[] BREAKDOWN_WEIGHTS = {3, 1.5f, 1.5f, 1.5f, 2, 2};
+
+    // Singleton instance
+    private static ReportJobService instance;
+
+    private final ReportDAO reportDAO;
+    private final Path outputDirectory;
+
+    // Persists requests and checks the cache; never blocks on generation
+    private final ExecutorService intakeExecutor;
+
+    // Bounded pool that does the actual generation
+    private final ThreadPoolExecutor workerPool;
+
+    // In-flight and cached jobs keyed by type, format and date range
+    private final Map<String, CompletableFuture<Report>> jobs = new ConcurrentHashMap<>();
+
+    private final AtomicLong lastReportId = new AtomicLong();
+
+    /**
+     * Private constructor for singleton
+     */
+    private ReportJobService() {
+        this.reportDAO = new ReportDAO();
+        this.outputDirectory = Paths.get(System.getProperty("user.home"), "SaintAngelo", "reports");
+        this.intakeExecutor = Executors.newSingleThreadExecutor(namedDaemonThreads("report-intake"));
+        this.workerPool = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_JOBS), namedDaemonThreads("report-worker"));
+
+        // Pick up jobs left over from a previous session
+        intakeExecutor.execute(this::resumePendingJobs);
+    }
+
+    /**
+     * Gets the singleton instance
+     */
+    public static synchronized ReportJobService getInstance() {
+        if (instance == null) {
+            instance = new ReportJobService();
+        }
+        return instance;
+    }
+
+    /**
+     * Requests a report; returns immediately
+     *
+     * @param reportType Statistics grouping
+     * @param format Output format
+     * @param startDate First day (inclusive)
+     * @param endDate Last day (inclusive)
+     * @param userId User requesting the report (stored as generated_by)
+     * @return Future completed with the finished report, or completed exceptionally if generation fails
+     */
+    public CompletableFuture<Report> submit(ReportTyoe reportType, ReportFormat format,
+                                            LocalDate startDate, LocalDate endDate, String userId) {
+        String key = cacheKey(reportType, format, startDate, endDate);
+        boolean cacheable = isCacheable(endDate);
+
+        CompletableFuture<Report> created = new CompletableFuture<>();
+        CompletableFuture<Report> future = jobs.compute(key, (k, existing) -> {
+            if (existing != null && !existing.isCompletedExceptionally()
+                    && (!existing.isDone() || (cacheable && isFilePresent(existing.join())))) {
+                return existing;
+            }
+            return created;
+        });
+
+        if (future == created) {
+            // Failed jobs, and ranges that include today, are only shared while running
+            created.whenComplete((report, error) -> {
+                if (error != null || !cacheable) {
+                    jobs.remove(key, created);
+                }
+            });
+            intakeExecutor.execute(() -> accept(created, reportType, format, startDate, endDate, userId, cacheable));
+        }
+        return future;
+    }
+
+    /**
+     * Stops the workers; queued jobs stay QUEUED in the database and resume on next start
+     */
+    public void shutdown() {
+        intakeExecutor.shutdownNow();
+        workerPool.shutdownNow();
+    }
+
+    /**
+     * Persists the job (or finds a cached result) and hands it to the worker pool
+     */
+    private void accept(CompletableFuture<Report> future, ReportTyoe reportType, ReportFormat format,
+                        LocalDate startDate, LocalDate endDate, String userId, boolean cacheable) {
+        try {
+            if (cacheable) {
+                Report cached = reportDAO.findCompletedReport(reportType, format, startDate, endDate);
+                if (cached != null && isFilePresent(cached)) {
+                    logger.info("Serving cached report " + cached.getReportId());
+                    future.complete(cached);
+                    return;
+                }
+            }
+
+            Report report = new Report(nextReportId(), reportType, startDate, endDate, format, userId);
+            if (!reportDAO.create(report)) {
+                future.completeExceptionally(new IllegalStateException("Could not save report job"));
+                return;
+            }
+            dispatch(report, future);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Re-submits jobs that were QUEUED or RUNNING when the application last stopped
+     */
+    private void resumePendingJobs() {
+        List<Report> pending = reportDAO.findPendingReports();
+        for (Report report : pending) {
+            String key = cacheKey(report.getReportType(), report.getReportFormat(),
+                    report.getStartDate(), report.getEndDate());
+            CompletableFuture<Report> future = new CompletableFuture<>();
+            if (jobs.putIfAbsent(key, future) == null) {
+                future.whenComplete((result, error) -> {
+                    if (error != null || !isCacheable(report.getEndDate())) {
+                        jobs.remove(key, future);
+                    }
+                });
+                logger.info("Resuming report job " + report.getReportId());
+                dispatch(report, future);
+            } else {
+                // An identical job was requested in the meantime
+                reportDAO.updateStatus(report.getReportId(), ReportStatus.FAILED, null, "Superseded by a newer request");
+            }
+        }
+    }
+
+    private void dispatch(Report report, CompletableFuture<Report> future) {
+        try {
+            workerPool.execute(() -> {
+                try {
+                    future.complete(generate(report));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reportDAO.updateStatus(report.getReportId(), ReportStatus.FAILED, null, "Report queue is full");
+            future.completeExceptionally(new IllegalStateException("Too many reports are being generated. Please try again shortly.", e));
+        }
+    }
+
+    /**
+     * Generates the report file on a worker thread and records the outcome
+     */
+    private Report generate(Report report) {
+        reportDAO.updateStatus(report.getReportId(), ReportStatus.RUNNING, null, null);
+        report.setStatus(ReportStatus.RUNNING);
+
+        try {
+            Files.createDirectories(outputDirectory);
+            String fileName = report.getReportId() + "." + getFileExtension(report.getReportFormat());
+            Path target = outputDirectory.resolve(fileName);
+            Path partial = outputDirectory.resolve(fileName + ".part");
+
+            long started = System.currentTimeMillis();
+            long rows = writeReport(report, partial.toFile());
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            report.setFilePath(target.toString());
+            report.setStatus(ReportStatus.COMPLETED);
+            report.setGeneratedAt(LocalDateTime.now());
+            reportDAO.updateStatus(report.getReportId(), ReportStatus.COMPLETED, report.getFilePath(), null);
+
+            logger.info(String.format("Report %s generated (%s): %d rows in %d ms",
+                    report.getReportId(), report.getReportFormat(), rows, System.currentTimeMillis() - started));
+            return report;
+
+        } catch (IOException | SQLException | RuntimeException e) {
+            logger.log(Level.SEVERE, "Error generating report " + report.getReportId(), e);
+            report.setStatus(ReportStatus.FAILED);
+            report.setErrorMessage(e.getMessage());
+            reportDAO.updateStatus(report.getReportId(), ReportStatus.FAILED, null, e.getMessage());
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Streams the statistics summary and ticket listing into the report file
+     * Spreadsheet formats (Excel, CSV) also carry the patients registered and
+     * activity logged in the period, one sheet/section each.
+     *
+     * @return Number of data rows written
+     */
+    private long writeReport(Report report, File file) throws IOException, SQLException {
+        long rows = 0;
+        try (ReportTableWriter writer = openWriter(report, file)) {
+            writer.startTable("Summary", ReportDAO.PERIOD_STATISTICS_COLUMNS,
+                    new float[] {3, 2, 2, 2, 2, 2, 2});
+            Consumer<String[]> summarySink = row -> {
+                row[0] = formatPeriod(report.getReportType(), LocalDate.parse(row[0]));
+                writer.writeRowUnchecked(row);
+            };
+            int periods = reportDAO.streamPeriodStatistics(report.getReportType(),
+                    report.getStartDate(), report.getEndDate(), summarySink);
+            rows += periods;
+
+            if (periods == 0) {
+                writer.writeNote("No tickets were created in this period.");
+            } else {
+                rows += writeBreakdowns(report, writer);
+                writer.startTable("Ticket Details", ReportDAO.TICKET_DETAIL_COLUMNS,
+                        new float[] {1, 1.5f, 3, 1.5f, 1.7f, 2.5f, 2, 1.2f});
+                rows += reportDAO.streamTicketDetails(report.getStartDate(), report.getEndDate(),
+                        writer::writeRowUnchecked);
+            }
+
+            if (report.getReportFormat() != ReportFormat.PDF) {
+                writer.startTable("Patients", ReportDAO.PATIENT_COLUMNS,
+                        new float[] {1.2f, 3, 0.8f, 1, 1.6f, 1.6f, 1.6f, 1.6f});
+                rows += reportDAO.streamPatients(report.getStartDate(), report.getEndDate(),
+                        writer::writeRowUnchecked);
+
+                writer.startTable("Activity Logs", ReportDAO.ACTIVITY_LOG_COLUMNS,
+                        new float[] {1.6f, 2, 1.4f, 2, 5});
+                rows += reportDAO.streamActivityLogs(report.getStartDate(), report.getEndDate(),
+                        writer::writeRowUnchecked);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Writes the weekday, department, doctor and priority breakdowns from the ticket cube
+     * Skipped for ranges that include today, which the cube does not hold yet.
+     *
+     * @return Number of data rows written
+     */
+    private long writeBreakdowns(Report report, ReportTableWriter writer) throws IOException {
+        TicketCube cube = getCube(report.getStartDate(), report.getEndDate());
+        if (cube == null) {
+            return 0;
+        }
+        long rows = 0;
+
+        writer.startTable("Volume by Weekday", breakdownColumns("Weekday"), BREAKDOWN_WEIGHTS);
+        rows += writeGroups(writer, cube.query().between(report.getStartDate(), report.getEndDate())
+                .groupBy(TicketCube.Dimension.WEEKDAY));
+
+        writer.startTable("Wait by Department", breakdownColumns("Department"), BREAKDOWN_WEIGHTS);
+        rows += writeGroups(writer, cube.query().between(report.getStartDate(), report.getEndDate())
+                .rollUp(TicketCube.Dimension.DEPARTMENT));
+
+        writer.startTable("Doctor Throughput", breakdownColumns("Doctor"), BREAKDOWN_WEIGHTS);
+        rows += writeGroups(writer, cube.query().between(report.getStartDate(), report.getEndDate())
+                .groupBy(TicketCube.Dimension.DOCTOR));
+
+        writer.startTable("Priority Mix", breakdownColumns("Priority"), BREAKDOWN_WEIGHTS);
+        rows += writeGroups(writer, cube.query().between(report.getStartDate(), report.getEndDate())
+                .rollUp(TicketCube.Dimension.PRIORITY));
+        return rows;
+    }
+
+    private static String[] breakdownColumns(String dimension) {
+        return new String[] {dimension, "Tickets", "Completed", "Skipped", "Avg Wait (min)", "Avg Service (min)"};
+    }
+
+    private int writeGroups(ReportTableWriter writer, List<TicketCube.Group> groups) throws IOException {
+        for (TicketCube.Group group : groups) {
+            TicketCube.Stats stats = group.getStats();
+            String label = group.getKey(0) != null ? group.getKey(0) : "Total";
+            writer.writeRow(new String[] {
+                    label,
+                    String.valueOf(stats.getCount()),
+                    String.valueOf(stats.getCompleted()),
+                    String.valueOf(stats.getSkipped()),
+                    String.format("%.1f", stats.getAverageWait()),
+                    String.format("%.1f", stats.getAverageService())
+            });
+        }
+        return groups.size();
+    }
+
+    /**
+     * Gets a ticket cube covering the range, or null if the range is not fully historical
+     */
+    private TicketCube getCube(LocalDate startDate, LocalDate endDate) {
+        if (!isCacheable(endDate)) {
+            return null;
+        }
+        try {
+            TicketCube cube = TicketAnalyticsService.getInstance().getCubeAsync().join();
+            return cube.covers(startDate) && cube.covers(endDate) ? cube : null;
+        } catch (CompletionException e) {
+            logger.log(Level.WARNING, "Ticket analytics unavailable; report breakdowns skipped", e);
+            return null;
+        }
+    }
+
+    private ReportTableWriter openWriter(Report report, File file) throws IOException {
+        switch (report.getReportFormat()) {
+            case EXCEL:
+                return new XlsxStreamWriter(file);
+            case CSV:
+                return new CsvReportWriter(file);
+            case PDF:
+            default:
+                String title = "Saint Angelo Hospital - " + getReportTitle(report.getReportType());
+                String subtitle = "Period: " + report.getStartDate() + " to " + report.getEndDate()
+                        + "    Generated: " + LocalDateTime.now().format(TIMESTAMP_FORMAT);
+                return new PdfReportWriter(file, title, subtitle);
+        }
+    }
+
+    /**
+     * Gets the file extension (without dot) used for a report format
+     */
+    public static String getFileExtension(ReportFormat format) {
+        switch (format) {
+            case EXCEL: return "xlsx";
+            case CSV: return "csv";
+            case PDF:
+            default: return "pdf";
+        }
+    }
+
+    private String getReportTitle(ReportTyoe reportType) {
+        switch (reportType) {
+            case DAILY_STATISTICS: return "Daily Statistics Report";
+            case WEEKLY_STATISTICS: return "Weekly Statistics Report";
+            case MONTHLY_STATISTICS: return "Monthly Statistics Report";
+            case CUSTOM:
+            default: return "Statistics Report";
+        }
+    }
+
+    private String formatPeriod(ReportTyoe reportType, LocalDate periodStart) {
+        switch (reportType) {
+            case WEEKLY_STATISTICS: return periodStart + " to " + periodStart.plusDays(6);
+            case MONTHLY_STATISTICS: return periodStart.format(MONTH_FORMAT);
+            default: return periodStart.toString();
+        }
+    }
+
+    /**
+     * Only ranges that are fully in the past produce the same report every time
+     */
+    private static boolean isCacheable(LocalDate endDate) {
+        return endDate.isBefore(LocalDate.now());
+    }
+
+    private static boolean isFilePresent(Report report) {
+        return report.getFilePath() != null && Files.isRegularFile(Paths.get(report.getFilePath()));
+    }
+
+    private static String cacheKey(ReportTyoe reportType, ReportFormat format, LocalDate startDate, LocalDate endDate) {
+        return reportType + "|" + format + "|" + startDate + "|" + endDate;
+    }
+
+    /**
+     * Generates a unique report ID ("RPT" + millis), strictly increasing within this process
+     */
+    private String nextReportId() {
+        long id = lastReportId.updateAndGet(previous -> Math.max(previous + 1, System.currentTimeMillis()));
+        return "RPT" + id;
+    }
+
+    private static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,148 @@
+package com.stangelo.saintangelo.services;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+import com.stangelo.saintangelo.dao.DedicatedConnectionScope;
+
+/**
+ * Startup Service
+ * Gets the login window on screen before anything touches the database, then
+ * warms up the rest of the application behind it.
+ *
+ * After the first frame, one background thread starts the background services
+ * (housekeeping, offline journal, patient match index), then connects to the
+ * database and builds the QueueManager with its first sync. It uses its own
+ * dedicated connection, not the shared one the login form uses. The receptionist reads the
+ * login screen while this runs, so the first dashboard finds everything ready.
+ *
+ * Records how long startup took from process launch: first frame, login form
+ * shown, database ready and interactive (login shown and database ready). The
+ * timings are logged once all are known.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class StartupService {
+
+    private static final Logger logger = Logger.getLogger(StartupService.class.getName());
+
+    // Singleton instance
+    private static StartupService instance;
+
+    private final Instant launchedAt;
+    private final CompletableFuture<Boolean> databaseReady = new CompletableFuture<>();
+    private boolean warmUpStarted;
+
+    private volatile Duration firstFrame;
+    private volatile Duration loginShown;
+    private volatile Duration databaseReadyAfter;
+    private volatile Duration interactive;
+
+    /**
+     * Private constructor for singleton
+     */
+    private StartupService() {
+        // Measure from process launch when the OS reports it, so JVM and JavaFX startup count too
+        this.launchedAt = ProcessHandle.current().info().startInstant().orElse(Instant.now());
+    }
+
+    /**
+     * Gets the singleton instance
+     */
+    public static synchronized StartupService getInstance() {
+        if (instance == null) {
+            instance = new StartupService();
+        }
+        return instance;
+    }
+
+    /**
+     * Records the first frame and starts the background warm-up
+     * Called once the login window has been painted; later calls do nothing.
+     */
+    public synchronized void firstFrameShown() {
+        if (warmUpStarted) {
+            return;
+        }
+        warmUpStarted = true;
+        firstFrame = sinceLaunch();
+
+        Thread warmUp = new Thread(this::warmUp, "startup-warmup");
+        warmUp.setDaemon(true);
+        warmUp.start();
+    }
+
+    /**
+     * Records that the login form is visible and accepts input
+     */
+    public void loginShown() {
+        if (loginShown == null) {
+            loginShown = sinceLaunch();
+            recordIfComplete();
+        }
+    }
+
+    /**
+     * Completes with whether the database could be reached during warm-up
+     */
+    public CompletableFuture<Boolean> databaseReady() {
+        return databaseReady;
+    }
+
+    /**
+     * Gets the time from launch to the first frame, or null if not shown yet
+     */
+    public Duration getTimeToFirstFrame() {
+        return firstFrame;
+    }
+
+    /**
+     * Gets the time from launch until login was shown and the database was ready,
+     * or null if either has not happened yet
+     */
+    public Duration getTimeToInteractive() {
+        return interactive;
+    }
+
+    private void warmUp() {
+        boolean connected = false;
+        try {
+            HousekeepingService.getInstance().start();
+            // Replays queue operations journaled while the database was down
+            OfflineJournalService.getInstance();
+            PatientMatchIndex.getInstance().start();
+
+            // The login form may query on the UI thread meanwhile, so stay off the shared connection
+            try {
+                // First queue sync, so the dashboard does not run it on the UI thread
+                DedicatedConnectionScope.run(QueueManager::getInstance);
+                connected = true;
+            } catch (SQLException e) {
+                logger.warning("Database not reachable during startup: " + e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            logger.warning("Startup warm-up failed: " + e.getMessage());
+        } finally {
+            databaseReadyAfter = sinceLaunch();
+            databaseReady.complete(connected);
+            recordIfComplete();
+        }
+    }
+
+    private synchronized void recordIfComplete() {
+        if (interactive != null || loginShown == null || databaseReadyAfter == null) {
+            return;
+        }
+        interactive = loginShown.compareTo(databaseReadyAfter) >= 0 ? loginShown : databaseReadyAfter;
+        logger.info(String.format("Startup: first frame %d ms, login shown %d ms, database ready %d ms, interactive %d ms",
+                firstFrame.toMillis(), loginShown.toMillis(), databaseReadyAfter.toMillis(), interactive.toMillis()));
+    }
+
+    private Duration sinceLaunch() {
+        return Duration.between(launchedAt, Instant.now());
+    }
+}
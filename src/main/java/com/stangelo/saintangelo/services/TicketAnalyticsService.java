@@ -0,0 +1,152 @@
+package com.stangelo.saintangelo.services;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.stangelo.saintangelo.dao.TicketDAO;
+import com.stangelo.saintangelo.models.TicketStatus;
+
+/**
+ * Ticket Analytics Service
+ * Keeps an in-memory {@link TicketCube} of historical tickets for dashboards and reports
+ *
+ * Only days that have ended are loaded: their tickets no longer change, so the
+ * cube never has to be invalidated. The first load reads the last
+ * {@value #HISTORY_DAYS} days in one streaming query; after that each refresh
+ * only appends the days completed since the previous load. Today's numbers
+ * still come from TicketDAO.
+ *
+ * Loading runs on a background thread. Until the first load finishes
+ * {@link #getCube()} returns null and callers fall back to SQL.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class TicketAnalyticsService {
+
+    private static final Logger logger = Logger.getLogger(TicketAnalyticsService.class.getName());
+
+    // Days of history loaded on the first refresh
+    private static final int HISTORY_DAYS = 730;
+
+    // Singleton instance
+    private static TicketAnalyticsService instance;
+
+    private final TicketDAO ticketDAO;
+    private final ExecutorService loader;
+
+    // Latest published snapshot; replaced as a whole on every refresh
+    private volatile TicketCube cube;
+
+    // Refresh currently running (or last completed), shared by concurrent callers
+    private CompletableFuture<TicketCube> refreshing;
+
+    /**
+     * Private constructor for singleton
+     */
+    private TicketAnalyticsService() {
+        this.ticketDAO = new TicketDAO();
+        this.loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ticket-analytics-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the singleton instance
+     */
+    public static synchronized TicketAnalyticsService getInstance() {
+        if (instance == null) {
+            instance = new TicketAnalyticsService();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the latest cube without waiting
+     * Starts a refresh in the background if yesterday is not loaded yet.
+     *
+     * @return The current cube, or null if the first load has not finished
+     */
+    public TicketCube getCube() {
+        TicketCube current = cube;
+        if (current == null || isStale(current)) {
+            refresh();
+        }
+        return current;
+    }
+
+    /**
+     * Gets a cube that includes every day before today, loading it if needed
+     * Intended for background work such as report generation.
+     */
+    public CompletableFuture<TicketCube> getCubeAsync() {
+        TicketCube current = cube;
+        if (current != null && !isStale(current)) {
+            return CompletableFuture.completedFuture(current);
+        }
+        return refresh();
+    }
+
+    /**
+     * Appends any completed days that are not in the cube yet
+     * Concurrent calls share one refresh.
+     */
+    public synchronized CompletableFuture<TicketCube> refresh() {
+        if (refreshing != null && !refreshing.isDone()) {
+            return refreshing;
+        }
+        refreshing = CompletableFuture.supplyAsync(this::load, loader);
+        return refreshing;
+    }
+
+    /**
+     * Stops the loader thread
+     */
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    private TicketCube load() {
+        TicketCube current = cube;
+        LocalDate today = LocalDate.now();
+        if (current != null && !isStale(current)) {
+            return current;
+        }
+
+        TicketCube.Builder builder = current != null
+                ? current.toBuilder()
+                : TicketCube.builder(today.minusDays(HISTORY_DAYS));
+        LocalDate from = current != null ? current.getLoadedUntil() : today.minusDays(HISTORY_DAYS);
+
+        try {
+            long started = System.currentTimeMillis();
+            // Only finished days are loaded, so anything still waiting has expired
+            // even if the rollover has not marked it yet
+            int rows = ticketDAO.streamTicketFacts(from, today,
+                    (created, status, priority, doctorId, doctorName, department, wait, service) ->
+                            builder.add(created, status == TicketStatus.WAITING ? TicketStatus.EXPIRED : status,
+                                    priority, doctorId, doctorName, department, wait, service));
+            TicketCube loaded = builder.build(today);
+            cube = loaded;
+
+            logger.info(String.format("Ticket cube loaded %d tickets (%s to %s) in %d ms; %d tickets, ~%d KB total",
+                    rows, from, today.minusDays(1), System.currentTimeMillis() - started,
+                    loaded.size(), loaded.estimateColumnBytes() / 1024));
+            return loaded;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error loading ticket cube", e);
+            throw new IllegalStateException("Could not load ticket analytics", e);
+        }
+    }
+
+    private static boolean isStale(TicketCube cube) {
+        return cube.getLoadedUntil().isBefore(LocalDate.now());
+    }
+}
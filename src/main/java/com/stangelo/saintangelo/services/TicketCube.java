@@ -0,0 +1,806 @@
+package com.stangelo.saintangelo.services;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.stangelo.saintangelo.models.PriorityLevel;
+import com.stangelo.saintangelo.models.TicketStatus;
+
+/**
+ * Ticket Cube
+ * Immutable, column-oriented snapshot of historical tickets for analytics
+ *
+ * Each ticket is one row spread across primitive arrays:
+ * - status and priority are stored as enum ordinals (one byte each)
+ * - department and doctor are dictionary-encoded (two bytes each)
+ * - created time is delta-encoded: a base second per block of rows plus an
+ *   int offset per row (rows arrive in creation order, so offsets stay small)
+ * - wait and service times are stored in minutes, -1 when not reached
+ *
+ * Because rows are sorted by creation time, a date filter is two binary
+ * searches. Group-by queries split the selected rows into chunks and
+ * aggregate them in parallel on the common fork-join pool.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public final class TicketCube {
+
+    /**
+     * Grouping dimensions supported by {@link Query#groupBy} and {@link Query#rollUp}
+     */
+    public enum Dimension {
+        STATUS, PRIORITY, DEPARTMENT, DOCTOR, WEEKDAY, HOUR, DAY, WEEK, MONTH
+    }
+
+    private static final int BLOCK_SHIFT = 12;              // 4096 rows share one time base
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int MIN_ROWS_PER_TASK = 8_192;
+    private static final int MAX_CELLS = 1 << 20;
+    private static final String UNASSIGNED = "Unassigned";
+
+    private static final TicketStatus[] STATUSES = TicketStatus.values();
+    private static final PriorityLevel[] PRIORITIES = PriorityLevel.values();
+
+    // Accumulator layout: one slot per field per cell
+    private static final int F_COUNT = 0;
+    private static final int F_COMPLETED = 1;
+    private static final int F_SKIPPED = 2;
+    private static final int F_WAIT_COUNT = 3;
+    private static final int F_WAIT_SUM = 4;
+    private static final int F_SERVICE_COUNT = 5;
+    private static final int F_SERVICE_SUM = 6;
+    private static final int FIELDS = 7;
+
+    private final int size;
+    private final byte[] status;
+    private final byte[] priority;
+    private final short[] department;
+    private final short[] doctor;
+    private final long[] blockBase;
+    private final int[] createdOffset;
+    private final short[] waitMinutes;
+    private final short[] serviceMinutes;
+
+    private final String[] departmentNames;
+    private final String[] doctorIds;
+    private final String[] doctorNames;
+
+    private final LocalDate firstDay;
+    private final LocalDate loadedUntil;
+
+    private TicketCube(Builder builder) {
+        this.size = builder.size;
+        this.status = Arrays.copyOf(builder.status, size);
+        this.priority = Arrays.copyOf(builder.priority, size);
+        this.department = Arrays.copyOf(builder.department, size);
+        this.doctor = Arrays.copyOf(builder.doctor, size);
+        this.blockBase = Arrays.copyOf(builder.blockBase, blockCount(size));
+        this.createdOffset = Arrays.copyOf(builder.createdOffset, size);
+        this.waitMinutes = Arrays.copyOf(builder.waitMinutes, size);
+        this.serviceMinutes = Arrays.copyOf(builder.serviceMinutes, size);
+        this.departmentNames = builder.departmentNames.toArray(new String[0]);
+        this.doctorIds = builder.doctorIds.toArray(new String[0]);
+        this.doctorNames = builder.doctorNames.toArray(new String[0]);
+        this.firstDay = builder.firstDay;
+        this.loadedUntil = builder.loadedUntil;
+    }
+
+    /**
+     * Creates an empty builder for tickets created on or after the given day
+     */
+    public static Builder builder(LocalDate firstDay) {
+        return new Builder(firstDay);
+    }
+
+    /**
+     * Creates a builder pre-filled with this cube's rows, used to append newer days
+     * The cube itself is left untouched, so readers can keep using it meanwhile.
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * Starts a query over every row in the cube
+     */
+    public Query query() {
+        return new Query();
+    }
+
+    /** Number of tickets in the cube */
+    public int size() {
+        return size;
+    }
+
+    /** First day covered by the cube */
+    public LocalDate getFirstDay() {
+        return firstDay;
+    }
+
+    /** Day after the last day covered by the cube (exclusive bound) */
+    public LocalDate getLoadedUntil() {
+        return loadedUntil;
+    }
+
+    /**
+     * Whether the cube holds every ticket of the given day
+     */
+    public boolean covers(LocalDate day) {
+        return !day.isBefore(firstDay) && day.isBefore(loadedUntil);
+    }
+
+    /**
+     * Approximate heap used by the column arrays, in bytes
+     */
+    public long estimateColumnBytes() {
+        return (long) size * (1 + 1 + 2 + 2 + 4 + 2 + 2) + blockBase.length * 8L;
+    }
+
+    private static int blockCount(int rows) {
+        return (rows + (1 << BLOCK_SHIFT) - 1) >>> BLOCK_SHIFT;
+    }
+
+    private long createdSecond(int row) {
+        return blockBase[row >>> BLOCK_SHIFT] + createdOffset[row];
+    }
+
+    /**
+     * First row created at or after the given second (rows are sorted)
+     */
+    private int lowerBound(long second) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (createdSecond(mid) < second) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static long toSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static short toShortMinutes(int minutes) {
+        if (minutes < 0) {
+            return -1;
+        }
+        return (short) Math.min(minutes, Short.MAX_VALUE);
+    }
+
+    /**
+     * Whether a ticket's wait time counts towards average wait
+     * Matches TicketDAO: the ticket was called and not skipped.
+     */
+    private static boolean hasWait(int statusCode, int wait) {
+        return wait >= 0 && statusCode != TicketStatus.WAITING.ordinal() && statusCode != TicketStatus.SKIPPED.ordinal();
+    }
+
+    // --- BUILDER ---
+
+    /**
+     * Appends ticket rows in creation order and produces an immutable cube
+     * Not thread-safe; intended to be filled by a single loader thread.
+     */
+    public static final class Builder {
+
+        private final LocalDate firstDay;
+        private LocalDate loadedUntil;
+
+        private int size;
+        private byte[] status;
+        private byte[] priority;
+        private short[] department;
+        private short[] doctor;
+        private long[] blockBase;
+        private int[] createdOffset;
+        private short[] waitMinutes;
+        private short[] serviceMinutes;
+        private long lastSecond = Long.MIN_VALUE;
+
+        private final List<String> departmentNames = new ArrayList<>();
+        private final Map<String, Short> departmentCodes = new HashMap<>();
+        private final List<String> doctorIds = new ArrayList<>();
+        private final List<String> doctorNames = new ArrayList<>();
+        private final Map<String, Short> doctorCodes = new HashMap<>();
+
+        private Builder(LocalDate firstDay) {
+            this.firstDay = firstDay;
+            this.loadedUntil = firstDay;
+            allocate(1 << BLOCK_SHIFT);
+
+            // Code 0 is reserved for tickets without a doctor/department
+            departmentNames.add(UNASSIGNED);
+            doctorIds.add(null);
+            doctorNames.add(UNASSIGNED);
+        }
+
+        private Builder(TicketCube cube) {
+            this.firstDay = cube.firstDay;
+            this.loadedUntil = cube.loadedUntil;
+            this.size = cube.size;
+            this.status = cube.status;
+            this.priority = cube.priority;
+            this.department = cube.department;
+            this.doctor = cube.doctor;
+            this.blockBase = cube.blockBase;
+            this.createdOffset = cube.createdOffset;
+            this.waitMinutes = cube.waitMinutes;
+            this.serviceMinutes = cube.serviceMinutes;
+            if (size > 0) {
+                this.lastSecond = cube.createdSecond(size - 1);
+            }
+            // Copy before the first write so the source cube stays immutable
+            allocate(Math.max(size + (size >>> 1), 1 << BLOCK_SHIFT));
+
+            for (int i = 0; i < cube.departmentNames.length; i++) {
+                departmentNames.add(cube.departmentNames[i]);
+                if (i > 0) {
+                    departmentCodes.put(cube.departmentNames[i], (short) i);
+                }
+            }
+            for (int i = 0; i < cube.doctorIds.length; i++) {
+                doctorIds.add(cube.doctorIds[i]);
+                doctorNames.add(cube.doctorNames[i]);
+                if (i > 0) {
+                    doctorCodes.put(cube.doctorIds[i], (short) i);
+                }
+            }
+        }
+
+        /**
+         * Appends one ticket; tickets must be added in creation order
+         * Matches TicketDAO.TicketFactConsumer so it can be passed as a method reference.
+         */
+        public void add(LocalDateTime createdTime, TicketStatus ticketStatus, PriorityLevel priorityLevel,
+                        String doctorId, String doctorName, String departmentName,
+                        int wait, int service) {
+            long second = toSecond(createdTime);
+            if (second < lastSecond) {
+                throw new IllegalArgumentException("Tickets must be added in creation order");
+            }
+            if (size == status.length) {
+                allocate(size * 2);
+            }
+
+            int block = size >>> BLOCK_SHIFT;
+            if ((size & ((1 << BLOCK_SHIFT) - 1)) == 0) {
+                blockBase[block] = second;
+            }
+            long offset = second - blockBase[block];
+            if (offset > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Ticket time gap too large for one block");
+            }
+
+            status[size] = (byte) ticketStatus.ordinal();
+            priority[size] = (byte) priorityLevel.ordinal();
+            department[size] = departmentCode(departmentName);
+            doctor[size] = doctorCode(doctorId, doctorName);
+            createdOffset[size] = (int) offset;
+            waitMinutes[size] = toShortMinutes(wait);
+            serviceMinutes[size] = toShortMinutes(service);
+            lastSecond = second;
+            size++;
+        }
+
+        /**
+         * Builds the cube; every ticket created before {@code loadedUntil} must have been added
+         */
+        public TicketCube build(LocalDate loadedUntil) {
+            if (loadedUntil.isBefore(this.loadedUntil)) {
+                throw new IllegalArgumentException("loadedUntil cannot move backwards");
+            }
+            this.loadedUntil = loadedUntil;
+            return new TicketCube(this);
+        }
+
+        private short departmentCode(String name) {
+            if (name == null || name.isBlank()) {
+                return 0;
+            }
+            return departmentCodes.computeIfAbsent(name, key -> {
+                departmentNames.add(key);
+                return checkedCode(departmentNames.size() - 1);
+            });
+        }
+
+        private short doctorCode(String id, String name) {
+            if (id == null) {
+                return 0;
+            }
+            return doctorCodes.computeIfAbsent(id, key -> {
+                doctorIds.add(key);
+                doctorNames.add(name != null ? name : key);
+                return checkedCode(doctorIds.size() - 1);
+            });
+        }
+
+        private static short checkedCode(int code) {
+            if (code > Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct values for a dictionary column");
+            }
+            return (short) code;
+        }
+
+        private void allocate(int capacity) {
+            status = status == null ? new byte[capacity] : Arrays.copyOf(status, capacity);
+            priority = priority == null ? new byte[capacity] : Arrays.copyOf(priority, capacity);
+            department = department == null ? new short[capacity] : Arrays.copyOf(department, capacity);
+            doctor = doctor == null ? new short[capacity] : Arrays.copyOf(doctor, capacity);
+            createdOffset = createdOffset == null ? new int[capacity] : Arrays.copyOf(createdOffset, capacity);
+            waitMinutes = waitMinutes == null ? new short[capacity] : Arrays.copyOf(waitMinutes, capacity);
+            serviceMinutes = serviceMinutes == null ? new short[capacity] : Arrays.copyOf(serviceMinutes, capacity);
+            int blocks = blockCount(capacity);
+            blockBase = blockBase == null ? new long[blocks] : Arrays.copyOf(blockBase, blocks);
+        }
+    }
+
+    // --- QUERIES ---
+
+    /**
+     * Filter and grouping over the cube
+     * Filters are combined with AND; within one filter the listed values are combined with OR.
+     */
+    public final class Query {
+
+        private LocalDate from;
+        private LocalDate to;
+        private int statusMask = -1;
+        private int priorityMask = -1;
+        private int departmentFilter = -1;
+        private int doctorFilter = -1;
+        private boolean matchesNothing;
+
+        private Query() {
+        }
+
+        /**
+         * Restricts to tickets created between the two days
+         *
+         * @param fromDay First day (inclusive)
+         * @param toDay Last day (inclusive)
+         */
+        public Query between(LocalDate fromDay, LocalDate toDay) {
+            this.from = fromDay;
+            this.to = toDay.plusDays(1);
+            return this;
+        }
+
+        public Query status(TicketStatus... statuses) {
+            statusMask = 0;
+            for (TicketStatus s : statuses) {
+                statusMask |= 1 << s.ordinal();
+            }
+            return this;
+        }
+
+        public Query priority(PriorityLevel... levels) {
+            priorityMask = 0;
+            for (PriorityLevel level : levels) {
+                priorityMask |= 1 << level.ordinal();
+            }
+            return this;
+        }
+
+        public Query department(String name) {
+            int code = departmentNames.length;
+            for (int i = 0; i < departmentNames.length; i++) {
+                if (departmentNames[i].equals(name)) {
+                    code = i;
+                    break;
+                }
+            }
+            departmentFilter = code;
+            matchesNothing |= code == departmentNames.length;
+            return this;
+        }
+
+        public Query doctor(String doctorId) {
+            int code = doctorIds.length;
+            for (int i = 1; i < doctorIds.length; i++) {
+                if (doctorIds[i].equals(doctorId)) {
+                    code = i;
+                    break;
+                }
+            }
+            doctorFilter = code;
+            matchesNothing |= code == doctorIds.length;
+            return this;
+        }
+
+        /**
+         * Totals over every matching ticket
+         */
+        public Stats totals() {
+            List<Group> groups = groupBy();
+            return groups.isEmpty() ? new Stats(new long[FIELDS], 0) : groups.get(0).getStats();
+        }
+
+        /**
+         * Groups matching tickets by the given dimensions
+         * Only non-empty groups are returned, ordered by dimension value
+         * (enum order, dictionary order, or chronological for time dimensions).
+         */
+        public List<Group> groupBy(Dimension... dimensions) {
+            Layout layout = new Layout(dimensions);
+            long[] cells = aggregate(layout);
+            List<Group> groups = new ArrayList<>();
+            for (int cell = 0; cell < layout.cells; cell++) {
+                if (cells[cell * FIELDS + F_COUNT] > 0) {
+                    groups.add(new Group(layout.labels(cell, dimensions.length), new Stats(cells, cell * FIELDS)));
+                }
+            }
+            return groups;
+        }
+
+        /**
+         * Groups like SQL's GROUP BY ... WITH ROLLUP
+         * After the groups for each value of a leading dimension comes a subtotal
+         * row whose trailing keys are null, and the last row is the grand total
+         * (all keys null).
+         */
+        public List<Group> rollUp(Dimension... dimensions) {
+            Layout layout = new Layout(dimensions);
+            long[] cells = aggregate(layout);
+            int levels = dimensions.length;
+
+            // Running subtotals for each prefix length 0..levels-1
+            long[][] subtotals = new long[levels][FIELDS];
+            String[][] subtotalKeys = new String[levels][];
+            List<Group> groups = new ArrayList<>();
+
+            int[] previous = null;
+            for (int cell = 0; cell < layout.cells; cell++) {
+                if (cells[cell * FIELDS + F_COUNT] == 0) {
+                    continue;
+                }
+                int[] codes = layout.codes(cell);
+                if (previous != null) {
+                    int changed = firstDifference(previous, codes);
+                    flushSubtotals(groups, subtotals, subtotalKeys, changed + 1, levels);
+                }
+                String[] labels = layout.labels(cell, levels);
+                groups.add(new Group(labels, new Stats(cells, cell * FIELDS)));
+                for (int level = 0; level < levels; level++) {
+                    if (subtotalKeys[level] == null) {
+                        subtotalKeys[level] = Arrays.copyOf(labels, levels);
+                        Arrays.fill(subtotalKeys[level], level, levels, null);
+                    }
+                    for (int f = 0; f < FIELDS; f++) {
+                        subtotals[level][f] += cells[cell * FIELDS + f];
+                    }
+                }
+                previous = codes;
+            }
+            if (previous != null) {
+                flushSubtotals(groups, subtotals, subtotalKeys, 0, levels);
+            }
+            return groups;
+        }
+
+        private int firstDifference(int[] a, int[] b) {
+            for (int i = 0; i < a.length; i++) {
+                if (a[i] != b[i]) {
+                    return i;
+                }
+            }
+            return a.length;
+        }
+
+        /**
+         * Emits subtotals for prefix lengths levels-1 down to minLevel, innermost first
+         */
+        private void flushSubtotals(List<Group> groups, long[][] subtotals, String[][] keys, int minLevel, int levels) {
+            for (int level = levels - 1; level >= minLevel; level--) {
+                if (keys[level] != null) {
+                    groups.add(new Group(keys[level], new Stats(subtotals[level], 0)));
+                }
+                subtotals[level] = new long[FIELDS];
+                keys[level] = null;
+            }
+        }
+
+        private long[] aggregate(Layout layout) {
+            int lo = from != null ? lowerBound(toSecond(from.atStartOfDay())) : 0;
+            int hi = to != null ? lowerBound(toSecond(to.atStartOfDay())) : size;
+            if (matchesNothing || lo >= hi) {
+                return new long[layout.cells * FIELDS];
+            }
+            int threshold = Math.max(MIN_ROWS_PER_TASK,
+                    (hi - lo) / (ForkJoinPool.getCommonPoolParallelism() * 4));
+            return ForkJoinPool.commonPool().invoke(new AggregateTask(this, layout, lo, hi, threshold));
+        }
+
+        private boolean matches(int row) {
+            return (statusMask & (1 << status[row])) != 0
+                    && (priorityMask & (1 << priority[row])) != 0
+                    && (departmentFilter < 0 || department[row] == departmentFilter)
+                    && (doctorFilter < 0 || doctor[row] == doctorFilter);
+        }
+
+        /**
+         * Maps each dimension value to a dense index so groups fit in one flat array
+         */
+        private final class Layout {
+            private final Dimension[] dimensions;
+            private final int[] cardinality;
+            private final int cells;
+            private final long originDay;       // first day of DAY/WEEK/MONTH indexes
+            private final long originWeekDay;   // Monday on or before originDay
+            private final LocalDate originMonth;
+
+            private Layout(Dimension[] dimensions) {
+                this.dimensions = dimensions;
+                this.cardinality = new int[dimensions.length];
+
+                LocalDate start = from != null ? from : (size > 0 ? dayOf(0) : firstDay);
+                LocalDate end = to != null ? to : (size > 0 ? dayOf(size - 1).plusDays(1) : start.plusDays(1));
+                if (!end.isAfter(start)) {
+                    end = start.plusDays(1);
+                }
+                this.originDay = start.toEpochDay();
+                this.originWeekDay = start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toEpochDay();
+                this.originMonth = start.withDayOfMonth(1);
+
+                long total = 1;
+                for (int i = 0; i < dimensions.length; i++) {
+                    cardinality[i] = cardinalityOf(dimensions[i], start, end);
+                    total *= cardinality[i];
+                    if (total > MAX_CELLS) {
+                        throw new IllegalArgumentException("Too many groups; narrow the date range or drop a dimension");
+                    }
+                }
+                this.cells = (int) total;
+            }
+
+            private int cardinalityOf(Dimension dimension, LocalDate start, LocalDate end) {
+                switch (dimension) {
+                    case STATUS: return STATUSES.length;
+                    case PRIORITY: return PRIORITIES.length;
+                    case DEPARTMENT: return departmentNames.length;
+                    case DOCTOR: return doctorIds.length;
+                    case WEEKDAY: return 7;
+                    case HOUR: return 24;
+                    case DAY: return (int) ChronoUnit.DAYS.between(start, end);
+                    case WEEK: return (int) ((end.toEpochDay() - 1 - originWeekDay) / 7 + 1);
+                    case MONTH:
+                    default: return (int) ChronoUnit.MONTHS.between(originMonth, end.minusDays(1).withDayOfMonth(1)) + 1;
+                }
+            }
+
+            private int[] codes(int cell) {
+                int[] codes = new int[dimensions.length];
+                for (int i = dimensions.length - 1; i >= 0; i--) {
+                    codes[i] = cell % cardinality[i];
+                    cell /= cardinality[i];
+                }
+                return codes;
+            }
+
+            private String[] labels(int cell, int length) {
+                int[] codes = codes(cell);
+                String[] labels = new String[length];
+                for (int i = 0; i < length; i++) {
+                    labels[i] = label(dimensions[i], codes[i]);
+                }
+                return labels;
+            }
+
+            private String label(Dimension dimension, int code) {
+                switch (dimension) {
+                    case STATUS: return STATUSES[code].name();
+                    case PRIORITY: return PRIORITIES[code].name();
+                    case DEPARTMENT: return departmentNames[code];
+                    case DOCTOR: return doctorNames[code];
+                    case WEEKDAY: return DayOfWeek.of(code + 1).getDisplayName(TextStyle.FULL, Locale.getDefault());
+                    case HOUR: return String.format("%02d:00", code);
+                    case DAY: return LocalDate.ofEpochDay(originDay + code).toString();
+                    case WEEK: return LocalDate.ofEpochDay(originWeekDay + code * 7L).toString();
+                    case MONTH:
+                    default: return originMonth.plusMonths(code).toString().substring(0, 7);
+                }
+            }
+        }
+
+        /**
+         * Aggregates a row range; splits in half until the range is small enough
+         */
+        @SuppressWarnings("serial") // Fork/join tasks are never serialized
+        private final class AggregateTask extends RecursiveTask<long[]> {
+            private final Query query;
+            private final Layout layout;
+            private final int lo;
+            private final int hi;
+            private final int threshold;
+
+            private AggregateTask(Query query, Layout layout, int lo, int hi, int threshold) {
+                this.query = query;
+                this.layout = layout;
+                this.lo = lo;
+                this.hi = hi;
+                this.threshold = threshold;
+            }
+
+            @Override
+            protected long[] compute() {
+                if (hi - lo <= threshold) {
+                    return scan();
+                }
+                int mid = (lo + hi) >>> 1;
+                AggregateTask left = new AggregateTask(query, layout, lo, mid, threshold);
+                left.fork();
+                long[] right = new AggregateTask(query, layout, mid, hi, threshold).compute();
+                long[] merged = left.join();
+                for (int i = 0; i < merged.length; i++) {
+                    merged[i] += right[i];
+                }
+                return merged;
+            }
+
+            private long[] scan() {
+                long[] cells = new long[layout.cells * FIELDS];
+                Dimension[] dimensions = layout.dimensions;
+                int[] cardinality = layout.cardinality;
+
+                // Rows are sorted, so the day changes rarely; cache its derived values
+                long cachedDay = Long.MIN_VALUE;
+                int cachedMonth = 0;
+
+                for (int row = lo; row < hi; row++) {
+                    if (!query.matches(row)) {
+                        continue;
+                    }
+                    long second = createdSecond(row);
+                    long day = Math.floorDiv(second, SECONDS_PER_DAY);
+                    if (day != cachedDay) {
+                        cachedDay = day;
+                        cachedMonth = (int) ChronoUnit.MONTHS.between(layout.originMonth,
+                                LocalDate.ofEpochDay(day).withDayOfMonth(1));
+                    }
+
+                    int cell = 0;
+                    for (int i = 0; i < dimensions.length; i++) {
+                        int code;
+                        switch (dimensions[i]) {
+                            case STATUS: code = status[row]; break;
+                            case PRIORITY: code = priority[row]; break;
+                            case DEPARTMENT: code = department[row]; break;
+                            case DOCTOR: code = doctor[row]; break;
+                            case WEEKDAY: code = Math.floorMod(day + 3, 7); break;  // epoch day 0 was a Thursday
+                            case HOUR: code = Math.floorMod(second, SECONDS_PER_DAY) / 3600; break;
+                            case DAY: code = (int) (day - layout.originDay); break;
+                            case WEEK: code = (int) ((day - layout.originWeekDay) / 7); break;
+                            case MONTH:
+                            default: code = cachedMonth; break;
+                        }
+                        cell = cell * cardinality[i] + code;
+                    }
+
+                    int base = cell * FIELDS;
+                    int statusCode = status[row];
+                    cells[base + F_COUNT]++;
+                    if (statusCode == TicketStatus.COMPLETED.ordinal()) {
+                        cells[base + F_COMPLETED]++;
+                    } else if (statusCode == TicketStatus.SKIPPED.ordinal()) {
+                        cells[base + F_SKIPPED]++;
+                    }
+                    int wait = waitMinutes[row];
+                    if (hasWait(statusCode, wait)) {
+                        cells[base + F_WAIT_COUNT]++;
+                        cells[base + F_WAIT_SUM] += wait;
+                    }
+                    int service = serviceMinutes[row];
+                    if (service >= 0) {
+                        cells[base + F_SERVICE_COUNT]++;
+                        cells[base + F_SERVICE_SUM] += service;
+                    }
+                }
+                return cells;
+            }
+        }
+    }
+
+    private LocalDate dayOf(int row) {
+        return LocalDate.ofEpochDay(Math.floorDiv(createdSecond(row), SECONDS_PER_DAY));
+    }
+
+    // --- RESULTS ---
+
+    /**
+     * One row of a group-by result
+     * Keys follow the order of the requested dimensions; a null key marks a roll-up subtotal.
+     */
+    public static final class Group {
+        private final String[] keys;
+        private final Stats stats;
+
+        private Group(String[] keys, Stats stats) {
+            this.keys = keys;
+            this.stats = stats;
+        }
+
+        public String getKey(int index) {
+            return keys[index];
+        }
+
+        public String[] getKeys() {
+            return keys.clone();
+        }
+
+        public boolean isSubtotal() {
+            return keys.length > 0 && keys[keys.length - 1] == null;
+        }
+
+        public Stats getStats() {
+            return stats;
+        }
+    }
+
+    /**
+     * Aggregated ticket measures for one group
+     */
+    public static final class Stats {
+        private final long count;
+        private final long completed;
+        private final long skipped;
+        private final long waitCount;
+        private final long waitSum;
+        private final long serviceCount;
+        private final long serviceSum;
+
+        private Stats(long[] cells, int base) {
+            this.count = cells[base + F_COUNT];
+            this.completed = cells[base + F_COMPLETED];
+            this.skipped = cells[base + F_SKIPPED];
+            this.waitCount = cells[base + F_WAIT_COUNT];
+            this.waitSum = cells[base + F_WAIT_SUM];
+            this.serviceCount = cells[base + F_SERVICE_COUNT];
+            this.serviceSum = cells[base + F_SERVICE_SUM];
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+
+        public long getSkipped() {
+            return skipped;
+        }
+
+        /** Number of tickets that have a wait time (called and not skipped) */
+        public long getWaitCount() {
+            return waitCount;
+        }
+
+        /** Average minutes from ticket creation to being called, 0 if none */
+        public double getAverageWait() {
+            return waitCount == 0 ? 0 : (double) waitSum / waitCount;
+        }
+
+        /** Average minutes from being called to completion, 0 if none */
+        public double getAverageService() {
+            return serviceCount == 0 ? 0 : (double) serviceSum / serviceCount;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.stangelo.saintangelo.services;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.logging.Logger;
+
+import com.stangelo.saintangelo.dao.TicketDAO;
+
+/**
+ * Ticket Rollover Service
+ * Keeps the live tickets table down to today's queue
+ *
+ * Once a day ends, its tickets are finished with:
+ * - tickets still WAITING are marked EXPIRED
+ * - COMPLETED, SKIPPED and EXPIRED tickets are moved to tickets_history
+ * Tickets that are CALLED or IN_SERVICE stay until the doctor closes them
+ * and are moved by the next rollover.
+ *
+ * Work is done in small batches, each in its own short transaction, paced
+ * by the {@link HousekeepingContext}. The rollover runs as the
+ * "ticket-rollover" job of {@link HousekeepingService}, shortly after
+ * midnight and at start-up when a day was missed.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class TicketRolloverService {
+
+    private static final Logger logger = Logger.getLogger(TicketRolloverService.class.getName());
+
+    // Singleton instance
+    private static TicketRolloverService instance;
+
+    private final TicketDAO ticketDAO;
+
+    /**
+     * Private constructor for singleton
+     */
+    private TicketRolloverService() {
+        this.ticketDAO = new TicketDAO();
+    }
+
+    /**
+     * Gets the singleton instance
+     */
+    public static synchronized TicketRolloverService getInstance() {
+        if (instance == null) {
+            instance = new TicketRolloverService();
+        }
+        return instance;
+    }
+
+    /**
+     * Expires and moves closed tickets created before today
+     *
+     * @param context Batch size, pacing and time budget
+     * @return Number of tickets expired plus tickets moved to tickets_history
+     * @throws SQLException if a batch fails (batches already committed stay committed)
+     * @throws InterruptedException if interrupted while pausing between batches
+     */
+    public int rollover(HousekeepingContext context) throws SQLException, InterruptedException {
+        LocalDate today = LocalDate.now();
+        long started = System.currentTimeMillis();
+
+        int expired = context.repeat(batchSize -> ticketDAO.expireStaleTickets(today, batchSize));
+        int moved = context.repeat(batchSize -> ticketDAO.moveClosedTicketsToHistory(today, batchSize));
+
+        if (expired > 0 || moved > 0) {
+            logger.info(String.format("Ticket rollover: %d expired, %d moved to history in %d ms; %d tickets remain live",
+                    expired, moved, System.currentTimeMillis() - started, ticketDAO.countLiveTickets()));
+        }
+        return expired + moved;
+    }
+}
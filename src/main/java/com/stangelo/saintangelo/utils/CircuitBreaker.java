@@ -0,0 +1,136 @@
+package com.stangelo.saintangelo.utils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Circuit Breaker
+ * Stops callers from waiting on a resource that is known to be down
+ *
+ * States:
+ * - CLOSED: calls go through; consecutive failures are counted
+ * - OPEN: calls fail immediately until the cool-down has passed
+ * - HALF_OPEN: one trial call is let through; success closes the breaker, failure opens it again
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = Logger.getLogger(CircuitBreaker.class.getName());
+
+    /**
+     * Breaker state
+     */
+    public enum State {
+        CLOSED,     // Calls go through
+        OPEN,       // Calls fail fast
+        HALF_OPEN   // One trial call in progress
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final List<Consumer<State>> listeners = new CopyOnWriteArrayList<>();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    /**
+     * @param name Name used in log messages
+     * @param failureThreshold Consecutive failures that open the breaker
+     * @param openMillis How long the breaker stays open before a trial call is allowed
+     */
+    public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * Checks whether a call may go ahead
+     * When the cool-down has passed, the first caller is let through as the
+     * trial call and must report the outcome with recordSuccess/recordFailure.
+     *
+     * @return true if the call may go ahead, false to fail fast
+     */
+    public boolean allowRequest() {
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.HALF_OPEN || System.currentTimeMillis() - openedAt < openMillis) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+        }
+        notifyListeners(State.HALF_OPEN);
+        return true;
+    }
+
+    /**
+     * Records a successful call; closes the breaker if it was open
+     */
+    public void recordSuccess() {
+        boolean closed;
+        synchronized (this) {
+            consecutiveFailures = 0;
+            closed = state != State.CLOSED;
+            state = State.CLOSED;
+        }
+        if (closed) {
+            logger.info("Circuit breaker '" + name + "' closed, " + name + " is reachable again");
+            notifyListeners(State.CLOSED);
+        }
+    }
+
+    /**
+     * Records a failed call; opens the breaker when the threshold is reached or a trial call fails
+     */
+    public void recordFailure() {
+        boolean opened;
+        synchronized (this) {
+            consecutiveFailures++;
+            opened = state == State.HALF_OPEN
+                    || (state == State.CLOSED && consecutiveFailures >= failureThreshold);
+            if (opened || state == State.OPEN) {
+                state = State.OPEN;
+                openedAt = System.currentTimeMillis();
+            }
+        }
+        if (opened) {
+            logger.warning("Circuit breaker '" + name + "' opened after " + consecutiveFailures +
+                    " failures; failing fast for " + openMillis + " ms");
+            notifyListeners(State.OPEN);
+        }
+    }
+
+    /**
+     * Gets the current state
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Registers a listener called on every state change (on the thread that caused it)
+     * Listeners must return quickly.
+     */
+    public void addListener(Consumer<State> listener) {
+        listeners.add(listener);
+    }
+
+    private void notifyListeners(State newState) {
+        for (Consumer<State> listener : listeners) {
+            try {
+                listener.accept(newState);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Circuit breaker listener failed", e);
+            }
+        }
+    }
+}
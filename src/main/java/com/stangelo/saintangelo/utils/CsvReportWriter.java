@@ -0,0 +1,107 @@
+package com.stangelo.saintangelo.utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CSV report writer
+ * Tables are written one after another, each preceded by its heading and
+ * separated by a blank line. Values are quoted following RFC 4180.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class CsvReportWriter implements ReportTableWriter {
+
+    private final Writer out;
+    private boolean firstTable = true;
+
+    /**
+     * Creates a writer for the given output file
+     *
+     * @param outputFile File the CSV is written to
+     * @throws IOException if the file cannot be opened
+     */
+    public CsvReportWriter(File outputFile) throws IOException {
+        this(outputFile, false);
+    }
+
+    /**
+     * Creates a writer that can continue an existing file
+     *
+     * @param outputFile File the CSV is written to
+     * @param append true to add rows after the file's current content
+     * @throws IOException if the file cannot be opened
+     */
+    public CsvReportWriter(File outputFile, boolean append) throws IOException {
+        if (append && outputFile.length() > 0) {
+            this.out = Files.newBufferedWriter(outputFile.toPath(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            this.firstTable = false;
+            return;
+        }
+        BufferedWriter writer = Files.newBufferedWriter(outputFile.toPath(), StandardCharsets.UTF_8);
+        // Byte order mark so Excel detects UTF-8
+        writer.write('\uFEFF');
+        this.out = writer;
+    }
+
+    @Override
+    public void startTable(String heading, String[] columns, float[] weights) throws IOException {
+        if (!firstTable) {
+            out.write("\r\n");
+        }
+        firstTable = false;
+        writeNote(heading);
+        writeRow(columns);
+    }
+
+    @Override
+    public void writeRow(String[] cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeValue(cells[i]);
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void writeNote(String text) throws IOException {
+        writeValue(text);
+        out.write("\r\n");
+    }
+
+    /**
+     * Writes buffered rows to the file
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeValue(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (needsQuotes) {
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        } else {
+            out.write(value);
+        }
+    }
+}
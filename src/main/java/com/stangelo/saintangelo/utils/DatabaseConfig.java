@@ -2,6 +2,8 @@ package com.stangelo.saintangelo.utils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -26,6 +28,13 @@ public class DatabaseConfig {
     private static final String DEFAULT_DB_PASSWORD = "";
     private static final String DEFAULT_DB_DRIVER = "com.mysql.cj.jdbc.Driver";
 
+    // Replica and failover defaults
+    private static final int DEFAULT_REPLICA_MAX_LAG_SECONDS = 3;
+    private static final int DEFAULT_HEALTH_CHECK_INTERVAL_SECONDS = 10;
+
+    // Metrics defaults
+    private static final int DEFAULT_METRICS_LOG_INTERVAL_SECONDS = 60;
+
     static {
         loadConfiguration();
     }
@@ -69,8 +78,76 @@ public class DatabaseConfig {
      * @return Database URL with timeout parameters
      */
     public static String getDatabaseUrl() {
-        String baseUrl = properties.getProperty("db.url", DEFAULT_DB_URL);
-        
+        return withDefaultParameters(properties.getProperty("db.url", DEFAULT_DB_URL));
+    }
+
+    /**
+     * Gets the read replica URLs, in failover order
+     * Replicas serve dashboard and display reads, and the first one that is
+     * already writable takes over writes if the primary fails.
+     *
+     * @return Replica URLs with timeout parameters (empty if none configured)
+     */
+    public static List<String> getReplicaUrls() {
+        List<String> urls = new ArrayList<>();
+        for (String url : properties.getProperty("db.replica.urls", "").split(",")) {
+            if (!url.isBlank()) {
+                urls.add(withDefaultParameters(url.trim()));
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Gets how far behind the primary a replica may be and still serve reads
+     *
+     * @return Maximum replication lag in seconds
+     */
+    public static int getReplicaMaxLagSeconds() {
+        return getIntProperty("db.replica.maxLagSeconds", DEFAULT_REPLICA_MAX_LAG_SECONDS);
+    }
+
+    /**
+     * Gets how often database hosts are health-checked
+     *
+     * @return Interval in seconds
+     */
+    public static int getHealthCheckIntervalSeconds() {
+        return getIntProperty("db.health.intervalSeconds", DEFAULT_HEALTH_CHECK_INTERVAL_SECONDS);
+    }
+
+    /**
+     * Checks whether database statements are timed and metrics are published over
+     * JMX and in the log (on by default)
+     *
+     * @return true if metrics are enabled
+     */
+    public static boolean isMetricsEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("metrics.enabled", "true").trim());
+    }
+
+    /**
+     * Gets how often a metrics summary line is logged
+     *
+     * @return Interval in seconds, 0 for no summary line
+     */
+    public static int getMetricsLogIntervalSeconds() {
+        return getIntProperty("metrics.log.intervalSeconds", DEFAULT_METRICS_LOG_INTERVAL_SECONDS);
+    }
+
+    private static int getIntProperty(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(properties.getProperty(key, Integer.toString(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            logger.warning("Invalid value for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Adds timeout parameters to a JDBC URL unless it already sets them
+     */
+    private static String withDefaultParameters(String baseUrl) {
         // Add timeout parameters if not already present
         if (!baseUrl.contains("connectTimeout") && !baseUrl.contains("socketTimeout")) {
             String separator = baseUrl.contains("?") ? "&" : "?";
@@ -10,6 +10,11 @@ import java.util.logging.Logger;
  * Database Connection Utility Class
  * Manages MySQL database connections for the SaintAngelo Hospital Queue Management System
  *
+ * Connection attempts go through a {@link CircuitBreaker}: once the database
+ * has failed {@value #BREAKER_FAILURE_THRESHOLD} times in a row, getConnection()
+ * returns null immediately instead of blocking the caller, and only one trial
+ * connection is made every {@value #BREAKER_OPEN_MS} ms until it comes back.
+ *
  * @author SaintAngelo Development Team
  * @version 1.0
  */
@@ -19,7 +24,7 @@ public class DatabaseConnection {
 
     // Database configuration - loaded from DatabaseConfig
     private static String getDbUrl() {
-        return DatabaseConfig.getDatabaseUrl();
+        return DatabaseRouter.getWriteUrl();
     }
 
     private static String getDbUsername() {
@@ -39,6 +44,12 @@ public class DatabaseConnection {
     private static final int MAX_RETRY_ATTEMPTS = 3;
     private static final int RETRY_DELAY_MS = 1000;
 
+    // Circuit breaker settings
+    private static final int BREAKER_FAILURE_THRESHOLD = 2;
+    private static final long BREAKER_OPEN_MS = 10000;
+    private static final CircuitBreaker circuitBreaker =
+            new CircuitBreaker("database", BREAKER_FAILURE_THRESHOLD, BREAKER_OPEN_MS);
+
     /**
      * Private constructor to prevent instantiation
      * This is a utility class with static methods only
@@ -50,10 +61,12 @@ public class DatabaseConnection {
     /**
      * Establishes a connection to the MySQL database
      * Uses singleton pattern to maintain a single connection instance
+     * Fails fast (returns null without trying) while the circuit breaker is open
      *
      * @return Connection object if successful, null otherwise
      */
     public static Connection getConnection() {
+        boolean lostConnection = false;
         try {
             // Check if connection exists and is still valid
             if (connection != null) {
@@ -71,10 +84,12 @@ public class DatabaseConnection {
                                     // Connection appears valid but query fails - connection is stale
                                     logger.warning("Connection validation query failed, connection is stale: " + e.getMessage());
                                     connection = null;
+                                    lostConnection = true;
                                 }
                             } else {
                                 logger.warning("Connection validation failed, connection is invalid");
                                 connection = null;
+                                lostConnection = true;
                             }
                         } catch (AbstractMethodError | NoSuchMethodError e) {
                             // isValid() not available, try a simple query instead
@@ -84,6 +99,7 @@ public class DatabaseConnection {
                             } catch (SQLException queryException) {
                                 logger.warning("Connection test query failed: " + queryException.getMessage());
                                 connection = null;
+                                lostConnection = true;
                             }
                         }
                     } else {
@@ -94,26 +110,44 @@ public class DatabaseConnection {
                     // Connection is invalid, reset it
                     logger.warning("Existing connection is invalid, creating new one: " + e.getMessage());
                     connection = null;
+                    lostConnection = true;
                 }
             }
 
-            // Load MySQL JDBC driver
-            try {
-                Class.forName(getDbDriver());
-                logger.info("JDBC Driver loaded: " + getDbDriver());
-            } catch (ClassNotFoundException e) {
-                logger.log(Level.SEVERE, "MySQL JDBC Driver not found. Make sure mysql-connector-j is in the classpath.", e);
+            if (lostConnection) {
+                circuitBreaker.recordFailure();
+            }
+            if (!circuitBreaker.allowRequest()) {
+                logger.fine("Database circuit breaker is open, failing fast");
                 return null;
             }
 
-            // Establish connection with retry logic
-            connection = establishConnectionWithRetry();
+            // allowRequest() may have started a trial call (HALF_OPEN); every way out
+            // must report its outcome or the breaker stays HALF_OPEN for good
+            boolean connected = false;
+            try {
+                // Load MySQL JDBC driver
+                try {
+                    Class.forName(getDbDriver());
+                    logger.info("JDBC Driver loaded: " + getDbDriver());
+                } catch (ClassNotFoundException e) {
+                    logger.log(Level.SEVERE, "MySQL JDBC Driver not found. Make sure mysql-connector-j is in the classpath.", e);
+                    return null;
+                }
 
-            if (connection != null) {
+                // Single attempt: while the database is down the circuit breaker,
+                // not the calling (often UI) thread, waits between attempts
+                connection = establishConnectionWithRetry(1);
+                circuitBreaker.recordSuccess();
+                connected = true;
                 logger.info("Database connection established successfully");
-            }
 
-            return connection;
+                return connection;
+            } finally {
+                if (!connected) {
+                    circuitBreaker.recordFailure();
+                }
+            }
 
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Failed to establish database connection", e);
@@ -122,23 +156,54 @@ public class DatabaseConnection {
         }
     }
 
+    /**
+     * Opens a new connection that is owned by the caller
+     * Used by long-running background work (such as report generation) so that
+     * streaming a large result set does not tie up the shared connection
+     *
+     * @return New Connection object, the caller is responsible for closing it
+     * @throws SQLException if the driver is missing, connection fails or the circuit breaker is open
+     */
+    public static Connection openDedicatedConnection() throws SQLException {
+        try {
+            Class.forName(getDbDriver());
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("MySQL JDBC Driver not found: " + getDbDriver(), e);
+        }
+        if (!circuitBreaker.allowRequest()) {
+            throw new SQLException("Database unavailable (circuit breaker open)");
+        }
+        boolean connected = false;
+        try {
+            Connection conn = establishConnectionWithRetry(MAX_RETRY_ATTEMPTS);
+            circuitBreaker.recordSuccess();
+            connected = true;
+            return conn;
+        } finally {
+            if (!connected) {
+                circuitBreaker.recordFailure();
+            }
+        }
+    }
+
     /**
      * Establishes connection with retry mechanism
      *
+     * @param maxAttempts Number of attempts before giving up
      * @return Connection object
      * @throws SQLException if connection fails after all retry attempts
      */
-    private static Connection establishConnectionWithRetry() throws SQLException {
+    private static Connection establishConnectionWithRetry(int maxAttempts) throws SQLException {
         SQLException lastException = null;
 
-        for (int attempt = 1; attempt <= MAX_RETRY_ATTEMPTS; attempt++) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
             try {
                 String url = getDbUrl();
                 String username = getDbUsername();
                 String password = getDbPassword();
                 
                 logger.info(String.format("Attempting connection (attempt %d/%d): URL=%s, Username=%s", 
-                    attempt, MAX_RETRY_ATTEMPTS, url, username));
+                    attempt, maxAttempts, url, username));
                 
                 Connection conn = DriverManager.getConnection(url, username, password);
 
@@ -159,7 +224,7 @@ public class DatabaseConnection {
                 // Print stack trace for debugging
                 logger.log(Level.SEVERE, "Full exception details:", e);
 
-                if (attempt < MAX_RETRY_ATTEMPTS) {
+                if (attempt < maxAttempts) {
                     try {
                         Thread.sleep(RETRY_DELAY_MS);
                     } catch (InterruptedException ie) {
@@ -170,7 +235,7 @@ public class DatabaseConnection {
             }
         }
 
-        throw lastException != null ? lastException : new SQLException("Failed to establish connection after " + MAX_RETRY_ATTEMPTS + " attempts");
+        throw lastException != null ? lastException : new SQLException("Failed to establish connection after " + maxAttempts + " attempts");
     }
 
     /**
@@ -237,6 +302,22 @@ public class DatabaseConnection {
         return false;
     }
 
+    /**
+     * Tests the database with a dedicated connection
+     * Unlike testConnection(), leaves the shared connection alone, so it is safe to
+     * call from a background thread while the UI thread is using the database.
+     *
+     * @return true if a connection could be opened and is valid, false otherwise
+     */
+    public static boolean testDedicatedConnection() {
+        try (Connection conn = openDedicatedConnection()) {
+            return conn.isValid(5);
+        } catch (SQLException e) {
+            logger.warning("Database connection test failed: " + e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Gets the current database URL
      *
@@ -268,6 +349,27 @@ public class DatabaseConnection {
         }
     }
 
+    /**
+     * Checks whether the database is believed to be reachable
+     * Returns false while the circuit breaker is open or a trial connection is in progress,
+     * without touching the network.
+     *
+     * @return true if the circuit breaker is closed
+     */
+    public static boolean isAvailable() {
+        return circuitBreaker.getState() == CircuitBreaker.State.CLOSED;
+    }
+
+    /**
+     * Gets the circuit breaker guarding database connections
+     * Used to be notified when the database goes down or comes back.
+     *
+     * @return The database circuit breaker
+     */
+    public static CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
     /**
      * Resets the connection (closes and reopens)
      * Useful for reconnecting after connection loss
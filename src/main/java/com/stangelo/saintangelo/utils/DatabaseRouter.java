@@ -0,0 +1,424 @@
+package com.stangelo.saintangelo.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Database Router
+ * Chooses which MySQL host a connection goes to
+ *
+ * Hosts are the primary (db.url) followed by the replicas (db.replica.urls)
+ * in failover order. A background health check connects to every host each
+ * db.health.intervalSeconds and records whether it is reachable, writable
+ * (@@global.read_only) and, for replicas, how far behind the primary it is.
+ *
+ * Routing:
+ * - Writes and ordinary reads use the current write host
+ * - Read-only DAO methods may use a replica that is at most
+ *   db.replica.maxLagSeconds behind (as of the last health check)
+ * - Read-your-writes: after this workstation writes, its reads stay on the
+ *   write host until any eligible replica must have caught up
+ *
+ * Replica connections: each replica keeps one idle connection that reads
+ * reuse; closing a read connection hands it back instead of closing it. Replica
+ * connections use short connect and socket timeouts, so an unreachable replica
+ * costs a read at most CONNECT_TIMEOUT_MS before it falls back to the primary.
+ *
+ * Failover: when the write host fails two health checks in a row, writes
+ * move to the first reachable replica that is already writable. The router
+ * never makes a replica writable itself: every workstation decides failover
+ * on its own, so promotion (STOP REPLICA, read_only=OFF) must be done by an
+ * operator or a single external coordinator, otherwise two workstations could
+ * promote different replicas. The old primary is retired until the
+ * application restarts, so a host that comes back with diverged data is
+ * never written to or read from again.
+ *
+ * With no replicas configured every call routes to db.url and no health check runs.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class DatabaseRouter {
+
+    private static final Logger logger = Logger.getLogger(DatabaseRouter.class.getName());
+
+    private static final int FAILED_CHECKS_BEFORE_FAILOVER = 2;
+
+    // Replica connection timeouts; they override any set in db.replica.urls
+    private static final int CONNECT_TIMEOUT_MS = 2000;
+    private static final int READ_SOCKET_TIMEOUT_MS = 30000;
+    private static final int HEALTH_CHECK_SOCKET_TIMEOUT_MS = 5000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    /**
+     * A configured database host and its last health check
+     */
+    private static final class Host {
+        private final String url;
+        private volatile boolean reachable = true;
+        private volatile boolean writable;
+        private volatile long lagSeconds = -1; // -1: unknown or not replicating
+        private volatile boolean retired;       // Former primary after a failover
+        private int failedChecks;               // Health check thread only
+        private final AtomicReference<Connection> idle = new AtomicReference<>();
+
+        private Host(String url) {
+            this.url = url;
+        }
+    }
+
+    private static final List<Host> hosts = new ArrayList<>();
+    private static final AtomicInteger nextReplica = new AtomicInteger();
+    private static final long maxLagSeconds = DatabaseConfig.getReplicaMaxLagSeconds();
+
+    private static volatile Host writer;
+    private static volatile long lastWriteNanos = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+
+    static {
+        hosts.add(new Host(DatabaseConfig.getDatabaseUrl()));
+        for (String url : DatabaseConfig.getReplicaUrls()) {
+            hosts.add(new Host(url));
+        }
+        writer = hosts.get(0);
+        writer.writable = true;
+
+        if (hosts.size() > 1) {
+            ScheduledExecutorService healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "database-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = DatabaseConfig.getHealthCheckIntervalSeconds();
+            healthChecker.scheduleWithFixedDelay(DatabaseRouter::checkHealth, 0, interval, TimeUnit.SECONDS);
+            logger.info("Database routing: primary plus " + (hosts.size() - 1) + " replica(s), max lag " + maxLagSeconds + " s");
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private DatabaseRouter() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Gets the URL of the host that currently takes writes
+     *
+     * @return Write host URL (db.url unless a failover happened)
+     */
+    public static String getWriteUrl() {
+        return writer.url;
+    }
+
+    /**
+     * Checks whether any read replicas are configured
+     */
+    public static boolean hasReplicas() {
+        return hosts.size() > 1;
+    }
+
+    /**
+     * Gets a connection to a replica that may serve a read
+     * Returns null (use the write host) when no replica is healthy and current
+     * enough, or when this workstation wrote too recently to read from one.
+     * Reuses the replica's idle connection when it is still valid.
+     *
+     * @return Replica connection, to be closed by the caller (which hands it back for reuse), or null
+     */
+    public static Connection openReadConnection() {
+        if (!hasReplicas() || System.nanoTime() - lastWriteNanos < TimeUnit.SECONDS.toNanos(maxLagSeconds + 1)) {
+            return null;
+        }
+        int count = hosts.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            Host host = hosts.get((start + i) % count);
+            if (!canServeReads(host)) {
+                continue;
+            }
+            try {
+                Connection conn = takeIdle(host);
+                if (conn == null) {
+                    conn = connect(host, READ_SOCKET_TIMEOUT_MS);
+                }
+                return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[] { Connection.class }, new ReturnOnClose(host, conn));
+            } catch (SQLException e) {
+                // Skipped until the next health check finds it reachable again
+                host.reachable = false;
+                logger.warning("Replica unreachable, reading from the primary: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records that this workstation has just written, so its next reads go to the write host
+     */
+    public static void markWrite() {
+        lastWriteNanos = System.nanoTime();
+    }
+
+    /**
+     * Wraps a write-host connection so that executing an update through it
+     * counts as a write for read-your-writes routing
+     * Returns the connection unchanged when no replicas are configured.
+     *
+     * @param connection Write host connection
+     * @return Connection that reports writes
+     */
+    public static Connection trackWrites(Connection connection) {
+        if (!hasReplicas() || connection == null) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new WriteTracker(connection));
+    }
+
+    private static Connection connect(Host host, int socketTimeoutMs) throws SQLException {
+        Properties info = new Properties();
+        info.setProperty("user", DatabaseConfig.getDatabaseUsername());
+        info.setProperty("password", DatabaseConfig.getDatabasePassword());
+        info.setProperty("connectTimeout", Integer.toString(CONNECT_TIMEOUT_MS));
+        info.setProperty("socketTimeout", Integer.toString(socketTimeoutMs));
+        return DriverManager.getConnection(host.url, info);
+    }
+
+    /**
+     * Takes a host's idle connection if it is still usable
+     *
+     * @return The idle connection, or null if there is none or it went stale
+     */
+    private static Connection takeIdle(Host host) {
+        Connection conn = host.idle.getAndSet(null);
+        if (conn == null) {
+            return null;
+        }
+        try {
+            if (conn.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return conn;
+            }
+        } catch (SQLException e) {
+            logger.fine("Idle replica connection is invalid: " + e.getMessage());
+        }
+        closeQuietly(conn);
+        return null;
+    }
+
+    /**
+     * Keeps a finished read connection as the host's idle connection,
+     * or closes it if the host may no longer serve reads or already has one
+     */
+    private static void release(Host host, Connection conn) {
+        try {
+            if (canServeReads(host) && !conn.isClosed() && conn.getAutoCommit()
+                    && host.idle.compareAndSet(null, conn)) {
+                return;
+            }
+        } catch (SQLException e) {
+            logger.fine("Replica connection not reusable: " + e.getMessage());
+        }
+        closeQuietly(conn);
+    }
+
+    private static void closeIdle(Host host) {
+        Connection conn = host.idle.getAndSet(null);
+        if (conn != null) {
+            closeQuietly(conn);
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            logger.fine("Error closing replica connection: " + e.getMessage());
+        }
+    }
+
+    private static boolean canServeReads(Host host) {
+        return host != writer && !host.retired && host.reachable
+                && host.lagSeconds >= 0 && host.lagSeconds <= maxLagSeconds;
+    }
+
+    /**
+     * Checks every host, then fails over if the write host is down
+     */
+    private static void checkHealth() {
+        try {
+            for (Host host : hosts) {
+                if (!host.retired) {
+                    check(host);
+                }
+            }
+            if (writer.failedChecks >= FAILED_CHECKS_BEFORE_FAILOVER) {
+                failover();
+            }
+        } catch (RuntimeException e) {
+            // Keep the scheduled checks alive
+            logger.log(Level.SEVERE, "Unexpected error in database health check", e);
+        }
+    }
+
+    private static void check(Host host) {
+        try (Connection conn = connect(host, HEALTH_CHECK_SOCKET_TIMEOUT_MS);
+             Statement stmt = conn.createStatement()) {
+
+            try (ResultSet rs = stmt.executeQuery("SELECT @@global.read_only")) {
+                host.writable = rs.next() && rs.getInt(1) == 0;
+            }
+            host.lagSeconds = host == writer ? 0 : readReplicationLag(stmt);
+            if (!host.reachable) {
+                logger.info("Database host reachable again: " + host.url);
+            }
+            host.reachable = true;
+            host.failedChecks = 0;
+        } catch (SQLException e) {
+            if (host.reachable) {
+                logger.warning("Database host failed health check: " + host.url + " (" + e.getMessage() + ")");
+            }
+            host.reachable = false;
+            host.failedChecks++;
+            closeIdle(host);
+        }
+        if (!canServeReads(host)) {
+            closeIdle(host);
+        }
+    }
+
+    /**
+     * Reads Seconds_Behind_Source from the replica status
+     *
+     * @return Lag in seconds, or -1 if the host is not replicating
+     */
+    private static long readReplicationLag(Statement stmt) {
+        try (ResultSet rs = stmt.executeQuery("SHOW REPLICA STATUS")) {
+            return rs.next() ? lagColumn(rs, "Seconds_Behind_Source") : -1;
+        } catch (SQLException e) {
+            // MySQL before 8.0.22
+            try (ResultSet rs = stmt.executeQuery("SHOW SLAVE STATUS")) {
+                return rs.next() ? lagColumn(rs, "Seconds_Behind_Master") : -1;
+            } catch (SQLException legacy) {
+                logger.fine("Cannot read replication status (needs REPLICATION CLIENT): " + legacy.getMessage());
+                return -1;
+            }
+        }
+    }
+
+    private static long lagColumn(ResultSet rs, String column) throws SQLException {
+        long lag = rs.getLong(column);
+        return rs.wasNull() ? -1 : lag;
+    }
+
+    /**
+     * Moves writes to the first reachable replica that is already writable
+     * Does not promote a replica; see the class comment.
+     */
+    private static void failover() {
+        for (Host candidate : hosts) {
+            if (candidate == writer || candidate.retired || !candidate.reachable) {
+                continue;
+            }
+            if (candidate.writable) {
+                Host old = writer;
+                old.retired = true;
+                closeIdle(candidate);
+                candidate.lagSeconds = 0;
+                writer = candidate;
+                logger.severe("Database failover: writes moved from " + old.url + " to " + candidate.url);
+                // The shared connection still points at the failed host
+                DatabaseConnection.closeConnection();
+                return;
+            }
+        }
+        logger.warning("Write host is down and no writable replica is available");
+    }
+
+    /**
+     * Forwards every call to a replica connection except close(), which hands it back for reuse
+     */
+    private static final class ReturnOnClose implements InvocationHandler {
+        private final Host host;
+        private final Connection target;
+        private boolean closed;
+
+        private ReturnOnClose(Host host, Connection target) {
+            this.host = host;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("close") && method.getParameterCount() == 0) {
+                synchronized (this) {
+                    if (!closed) {
+                        closed = true;
+                        release(host, target);
+                    }
+                }
+                return null;
+            }
+            if (name.equals("isClosed") && method.getParameterCount() == 0) {
+                synchronized (this) {
+                    if (closed) {
+                        return true;
+                    }
+                }
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Forwards every call to the real connection; statements it creates report updates as writes
+     */
+    private static final class WriteTracker implements InvocationHandler {
+        private final Object target;
+
+        private WriteTracker(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            String name = method.getName();
+            if (name.equals("executeUpdate") || name.equals("executeLargeUpdate") || name.equals("executeBatch")
+                    || name.equals("executeLargeBatch") || name.equals("commit")
+                    || (name.equals("execute") && Boolean.FALSE.equals(result))) {
+                markWrite();
+            } else if (result instanceof Statement && method.getReturnType().isInterface()) {
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[] { method.getReturnType() }, new WriteTracker(result));
+            }
+            return result;
+        }
+    }
+}
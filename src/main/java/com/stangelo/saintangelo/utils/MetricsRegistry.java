@@ -0,0 +1,428 @@
+package com.stangelo.saintangelo.utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metrics Registry
+ * Process-wide named counters, gauges and latency timers.
+ *
+ * Timers keep a count, total, maximum and a fixed histogram (1 ms to 10 s buckets),
+ * so percentiles can be read at any time without storing samples. Recording is
+ * lock-free and safe from any thread, including the JavaFX Application Thread.
+ *
+ * When metrics are enabled (metrics.enabled in database.properties, on by default),
+ * DAO statements are timed (see dao/StatementMetrics) and start() publishes every
+ * metric as a JMX MBean under "com.stangelo.saintangelo" and logs a one-line
+ * summary of what changed every metrics.log.intervalSeconds. Disabled, nothing is
+ * published and DAOs use their connections unwrapped.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public final class MetricsRegistry {
+
+    private static final Logger logger = Logger.getLogger(MetricsRegistry.class.getName());
+
+    private static final String JMX_DOMAIN = "com.stangelo.saintangelo";
+
+    // Upper bounds of the histogram buckets in milliseconds; the last bucket is unbounded
+    private static final long[] BUCKET_BOUNDS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+
+    private static final boolean enabled = DatabaseConfig.isMetricsEnabled();
+
+    private static final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    // Set by start(); metrics created afterwards are registered as they appear
+    private static volatile MBeanServer mbeanServer;
+    private static ScheduledExecutorService summaryLogger;
+
+    /**
+     * Private constructor to prevent instantiation
+     * This is a utility class with static methods only
+     */
+    private MetricsRegistry() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Checks whether metrics are enabled in the configuration
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Publishes the metrics over JMX and starts the summary log line
+     * Does nothing when metrics are disabled or already started.
+     */
+    public static synchronized void start() {
+        if (!enabled || mbeanServer != null) {
+            return;
+        }
+        mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        timers.forEach((name, timer) -> register("Timer", name, timer));
+        counters.forEach((name, counter) -> register("Counter", name, counter));
+        gauges.forEach((name, gauge) -> register("Gauge", name, gauge));
+
+        int interval = DatabaseConfig.getMetricsLogIntervalSeconds();
+        if (interval > 0) {
+            summaryLogger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-summary");
+                thread.setDaemon(true);
+                return thread;
+            });
+            SummaryLine summary = new SummaryLine();
+            summaryLogger.scheduleAtFixedRate(summary::log, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stops the summary log line
+     */
+    public static synchronized void shutdown() {
+        if (summaryLogger != null) {
+            summaryLogger.shutdownNow();
+            summaryLogger = null;
+        }
+    }
+
+    /**
+     * Gets the timer with the given name, creating it on first use
+     */
+    public static Timer timer(String name) {
+        Timer timer = timers.get(name);
+        if (timer == null) {
+            timer = getOrRegister(timers, "Timer", name, new Timer());
+        }
+        return timer;
+    }
+
+    /**
+     * Gets the counter with the given name, creating it on first use
+     */
+    public static Counter counter(String name) {
+        Counter counter = counters.get(name);
+        if (counter == null) {
+            counter = getOrRegister(counters, "Counter", name, new Counter());
+        }
+        return counter;
+    }
+
+    /**
+     * Registers a gauge, read whenever the metrics are read; replaces one of the same name
+     *
+     * @param name Gauge name
+     * @param value Current value; must be cheap and must not block
+     */
+    public static void gauge(String name, LongSupplier value) {
+        Gauge gauge = gauges.get(name);
+        if (gauge == null) {
+            gauge = getOrRegister(gauges, "Gauge", name, new Gauge(value));
+        }
+        // The registered MBean stays; only what it reads changes
+        gauge.value = value;
+    }
+
+    /**
+     * Gets a snapshot of every timer, by name
+     */
+    public static Map<String, TimerSnapshot> timerSnapshots() {
+        Map<String, TimerSnapshot> snapshots = new TreeMap<>();
+        timers.forEach((name, timer) -> snapshots.put(name, timer.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * Gets the current value of every counter, by name
+     */
+    public static Map<String, Long> counterValues() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.getCount()));
+        return values;
+    }
+
+    /**
+     * Gets the current value of every gauge, by name
+     */
+    public static Map<String, Long> gaugeValues() {
+        Map<String, Long> values = new TreeMap<>();
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getValue()));
+        return values;
+    }
+
+    /**
+     * Names a code location for use in a metric name, e.g. "PatientDAO.findById"
+     * Lambdas and inner classes are named after their enclosing class and method.
+     *
+     * @param className Fully qualified class name, as in a stack frame
+     * @param methodName Method name, as in a stack frame
+     * @return Simple class name and method, joined by a dot
+     */
+    public static String codeLocation(String className, String methodName) {
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        int inner = simpleName.indexOf('$');
+        if (inner > 0) {
+            simpleName = simpleName.substring(0, inner);
+        }
+        // javac names lambda bodies lambda$<enclosing method>$<n>
+        String method = methodName;
+        if (method.startsWith("lambda$")) {
+            int end = method.indexOf('$', "lambda$".length());
+            method = method.substring("lambda$".length(), end > 0 ? end : method.length());
+        }
+        return simpleName + "." + method;
+    }
+
+    private static <M> M getOrRegister(Map<String, M> metrics, String type, String name, M created) {
+        M existing = metrics.putIfAbsent(name, created);
+        if (existing != null) {
+            return existing;
+        }
+        register(type, name, created);
+        return created;
+    }
+
+    private static void register(String type, String name, Object metric) {
+        MBeanServer server = mbeanServer;
+        if (server == null) {
+            return;
+        }
+        try {
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(metric, objectName);
+            }
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Could not publish metric " + name + " over JMX", e);
+        }
+    }
+
+    /**
+     * JMX view of a timer; times in milliseconds
+     */
+    public interface TimerMXBean {
+        long getCount();
+
+        double getMeanMs();
+
+        double getMaxMs();
+
+        double getP50Ms();
+
+        double getP95Ms();
+
+        double getP99Ms();
+    }
+
+    /**
+     * JMX view of a counter
+     */
+    public interface CounterMXBean {
+        long getCount();
+    }
+
+    /**
+     * JMX view of a gauge
+     */
+    public interface GaugeMXBean {
+        long getValue();
+    }
+
+    /**
+     * Latency timer with a fixed histogram
+     */
+    public static final class Timer implements TimerMXBean {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MS.length + 1];
+
+        private Timer() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Records one duration
+         *
+         * @param nanos Duration in nanoseconds
+         */
+        public void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_MS.length && millis >= BUCKET_BOUNDS_MS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+        }
+
+        /**
+         * Records the time elapsed since a System.nanoTime() reading
+         */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public double getMeanMs() {
+            return snapshot().meanMs();
+        }
+
+        @Override
+        public double getMaxMs() {
+            return maxNanos.get() / 1_000_000.0;
+        }
+
+        @Override
+        public double getP50Ms() {
+            return snapshot().p50Ms();
+        }
+
+        @Override
+        public double getP95Ms() {
+            return snapshot().p95Ms();
+        }
+
+        @Override
+        public double getP99Ms() {
+            return snapshot().p99Ms();
+        }
+
+        TimerSnapshot snapshot() {
+            long[] counts = new long[buckets.length];
+            long total = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+            return new TimerSnapshot(count.sum(),
+                    total == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / total,
+                    maxNanos.get() / 1_000_000.0,
+                    percentile(counts, total, 0.50),
+                    percentile(counts, total, 0.95),
+                    percentile(counts, total, 0.99));
+        }
+
+        /**
+         * Upper bound of the bucket holding the given percentile, in milliseconds
+         * (the maximum for the unbounded last bucket)
+         */
+        private double percentile(long[] counts, long total, double percentile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i < BUCKET_BOUNDS_MS.length ? BUCKET_BOUNDS_MS[i] : maxNanos.get() / 1_000_000.0;
+                }
+            }
+            return maxNanos.get() / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Monotonic counter
+     */
+    public static final class Counter implements CounterMXBean {
+        private final LongAdder count = new LongAdder();
+
+        private Counter() {
+        }
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long amount) {
+            count.add(amount);
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+    }
+
+    private static final class Gauge implements GaugeMXBean {
+        // Replaced when the gauge is registered again
+        private volatile LongSupplier value;
+
+        private Gauge(LongSupplier value) {
+            this.value = value;
+        }
+
+        @Override
+        public long getValue() {
+            return value.getAsLong();
+        }
+    }
+
+    /**
+     * Timer values at one moment; times in milliseconds, percentiles as bucket upper bounds
+     */
+    public record TimerSnapshot(long count, double meanMs, double maxMs, double p50Ms, double p95Ms, double p99Ms) {
+    }
+
+    /**
+     * Builds the periodic summary: timers and counters that changed since the last
+     * line (with their totals), then all gauges
+     */
+    private static final class SummaryLine {
+        private final Map<String, Long> lastTimerCounts = new HashMap<>();
+        private final Map<String, Long> lastCounterValues = new HashMap<>();
+
+        void log() {
+            try {
+                StringBuilder line = new StringBuilder("Metrics:");
+                timerSnapshots().forEach((name, snapshot) -> {
+                    Long last = lastTimerCounts.put(name, snapshot.count());
+                    if (last == null || last != snapshot.count()) {
+                        line.append(String.format(" %s n=%d p95<=%.0fms max=%.0fms;",
+                                name, snapshot.count(), snapshot.p95Ms(), snapshot.maxMs()));
+                    }
+                });
+                counterValues().forEach((name, value) -> {
+                    Long last = lastCounterValues.put(name, value);
+                    if (last == null || !last.equals(value)) {
+                        line.append(' ').append(name).append('=').append(value).append(';');
+                    }
+                });
+                gaugeValues().forEach((name, value) -> line.append(' ').append(name).append('=').append(value).append(';'));
+                logger.info(line.toString());
+            } catch (RuntimeException e) {
+                // Keep the scheduled summary alive
+                logger.log(Level.WARNING, "Could not log metrics summary", e);
+            }
+        }
+    }
+}
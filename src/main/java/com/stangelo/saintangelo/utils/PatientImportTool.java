@@ -0,0 +1,32 @@
+package com.stangelo.saintangelo.utils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.stangelo.saintangelo.models.PatientImportResult;
+import com.stangelo.saintangelo.services.PatientImportService;
+
+/**
+ * Command-line patient import
+ * Loads a CSV export of the old clinic system into the database configured in database.properties.
+ * Run it again after an interruption to resume from the last committed chunk.
+ *
+ * Usage: PatientImportTool <patients.csv>
+ */
+public class PatientImportTool {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1 || !Files.isRegularFile(Path.of(args[0]))) {
+            System.out.println("Usage: PatientImportTool <patients.csv>");
+            System.exit(2);
+        }
+
+        PatientImportResult result = PatientImportService.getInstance().importCsv(Path.of(args[0]),
+                progress -> System.out.println("  " + progress));
+
+        System.out.println("\nImport finished: " + result);
+        if (result.getRejected() > 0 || result.getDuplicates() > 0) {
+            System.out.println("Rejected and duplicate rows: " + result.getRejectsFile());
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.stangelo.saintangelo.utils;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+/**
+ * Paginated PDF table writer built on PDFBox
+ * Rows are drawn onto the current page as they arrive and a new page (with the
+ * table header repeated) is started when the page is full, so callers can stream
+ * rows straight from a ResultSet. Page content is buffered in a temp file rather
+ * than on the heap.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class PdfReportWriter implements ReportTableWriter {
+
+    private static final PDRectangle PAGE_SIZE = new PDRectangle(PDRectangle.A4.getHeight(), PDRectangle.A4.getWidth());
+    private static final float MARGIN = 40f;
+    private static final float TITLE_FONT_SIZE = 16f;
+    private static final float HEADING_FONT_SIZE = 12f;
+    private static final float BODY_FONT_SIZE = 9f;
+    private static final float ROW_HEIGHT = 14f;
+    private static final float CELL_PADDING = 4f;
+
+    private final PDDocument document;
+    private final File outputFile;
+    private final String title;
+    private final PDType1Font regularFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+    private final PDType1Font boldFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+
+    private PDPageContentStream content;
+    private float cursorY;
+    private int pageCount;
+
+    // Current table layout
+    private String[] columns;
+    private float[] columnWidths;
+
+    /**
+     * Creates a writer and starts the first page
+     *
+     * @param outputFile File the finished document is saved to
+     * @param title Title shown on the first page
+     * @param subtitle Line shown under the title (may be null)
+     * @throws IOException if the document cannot be created
+     */
+    public PdfReportWriter(File outputFile, String title, String subtitle) throws IOException {
+        this.outputFile = outputFile;
+        this.title = title;
+        this.document = new PDDocument(IOUtils.createTempFileOnlyStreamCache());
+        startPage();
+
+        writeLine(boldFont, TITLE_FONT_SIZE, title);
+        if (subtitle != null) {
+            writeLine(regularFont, BODY_FONT_SIZE, subtitle);
+        }
+        cursorY -= ROW_HEIGHT;
+    }
+
+    /**
+     * Starts a new table; following rows are laid out using these columns
+     *
+     * @param heading Section heading drawn above the table
+     * @param columns Column headers
+     * @param weights Relative column widths (same length as columns)
+     */
+    @Override
+    public void startTable(String heading, String[] columns, float[] weights) throws IOException {
+        this.columns = columns;
+        this.columnWidths = new float[columns.length];
+
+        float totalWeight = 0;
+        for (float weight : weights) {
+            totalWeight += weight;
+        }
+        float usableWidth = PAGE_SIZE.getWidth() - 2 * MARGIN;
+        for (int i = 0; i < columns.length; i++) {
+            columnWidths[i] = usableWidth * weights[i] / totalWeight;
+        }
+
+        // Keep the heading together with the header row and at least one data row
+        if (cursorY - 4 * ROW_HEIGHT < MARGIN) {
+            startPage();
+        } else {
+            cursorY -= ROW_HEIGHT / 2;
+        }
+        writeLine(boldFont, HEADING_FONT_SIZE, heading);
+        writeHeaderRow();
+    }
+
+    /**
+     * Writes one table row, starting a new page if the current one is full
+     *
+     * @param cells Cell values in column order
+     */
+    @Override
+    public void writeRow(String[] cells) throws IOException {
+        if (columns == null) {
+            throw new IllegalStateException("startTable must be called before writeRow");
+        }
+        if (cursorY - ROW_HEIGHT < MARGIN) {
+            startPage();
+            writeHeaderRow();
+        }
+        drawCells(regularFont, cells);
+    }
+
+    /**
+     * Writes a plain line of text, e.g. a note under a table
+     */
+    @Override
+    public void writeNote(String text) throws IOException {
+        if (cursorY - ROW_HEIGHT < MARGIN) {
+            startPage();
+        }
+        writeLine(regularFont, BODY_FONT_SIZE, text);
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Finishes the last page and saves the document to the output file
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (content != null) {
+                content.close();
+                content = null;
+            }
+            document.save(outputFile);
+        } finally {
+            document.close();
+        }
+    }
+
+    private void startPage() throws IOException {
+        if (content != null) {
+            content.close();
+        }
+        PDPage page = new PDPage(PAGE_SIZE);
+        document.addPage(page);
+        pageCount++;
+
+        content = new PDPageContentStream(document, page);
+        cursorY = PAGE_SIZE.getHeight() - MARGIN;
+
+        // Footer is drawn up front because the page number is already known
+        content.beginText();
+        content.setFont(regularFont, BODY_FONT_SIZE - 1);
+        content.newLineAtOffset(MARGIN, MARGIN / 2);
+        content.showText(sanitize(title + "  -  Page " + pageCount));
+        content.endText();
+    }
+
+    private void writeHeaderRow() throws IOException {
+        content.setNonStrokingColor(0.9f, 0.92f, 0.95f);
+        content.addRect(MARGIN, cursorY - ROW_HEIGHT, PAGE_SIZE.getWidth() - 2 * MARGIN, ROW_HEIGHT);
+        content.fill();
+        content.setNonStrokingColor(0f, 0f, 0f);
+        drawCells(boldFont, columns);
+    }
+
+    private void drawCells(PDType1Font font, String[] cells) throws IOException {
+        cursorY -= ROW_HEIGHT;
+        float x = MARGIN;
+        for (int i = 0; i < columnWidths.length; i++) {
+            String value = i < cells.length && cells[i] != null ? cells[i] : "";
+            content.beginText();
+            content.setFont(font, BODY_FONT_SIZE);
+            content.newLineAtOffset(x + CELL_PADDING, cursorY + CELL_PADDING);
+            content.showText(fitToWidth(font, sanitize(value), columnWidths[i] - 2 * CELL_PADDING));
+            content.endText();
+            x += columnWidths[i];
+        }
+    }
+
+    private void writeLine(PDType1Font font, float fontSize, String text) throws IOException {
+        cursorY -= fontSize + 6;
+        content.beginText();
+        content.setFont(font, fontSize);
+        content.newLineAtOffset(MARGIN, cursorY);
+        content.showText(sanitize(text));
+        content.endText();
+    }
+
+    /**
+     * Truncates text with "..." so that it fits in the given width
+     */
+    private String fitToWidth(PDType1Font font, String text, float maxWidth) throws IOException {
+        if (textWidth(font, text) <= maxWidth) {
+            return text;
+        }
+        String ellipsis = "...";
+        int end = text.length();
+        while (end > 0 && textWidth(font, text.substring(0, end) + ellipsis) > maxWidth) {
+            end--;
+        }
+        return text.substring(0, end) + ellipsis;
+    }
+
+    private float textWidth(PDType1Font font, String text) throws IOException {
+        return font.getStringWidth(text) / 1000f * BODY_FONT_SIZE;
+    }
+
+    /**
+     * Replaces characters the standard Type 1 fonts cannot encode
+     */
+    private static String sanitize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\t' || c == '\n' || c == '\r') {
+                sb.append(' ');
+            } else if (c < 0x20 || c > 0xFF || (c >= 0x7F && c < 0xA0)) {
+                sb.append('?');
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,48 @@
+package com.stangelo.saintangelo.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Common interface for report file writers (PDF, Excel, CSV)
+ * Writers receive rows one at a time so reports can be streamed straight
+ * from the database without holding the dataset in memory.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public interface ReportTableWriter extends Closeable {
+
+    /**
+     * Starts a new table; following rows are laid out using these columns
+     *
+     * @param heading Section heading (sheet name for spreadsheets)
+     * @param columns Column headers
+     * @param weights Relative column widths (same length as columns)
+     */
+    void startTable(String heading, String[] columns, float[] weights) throws IOException;
+
+    /**
+     * Writes one row of the current table
+     *
+     * @param cells Cell values in column order
+     */
+    void writeRow(String[] cells) throws IOException;
+
+    /**
+     * Writes a plain line of text, e.g. a note under a table
+     */
+    void writeNote(String text) throws IOException;
+
+    /**
+     * Same as writeRow but wraps IOException so it can be used as a row callback
+     */
+    default void writeRowUnchecked(String[] cells) {
+        try {
+            writeRow(cells);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.stangelo.saintangelo.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Standalone benchmark for the streaming report writers
+ * Writes the same synthetic ticket rows through the Excel and CSV writers and
+ * prints throughput, file size and heap use, so the XLSX path can be checked
+ * against CSV and shown to keep a flat heap.
+ *
+ * Usage: ReportWriterBenchmark [rows]   (default 1,000,000)
+ */
+public class ReportWriterBenchmark {
+
+    private static final String[] COLUMNS = {
+            "Ticket", "Visit ID", "Patient", "Status", "Priority", "Doctor", "Created", "Wait (min)"
+    };
+    private static final float[] WEIGHTS = {1, 1.5f, 3, 1.5f, 1.7f, 2.5f, 2, 1.2f};
+
+    private static final String[] STATUSES = {"WAITING", "CALLED", "IN_SERVICE", "COMPLETED", "SKIPPED"};
+    private static final String[] PRIORITIES = {"REGULAR", "SENIOR_CITIZEN", "EMERGENCY"};
+    private static final String[] DOCTORS = {"Dr. Santos", "Dr. Reyes", "Dr. Cruz", "Dr. Garcia", "Dr. Mendoza"};
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        System.out.println("=== Report Writer Benchmark (" + rows + " rows) ===\n");
+
+        // Warm up both paths so the JIT does not favour whichever runs second
+        File warmUpXlsx = tempFile(".xlsx");
+        File warmUpCsv = tempFile(".csv");
+        run("warm-up", new XlsxStreamWriter(warmUpXlsx), warmUpXlsx, 50_000, true);
+        run("warm-up", new CsvReportWriter(warmUpCsv), warmUpCsv, 50_000, true);
+
+        File xlsx = tempFile(".xlsx");
+        File csv = tempFile(".csv");
+        run("Excel (XLSX)", new XlsxStreamWriter(xlsx), xlsx, rows, false);
+        run("CSV", new CsvReportWriter(csv), csv, rows, false);
+    }
+
+    private static void run(String label, ReportTableWriter writer, File file, int rows, boolean quiet) throws IOException {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        long peakHeap = heapBefore;
+
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 8, 0);
+        String[] row = new String[COLUMNS.length];
+
+        long started = System.nanoTime();
+        try (writer) {
+            writer.startTable("Ticket Details", COLUMNS, WEIGHTS);
+            for (int i = 0; i < rows; i++) {
+                row[0] = (char) ('A' + (i / 10) % 26) + String.valueOf(i % 10 + 1);
+                row[1] = "V" + (100000 + i);
+                row[2] = "Patient " + i;
+                row[3] = STATUSES[i % STATUSES.length];
+                row[4] = PRIORITIES[i % PRIORITIES.length];
+                row[5] = DOCTORS[i % DOCTORS.length];
+                row[6] = created.plusMinutes(i).toString().replace('T', ' ');
+                row[7] = String.valueOf(i % 90);
+                writer.writeRow(row);
+
+                if (i % 100_000 == 0) {
+                    peakHeap = Math.max(peakHeap, runtime.totalMemory() - runtime.freeMemory());
+                }
+            }
+        }
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+
+        if (quiet) {
+            return;
+        }
+        System.out.println(label);
+        System.out.printf("   Time:        %,d ms%n", elapsedMs);
+        System.out.printf("   Throughput:  %,d rows/s%n", rows * 1000L / elapsedMs);
+        System.out.printf("   File size:   %,d KB%n", file.length() / 1024);
+        System.out.printf("   Peak heap:   %,d KB above baseline (sampled every 100,000 rows)%n",
+                Math.max(0, peakHeap - heapBefore) / 1024);
+        System.out.println();
+    }
+
+    private static File tempFile(String suffix) throws IOException {
+        File file = File.createTempFile("report-benchmark", suffix);
+        file.deleteOnExit();
+        return file;
+    }
+}
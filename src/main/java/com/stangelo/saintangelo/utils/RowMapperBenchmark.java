@@ -0,0 +1,137 @@
+package com.stangelo.saintangelo.utils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import com.stangelo.saintangelo.dao.TicketRowMapper;
+import com.stangelo.saintangelo.models.Patient;
+import com.stangelo.saintangelo.models.PriorityLevel;
+import com.stangelo.saintangelo.models.Ticket;
+import com.stangelo.saintangelo.models.TicketStatus;
+
+/**
+ * Standalone benchmark for the ticket row mappers
+ * Loads up to [rows] tickets from the database in database.properties into one
+ * scrollable (client-side) result set, then maps it repeatedly with the
+ * position-based TicketRowMapper and with the previous column-name mapper,
+ * so only the mapping cost is measured, not the network.
+ *
+ * Usage: RowMapperBenchmark [rows] [passes]   (defaults 10,000 and 200)
+ */
+public class RowMapperBenchmark {
+
+    private static final String SQL = "SELECT " + TicketRowMapper.TICKET_COLUMNS + " FROM (" +
+            "SELECT visit_id, ticket_number, patient_id, status, priority, service_type, assigned_doctor_id, " +
+            "created_time, called_time FROM tickets UNION ALL " +
+            "SELECT visit_id, ticket_number, patient_id, status, priority, service_type, assigned_doctor_id, " +
+            "created_time, called_time FROM tickets_history) t " +
+            "INNER JOIN patients p ON t.patient_id = p.patient_id " +
+            "LEFT JOIN doctors d ON t.assigned_doctor_id = d.doctor_id LIMIT ";
+
+    private interface Mapper {
+        Ticket map(ResultSet rs) throws SQLException;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int passes = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        try (Connection conn = DatabaseConnection.openDedicatedConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+             ResultSet rs = stmt.executeQuery(SQL + rows)) {
+
+            int loaded = 0;
+            while (rs.next()) {
+                loaded++;
+            }
+            if (loaded == 0) {
+                System.out.println("No tickets in the database; register some patients first.");
+                return;
+            }
+            System.out.println("=== Row Mapper Benchmark (" + loaded + " rows x " + passes + " passes) ===\n");
+
+            // Warm up both paths so the JIT does not favour whichever runs second
+            run(rs, RowMapperBenchmark::mapByName, passes / 4, null, loaded);
+            run(rs, TicketRowMapper::ticket, passes / 4, null, loaded);
+
+            run(rs, RowMapperBenchmark::mapByName, passes, "Column names + Enum.valueOf + Timestamp", loaded);
+            run(rs, TicketRowMapper::ticket, passes, "TicketRowMapper (positions + lookup tables)", loaded);
+        }
+    }
+
+    private static void run(ResultSet rs, Mapper mapper, int passes, String label, int rows) throws SQLException {
+        long checksum = 0;
+        long started = System.nanoTime();
+        for (int pass = 0; pass < passes; pass++) {
+            rs.beforeFirst();
+            while (rs.next()) {
+                Ticket ticket = mapper.map(rs);
+                checksum += ticket.getStatus().ordinal() + ticket.getPatient().getAge();
+            }
+        }
+        long elapsedNanos = Math.max(1, System.nanoTime() - started);
+
+        if (label == null) {
+            return;
+        }
+        long mapped = (long) rows * passes;
+        System.out.println(label);
+        System.out.printf("   Time:        %,d ms%n", elapsedNanos / 1_000_000);
+        System.out.printf("   Per row:     %,d ns%n", elapsedNanos / mapped);
+        System.out.printf("   Throughput:  %,d rows/s%n", mapped * 1_000_000_000L / elapsedNanos);
+        System.out.println("   (checksum " + checksum + ")\n");
+    }
+
+    /**
+     * The mapper TicketDAO used before TicketRowMapper, kept as the baseline
+     */
+    private static Ticket mapByName(ResultSet rs) throws SQLException {
+        String visitId = rs.getString("visit_id");
+        String ticketNumber = rs.getString("ticket_number");
+        TicketStatus status = TicketStatus.valueOf(rs.getString("status"));
+        String serviceType = rs.getString("service_type");
+        String assignedDoctorId = rs.getString("assigned_doctor_id");
+        String assignedDoctorName = rs.getString("doctor_name");
+
+        PriorityLevel priority = PriorityLevel.REGULAR;
+        try {
+            String priorityStr = rs.getString("priority");
+            if (priorityStr != null) {
+                priority = PriorityLevel.valueOf(priorityStr);
+            }
+        } catch (IllegalArgumentException e) {
+            // Default to REGULAR if invalid
+        }
+
+        Timestamp createdTimeTs = rs.getTimestamp("created_time");
+        LocalDateTime createdTime = createdTimeTs != null ? createdTimeTs.toLocalDateTime() : LocalDateTime.now();
+        Timestamp calledTimeTs = rs.getTimestamp("called_time");
+        LocalDateTime calledTime = calledTimeTs != null ? calledTimeTs.toLocalDateTime() : null;
+
+        String firstName = rs.getString("first_name");
+        String lastName = rs.getString("last_name");
+        String patientName = ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+
+        Patient patient = new Patient(
+            rs.getString("patient_id"),
+            patientName.isEmpty() ? "Unknown Patient" : patientName,
+            rs.getInt("age"),
+            rs.getString("phone_number"),
+            null,
+            rs.getString("gender"),
+            null,
+            null,
+            rs.getBoolean("is_senior_citizen"),
+            null, null, null, null,
+            rs.getString("chief_complaint"),
+            null, null, null, null, null, null, null, null
+        );
+
+        return new Ticket(visitId, ticketNumber, patient, status, priority,
+                createdTime, calledTime, serviceType, assignedDoctorId, assignedDoctorName);
+    }
+}
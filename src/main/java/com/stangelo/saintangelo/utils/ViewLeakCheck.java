@@ -0,0 +1,131 @@
+package com.stangelo.saintangelo.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.stangelo.saintangelo.controllers.ViewRegistry;
+import com.stangelo.saintangelo.controllers.ViewResources;
+import com.stangelo.saintangelo.models.UserRole;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+
+/**
+ * Standalone leak check for the view lifecycle
+ * Navigates between the reception views and the public display board the given
+ * number of times, logging out (clearing the view cache) after every round, the
+ * way a long-running front-desk session does. After each logout no tracked
+ * timeline may still be running, and the heap after a full GC must stay within
+ * a fixed margin of the level measured after warm-up.
+ *
+ * Needs a display (or xvfb-run); the database is optional (views show empty data
+ * without one). Exits with status 1 if a leak is found.
+ *
+ * Not shipped: pom.xml leaves it out of the jar, and so out of the production
+ * image. Run it from target/classes after mvn compile.
+ *
+ * Usage: ViewLeakCheck [navigations] [maxHeapGrowthMb]   (defaults 1,000 and 32)
+ */
+public class ViewLeakCheck {
+
+    private static final String PUBLIC_VIEW = "/fxml/public view.fxml";
+
+    public static void main(String[] args) throws Exception {
+        int navigations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        long maxGrowth = (args.length > 1 ? Long.parseLong(args[1]) : 32) * 1024 * 1024;
+
+        List<String> round = new ArrayList<>(ViewRegistry.viewsFor(UserRole.STAFF));
+        round.add(PUBLIC_VIEW);
+
+        Platform.startup(() -> { });
+        Scene scene = onFxThread(() -> new Scene(new StackPane()));
+
+        System.out.println("=== View Leak Check (" + navigations + " navigations, rounds of " + round.size() + ") ===\n");
+
+        int warmUp = Math.max(1, Math.min(navigations / 10, round.size() * 5));
+        int reportEvery = Math.max(1, navigations / 10);
+        long baseline = 0;
+        long peak = 0;
+        int maxRunningAfterLogout = 0;
+        for (int i = 1; i <= navigations; i++) {
+            String path = round.get((i - 1) % round.size());
+            boolean logout = i % round.size() == 0 || i == navigations;
+            int running = onFxThread(() -> {
+                ViewRegistry.getInstance().show(scene, path);
+                if (!logout) {
+                    return 0;
+                }
+                ViewRegistry.getInstance().clear();
+                scene.setRoot(new StackPane());
+                return ViewResources.runningAnimations();
+            });
+            maxRunningAfterLogout = Math.max(maxRunningAfterLogout, running);
+
+            if (i == warmUp) {
+                baseline = usedHeapAfterGc();
+            } else if (i > warmUp && i % reportEvery == 0) {
+                long used = usedHeapAfterGc();
+                peak = Math.max(peak, used);
+                System.out.printf("%6d navigations  heap %6.1f MB  running timelines after logout %d%n",
+                        i, used / 1048576.0, running);
+            }
+        }
+        long end = usedHeapAfterGc();
+        peak = Math.max(peak, end);
+        Platform.exit();
+
+        long growth = end - baseline;
+        System.out.printf("%nHeap after warm-up %.1f MB, at end %.1f MB (growth %.1f MB, peak %.1f MB)%n",
+                baseline / 1048576.0, end / 1048576.0, growth / 1048576.0, peak / 1048576.0);
+        System.out.println("Most timelines still running after a logout: " + maxRunningAfterLogout);
+
+        boolean leaked = growth > maxGrowth || maxRunningAfterLogout > 0;
+        System.out.println(leaked ? "\nFAIL: views outlive their session" : "\nOK: no leak detected");
+        if (leaked) {
+            System.exit(1);
+        }
+    }
+
+    private interface FxCall<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * Runs a call on the JavaFX Application Thread and waits for it, so pulses
+     * (and the timelines started by the views) run between navigations
+     */
+    private static <T> T onFxThread(FxCall<T> call) throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<T> result = new AtomicReference<>();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Platform.runLater(() -> {
+            try {
+                result.set(call.call());
+            } catch (Exception e) {
+                failure.set(e);
+            } finally {
+                done.countDown();
+            }
+        });
+        if (!done.await(60, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("JavaFX thread did not respond");
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return result.get();
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,510 @@
+package com.stangelo.saintangelo.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Write-Ahead Journal
+ * Local append-only log of text entries that survives crashes and power loss
+ *
+ * Entries are written into fixed-size, memory-mapped segment files
+ * (segment-000001.wal, ...). Each record is:
+ * [int length][int CRC32][long sequence][UTF-8 payload]
+ * The length is written last, so a record torn by a crash reads as the end
+ * of the log. Sequences increase by one across segments.
+ *
+ * Durability is group-committed: a flusher thread forces the active segment to
+ * disk at most every flush interval, and every writer waiting in
+ * {@link #awaitDurable(long)} is released by the same fsync.
+ *
+ * Consumers read entries with {@link #readPending()} and call
+ * {@link #markApplied(long)} once they have been applied; the applied
+ * sequence is kept in a checkpoint file and segments that are fully applied
+ * are deleted. Entries may be read again after a crash, so they must be
+ * applied idempotently.
+ *
+ * Only one process may have a journal directory open: open() takes an
+ * exclusive lock on its lock file and fails while another process holds it,
+ * since recovering a journal that is being written would cut off the other
+ * writer's entries.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class WriteAheadJournal implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(WriteAheadJournal.class.getName());
+
+    private static final int SEGMENT_SIZE = 1 << 20; // 1 MB
+    private static final int HEADER_BYTES = 16;      // length + CRC + sequence
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String LOCK_FILE = "lock";
+
+    /**
+     * One journal entry
+     */
+    public static final class Entry {
+        private final long sequence;
+        private final String payload;
+
+        private Entry(long sequence, String payload) {
+            this.sequence = sequence;
+            this.payload = payload;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public String getPayload() {
+            return payload;
+        }
+    }
+
+    private final Path directory;
+    private final long flushIntervalMillis;
+    private final Thread flusher;
+
+    // Held from open() until close()
+    private FileChannel lockChannel;
+
+    // Last sequence of each closed (no longer written) segment, by segment number
+    private final TreeMap<Long, Long> closedSegments = new TreeMap<>();
+
+    private long activeSegment;
+    private FileChannel activeChannel;
+    private MappedByteBuffer activeBuffer;
+    private int writePosition;
+
+    private long lastSequence;      // Last sequence written
+    private long durableSequence;   // Last sequence forced to disk
+    private long appliedSequence;   // Last sequence applied by the consumer
+    private boolean closed;
+
+    private WriteAheadJournal(Path directory, long flushIntervalMillis) {
+        this.directory = directory;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * Opens (or creates) a journal and recovers the entries already on disk
+     *
+     * @param directory Directory holding the segment files
+     * @param flushIntervalMillis Longest time a write waits to be group-committed
+     * @return The open journal
+     * @throws IOException if another process has the journal open, or the directory
+     *         or segments cannot be read or written
+     */
+    public static WriteAheadJournal open(Path directory, long flushIntervalMillis) throws IOException {
+        WriteAheadJournal journal = new WriteAheadJournal(directory, flushIntervalMillis);
+        journal.lock();
+        try {
+            journal.recover();
+        } catch (IOException | RuntimeException e) {
+            journal.unlock();
+            throw e;
+        }
+        journal.flusher.start();
+        return journal;
+    }
+
+    /**
+     * Appends an entry without waiting for it to reach the disk
+     *
+     * @param payload Entry text
+     * @return The entry's sequence, to pass to {@link #awaitDurable(long)}
+     * @throws IOException if the entry is too large or a new segment cannot be created
+     */
+    public synchronized long append(String payload) throws IOException {
+        if (closed) {
+            throw new IOException("Journal is closed");
+        }
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        if (HEADER_BYTES + bytes.length > SEGMENT_SIZE) {
+            throw new IOException("Journal entry too large: " + bytes.length + " bytes");
+        }
+        if (writePosition + HEADER_BYTES + bytes.length > SEGMENT_SIZE) {
+            rollSegment();
+        }
+
+        long sequence = lastSequence + 1;
+        int position = writePosition;
+        activeBuffer.putLong(position + 8, sequence);
+        activeBuffer.put(position + HEADER_BYTES, bytes);
+        activeBuffer.putInt(position + 4, checksum(sequence, bytes));
+        activeBuffer.putInt(position, bytes.length); // Written last: marks the record complete
+
+        writePosition = position + HEADER_BYTES + bytes.length;
+        lastSequence = sequence;
+        notifyAll(); // Wake the flusher
+        return sequence;
+    }
+
+    /**
+     * Waits until an entry has been forced to disk
+     *
+     * @param sequence Sequence returned by {@link #append(String)}
+     * @throws IOException if the journal is closed before the entry is durable
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized void awaitDurable(long sequence) throws IOException, InterruptedException {
+        while (durableSequence < sequence) {
+            if (closed) {
+                throw new IOException("Journal closed before entry " + sequence + " was written to disk");
+            }
+            wait();
+        }
+    }
+
+    /**
+     * Appends an entry and waits until it is on disk
+     *
+     * @param payload Entry text
+     * @return The entry's sequence
+     */
+    public long appendDurably(String payload) throws IOException, InterruptedException {
+        long sequence = append(payload);
+        awaitDurable(sequence);
+        return sequence;
+    }
+
+    /**
+     * Reads every entry that has not been marked applied, oldest first
+     *
+     * @return Pending entries
+     * @throws IOException if a segment cannot be read
+     */
+    public synchronized List<Entry> readPending() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (Map.Entry<Long, Long> segment : closedSegments.entrySet()) {
+            if (segment.getValue() > appliedSequence) {
+                scan(readSegment(segmentPath(segment.getKey())), entries);
+            }
+        }
+        ByteBuffer active = activeBuffer.duplicate();
+        active.limit(writePosition);
+        scan(active, entries);
+        entries.removeIf(entry -> entry.getSequence() <= appliedSequence);
+        return entries;
+    }
+
+    /**
+     * Records that every entry up to a sequence has been applied
+     * Saves the checkpoint and deletes segments that hold only applied entries.
+     *
+     * @param sequence Last applied sequence
+     * @throws IOException if the checkpoint cannot be written
+     */
+    public synchronized void markApplied(long sequence) throws IOException {
+        if (sequence <= appliedSequence) {
+            return;
+        }
+        appliedSequence = Math.min(sequence, lastSequence);
+        writeCheckpoint();
+        deleteAppliedSegments();
+    }
+
+    /**
+     * Checks whether any entry has not been marked applied
+     */
+    public synchronized boolean hasPending() {
+        return lastSequence > appliedSequence;
+    }
+
+    /**
+     * Forces outstanding entries to disk and stops the flusher
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            activeBuffer.force();
+            durableSequence = lastSequence;
+            notifyAll();
+        }
+        flusher.interrupt();
+        try {
+            activeChannel.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Error closing journal segment", e);
+        }
+        unlock();
+    }
+
+    /**
+     * Takes the exclusive lock on the journal directory
+     *
+     * @throws IOException if another process (or another journal in this one) holds it
+     */
+    private void lock() throws IOException {
+        Files.createDirectories(directory);
+        FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IOException("Journal " + directory + " is in use by another process");
+        }
+        lockChannel = channel;
+    }
+
+    /**
+     * Releases the directory lock (closing the channel releases it)
+     */
+    private void unlock() {
+        try {
+            lockChannel.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Error releasing journal lock", e);
+        }
+    }
+
+    /**
+     * Group commit loop: waits for new entries, lets more arrive for one
+     * flush interval, then forces them to disk with a single fsync
+     */
+    private void flushLoop() {
+        try {
+            while (true) {
+                synchronized (this) {
+                    while (!closed && durableSequence == lastSequence) {
+                        wait();
+                    }
+                    if (closed) {
+                        return;
+                    }
+                }
+                Thread.sleep(flushIntervalMillis);
+
+                MappedByteBuffer buffer;
+                long target;
+                synchronized (this) {
+                    if (closed) {
+                        return;
+                    }
+                    buffer = activeBuffer;
+                    target = lastSequence;
+                }
+                buffer.force();
+                synchronized (this) {
+                    // A segment roll may have made more entries durable in the meantime
+                    if (target > durableSequence && buffer == activeBuffer) {
+                        durableSequence = target;
+                    }
+                    notifyAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Closes the full active segment (forcing it to disk) and starts the next one
+     * Caller must hold the lock.
+     */
+    private void rollSegment() throws IOException {
+        activeBuffer.force();
+        durableSequence = lastSequence;
+        activeChannel.close();
+        closedSegments.put(activeSegment, lastSequence);
+        openActive(activeSegment + 1, 0);
+        notifyAll();
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        appliedSequence = readCheckpoint();
+
+        List<Long> segmentNumbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> {
+                        try {
+                            segmentNumbers.add(Long.parseLong(
+                                    name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                        } catch (NumberFormatException e) {
+                            logger.warning("Ignoring unexpected file in journal directory: " + name);
+                        }
+                    });
+        }
+        segmentNumbers.sort(null);
+
+        long last = 0;
+        int lastEnd = 0;
+        for (long number : segmentNumbers) {
+            if (last != 0) {
+                closedSegments.put(last, lastSequence);
+            }
+            List<Entry> entries = new ArrayList<>();
+            int end = scan(readSegment(segmentPath(number)), entries);
+            if (!entries.isEmpty()) {
+                lastSequence = entries.get(entries.size() - 1).getSequence();
+            }
+            last = number;
+            lastEnd = end;
+        }
+        // Sequences continue from the checkpoint when every segment was deleted
+        lastSequence = Math.max(lastSequence, appliedSequence);
+        durableSequence = lastSequence;
+
+        if (last == 0) {
+            openActive(1, 0);
+        } else if (lastEnd + HEADER_BYTES >= SEGMENT_SIZE) {
+            closedSegments.put(last, lastSequence);
+            openActive(last + 1, 0);
+        } else {
+            openActive(last, lastEnd);
+        }
+        deleteAppliedSegments();
+
+        if (hasPending()) {
+            logger.info(String.format("Journal recovered with %d unapplied entries", lastSequence - appliedSequence));
+        }
+    }
+
+    /**
+     * Deletes closed segments that hold only applied entries
+     */
+    private void deleteAppliedSegments() {
+        Iterator<Map.Entry<Long, Long>> segments = closedSegments.entrySet().iterator();
+        while (segments.hasNext()) {
+            Map.Entry<Long, Long> segment = segments.next();
+            if (segment.getValue() > appliedSequence) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(segmentPath(segment.getKey()));
+                segments.remove();
+            } catch (IOException e) {
+                // Still mapped on some platforms; retried on the next checkpoint
+                logger.fine("Could not delete journal segment " + segment.getKey() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Maps a segment for writing and clears anything after the write position
+     * (left-overs of a record torn by a crash)
+     */
+    private void openActive(long number, int position) throws IOException {
+        Path path = segmentPath(number);
+        boolean existed = Files.exists(path);
+        activeChannel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeBuffer = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+        if (existed) {
+            for (int i = position; i < SEGMENT_SIZE; i++) {
+                activeBuffer.put(i, (byte) 0);
+            }
+            activeBuffer.force();
+        }
+        activeSegment = number;
+        writePosition = position;
+    }
+
+    /**
+     * Reads valid records from a buffer into a list
+     *
+     * @return Position after the last valid record
+     */
+    private static int scan(ByteBuffer buffer, List<Entry> entries) {
+        int position = 0;
+        long expected = -1;
+        while (position + HEADER_BYTES <= buffer.limit()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > buffer.limit()) {
+                break;
+            }
+            int crc = buffer.getInt(position + 4);
+            long sequence = buffer.getLong(position + 8);
+            byte[] bytes = new byte[length];
+            buffer.get(position + HEADER_BYTES, bytes);
+            if (crc != checksum(sequence, bytes) || (expected != -1 && sequence != expected)) {
+                break;
+            }
+            entries.add(new Entry(sequence, new String(bytes, StandardCharsets.UTF_8)));
+            expected = sequence + 1;
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private static ByteBuffer readSegment(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), SEGMENT_SIZE));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Read the whole segment
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    private static int checksum(long sequence, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(8).putLong(0, sequence));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(Files.readString(checkpoint, StandardCharsets.UTF_8).trim());
+        } catch (NumberFormatException e) {
+            // Replaying applied entries is safe: they are idempotent
+            logger.warning("Unreadable journal checkpoint, replaying from the start");
+            return 0;
+        }
+    }
+
+    private void writeCheckpoint() throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temp, Long.toString(appliedSequence), StandardCharsets.UTF_8);
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+}
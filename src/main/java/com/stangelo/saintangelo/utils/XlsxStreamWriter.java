@@ -0,0 +1,378 @@
+package com.stangelo.saintangelo.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streaming XLSX (Office Open XML) writer
+ * Each worksheet is written as a single zip entry while rows arrive, so memory
+ * use does not grow with the number of rows. Short repeated values (status,
+ * priority, doctor names...) go into a shared-string table capped at
+ * MAX_SHARED_STRINGS entries; anything else is written as an inline string.
+ * Each table becomes its own sheet, and a table that exceeds Excel's row limit
+ * continues on a new sheet.
+ *
+ * @author SaintAngelo Development Team
+ * @version 1.0
+ */
+public class XlsxStreamWriter implements ReportTableWriter {
+
+    private static final int MAX_ROWS_PER_SHEET = 1_048_576;
+    private static final int MAX_SHARED_STRINGS = 4096;
+    private static final int MAX_SHARED_STRING_LENGTH = 64;
+    private static final int MAX_SHEET_NAME_LENGTH = 31;
+
+
+    private static final String SPREADSHEET_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String RELATIONSHIP_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private final ZipOutputStream zip;
+    private final Writer out;
+
+    private final Map<String, Integer> sharedStrings = new LinkedHashMap<>();
+    private long sharedStringReferences;
+
+    private final List<String> sheetNames = new ArrayList<>();
+    private final Set<String> usedSheetNames = new HashSet<>();
+    private boolean sheetOpen;
+    private int rowIndex;
+
+    // Current table layout, kept so an overflowing table can continue on a new sheet
+    private String heading;
+    private String[] columns;
+    private float[] weights;
+    private int continuation;
+
+    /**
+     * Creates a writer for the given output file
+     *
+     * @param outputFile File the workbook is written to
+     * @throws IOException if the file cannot be opened
+     */
+    public XlsxStreamWriter(File outputFile) throws IOException {
+        this.zip = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(outputFile), 64 * 1024));
+        // Sheet XML is very repetitive, so the fastest level still compresses it well
+        this.zip.setLevel(Deflater.BEST_SPEED);
+        this.out = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void startTable(String heading, String[] columns, float[] weights) throws IOException {
+        this.heading = heading;
+        this.columns = columns;
+        this.weights = weights;
+        this.continuation = 1;
+        openSheet(heading);
+    }
+
+    @Override
+    public void writeRow(String[] cells) throws IOException {
+        if (!sheetOpen) {
+            throw new IllegalStateException("startTable must be called before writeRow");
+        }
+        if (rowIndex >= MAX_ROWS_PER_SHEET) {
+            continuation++;
+            openSheet(heading + " (" + continuation + ")");
+        }
+        writeCells(cells, false);
+    }
+
+    @Override
+    public void writeNote(String text) throws IOException {
+        if (!sheetOpen) {
+            columns = new String[0];
+            openSheet("Notes");
+        }
+        writeCells(new String[] {text}, false);
+    }
+
+    /**
+     * Finishes the last sheet and writes the shared strings, styles and workbook parts
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            closeSheet();
+            if (sheetNames.isEmpty()) {
+                // A workbook must contain at least one sheet
+                columns = new String[0];
+                openSheet("Sheet1");
+                closeSheet();
+            }
+            writeSharedStrings();
+            writeEntry("xl/styles.xml", STYLES_XML);
+            writeWorkbook();
+            writeEntry("_rels/.rels", ROOT_RELS_XML);
+            writeContentTypes();
+            out.flush();
+            zip.finish();
+        } finally {
+            zip.close();
+        }
+    }
+
+    private void openSheet(String name) throws IOException {
+        closeSheet();
+        sheetNames.add(uniqueSheetName(name));
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetNames.size() + ".xml"));
+        sheetOpen = true;
+        rowIndex = 0;
+
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+        out.write("<worksheet xmlns=\"" + SPREADSHEET_NS + "\">");
+        if (columns.length > 0) {
+            // Freeze the header row
+            out.write("<sheetViews><sheetView workbookViewId=\"0\">"
+                    + "<pane ySplit=\"1\" topLeftCell=\"A2\" activePane=\"bottomLeft\" state=\"frozen\"/>"
+                    + "</sheetView></sheetViews>");
+            writeColumnWidths();
+        }
+        out.write("<sheetData>");
+        if (columns.length > 0) {
+            writeCells(columns, true);
+        }
+    }
+
+    private void closeSheet() throws IOException {
+        if (!sheetOpen) {
+            return;
+        }
+        out.write("</sheetData></worksheet>");
+        out.flush();
+        zip.closeEntry();
+        sheetOpen = false;
+    }
+
+    private void writeColumnWidths() throws IOException {
+        float totalWeight = 0;
+        for (float weight : weights) {
+            totalWeight += weight;
+        }
+        out.write("<cols>");
+        for (int i = 0; i < columns.length; i++) {
+            // Spread roughly 120 characters of width across the columns
+            float width = Math.max(8f, Math.round(120f * weights[i] / totalWeight));
+            out.write("<col min=\"" + (i + 1) + "\" max=\"" + (i + 1) + "\" width=\"" + width
+                    + "\" customWidth=\"1\"/>");
+        }
+        out.write("</cols>");
+    }
+
+    private void writeCells(String[] cells, boolean header) throws IOException {
+        rowIndex++;
+        out.write("<row r=\"");
+        out.write(Integer.toString(rowIndex));
+        out.write("\">");
+        for (String value : cells) {
+            if (value == null || value.isEmpty()) {
+                out.write("<c/>");
+            } else if (!header && isNumber(value)) {
+                out.write("<c><v>");
+                out.write(value);
+                out.write("</v></c>");
+            } else {
+                Integer index = sharedStringIndex(value);
+                String style = header ? " s=\"1\"" : "";
+                if (index != null) {
+                    out.write("<c t=\"s\"" + style + "><v>");
+                    out.write(Integer.toString(index));
+                    out.write("</v></c>");
+                } else {
+                    out.write("<c t=\"inlineStr\"" + style + "><is><t xml:space=\"preserve\">");
+                    writeEscaped(value);
+                    out.write("</t></is></c>");
+                }
+            }
+        }
+        out.write("</row>");
+    }
+
+    /**
+     * Checks for a plain number without leading zeros, so phone numbers and IDs stay text
+     */
+    private static boolean isNumber(String value) {
+        int i = value.charAt(0) == '-' ? 1 : 0;
+        int length = value.length();
+        if (i >= length || length > 18) {
+            return false;
+        }
+        if (value.charAt(i) == '0' && i + 1 < length && value.charAt(i + 1) != '.') {
+            return false;
+        }
+        boolean seenDot = false;
+        boolean digitAfterDot = false;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (seenDot) return false;
+                seenDot = true;
+            } else if (c >= '0' && c <= '9') {
+                digitAfterDot = seenDot;
+            } else {
+                return false;
+            }
+        }
+        return !seenDot || digitAfterDot;
+    }
+
+    /**
+     * Returns the shared-string index for a value, or null if it should be written inline
+     */
+    private Integer sharedStringIndex(String value) {
+        if (value.length() > MAX_SHARED_STRING_LENGTH) {
+            return null;
+        }
+        Integer index = sharedStrings.get(value);
+        if (index == null) {
+            if (sharedStrings.size() >= MAX_SHARED_STRINGS) {
+                return null;
+            }
+            index = sharedStrings.size();
+            sharedStrings.put(value, index);
+        }
+        sharedStringReferences++;
+        return index;
+    }
+
+    private void writeSharedStrings() throws IOException {
+        zip.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+        out.write("<sst xmlns=\"" + SPREADSHEET_NS + "\" count=\"" + sharedStringReferences
+                + "\" uniqueCount=\"" + sharedStrings.size() + "\">");
+        for (String value : sharedStrings.keySet()) {
+            out.write("<si><t xml:space=\"preserve\">");
+            writeEscaped(value);
+            out.write("</t></si>");
+        }
+        out.write("</sst>");
+        out.flush();
+        zip.closeEntry();
+    }
+
+    private void writeWorkbook() throws IOException {
+        StringBuilder workbook = new StringBuilder();
+        workbook.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n")
+                .append("<workbook xmlns=\"").append(SPREADSHEET_NS)
+                .append("\" xmlns:r=\"").append(RELATIONSHIP_NS).append("\"><sheets>");
+        StringBuilder rels = new StringBuilder();
+        rels.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n")
+                .append("<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            workbook.append("<sheet name=\"").append(escape(sheetNames.get(i - 1)))
+                    .append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i).append("\"/>");
+            rels.append("<Relationship Id=\"rId").append(i)
+                    .append("\" Type=\"").append(RELATIONSHIP_NS).append("/worksheet\" Target=\"worksheets/sheet")
+                    .append(i).append(".xml\"/>");
+        }
+        int next = sheetNames.size() + 1;
+        rels.append("<Relationship Id=\"rId").append(next)
+                .append("\" Type=\"").append(RELATIONSHIP_NS).append("/sharedStrings\" Target=\"sharedStrings.xml\"/>")
+                .append("<Relationship Id=\"rId").append(next + 1)
+                .append("\" Type=\"").append(RELATIONSHIP_NS).append("/styles\" Target=\"styles.xml\"/>")
+                .append("</Relationships>");
+        workbook.append("</sheets></workbook>");
+
+        writeEntry("xl/workbook.xml", workbook.toString());
+        writeEntry("xl/_rels/workbook.xml.rels", rels.toString());
+    }
+
+    private void writeContentTypes() throws IOException {
+        StringBuilder types = new StringBuilder();
+        types.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n")
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                .append("<Override PartName=\"/xl/sharedStrings.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml\"/>")
+                .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            types.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        types.append("</Types>");
+        writeEntry("[Content_Types].xml", types.toString());
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        out.write(content);
+        out.flush();
+        zip.closeEntry();
+    }
+
+    /**
+     * Makes a valid, unique sheet name (max 31 chars, no []:*?/\)
+     */
+    private String uniqueSheetName(String name) {
+        String base = name.replaceAll("[\\[\\]:*?/\\\\]", " ").replaceAll("\\s+", " ").trim();
+        if (base.isEmpty()) {
+            base = "Sheet";
+        }
+        if (base.length() > MAX_SHEET_NAME_LENGTH) {
+            base = base.substring(0, MAX_SHEET_NAME_LENGTH);
+        }
+        String candidate = base;
+        for (int n = 2; !usedSheetNames.add(candidate.toLowerCase()); n++) {
+            String suffix = " " + n;
+            candidate = base.substring(0, Math.min(base.length(), MAX_SHEET_NAME_LENGTH - suffix.length())) + suffix;
+        }
+        return candidate;
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&': out.write("&amp;"); break;
+                case '<': out.write("&lt;"); break;
+                case '>': out.write("&gt;"); break;
+                case '"': out.write("&quot;"); break;
+                default:
+                    // Control characters other than tab/newline are not allowed in XML
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        out.write(c);
+                    }
+            }
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static final String ROOT_RELS_XML =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+            + "<Relationship Id=\"rId1\" Type=\"" + RELATIONSHIP_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+            + "</Relationships>";
+
+    // Style 0 is the default, style 1 is bold (used for header rows)
+    private static final String STYLES_XML =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<styleSheet xmlns=\"" + SPREADSHEET_NS + "\">"
+            + "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>"
+            + "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+            + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+            + "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+            + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+            + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+            + "<cellXfs count=\"2\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+            + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/></cellXfs>"
+            + "</styleSheet>";
+}
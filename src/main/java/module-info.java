@@ -15,8 +15,16 @@ module com.stangelo.saintangelo {
     // Database and logging modules
     requires java.sql;
     requires java.logging;
+
+    // Metrics exported as JMX MBeans
+    requires java.management;
+
+    // Headless public display server
+    requires jdk.httpserver;
     
     // PDF generation
+    requires org.apache.pdfbox;
+    requires org.apache.pdfbox.io;
 
     // Export the main app package
     exports com.stangelo.saintangelo.app;
@@ -0,0 +1,4 @@
+@echo off
+rem Launches SaintAngelo from the production runtime image; see bin/saintangelo for the AppCDS archive
+set DIR=%~dp0
+"%DIR%java" -XX:SharedArchiveFile="%DIR%..\lib\saintangelo-cds.jsa" -XX:+AutoCreateSharedArchive --module-path "%DIR%..\app" -m com.stangelo.saintangelo/com.stangelo.saintangelo.app.MainApp %*